@@ -25,6 +25,7 @@ plugins {
 
   id("ca.coglinc.javacc") version "2.4.0"
   id("org.asciidoctor.jvm.convert") version "3.1.0"
+  id("me.champeau.gradle.jmh") version "0.5.2"
 }
 
 repositories {
@@ -127,6 +128,23 @@ tasks.test {
   classpath = files(sourceSets["test"].runtimeClasspath, goloClasses)
 }
 
+dependencies {
+  "jmh"(files(goloClasses))
+}
+
+jmh {
+  jmhVersion = "1.26"
+  resultFormat = "JSON"
+  resultsFile = file("$buildDir/reports/jmh/results-$version.json")
+  if (project.hasProperty("jmhInclude")) {
+    include = listOf(project.property("jmhInclude").toString())
+  }
+}
+
+tasks.named("jmh") {
+  dependsOn("goloc")
+}
+
 testlogger {
   theme = MOCHA
   slowThreshold = 5000
@@ -188,6 +206,36 @@ tasks.create<CreateStartScripts>("golodebugScripts") {
 
 startScripts.dependsOn("vanillaScripts", "goloshScripts", "golodebugScripts")
 
+// Make the launchers use the class data sharing archive created by `golo cds`, if any.
+// The diagnostic options must be unlocked for Java 8 to accept the archive option.
+val cdsUnixOpts = listOf(
+  "GOLO_CDS_ARCHIVE=\"\${GOLO_CDS_ARCHIVE:-\$APP_HOME/share/golo.jsa}\"",
+  "if [ -f \"\$GOLO_CDS_ARCHIVE\" ] ; then",
+  "    DEFAULT_JVM_OPTS=\"\$DEFAULT_JVM_OPTS \\\"-XX:+UnlockDiagnosticVMOptions\\\" \\\"-XX:SharedArchiveFile=\$GOLO_CDS_ARCHIVE\\\" \\\"-Xshare:auto\\\"\"",
+  "fi"
+)
+
+val cdsWindowsOpts = listOf(
+  "if \"%GOLO_CDS_ARCHIVE%\"==\"\" set GOLO_CDS_ARCHIVE=%APP_HOME%\\share\\golo.jsa",
+  "if exist \"%GOLO_CDS_ARCHIVE%\" set DEFAULT_JVM_OPTS=%DEFAULT_JVM_OPTS% \"-XX:+UnlockDiagnosticVMOptions\" \"-XX:SharedArchiveFile=%GOLO_CDS_ARCHIVE%\" \"-Xshare:auto\""
+)
+
+fun insertAfterJvmOpts(script: File, prefix: String, added: List<String>, separator: String) {
+  script.writeText(script.readText().lines().flatMap {
+    if (it.startsWith(prefix)) listOf(it) + added else listOf(it)
+  }.joinToString(separator))
+}
+
+listOf("startScripts", "vanillaScripts", "goloshScripts").forEach {
+  tasks.named<CreateStartScripts>(it) {
+    val scripts = this
+    doLast {
+      insertAfterJvmOpts(File(scripts.outputDir, scripts.applicationName), "DEFAULT_JVM_OPTS=", cdsUnixOpts, "\n")
+      insertAfterJvmOpts(File(scripts.outputDir, "${scripts.applicationName}.bat"), "set DEFAULT_JVM_OPTS=", cdsWindowsOpts, "\r\n")
+    }
+  }
+}
+
 tasks.javadoc {
   isFailOnError = false
 
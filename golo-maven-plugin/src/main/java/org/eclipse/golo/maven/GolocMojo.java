@@ -10,8 +10,12 @@
 
 package org.eclipse.golo.maven;
 
+import gololang.ir.GoloModule;
+import org.eclipse.golo.compiler.CodeGenerationResult;
+import org.eclipse.golo.compiler.GoloClassLoader;
 import org.eclipse.golo.compiler.GoloCompilationException;
 import org.eclipse.golo.compiler.GoloCompiler;
+import org.eclipse.golo.compiler.IncrementalCompilation;
 import org.eclipse.golo.compiler.parser.TokenMgrError;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -19,9 +23,13 @@ import org.apache.maven.plugin.MojoFailureException;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @goal goloc
@@ -40,6 +48,13 @@ public class GolocMojo extends AbstractMojo {
    */
   private String goloOutputDirectory;
 
+  /**
+   * Only compile the files changed since the previous build, and the modules depending on their macros.
+   *
+   * @parameter property="goloIncremental" default-value="true"
+   */
+  private boolean goloIncremental = true;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     Path root = Paths.get(goloSourceDirectory);
@@ -47,49 +62,89 @@ public class GolocMojo extends AbstractMojo {
       getLog().warn(root.toAbsolutePath() + " does not exist");
       return;
     }
+    File targetDirectory = Paths.get(goloOutputDirectory).toFile();
     try {
-      Files.walkFileTree(root, new GolocFileVisitor());
+      GolocFileVisitor visitor = new GolocFileVisitor();
+      Files.walkFileTree(root, visitor);
+      IncrementalCompilation state = IncrementalCompilation.load(targetDirectory, Collections.<String>emptyList());
+      List<File> sources = goloIncremental ? state.changed(visitor.sources) : visitor.sources;
+      getLog().info("Compiling " + sources.size() + " of " + visitor.sources.size() + " files to: " + goloOutputDirectory);
+      // the classes of the unchanged modules are loaded from the output directory to expand their macros
+      GoloClassLoader loader = new GoloClassLoader(
+          new URLClassLoader(new URL[]{targetDirectory.getAbsoluteFile().toURI().toURL()}, getClass().getClassLoader()));
+      GoloCompiler compiler = loader.getCompiler();
+      List<GoloModule> modules = new ArrayList<>();
+      for (File source : sources) {
+        modules.add(transform(compiler, source));
+      }
+      if (goloIncremental) {
+        for (File source : state.dependents(modules)) {
+          modules.add(transform(compiler, source));
+        }
+      }
+      // macros must be compiled before the modules using them
+      modules.sort((m1, m2) -> Boolean.compare(m2.hasMacros(), m1.hasMacros()));
+      for (GoloModule module : modules) {
+        state.record(module, generate(loader, module, targetDirectory));
+      }
+      state.save();
     } catch (IOException e) {
       getLog().error(e);
       throw new MojoFailureException("I/O error", e);
     }
   }
 
-  private class GolocFileVisitor extends SimpleFileVisitor<Path> {
+  private GoloModule transform(GoloCompiler compiler, File file) throws IOException, MojoFailureException {
+    getLog().info("Compiling: " + file);
+    try {
+      return compiler.transform(compiler.parse(file));
+    } catch (GoloCompilationException e) {
+      throw failure(file, e);
+    } catch (TokenMgrError e) {
+      getLog().error(e.getMessage());
+      throw new MojoFailureException("Compilation error on " + file);
+    }
+  }
+
+  private List<CodeGenerationResult> generate(GoloClassLoader loader, GoloModule module, File targetDirectory)
+      throws IOException, MojoFailureException {
+    GoloCompiler compiler = loader.getCompiler();
+    List<CodeGenerationResult> results;
+    try {
+      results = compiler.generate(compiler.refine(compiler.expand(module)));
+    } catch (GoloCompilationException e) {
+      throw failure(module.sourceFile(), e);
+    }
+    for (CodeGenerationResult result : results) {
+      loader.load(result);
+      Path output = targetDirectory.toPath().resolve(result.getOutputFilename());
+      Files.createDirectories(output.getParent());
+      Files.write(output, result.getBytecode());
+    }
+    return results;
+  }
+
+  private MojoFailureException failure(Object file, GoloCompilationException e) {
+    if (e.getCause() != null) {
+      getLog().error(e.getCause().getMessage());
+    }
+    for (GoloCompilationException.Problem problem : e.getProblems()) {
+      getLog().error(problem.getDescription());
+    }
+    return new MojoFailureException("Compilation error on " + file);
+  }
+
+  private static class GolocFileVisitor extends SimpleFileVisitor<Path> {
 
     private final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**/*.golo");
-    private final GoloCompiler compiler = new GoloCompiler();
-    private final File targetDirectory = Paths.get(goloOutputDirectory).toFile();
+    private final List<File> sources = new ArrayList<>();
 
     @Override
     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
       if (matcher.matches(file)) {
-        try {
-          compile(file);
-        } catch (MojoFailureException e) {
-          throw new RuntimeException(e);
-        }
+        sources.add(file.toFile());
       }
       return FileVisitResult.CONTINUE;
     }
-
-    private void compile(Path file) throws IOException, MojoFailureException {
-      getLog().info("Compiling to: " + goloOutputDirectory);
-      getLog().info("Compiling: " + file);
-      try (InputStream in = Files.newInputStream(file)) {
-        compiler.compileTo(file.getFileName().toString(), in, targetDirectory);
-      } catch (GoloCompilationException e) {
-        if (e.getCause() != null) {
-          getLog().error(e.getCause().getMessage());
-        }
-        for (GoloCompilationException.Problem problem : e.getProblems()) {
-          getLog().error(problem.getDescription());
-        }
-        throw new MojoFailureException("Compilation error on " + file);
-      } catch (TokenMgrError e) {
-        getLog().error(e.getMessage());
-        throw new MojoFailureException("Compilation error on " + file);
-      }
-    }
   }
 }
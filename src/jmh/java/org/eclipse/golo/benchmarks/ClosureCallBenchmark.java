@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Closure and function calls, as dispatched by {@code ClosureCallSupport}, decorated functions, and Java interfaces
+ * implemented by Golo code through {@code AdapterSupport}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ClosureCallBenchmark {
+
+  private static final class Closures {
+    static final Class<?> MODULE = GoloModules.load("closures");
+    static final MethodHandle CALL = GoloModules.function(MODULE, "call", 2);
+    static final MethodHandle INVOKE = GoloModules.function(MODULE, "invoke", 2);
+    static final MethodHandle DECORATED = GoloModules.function(MODULE, "decorated", 1);
+    static final MethodHandle UNDECORATED = GoloModules.function(MODULE, "undecorated", 1);
+  }
+
+  private Object plainClosure;
+  private Object capturingClosure;
+  private Object functionReference;
+  private IntUnaryOperator adapter;
+  private IntUnaryOperator lambda;
+
+  private final Object argument = 41;
+
+  @Setup
+  public void setup() {
+    Class<?> module = Closures.MODULE;
+    plainClosure = GoloModules.call(module, "plainClosure");
+    capturingClosure = GoloModules.call(module, "capturingClosure", 1);
+    functionReference = GoloModules.call(module, "functionReference");
+    adapter = (IntUnaryOperator) GoloModules.call(module, "adapter");
+    lambda = (IntUnaryOperator) GoloModules.call(module, "lambda");
+  }
+
+  @Benchmark
+  public Object closure_without_capture() throws Throwable {
+    return (Object) Closures.CALL.invokeExact(plainClosure, argument);
+  }
+
+  @Benchmark
+  public Object closure_with_capture() throws Throwable {
+    return (Object) Closures.CALL.invokeExact(capturingClosure, argument);
+  }
+
+  @Benchmark
+  public Object function_reference() throws Throwable {
+    return (Object) Closures.CALL.invokeExact(functionReference, argument);
+  }
+
+  @Benchmark
+  public Object function_reference_invoke() throws Throwable {
+    return (Object) Closures.INVOKE.invokeExact(plainClosure, argument);
+  }
+
+  @Benchmark
+  public Object decorated_function() throws Throwable {
+    return (Object) Closures.DECORATED.invokeExact(argument);
+  }
+
+  @Benchmark
+  public Object undecorated_function() throws Throwable {
+    return (Object) Closures.UNDECORATED.invokeExact(argument);
+  }
+
+  @Benchmark
+  public int adapter() {
+    return adapter.applyAsInt(41);
+  }
+
+  @Benchmark
+  public int interface_instance() {
+    return lambda.applyAsInt(41);
+  }
+}
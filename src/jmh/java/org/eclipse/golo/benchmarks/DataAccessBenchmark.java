@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structure and {@code DynamicObject} accesses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DataAccessBenchmark {
+
+  private static final class Data {
+    static final Class<?> MODULE = GoloModules.load("data");
+    static final MethodHandle STRUCT_GET = GoloModules.function(MODULE, "structGet", 1);
+    static final MethodHandle STRUCT_SET = GoloModules.function(MODULE, "structSet", 2);
+    static final MethodHandle DYNAMIC_GET = GoloModules.function(MODULE, "dynamicGet", 1);
+    static final MethodHandle DYNAMIC_SET = GoloModules.function(MODULE, "dynamicSet", 2);
+    static final MethodHandle DYNAMIC_METHOD = GoloModules.function(MODULE, "dynamicMethod", 2);
+  }
+
+  private Object point;
+  private Object dynamicObject;
+  private final Object value = 42;
+  private final Object name = "golo";
+
+  @Setup
+  public void setup() {
+    Class<?> module = Data.MODULE;
+    point = GoloModules.call(module, "newPoint", 1, 2);
+    dynamicObject = GoloModules.call(module, "newDynamicObject");
+  }
+
+  @Benchmark
+  public Object struct_get() throws Throwable {
+    return (Object) Data.STRUCT_GET.invokeExact(point);
+  }
+
+  @Benchmark
+  public Object struct_set() throws Throwable {
+    return (Object) Data.STRUCT_SET.invokeExact(point, value);
+  }
+
+  @Benchmark
+  public Object dynamic_object_get() throws Throwable {
+    return (Object) Data.DYNAMIC_GET.invokeExact(dynamicObject);
+  }
+
+  @Benchmark
+  public Object dynamic_object_set() throws Throwable {
+    return (Object) Data.DYNAMIC_SET.invokeExact(dynamicObject, name);
+  }
+
+  @Benchmark
+  public Object dynamic_object_method() throws Throwable {
+    return (Object) Data.DYNAMIC_METHOD.invokeExact(dynamicObject, name);
+  }
+}
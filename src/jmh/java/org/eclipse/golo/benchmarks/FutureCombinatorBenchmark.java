@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import gololang.concurrent.async.AssignedFuture;
+import gololang.concurrent.async.Future;
+import gololang.concurrent.async.Promise;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code all}, {@code any} and {@code reduce} combinators of {@code gololang.Async} over many futures.
+ * <p>
+ * The resolved benchmarks combine futures that are already set. The pending ones combine promises that are set
+ * afterwards, which measures the registration and the notification of the observers. The promises are created before
+ * each call, which is cheap compared to a call over all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FutureCombinatorBenchmark {
+
+  private static final class Combinators {
+    static final Class<?> MODULE = GoloModules.load("futures");
+    static final MethodHandle ALL = GoloModules.function(MODULE, "allOf", 1);
+    static final MethodHandle ANY = GoloModules.function(MODULE, "anyOf", 1);
+    static final MethodHandle REDUCE = GoloModules.function(MODULE, "sumOf", 1);
+  }
+
+  @Param("100000")
+  public int size;
+
+  private Object resolved;
+  private Object pending;
+  private List<Promise> promises;
+
+  @Setup
+  public void setup() {
+    List<Future> futures = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      futures.add(AssignedFuture.setFuture(1));
+    }
+    resolved = futures;
+  }
+
+  @Setup(Level.Invocation)
+  public void newPromises() {
+    promises = new ArrayList<>(size);
+    List<Future> futures = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Promise promise = new Promise();
+      promises.add(promise);
+      futures.add(promise.future());
+    }
+    pending = futures;
+  }
+
+  private Object resolve(Object combined) {
+    for (Promise promise : promises) {
+      promise.set(1);
+    }
+    return ((Future) combined).get();
+  }
+
+  @Benchmark
+  public Object all_resolved() throws Throwable {
+    return ((Future) (Object) Combinators.ALL.invokeExact(resolved)).get();
+  }
+
+  @Benchmark
+  public Object all_pending() throws Throwable {
+    return resolve((Object) Combinators.ALL.invokeExact(pending));
+  }
+
+  @Benchmark
+  public Object any_resolved() throws Throwable {
+    return ((Future) (Object) Combinators.ANY.invokeExact(resolved)).get();
+  }
+
+  @Benchmark
+  public Object any_pending() throws Throwable {
+    return resolve((Object) Combinators.ANY.invokeExact(pending));
+  }
+
+  @Benchmark
+  public Object reduce_resolved() throws Throwable {
+    return ((Future) (Object) Combinators.REDUCE.invokeExact(resolved)).get();
+  }
+
+  @Benchmark
+  public Object reduce_pending() throws Throwable {
+    return resolve((Object) Combinators.REDUCE.invokeExact(pending));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import org.eclipse.golo.compiler.GoloClassLoader;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Loads the Golo modules exercised by the benchmarks.
+ * <p>
+ * The modules are compiled from the {@code benchmarks/*.golo} resources, so that the benchmarks measure the call
+ * sites generated by the compiler and bootstrapped by the runtime.
+ * <p>
+ * The benchmarks keep the handles of the module functions in {@code static final} fields of a holder class, loaded in
+ * the forked JVM, so that the JIT compiler treats them as constants and inlines their targets.
+ */
+final class GoloModules {
+
+  private GoloModules() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  static Class<?> load(String name) {
+    String resource = "/benchmarks/" + name + ".golo";
+    InputStream source = GoloModules.class.getResourceAsStream(resource);
+    if (source == null) {
+      throw new IllegalArgumentException("No such benchmark module: " + resource);
+    }
+    try (Reader reader = new InputStreamReader(source, UTF_8)) {
+      return new GoloClassLoader(GoloModules.class.getClassLoader()).load(name + ".golo", reader);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  static MethodHandle function(Class<?> module, String name, int arity) {
+    try {
+      return MethodHandles.publicLookup().findStatic(module, name, genericMethodType(arity));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  static Object call(Class<?> module, String name, Object... args) {
+    try {
+      return function(module, name, args.length).invokeWithArguments(args);
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+}
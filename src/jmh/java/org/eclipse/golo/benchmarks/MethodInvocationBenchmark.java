@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Method invocations, as dispatched by {@code MethodInvocationSupport} and {@code FunctionCallSupport}.
+ * <p>
+ * The polymorphic and megamorphic benchmarks cycle through receivers of different classes on the same call site.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MethodInvocationBenchmark {
+
+  private static final class Invocations {
+    static final Class<?> MODULE = GoloModules.load("invocations");
+    static final MethodHandle MONOMORPHIC = GoloModules.function(MODULE, "monomorphic", 1);
+    static final MethodHandle POLYMORPHIC = GoloModules.function(MODULE, "polymorphic", 1);
+    static final MethodHandle MEGAMORPHIC = GoloModules.function(MODULE, "megamorphic", 1);
+    static final MethodHandle AUGMENTATION = GoloModules.function(MODULE, "augmented", 1);
+    static final MethodHandle JAVA_STATIC = GoloModules.function(MODULE, "javaStatic", 1);
+    static final MethodHandle POSITIONAL_ARGUMENTS = GoloModules.function(MODULE, "positionalArguments", 2);
+    static final MethodHandle NAMED_ARGUMENTS = GoloModules.function(MODULE, "namedArguments", 2);
+  }
+
+  private Object[] polymorphicReceivers;
+  private Object[] megamorphicReceivers;
+  private int index;
+
+  @Setup
+  public void setup() {
+    polymorphicReceivers = new Object[]{
+      new ArrayList<>(Arrays.asList(1, 2)),
+      new HashSet<>(Arrays.asList(1, 2, 3)),
+      new HashMap<>()
+    };
+    megamorphicReceivers = new Object[]{
+      new ArrayList<>(), new LinkedList<>(), new Vector<>(), new ArrayDeque<>(),
+      new HashSet<>(), new LinkedHashSet<>(), new TreeSet<>(),
+      new HashMap<>(), new LinkedHashMap<>(), new TreeMap<>(), new IdentityHashMap<>(), new WeakHashMap<>()
+    };
+  }
+
+  private Object next(Object[] receivers) {
+    index = (index + 1) % receivers.length;
+    return receivers[index];
+  }
+
+  @Benchmark
+  public Object monomorphic() throws Throwable {
+    return (Object) Invocations.MONOMORPHIC.invokeExact(polymorphicReceivers[0]);
+  }
+
+  @Benchmark
+  public Object polymorphic() throws Throwable {
+    return (Object) Invocations.POLYMORPHIC.invokeExact(next(polymorphicReceivers));
+  }
+
+  @Benchmark
+  public Object megamorphic() throws Throwable {
+    return (Object) Invocations.MEGAMORPHIC.invokeExact(next(megamorphicReceivers));
+  }
+
+  @Benchmark
+  public Object augmentation() throws Throwable {
+    return (Object) Invocations.AUGMENTATION.invokeExact((Object) "golo");
+  }
+
+  @Benchmark
+  public Object java_static_method() throws Throwable {
+    return (Object) Invocations.JAVA_STATIC.invokeExact((Object) (-42));
+  }
+
+  @Benchmark
+  public Object positional_arguments() throws Throwable {
+    return (Object) Invocations.POSITIONAL_ARGUMENTS.invokeExact((Object) 1, (Object) 2);
+  }
+
+  @Benchmark
+  public Object named_arguments() throws Throwable {
+    return (Object) Invocations.NAMED_ARGUMENTS.invokeExact((Object) 1, (Object) 2);
+  }
+}
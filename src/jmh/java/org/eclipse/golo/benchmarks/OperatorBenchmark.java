@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Numeric and string operators, as dispatched by {@code OperatorSupport}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OperatorBenchmark {
+
+  private static final class Operators {
+    static final Class<?> MODULE = GoloModules.load("operators");
+    static final MethodHandle INT_PLUS = GoloModules.function(MODULE, "intPlus", 2);
+    static final MethodHandle LONG_TIMES = GoloModules.function(MODULE, "longTimes", 2);
+    static final MethodHandle DOUBLE_PLUS = GoloModules.function(MODULE, "doublePlus", 2);
+    static final MethodHandle MIXED_PLUS = GoloModules.function(MODULE, "mixedPlus", 2);
+    static final MethodHandle INT_LESS_THAN = GoloModules.function(MODULE, "intLessThan", 2);
+    static final MethodHandle EQUALITY = GoloModules.function(MODULE, "equality", 2);
+    static final MethodHandle CONCATENATION = GoloModules.function(MODULE, "concatenation", 2);
+  }
+
+  private final Object anInt = 21;
+  private final Object anotherInt = 2;
+  private final Object aLong = 21L;
+  private final Object anotherLong = 2L;
+  private final Object aDouble = 21.5;
+  private final Object anotherDouble = 0.5;
+  private final Object aString = "Golo";
+  private final Object anotherString = "Lang";
+
+  @Benchmark
+  public Object int_plus() throws Throwable {
+    return (Object) Operators.INT_PLUS.invokeExact(anInt, anotherInt);
+  }
+
+  @Benchmark
+  public Object long_times() throws Throwable {
+    return (Object) Operators.LONG_TIMES.invokeExact(aLong, anotherLong);
+  }
+
+  @Benchmark
+  public Object double_plus() throws Throwable {
+    return (Object) Operators.DOUBLE_PLUS.invokeExact(aDouble, anotherDouble);
+  }
+
+  @Benchmark
+  public Object mixed_plus() throws Throwable {
+    return (Object) Operators.MIXED_PLUS.invokeExact(anInt, aDouble);
+  }
+
+  @Benchmark
+  public Object int_less_than() throws Throwable {
+    return (Object) Operators.INT_LESS_THAN.invokeExact(anInt, anotherInt);
+  }
+
+  @Benchmark
+  public Object equality() throws Throwable {
+    return (Object) Operators.EQUALITY.invokeExact(aString, anotherString);
+  }
+
+  @Benchmark
+  public Object string_concatenation() throws Throwable {
+    return (Object) Operators.CONCATENATION.invokeExact(aString, anotherString);
+  }
+}
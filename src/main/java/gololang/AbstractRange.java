@@ -35,6 +35,23 @@ abstract class AbstractRange<T extends Comparable<T>> extends AbstractCollection
 
   }
 
+  /**
+   * Number of values in a range of integral values.
+   * <p>
+   * The last value can be before the upper bound when the increment does not divide the distance between the bounds.
+   */
+  static long length(long from, long to, int increment) {
+    long distance = to - from;
+    if (distance == 0 || (distance > 0) != (increment > 0)) {
+      return 0;
+    }
+    return (distance + increment - Integer.signum(increment)) / increment;
+  }
+
+  static int clampedSize(long length) {
+    return (int) Math.min(length, Integer.MAX_VALUE);
+  }
+
   AbstractRange(T from, T to) {
     this.from = requireNonNull(from);
     this.to = requireNonNull(to);
@@ -12,6 +12,9 @@ package gololang;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Defines a range object on Character.
@@ -36,19 +39,13 @@ final class CharRange extends AbstractRange<Character> {
     return new CharRange(to(), from()).decrementBy(increment());
   }
 
+  private long length() {
+    return length(from(), to(), increment());
+  }
+
   @Override
   public int size() {
-    if (to().equals(from())) {
-      return 0;
-    }
-    final int s = ((int) to() - (int) from()) / increment();
-    if (s < 0) {
-      return 0;
-    }
-    if (s == 0) {
-      return 1;
-    }
-    return s;
+    return clampedSize(length());
   }
 
   @Override
@@ -73,29 +70,43 @@ final class CharRange extends AbstractRange<Character> {
   public Iterator<Character> iterator() {
     return new AbstractRange.RangeIterator<Character>() {
 
-      private boolean started = false;
       private char current = from();
-      private final char to = to();
+      private final int increment = increment();
+      private long remaining = length();
 
       @Override
       public boolean hasNext() {
-        return Character.compare(to, current) * cmp() > 0;
+        return remaining > 0;
       }
 
       @Override
       public Character next() {
-        final Character value = current;
-        if (started && !hasNext()) {
+        if (remaining <= 0) {
           throw new NoSuchElementException("iteration has finished");
-        } else {
-          started = true;
         }
-        current += increment();
+        final char value = current;
+        current += increment;
+        remaining--;
         return value;
       }
     };
   }
 
+  /**
+   * Returns a splittable, sized spliterator over the values of this range.
+   */
+  @Override
+  public Spliterator<Character> spliterator() {
+    return intStream().mapToObj(c -> (char) c).spliterator();
+  }
+
+  /**
+   * Returns a stream of the character values of this range, as {@code int}s.
+   */
+  public IntStream intStream() {
+    return StreamSupport.intStream(new IntRange.Split(from(), increment(), 0, length()), false);
+  }
+
   /**
    * {@inheritDoc}
    */
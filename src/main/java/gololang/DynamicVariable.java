@@ -10,29 +10,169 @@
 
 package gololang;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Locale;
+
+import static java.lang.invoke.MethodType.methodType;
+
 /**
  * A dynamic variable has the semantics of an inheritable thread-local reference.
  * This class is modeled after the eponymous class from the Scala standard library.
+ * <p>
+ * How the values are stored depends on the variable {@link Strategy}. The strategy used by the constructor without
+ * strategy can be changed at runtime with {@link #defaultStrategy(Strategy)}, or with the
+ * {@code golo.dynamicvariable.strategy} system property (or the {@code GOLO_DYNAMIC_VARIABLE_STRATEGY} environment
+ * variable) whose value is the name of a strategy, case insensitive. An unknown name is reported as a warning, and
+ * {@link Strategy#INHERITABLE} is used instead.
  *
  * @see java.lang.InheritableThreadLocal
  */
 public final class DynamicVariable {
 
-  private final InheritableThreadLocal<Object> threadLocal;
+  /**
+   * The ways to store the values of a dynamic variable.
+   */
+  public enum Strategy {
+
+    /**
+     * Values are stored in an {@code InheritableThreadLocal}, and are copied into the child threads when they are
+     * created.
+     * <p>
+     * This is the historical behavior, and the initial default strategy.
+     */
+    INHERITABLE,
+
+    /**
+     * Values are stored in a non-inheriting thread-local cell, so that child threads start with the initial value.
+     * <p>
+     * {@link DynamicVariable#withValue(Object, FunctionReference)} looks the cell up once and restores the previous
+     * value in place, which makes it cheaper than a thread-local set and restore. This suits pooled threads, that
+     * don't pay any copy when created.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * Values are bound with a {@code java.lang.ScopedValue}.
+     * <p>
+     * A value is only visible for the course of a {@link DynamicVariable#withValue(Object, FunctionReference)} call,
+     * and can't be changed otherwise. Bindings are not copied into threads, which suits virtual threads.
+     * This strategy requires a JVM supporting scoped values.
+     *
+     * @see #isSupported()
+     */
+    SCOPED,
+
+    /**
+     * The fastest non-inheriting strategy supported by the running JVM, that is {@link #SCOPED} if scoped values are
+     * supported, and {@link #THREAD_LOCAL} otherwise.
+     */
+    FAST;
+
+    /**
+     * Checks whether this strategy can be used on the running JVM.
+     */
+    public boolean isSupported() {
+      return this != SCOPED || Scoped.SUPPORTED;
+    }
+
+    private Strategy resolve() {
+      if (this == FAST) {
+        return Scoped.SUPPORTED ? SCOPED : THREAD_LOCAL;
+      }
+      if (!isSupported()) {
+        throw new UnsupportedOperationException("Scoped values are not supported by this JVM");
+      }
+      return this;
+    }
+  }
+
+  private static volatile Strategy defaultStrategy = loadDefaultStrategy();
+
+  private static Strategy loadDefaultStrategy() {
+    String name = System.getProperty("golo.dynamicvariable.strategy");
+    if (name == null) {
+      name = System.getenv("GOLO_DYNAMIC_VARIABLE_STRATEGY");
+    }
+    if (name == null) {
+      return Strategy.INHERITABLE;
+    }
+    return parseStrategy(name);
+  }
+
+  static Strategy parseStrategy(String name) {
+    Strategy strategy;
+    try {
+      strategy = Strategy.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    } catch (IllegalArgumentException e) {
+      Messages.warning(Messages.message("unknown_dynamic_variable_strategy", name));
+      return Strategy.INHERITABLE;
+    }
+    return strategy.isSupported() ? strategy : Strategy.FAST;
+  }
 
   /**
-   * Creates a new dynamic variable with an initial value.
+   * Returns the strategy used by dynamic variables created without an explicit one.
+   */
+  public static Strategy defaultStrategy() {
+    return defaultStrategy;
+  }
+
+  /**
+   * Changes the strategy used by dynamic variables created without an explicit one.
+   * <p>
+   * Existing variables keep their strategy.
+   *
+   * @param strategy the new default strategy.
+   * @throws UnsupportedOperationException if the strategy is not supported by the running JVM.
+   */
+  public static void defaultStrategy(Strategy strategy) {
+    if (!strategy.isSupported()) {
+      throw new UnsupportedOperationException("Scoped values are not supported by this JVM");
+    }
+    defaultStrategy = strategy;
+  }
+
+  private final Storage storage;
+
+  /**
+   * Creates a new dynamic variable with an initial value, using the default strategy.
    *
    * @param init the initial value.
+   * @see #defaultStrategy()
    */
   public DynamicVariable(final Object init) {
+    this(init, defaultStrategy);
+  }
+
+  /**
+   * Creates a new dynamic variable with an initial value.
+   *
+   * @param init the initial value.
+   * @param strategy how the values are stored.
+   * @throws UnsupportedOperationException if the strategy is not supported by the running JVM.
+   */
+  public DynamicVariable(final Object init, Strategy strategy) {
     super();
-    threadLocal = new InheritableThreadLocal<Object>() {
-      @Override
-      protected Object initialValue() {
-        return init;
-      }
-    };
+    switch (strategy.resolve()) {
+      case THREAD_LOCAL:
+        storage = new Cell(init);
+        break;
+      case SCOPED:
+        storage = new Scoped(init);
+        break;
+      default:
+        storage = new Inheritable(init);
+    }
+  }
+
+  /**
+   * Returns the strategy of this dynamic variable.
+   * <p>
+   * This is never {@link Strategy#FAST}, which is resolved when the variable is created.
+   */
+  public Strategy strategy() {
+    return storage.strategy();
   }
 
   /**
@@ -41,18 +181,20 @@ public final class DynamicVariable {
    * @return the value.
    */
   public Object value() {
-    return threadLocal.get();
+    return storage.get();
   }
 
   /**
    * Changes the dynamic variable value. The new value is only visible from the calling thread, and will be seen by
-   * future child threads.
+   * future child threads if the variable is inheritable.
    *
    * @param value the new thread-local value.
    * @return this dynamic variable.
+   * @throws UnsupportedOperationException if the variable uses scoped values, that can only be bound by
+   * {@link #withValue(Object, FunctionReference)}.
    */
   public DynamicVariable value(Object value) {
-    threadLocal.set(value);
+    storage.set(value);
     return this;
   }
 
@@ -69,17 +211,192 @@ public final class DynamicVariable {
     if (!func.acceptArity(0)) {
       throw new IllegalArgumentException("withValue requires a function with no parameters");
     }
-    Object oldValue = value();
-    this.value(value);
-    try {
-      return func.invoke();
-    } finally {
-      this.value(oldValue);
-    }
+    return storage.call(value, func.handle());
   }
 
   @Override
   public String toString() {
     return String.format("DynamicVariable{value=%s}", value());
   }
+
+  private abstract static class Storage {
+    abstract Strategy strategy();
+
+    abstract Object get();
+
+    abstract void set(Object value);
+
+    abstract Object call(Object value, MethodHandle func) throws Throwable;
+  }
+
+  private static final class Inheritable extends Storage {
+    private final InheritableThreadLocal<Object> threadLocal;
+
+    Inheritable(Object init) {
+      threadLocal = new InheritableThreadLocal<Object>() {
+        @Override
+        protected Object initialValue() {
+          return init;
+        }
+      };
+    }
+
+    @Override
+    Strategy strategy() {
+      return Strategy.INHERITABLE;
+    }
+
+    @Override
+    Object get() {
+      return threadLocal.get();
+    }
+
+    @Override
+    void set(Object value) {
+      threadLocal.set(value);
+    }
+
+    @Override
+    Object call(Object value, MethodHandle func) throws Throwable {
+      Object oldValue = threadLocal.get();
+      threadLocal.set(value);
+      try {
+        return (Object) func.invoke();
+      } finally {
+        threadLocal.set(oldValue);
+      }
+    }
+  }
+
+  private static final class Cell extends Storage {
+    private final ThreadLocal<Object[]> cell;
+
+    Cell(Object init) {
+      cell = ThreadLocal.withInitial(() -> new Object[]{init});
+    }
+
+    @Override
+    Strategy strategy() {
+      return Strategy.THREAD_LOCAL;
+    }
+
+    @Override
+    Object get() {
+      return cell.get()[0];
+    }
+
+    @Override
+    void set(Object value) {
+      cell.get()[0] = value;
+    }
+
+    @Override
+    Object call(Object value, MethodHandle func) throws Throwable {
+      Object[] current = cell.get();
+      Object oldValue = current[0];
+      current[0] = value;
+      try {
+        return (Object) func.invoke();
+      } finally {
+        current[0] = oldValue;
+      }
+    }
+  }
+
+  private static final class Scoped extends Storage {
+
+    private static final MethodHandle NEW_INSTANCE;
+    private static final MethodHandle WHERE;
+    private static final MethodHandle RUN;
+    private static final MethodHandle IS_BOUND;
+    private static final MethodHandle GET;
+    private static final boolean SUPPORTED;
+
+    static {
+      MethodHandle newInstance = null;
+      MethodHandle where = null;
+      MethodHandle run = null;
+      MethodHandle isBound = null;
+      MethodHandle get = null;
+      boolean supported = false;
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> scopedValue = Class.forName("java.lang.ScopedValue");
+        Class<?> carrier = Class.forName("java.lang.ScopedValue$Carrier");
+        newInstance = lookup.findStatic(scopedValue, "newInstance", methodType(scopedValue))
+          .asType(methodType(Object.class));
+        where = lookup.findStatic(scopedValue, "where", methodType(carrier, scopedValue, Object.class))
+          .asType(methodType(Object.class, Object.class, Object.class));
+        run = lookup.findVirtual(carrier, "run", methodType(void.class, Runnable.class))
+          .asType(methodType(void.class, Object.class, Runnable.class));
+        isBound = lookup.findVirtual(scopedValue, "isBound", methodType(boolean.class))
+          .asType(methodType(boolean.class, Object.class));
+        get = lookup.findVirtual(scopedValue, "get", methodType(Object.class))
+          .asType(methodType(Object.class, Object.class));
+        // Scoped values may be a preview API, that can't be used without --enable-preview
+        Object probe = (Object) newInstance.invokeExact();
+        run.invokeExact((Object) where.invokeExact(probe, (Object) Boolean.TRUE), (Runnable) () -> { });
+        supported = true;
+      } catch (Throwable t) {
+        // not supported by this JVM
+      }
+      NEW_INSTANCE = newInstance;
+      WHERE = where;
+      RUN = run;
+      IS_BOUND = isBound;
+      GET = get;
+      SUPPORTED = supported;
+    }
+
+    private final Object scopedValue;
+    private final Object init;
+
+    Scoped(Object init) {
+      this.init = init;
+      try {
+        this.scopedValue = (Object) NEW_INSTANCE.invokeExact();
+      } catch (Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }
+
+    @Override
+    Strategy strategy() {
+      return Strategy.SCOPED;
+    }
+
+    @Override
+    Object get() {
+      try {
+        if ((boolean) IS_BOUND.invokeExact(scopedValue)) {
+          return (Object) GET.invokeExact(scopedValue);
+        }
+        return init;
+      } catch (Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }
+
+    @Override
+    void set(Object value) {
+      throw new UnsupportedOperationException("A scoped dynamic variable can only be bound with withValue");
+    }
+
+    @Override
+    Object call(Object value, MethodHandle func) throws Throwable {
+      Object[] outcome = new Object[1];
+      Throwable[] failure = new Throwable[1];
+      RUN.invokeExact((Object) WHERE.invokeExact(scopedValue, value), (Runnable) () -> {
+        try {
+          outcome[0] = (Object) func.invoke();
+        } catch (Throwable t) {
+          failure[0] = t;
+        }
+      });
+      if (failure[0] != null) {
+        throw failure[0];
+      }
+      return outcome[0];
+    }
+  }
 }
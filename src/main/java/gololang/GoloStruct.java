@@ -187,7 +187,7 @@ public abstract class GoloStruct implements Iterable<Tuple>, Comparable<GoloStru
 
       @Override
       public Tuple next() {
-        return new Tuple(memberIterator.next(), valuesIterator.next());
+        return Tuple.pair(memberIterator.next(), valuesIterator.next());
       }
 
       @Override
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A hash map with {@code int} keys.
+ * <p>
+ * The keys are stored unboxed in an open addressing table with linear probing, so that looking up or adding an
+ * entry doesn't allocate. Iterating over the map gives {@code [key, value]} tuples, so that it can be destructured
+ * in a {@code foreach} loop:
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let m = intMap([1, "a"], [2, "b"])
+ * foreach key, value in m {
+ *   println(key + " -> " + value)
+ * }
+ * </code></pre>
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class IntMap implements Iterable<Tuple> {
+
+  private static final int MIN_CAPACITY = 8;
+
+  private int[] keys;
+  private Object[] values;
+  private boolean[] used;
+  private int mask;
+  private int size;
+
+  /**
+   * Creates an empty map.
+   */
+  public IntMap() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates an empty map able to hold the given number of entries without being resized.
+   *
+   * @param expectedSize the expected number of entries.
+   */
+  public IntMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Negative size: " + expectedSize);
+    }
+    int capacity = MIN_CAPACITY;
+    while (capacity * 3 < expectedSize * 4) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   * Creates a map from key / value pairs.
+   *
+   * @param entries 2-tuples containing the key and the value.
+   * @return a new map.
+   */
+  public static IntMap of(Tuple... entries) {
+    IntMap map = new IntMap(entries.length);
+    for (Tuple t : entries) {
+      map.put(((Number) t.get(0)).intValue(), t.get(1));
+    }
+    return map;
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new Object[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int slot(int key, int mask) {
+    int h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private int find(int key) {
+    int i = slot(key, mask);
+    while (used[i]) {
+      if (keys[i] == key) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+    return -(i + 1);
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    Object[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(keys.length << 1);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int j = -(find(oldKeys[i]) + 1);
+        used[j] = true;
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the map is empty.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns whether the map has an entry for the given key.
+   */
+  public boolean containsKey(int key) {
+    return find(key) >= 0;
+  }
+
+  /**
+   * Returns the value associated with the given key, or {@code null} if there is none.
+   */
+  public Object get(int key) {
+    int i = find(key);
+    return i >= 0 ? values[i] : null;
+  }
+
+  /**
+   * Returns the value associated with the given key, or a default value if there is none.
+   */
+  public Object getOrElse(int key, Object defaultValue) {
+    int i = find(key);
+    return i >= 0 ? values[i] : defaultValue;
+  }
+
+  /**
+   * Associates a value to a key.
+   *
+   * @return the previous value, or {@code null} if there was none.
+   */
+  public Object put(int key, Object value) {
+    int i = find(key);
+    if (i >= 0) {
+      Object previous = values[i];
+      values[i] = value;
+      return previous;
+    }
+    if ((size + 1) * 4 > keys.length * 3) {
+      resize();
+      i = find(key);
+    }
+    i = -(i + 1);
+    used[i] = true;
+    keys[i] = key;
+    values[i] = value;
+    size++;
+    return null;
+  }
+
+  /**
+   * Same as {@code put}, but returns the map.
+   */
+  public IntMap add(int key, Object value) {
+    put(key, value);
+    return this;
+  }
+
+  /**
+   * Removes the entry for a key.
+   *
+   * @return the removed value, or {@code null} if there was none.
+   */
+  public Object remove(int key) {
+    int i = find(key);
+    if (i < 0) {
+      return null;
+    }
+    Object previous = values[i];
+    int gap = i;
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (!used[j]) {
+        break;
+      }
+      int home = slot(keys[j], mask);
+      boolean inPlace = gap < j ? (gap < home && home <= j) : (gap < home || home <= j);
+      if (!inPlace) {
+        keys[gap] = keys[j];
+        values[gap] = values[j];
+        gap = j;
+      }
+    }
+    used[gap] = false;
+    values[gap] = null;
+    size--;
+    return previous;
+  }
+
+  /**
+   * Same as {@code remove}, but returns the map.
+   */
+  public IntMap delete(int key) {
+    remove(key);
+    return this;
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public void clear() {
+    allocate(MIN_CAPACITY);
+    size = 0;
+  }
+
+  /**
+   * Returns the keys, in no particular order.
+   */
+  public int[] keys() {
+    int[] result = new int[size];
+    int n = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result[n++] = keys[i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the values, in the same order as {@link #keys()}.
+   */
+  public List<Object> values() {
+    List<Object> result = new ArrayList<>(size);
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result.add(values[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Iterates over each entry.
+   *
+   * @param func a function taking the entry key and value.
+   * @return the map.
+   */
+  public IntMap each(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(methodType(void.class, int.class, Object.class));
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        handle.invokeExact(keys[i], values[i]);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Iterator<Tuple> iterator() {
+    return new Iterator<Tuple>() {
+      private int index = advance(0);
+
+      private int advance(int from) {
+        int i = from;
+        while (i < keys.length && !used[i]) {
+          i++;
+        }
+        return i;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return index < keys.length;
+      }
+
+      @Override
+      public Tuple next() {
+        if (index >= keys.length) {
+          throw new NoSuchElementException();
+        }
+        Tuple entry = Tuple.pair(keys[index], values[index]);
+        index = advance(index + 1);
+        return entry;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof IntMap)) {
+      return false;
+    }
+    IntMap that = (IntMap) other;
+    if (this.size != that.size) {
+      return false;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        int j = that.find(keys[i]);
+        if (j < 0 || !Objects.equals(values[i], that.values[j])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        hash += Integer.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+      }
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    boolean first = true;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        if (!first) {
+          builder.append(", ");
+        }
+        builder.append(keys[i]).append('=').append(values[i]);
+        first = false;
+      }
+    }
+    return builder.append('}').toString();
+  }
+}
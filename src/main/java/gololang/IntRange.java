@@ -10,9 +10,17 @@
 
 package gololang;
 
-import java.util.Iterator;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.invoke.MethodType.genericMethodType;
 
 final class IntRange extends AbstractRange<Integer> {
 
@@ -34,19 +42,13 @@ final class IntRange extends AbstractRange<Integer> {
     return new IntRange(to(), from()).decrementBy(increment());
   }
 
+  private long length() {
+    return length(from(), to(), increment());
+  }
+
   @Override
   public int size() {
-    if (Objects.equals(to(), from())) {
-      return 0;
-    }
-    final int theSize = (to() - from()) / increment();
-    if (theSize < 0) {
-      return 0;
-    }
-    if (theSize == 0) {
-      return 1;
-    }
-    return theSize;
+    return clampedSize(length());
   }
 
   @Override
@@ -67,35 +69,77 @@ final class IntRange extends AbstractRange<Integer> {
   }
 
   @Override
-  public Iterator<Integer> iterator() {
-    return new AbstractRange.RangeIterator<Integer>() {
+  public PrimitiveIterator.OfInt iterator() {
+    return new Iter(from(), increment(), length());
+  }
 
-      private boolean started = false;
-      private int current = from();
-      private final int to = to();
+  /**
+   * Returns a splittable, sized spliterator over the values of this range.
+   */
+  @Override
+  public Spliterator.OfInt spliterator() {
+    return new Split(from(), increment(), 0, length());
+  }
 
-      @Override
-      public boolean hasNext() {
-        return Integer.compare(to, current) * cmp() > 0;
-      }
+  /**
+   * Returns a primitive stream of the values of this range.
+   */
+  public IntStream intStream() {
+    return StreamSupport.intStream(spliterator(), false);
+  }
 
-      @Override
-      public Integer next() {
-        final int value = current;
-        if (started) {
-          if (hasNext()) {
-            current += increment();
-            return value;
-          } else {
-            throw new NoSuchElementException("iteration has finished");
-          }
-        } else {
-          started = true;
-          current += increment();
-          return value;
-        }
+  @Override
+  public Range<Integer> each(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(1));
+    final int increment = increment();
+    final long length = length();
+    int value = from();
+    for (long i = 0; i < length; i++, value += increment) {
+      Object unused = handle.invokeExact((Object) value);
+    }
+    return this;
+  }
+
+  @Override
+  public Object reduce(Object initialValue, FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(2));
+    final int increment = increment();
+    final long length = length();
+    Object acc = initialValue;
+    int value = from();
+    for (long i = 0; i < length; i++, value += increment) {
+      acc = handle.invokeExact(acc, (Object) value);
+    }
+    return acc;
+  }
+
+  @Override
+  public int count(FunctionReference pred) throws Throwable {
+    MethodHandle handle = pred.handle().asType(genericMethodType(1));
+    final int increment = increment();
+    final long length = length();
+    int result = 0;
+    int value = from();
+    for (long i = 0; i < length; i++, value += increment) {
+      Object matches = handle.invokeExact((Object) value);
+      if ((Boolean) matches) {
+        result++;
       }
-    };
+    }
+    return result;
+  }
+
+  @Override
+  public List<Object> map(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(1));
+    final int increment = increment();
+    final int size = size();
+    List<Object> result = new ArrayList<>(size);
+    int value = from();
+    for (int i = 0; i < size; i++, value += increment) {
+      result.add(handle.invokeExact((Object) value));
+    }
+    return result;
   }
 
   /**
@@ -105,4 +149,95 @@ final class IntRange extends AbstractRange<Integer> {
   public Range<Integer> newStartingFrom(Integer newStart) {
     return new IntRange(newStart, this.to()).incrementBy(this.increment());
   }
+
+  private static final class Iter extends AbstractRange.RangeIterator<Integer> implements PrimitiveIterator.OfInt {
+
+    private int current;
+    private final int increment;
+    private long remaining;
+
+    Iter(int from, int increment, long length) {
+      this.current = from;
+      this.increment = increment;
+      this.remaining = length;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if (remaining <= 0) {
+        throw new NoSuchElementException("iteration has finished");
+      }
+      final int value = current;
+      current += increment;
+      remaining--;
+      return value;
+    }
+  }
+
+  /**
+   * Values of the range are computed from their index, so that it can be split in halves.
+   */
+  static final class Split implements Spliterator.OfInt {
+
+    private final int from;
+    private final int increment;
+    private long index;
+    private final long fence;
+
+    Split(int from, int increment, long index, long fence) {
+      this.from = from;
+      this.increment = increment;
+      this.index = index;
+      this.fence = fence;
+    }
+
+    private int valueAt(long i) {
+      return (int) (from + i * increment);
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      if (index < fence) {
+        action.accept(valueAt(index));
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      int value = valueAt(index);
+      for (long i = index; i < fence; i++, value += increment) {
+        action.accept(value);
+      }
+      index = fence;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      long middle = (index + fence) >>> 1;
+      if (middle <= index) {
+        return null;
+      }
+      Split prefix = new Split(from, increment, index, middle);
+      index = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+    }
+  }
 }
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A growable list of {@code int} values.
+ * <p>
+ * The values are stored unboxed in a backing array, which is grown as needed. The list implements
+ * {@code List<Integer>}, and thus values are boxed when accessed through the generic list methods. The
+ * primitive specific methods ({@code getInt}, {@code addInt}, {@code sum}, {@code mapInt}, ...) don't box the values.
+ * <p>
+ * Such lists can be created with the {@code ivector[...]} literal notation.
+ */
+public final class IntVector extends AbstractList<Integer> implements RandomAccess {
+
+  private static final int[] NO_VALUES = new int[0];
+  private static final MethodHandle TO_INT;
+
+  static {
+    try {
+      TO_INT = MethodHandles.lookup().findStatic(IntVector.class, "toInt", methodType(int.class, Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private int[] values;
+  private int size;
+
+  /**
+   * Creates an empty list.
+   */
+  public IntVector() {
+    this.values = NO_VALUES;
+  }
+
+  /**
+   * Creates an empty list with the given initial capacity.
+   *
+   * @param capacity the initial capacity.
+   */
+  public IntVector(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Negative capacity: " + capacity);
+    }
+    this.values = capacity == 0 ? NO_VALUES : new int[capacity];
+  }
+
+  /**
+   * Creates a list from the given values.
+   *
+   * @param values the values, that are copied.
+   * @return a new list.
+   */
+  public static IntVector of(int... values) {
+    IntVector list = new IntVector();
+    list.values = values.clone();
+    list.size = values.length;
+    return list;
+  }
+
+  /**
+   * Creates a list from the numbers of an iterable.
+   *
+   * @param values the numbers, that are converted to {@code int}.
+   * @return a new list.
+   */
+  public static IntVector fromIterable(Iterable<?> values) {
+    IntVector list = new IntVector();
+    for (Object value : values) {
+      list.addInt(toInt(value));
+    }
+    return list;
+  }
+
+  private static int toInt(Object value) {
+    return ((Number) value).intValue();
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > values.length) {
+      values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1) + 8));
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(String.format("%d is out of bounds (size=%d)", index, size));
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the value at the given index.
+   */
+  public int getInt(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  /**
+   * Replaces the value at the given index.
+   *
+   * @return the previous value.
+   */
+  public int setInt(int index, int value) {
+    checkIndex(index);
+    int previous = values[index];
+    values[index] = value;
+    return previous;
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @return the list itself.
+   */
+  public IntVector addInt(int value) {
+    ensureCapacity(size + 1);
+    values[size++] = value;
+    modCount++;
+    return this;
+  }
+
+  /**
+   * Removes the value at the given index.
+   *
+   * @return the removed value.
+   */
+  public int removeIntAt(int index) {
+    checkIndex(index);
+    int previous = values[index];
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    size--;
+    modCount++;
+    return previous;
+  }
+
+  /**
+   * Returns the index of the first occurrence of a value, or {@code -1}.
+   */
+  public int indexOfInt(int value) {
+    for (int i = 0; i < size; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Integer get(int index) {
+    return getInt(index);
+  }
+
+  @Override
+  public Integer set(int index, Integer value) {
+    return setInt(index, value);
+  }
+
+  @Override
+  public boolean add(Integer value) {
+    addInt(value);
+    return true;
+  }
+
+  @Override
+  public void add(int index, Integer value) {
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException(String.format("%d is out of bounds (size=%d)", index, size));
+    }
+    ensureCapacity(size + 1);
+    System.arraycopy(values, index, values, index + 1, size - index);
+    values[index] = value;
+    size++;
+    modCount++;
+  }
+
+  @Override
+  public Integer remove(int index) {
+    return removeIntAt(index);
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public int indexOf(Object value) {
+    return value instanceof Integer ? indexOfInt((Integer) value) : -1;
+  }
+
+  @Override
+  public boolean contains(Object value) {
+    return indexOf(value) >= 0;
+  }
+
+  @Override
+  public void sort(Comparator<? super Integer> comparator) {
+    if (comparator == null) {
+      Arrays.sort(values, 0, size);
+      modCount++;
+    } else {
+      super.sort(comparator);
+    }
+  }
+
+  /**
+   * Returns a copy of the values as an array.
+   */
+  public int[] toIntArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+  /**
+   * Returns a sequential stream of the values.
+   */
+  public IntStream intStream() {
+    return Arrays.stream(values, 0, size);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public int nextInt() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+        return values[index++];
+      }
+    };
+  }
+
+  @Override
+  public Spliterator.OfInt spliterator() {
+    return Spliterators.spliterator(values, 0, size, Spliterator.ORDERED);
+  }
+
+  /**
+   * Returns the sum of the values.
+   */
+  public long sum() {
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the smallest value.
+   *
+   * @throws NoSuchElementException if the list is empty.
+   */
+  public int min() {
+    if (size == 0) {
+      throw new NoSuchElementException("empty list");
+    }
+    int min = values[0];
+    for (int i = 1; i < size; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return min;
+  }
+
+  /**
+   * Returns the greatest value.
+   *
+   * @throws NoSuchElementException if the list is empty.
+   */
+  public int max() {
+    if (size == 0) {
+      throw new NoSuchElementException("empty list");
+    }
+    int max = values[0];
+    for (int i = 1; i < size; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Returns the arithmetic mean of the values, or {@code NaN} if the list is empty.
+   */
+  public double average() {
+    return size == 0 ? Double.NaN : (double) sum() / size;
+  }
+
+  /**
+   * Maps the values using a function, and returns a new list.
+   * <p>
+   * The result is an {@code IntVector} as long as the function returns {@code Integer} values. Otherwise, the results
+   * are collected as is in a {@code java.util.ArrayList}, so that the function can return values of any type.
+   *
+   * @param func the transformation function.
+   * @return a new list.
+   */
+  public List<?> map(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(methodType(Object.class, int.class));
+    IntVector mapped = new IntVector(size);
+    for (int i = 0; i < size; i++) {
+      Object value = (Object) handle.invokeExact(values[i]);
+      if (!(value instanceof Integer)) {
+        List<Object> result = new ArrayList<>(size);
+        result.addAll(mapped);
+        result.add(value);
+        for (i = i + 1; i < size; i++) {
+          result.add((Object) handle.invokeExact(values[i]));
+        }
+        return result;
+      }
+      mapped.addInt((Integer) value);
+    }
+    return mapped;
+  }
+
+  /**
+   * Maps the values using a function, and returns a new {@code IntVector}.
+   * <p>
+   * The function must return a number, that is converted to {@code int}. The values are not boxed if the function
+   * handle takes and returns an {@code int}.
+   *
+   * @param func the transformation function.
+   * @return a new list.
+   */
+  public IntVector mapInt(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle();
+    if (handle.type().returnType() == int.class) {
+      handle = handle.asType(methodType(int.class, int.class));
+    } else {
+      handle = MethodHandles.filterReturnValue(handle.asType(methodType(Object.class, int.class)), TO_INT);
+    }
+    IntVector result = new IntVector(size);
+    for (int i = 0; i < size; i++) {
+      result.values[i] = (int) handle.invokeExact(values[i]);
+    }
+    result.size = size;
+    return result;
+  }
+
+  /**
+   * Filters the values using a predicate, and returns a new list.
+   *
+   * @param pred the predicate function, taking a value and returning a boolean.
+   * @return a new list.
+   */
+  public IntVector filter(FunctionReference pred) throws Throwable {
+    MethodHandle handle = pred.handle().asType(methodType(boolean.class, int.class));
+    IntVector result = new IntVector();
+    for (int i = 0; i < size; i++) {
+      if ((boolean) handle.invokeExact(values[i])) {
+        result.addInt(values[i]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (other instanceof IntVector) {
+      IntVector that = (IntVector) other;
+      if (this.size != that.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (this.values[i] != that.values[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < size; i++) {
+      hash = 31 * hash + Integer.hashCode(values[i]);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("ivector[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(values[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
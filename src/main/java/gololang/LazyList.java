@@ -10,11 +10,17 @@
 
 package gololang;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import static java.lang.invoke.MethodType.methodType;
 
 import org.eclipse.golo.runtime.InvalidDestructuringException;
 
@@ -29,13 +35,19 @@ import org.eclipse.golo.runtime.InvalidDestructuringException;
  * Since the tail closure will be called at most once, and we can't
  * guarantee when, or even if, it will be called, this closure must be
  * a pure, side-effect free, function.
+ * <p>
+ * The tail is evaluated at most once even when the list is shared between threads, and its value is safely
+ * published to concurrent readers.
+ * <p>
+ * The methods that traverse the list ({@code size}, {@code equals}, {@code get}, ...) are iterative, and thus can be
+ * used on long lists without exhausting the stack.
  */
 public class LazyList implements Collection<Object>, HeadTail<Object> {
 
   /**
    * Represents the empty list.
    */
-  public static final LazyList EMPTY = new LazyList(null, null) {
+  public static final LazyList EMPTY = new LazyList(null, (FunctionReference) null) {
     @Override
     public boolean equals(Object other) {
       return other == this;
@@ -43,7 +55,7 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
 
     @Override
     public int hashCode() {
-      return Objects.hash(null, null);
+      return 1;
     }
 
     @Override
@@ -67,9 +79,22 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
     }
   };
 
+  private static final MethodHandle NEXT_CHUNK;
+
+  static {
+    try {
+      NEXT_CHUNK = MethodHandles.lookup().findStatic(
+          LazyList.class,
+          "nextChunk",
+          methodType(LazyList.class, Iterator.class, int.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
   private final Object head;
   private final FunctionReference tail;
-  private LazyList memoTail = null;
+  private volatile LazyList memoTail;
 
   /**
    * Create a new list from the head and tail values.
@@ -85,11 +110,60 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
     return new LazyList(head, tail);
   }
 
+  /**
+   * Create a new list from the values of an iterator.
+   * <p>
+   * The iterator is consumed by chunks of {@code chunkSize} values: the first chunk is read when the list is created,
+   * and the next one when the tail of the last element of the current chunk is required. The tails of the elements
+   * inside a chunk are thus already evaluated, which amortizes the cost of the lazy evaluation, at the price of
+   * reading values ahead of their use.
+   * <p>
+   * With a chunk size of 1, the {@code next()} method of the iterator is only called when the tail is used.
+   *
+   * @param iterator the iterator providing the values.
+   * @param chunkSize the number of values to read at once.
+   * @return a new {@code LazyList}, or {@code EMPTY} if the iterator has no values.
+   */
+  public static LazyList fromIterator(Iterator<?> iterator, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be strictly positive");
+    }
+    return nextChunk(iterator, chunkSize);
+  }
+
+  private static LazyList nextChunk(Iterator<?> iterator, int chunkSize) {
+    if (!iterator.hasNext()) {
+      return EMPTY;
+    }
+    Object[] values = new Object[chunkSize];
+    int count = 0;
+    while (count < chunkSize && iterator.hasNext()) {
+      values[count] = iterator.next();
+      count++;
+    }
+    LazyList result = new LazyList(
+        values[count - 1],
+        new FunctionReference(MethodHandles.insertArguments(NEXT_CHUNK, 0, iterator, chunkSize)));
+    for (int i = count - 2; i >= 0; i--) {
+      result = new LazyList(values[i], result);
+    }
+    return result;
+  }
+
   private LazyList(Object head, FunctionReference tail) {
     this.head = head;
     this.tail = tail;
   }
 
+  /**
+   * Creates a list whose tail is already evaluated.
+   */
+  private LazyList(Object head, LazyList evaluatedTail) {
+    this.head = head;
+    this.tail = null;
+    this.memoTail = evaluatedTail;
+  }
+
   /**
    * Gets the first element of the list (its head).
    *
@@ -102,18 +176,34 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
   /**
    * Gets the rest of the list (its tail).
    *
-   * @return a {@code LazyList}, or {@code EMPTY} if the list is empty,
-   * contains only one value, or if the closure failed.
+   * <p>
+   * If the tail closure fails, the exception is propagated, and the closure will be called again the next time the
+   * tail is required.
+   *
+   * @return a {@code LazyList}, or {@code EMPTY} if the list is empty or contains only one value.
    */
   public LazyList tail() {
-    if (memoTail == null) {
-      try {
-        memoTail = (LazyList) (this.tail.invoke());
-      } catch (Throwable e) {
-        memoTail = EMPTY;
+    LazyList result = memoTail;
+    if (result == null) {
+      synchronized (this) {
+        result = memoTail;
+        if (result == null) {
+          result = evaluateTail();
+          memoTail = result;
+        }
       }
     }
-    return memoTail;
+    return result;
+  }
+
+  private LazyList evaluateTail() {
+    try {
+      return (LazyList) this.tail.handle().invoke();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
@@ -137,6 +227,19 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
     return new HeadTailIterator<>(this);
   }
 
+  /**
+   * Creates a spliterator over the list.
+   * <p>
+   * Contrary to the default {@code Collection} spliterator, the size of the list is not evaluated, so that this
+   * spliterator can be used on infinite lists.
+   *
+   * @return a spliterator.
+   */
+  @Override
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+  }
+
   /**
    * Convert the lazy list into a regular list.
    * <p>
@@ -165,7 +268,11 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
    */
   @Override
   public int size() {
-    return 1 + this.tail().size();
+    int size = 0;
+    for (LazyList current = this; !current.isEmpty(); current = current.tail()) {
+      size++;
+    }
+    return size;
   }
 
   /**
@@ -184,11 +291,16 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
     if (o == this) { return true; }
     if (o == null) { return false; }
     if (!(o instanceof LazyList)) { return false; }
+    LazyList current = this;
     LazyList other = (LazyList) o;
-    if (this.isEmpty() && other.isEmpty()) { return true; }
-    if (!this.head.equals(other.head)) { return false; }
-    if (this.tail.equals(other.tail)) { return true; }
-    return this.tail().equals(other.tail());
+    while (current != other) {
+      if (current.isEmpty() || other.isEmpty()) { return current.isEmpty() && other.isEmpty(); }
+      if (!Objects.equals(current.head, other.head)) { return false; }
+      if (current.tail != null && current.tail.equals(other.tail)) { return true; }
+      current = current.tail();
+      other = other.tail();
+    }
+    return true;
   }
 
   /**
@@ -202,7 +314,11 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(this.head, this.tail());
+    int hash = 1;
+    for (LazyList current = this; !current.isEmpty(); current = current.tail()) {
+      hash = 31 * hash + Objects.hashCode(current.head);
+    }
+    return hash;
   }
 
   /**
@@ -243,7 +359,7 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
    */
   @Deprecated
   public Tuple destruct() {
-    return new Tuple(head(), tail());
+    return Tuple.pair(head(), tail());
   }
 
   /**
@@ -255,9 +371,13 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
    * @return the element at the specified position in this list
    */
   public Object get(int index) {
-    if (index < 0 || this.isEmpty()) { throw new IndexOutOfBoundsException(); }
-    if (index == 0) { return this.head(); }
-    return this.tail().get(index - 1);
+    if (index < 0) { throw new IndexOutOfBoundsException(); }
+    LazyList current = this;
+    for (int i = 0; i < index && !current.isEmpty(); i++) {
+      current = current.tail();
+    }
+    if (current.isEmpty()) { throw new IndexOutOfBoundsException(); }
+    return current.head();
   }
 
   /**
@@ -320,7 +440,7 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
 
   @Override
   public String toString() {
-    return String.format("LazyList<head=%s, tail=%s>", head, tail);
+    return String.format("LazyList<head=%s, tail=%s>", head, tail == null ? "<evaluated>" : tail);
   }
 
 
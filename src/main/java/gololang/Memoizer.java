@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A thread-safe memoization decorator.
+ * <p>
+ * A memoizer is a function reference that decorates functions, so that the results of their calls are cached by
+ * arguments. It is typically obtained from the {@code gololang.Decorators} module:
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let memo = memoizer(10_000)
+ *
+ * &#64;memo
+ * function fib = |n| -> ...
+ * </code></pre>
+ * <p>
+ * The cache is shared by all the functions decorated by the same memoizer. It can be bounded, in which case the least
+ * recently used results are evicted, and its entries can expire after a given time. Large caches are split into
+ * segments, each one being a LRU map guarded by its own lock, so that concurrent calls seldom contend; the eviction
+ * order is then only approximately LRU. Concurrent calls with the
+ * same arguments compute the result only once: the other callers wait for it. Failures are not cached.
+ * <p>
+ * Keys for functions of arity 1 to 3 are built without allocating an arguments array.
+ */
+public final class Memoizer extends FunctionReference {
+
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_CAPACITY = 32;
+  private static final int MAX_DECORATIONS = 4096;
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private static final MethodHandle DECORATE;
+  private static final MethodHandle CALL_0;
+  private static final MethodHandle CALL_1;
+  private static final MethodHandle CALL_2;
+  private static final MethodHandle CALL_3;
+  private static final MethodHandle CALL_N;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      DECORATE = lookup.findVirtual(Cache.class, "decorate", methodType(Object.class, Object.class));
+      CALL_0 = lookup.findVirtual(Memoized.class, "call", methodType(Object.class));
+      CALL_1 = lookup.findVirtual(Memoized.class, "call", genericMethodType(1));
+      CALL_2 = lookup.findVirtual(Memoized.class, "call", genericMethodType(2));
+      CALL_3 = lookup.findVirtual(Memoized.class, "call", genericMethodType(3));
+      CALL_N = lookup.findVirtual(Memoized.class, "call", methodType(Object.class, Object[].class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private final Cache cache;
+
+  private Memoizer(Cache cache) {
+    super(DECORATE.bindTo(cache));
+    this.cache = cache;
+  }
+
+  /**
+   * Creates an unbounded memoizer.
+   *
+   * @return a new memoizer.
+   */
+  public static Memoizer unbounded() {
+    return new Memoizer(new Cache(0, 0L));
+  }
+
+  /**
+   * Creates a memoizer keeping at most a given number of results.
+   *
+   * @param maxSize the maximum number of cached results, or {@code 0} for no limit.
+   * @return a new memoizer.
+   */
+  public static Memoizer bounded(int maxSize) {
+    return bounded(maxSize, 0L, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a memoizer keeping at most a given number of results, for a given time.
+   *
+   * @param maxSize the maximum number of cached results, or {@code 0} for no limit.
+   * @param ttl the time to live of the cached results, or {@code 0} for no limit.
+   * @param unit the time unit of the {@code ttl} argument.
+   * @return a new memoizer.
+   */
+  public static Memoizer bounded(int maxSize, long ttl, TimeUnit unit) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("The maximum size can't be negative, got " + maxSize);
+    }
+    if (ttl < 0) {
+      throw new IllegalArgumentException("The time to live can't be negative, got " + ttl);
+    }
+    return new Memoizer(new Cache(maxSize, unit.toNanos(ttl)));
+  }
+
+  /**
+   * Decorates a function so that its results are cached.
+   *
+   * @param function the function to memoize.
+   * @return the memoized function.
+   */
+  public FunctionReference decorate(FunctionReference function) {
+    return (FunctionReference) cache.decorate(function);
+  }
+
+  /**
+   * @return the number of calls whose result was found in the cache.
+   */
+  public long hits() {
+    return cache.hits.sum();
+  }
+
+  /**
+   * @return the number of calls whose result had to be computed.
+   */
+  public long misses() {
+    return cache.misses.sum();
+  }
+
+  /**
+   * @return the number of results removed from the cache because of its bound or their time to live.
+   */
+  public long evictions() {
+    return cache.evictions.sum();
+  }
+
+  /**
+   * @return the number of cached results.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : cache.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Removes all the cached results.
+   */
+  public void clear() {
+    for (Segment segment : cache.segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Memoizer{size=%d, hits=%d, misses=%d, evictions=%d}", size(), hits(), misses(), evictions());
+  }
+
+  /**
+   * An LRU map, guarded by its own monitor.
+   */
+  private static final class Segment extends LinkedHashMap<Key, Entry> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient int capacity;
+    private final transient LongAdder evictions;
+
+    Segment(int capacity, LongAdder evictions) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+      if (capacity > 0 && size() > capacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The cache state shared by the functions decorated by a memoizer.
+   */
+  private static final class Cache {
+    final Segment[] segments;
+    final int mask;
+    final long ttl;
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+    final ConcurrentHashMap<MethodHandle, FunctionReference> decorations = new ConcurrentHashMap<>();
+
+    Cache(int maxSize, long ttl) {
+      int count = 1;
+      while (count < MAX_SEGMENTS && (maxSize == 0 || count * 2 * MIN_SEGMENT_CAPACITY <= maxSize)) {
+        count *= 2;
+      }
+      int capacity = maxSize == 0 ? 0 : (maxSize + count - 1) / count;
+      this.segments = new Segment[count];
+      for (int i = 0; i < count; i++) {
+        segments[i] = new Segment(capacity, evictions);
+      }
+      this.mask = count - 1;
+      this.ttl = ttl;
+    }
+
+    /**
+     * Decorates a function.
+     * <p>
+     * Golo invokes decorators each time a decorated function is called, so decorations are cached by target.
+     */
+    Object decorate(Object argument) {
+      FunctionReference function = (FunctionReference) argument;
+      MethodHandle target = function.handle();
+      FunctionReference decorated = decorations.get(target);
+      if (decorated == null) {
+        if (decorations.size() >= MAX_DECORATIONS) {
+          decorations.clear();
+        }
+        decorated = new Memoized(this, identify(target), target).reference();
+        decorations.put(target, decorated);
+      }
+      return decorated;
+    }
+
+    /**
+     * Identifies the function of a method handle, so that the same function gets the same results wherever it has
+     * been looked up from.
+     */
+    private static Object identify(MethodHandle target) {
+      try {
+        MethodHandleInfo info = MethodHandles.lookup().revealDirect(target);
+        return Arrays.asList(info.getDeclaringClass(), info.getName(), info.getMethodType());
+      } catch (IllegalArgumentException | SecurityException e) {
+        return target;
+      }
+    }
+
+    Object get(Key key, MethodHandle target) throws Throwable {
+      Segment segment = segments[spread(key.hashCode()) & mask];
+      Entry entry;
+      boolean owner = false;
+      synchronized (segment) {
+        entry = segment.get(key);
+        if (entry != null && entry.isExpired()) {
+          segment.remove(key);
+          evictions.increment();
+          entry = null;
+        }
+        if (entry == null) {
+          entry = new Entry();
+          segment.put(key, entry);
+          owner = true;
+        }
+      }
+      if (!owner) {
+        hits.increment();
+        return entry.await();
+      }
+      misses.increment();
+      try {
+        Object value = key.invoke(target);
+        entry.complete(value, ttl);
+        return value;
+      } catch (Throwable t) {
+        synchronized (segment) {
+          segment.remove(key, entry);
+        }
+        entry.fail(t);
+        throw t;
+      }
+    }
+
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  /**
+   * A cached result, possibly still being computed.
+   */
+  private static final class Entry {
+    private final Thread owner = Thread.currentThread();
+    private volatile boolean done;
+    private Object value;
+    private Throwable failure;
+    private long expiresAt;
+    private boolean expires;
+
+    boolean isExpired() {
+      return done && expires && System.nanoTime() - expiresAt >= 0;
+    }
+
+    synchronized void complete(Object result, long ttl) {
+      value = result;
+      expires = ttl > 0;
+      expiresAt = System.nanoTime() + ttl;
+      done = true;
+      notifyAll();
+    }
+
+    synchronized void fail(Throwable t) {
+      failure = t;
+      done = true;
+      notifyAll();
+    }
+
+    Object await() throws Throwable {
+      if (!done) {
+        if (owner == Thread.currentThread()) {
+          throw new IllegalStateException("A memoized function recursively called itself with the same arguments");
+        }
+        synchronized (this) {
+          while (!done) {
+            wait();
+          }
+        }
+      }
+      synchronized (this) {
+        if (failure != null) {
+          throw failure;
+        }
+        return value;
+      }
+    }
+  }
+
+  /**
+   * A memoized function.
+   */
+  private static final class Memoized {
+    private final Cache cache;
+    private final Object id;
+    private final MethodHandle target;
+    private final MethodHandle generic;
+
+    Memoized(Cache cache, Object id, MethodHandle target) {
+      this.cache = cache;
+      this.id = id;
+      this.target = target;
+      int arity = target.type().parameterCount();
+      this.generic = target.isVarargsCollector() ? target : target.asType(genericMethodType(arity));
+    }
+
+    FunctionReference reference() {
+      int arity = target.type().parameterCount();
+      if (target.isVarargsCollector()) {
+        return new FunctionReference(CALL_N.bindTo(this).asVarargsCollector(Object[].class));
+      }
+      switch (arity) {
+        case 0:
+          return new FunctionReference(CALL_0.bindTo(this));
+        case 1:
+          return new FunctionReference(CALL_1.bindTo(this));
+        case 2:
+          return new FunctionReference(CALL_2.bindTo(this));
+        case 3:
+          return new FunctionReference(CALL_3.bindTo(this));
+        default:
+          return new FunctionReference(CALL_N.bindTo(this).asCollector(Object[].class, arity));
+      }
+    }
+
+    Object call() throws Throwable {
+      return cache.get(new KeyN(id, NO_ARGUMENTS), generic);
+    }
+
+    Object call(Object a) throws Throwable {
+      return cache.get(new Key1(id, a), generic);
+    }
+
+    Object call(Object a, Object b) throws Throwable {
+      return cache.get(new Key2(id, a, b), generic);
+    }
+
+    Object call(Object a, Object b, Object c) throws Throwable {
+      return cache.get(new Key3(id, a, b, c), generic);
+    }
+
+    Object call(Object[] args) throws Throwable {
+      return cache.get(new KeyN(id, args), generic);
+    }
+  }
+
+  /**
+   * A cache key: a function identity and its arguments.
+   */
+  private abstract static class Key {
+    final Object id;
+    final int hash;
+
+    Key(Object id, int hash) {
+      this.id = id;
+      this.hash = hash;
+    }
+
+    abstract Object invoke(MethodHandle target) throws Throwable;
+
+    @Override
+    public final int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Key1 extends Key {
+    final Object a;
+
+    Key1(Object id, Object a) {
+      super(id, 31 * id.hashCode() + Objects.hashCode(a));
+      this.a = a;
+    }
+
+    @Override
+    Object invoke(MethodHandle target) throws Throwable {
+      return target.invokeExact(a);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key1)) {
+        return false;
+      }
+      Key1 that = (Key1) other;
+      return hash == that.hash && id.equals(that.id) && Objects.equals(a, that.a);
+    }
+  }
+
+  private static final class Key2 extends Key {
+    final Object a;
+    final Object b;
+
+    Key2(Object id, Object a, Object b) {
+      super(id, (31 * id.hashCode() + Objects.hashCode(a)) * 31 + Objects.hashCode(b));
+      this.a = a;
+      this.b = b;
+    }
+
+    @Override
+    Object invoke(MethodHandle target) throws Throwable {
+      return target.invokeExact(a, b);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key2)) {
+        return false;
+      }
+      Key2 that = (Key2) other;
+      return hash == that.hash && id.equals(that.id) && Objects.equals(a, that.a) && Objects.equals(b, that.b);
+    }
+  }
+
+  private static final class Key3 extends Key {
+    final Object a;
+    final Object b;
+    final Object c;
+
+    Key3(Object id, Object a, Object b, Object c) {
+      super(id, ((31 * id.hashCode() + Objects.hashCode(a)) * 31 + Objects.hashCode(b)) * 31 + Objects.hashCode(c));
+      this.a = a;
+      this.b = b;
+      this.c = c;
+    }
+
+    @Override
+    Object invoke(MethodHandle target) throws Throwable {
+      return target.invokeExact(a, b, c);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key3)) {
+        return false;
+      }
+      Key3 that = (Key3) other;
+      return hash == that.hash && id.equals(that.id)
+        && Objects.equals(a, that.a) && Objects.equals(b, that.b) && Objects.equals(c, that.c);
+    }
+  }
+
+  private static final class KeyN extends Key {
+    final Object[] args;
+
+    KeyN(Object id, Object[] args) {
+      super(id, 31 * id.hashCode() + Arrays.deepHashCode(args));
+      this.args = args;
+    }
+
+    @Override
+    Object invoke(MethodHandle target) throws Throwable {
+      return target.invokeWithArguments(args);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof KeyN)) {
+        return false;
+      }
+      KeyN that = (KeyN) other;
+      return hash == that.hash && id.equals(that.id) && Arrays.deepEquals(args, that.args);
+    }
+  }
+}
@@ -10,17 +10,49 @@
 
 package gololang;
 
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Models a thread-safe observable variable.
+ * <p>
+ * Observers are kept in a copy-on-write array, so that neither setting a value nor registering an observer takes a
+ * lock. By default, observers are notified synchronously by the thread setting the value, and may thus be called
+ * concurrently when several threads set values.
+ * <p>
+ * An observable can also notify its observers asynchronously, from tasks submitted to an executor. The notifications
+ * are then serialized, and coalesced when observers lag behind: they are only notified of the latest value, so that
+ * a slow observer neither blocks the writers nor makes the pending notifications pile up.
  */
 public final class Observable {
 
+  private static final Observer[] NO_OBSERVERS = new Observer[0];
+
+  private static final AtomicReferenceFieldUpdater<Observable, Observer[]> OBSERVERS =
+    AtomicReferenceFieldUpdater.newUpdater(Observable.class, Observer[].class, "observers");
+
   private volatile Object value;
+  private volatile Observer[] observers = NO_OBSERVERS;
+
+  private final Executor executor;
+  private final AtomicBoolean dispatching;
+  private final Runnable dispatcher;
+  private volatile Box latest;
+  private Box delivered;
+
+  /**
+   * Holds a value set asynchronously, so that each set can be told apart from the previous ones.
+   */
+  private static final class Box {
+    final Object value;
 
-  private final Object lock = new Object();
-  private final LinkedList<Observer> observers = new LinkedList<>();
+    Box(Object value) {
+      this.value = value;
+    }
+  }
 
   /**
    * Creates a new observable from an initial value.
@@ -28,7 +60,20 @@ public final class Observable {
    * @param initialValue the initial value.
    */
   public Observable(Object initialValue) {
+    this(initialValue, null);
+  }
+
+  /**
+   * Creates a new observable from an initial value, whose observers are notified asynchronously.
+   *
+   * @param initialValue the initial value.
+   * @param executor the executor to notify the observers from, or {@code null} to notify them synchronously.
+   */
+  public Observable(Object initialValue, Executor executor) {
     this.value = initialValue;
+    this.executor = executor;
+    this.dispatching = executor == null ? null : new AtomicBoolean(false);
+    this.dispatcher = executor == null ? null : this::dispatch;
   }
 
   /**
@@ -40,17 +85,58 @@ public final class Observable {
     return value;
   }
 
+  /**
+   * Checks whether the observers are notified asynchronously.
+   *
+   * @return {@code true} if this observable has an executor.
+   */
+  public boolean isAsynchronous() {
+    return executor != null;
+  }
+
   /**
    * Changes the current value and notifies all observers.
    *
    * @param newValue the new value.
    */
   public void set(Object newValue) {
-    synchronized (lock) {
-      this.value = newValue;
+    this.value = newValue;
+    if (executor == null) {
       for (Observer observer : observers) {
         observer.apply(newValue);
       }
+    } else {
+      latest = new Box(newValue);
+      scheduleDispatch();
+    }
+  }
+
+  private void dispatch() {
+    try {
+      Box box = latest;
+      while (box != delivered) {
+        delivered = box;
+        for (Observer observer : observers) {
+          observer.apply(box.value);
+        }
+        box = latest;
+      }
+    } finally {
+      dispatching.set(false);
+      if (latest != delivered) {
+        scheduleDispatch();
+      }
+    }
+  }
+
+  private void scheduleDispatch() {
+    if (dispatching.compareAndSet(false, true)) {
+      try {
+        executor.execute(dispatcher);
+      } catch (RejectedExecutionException e) {
+        dispatching.set(false);
+        throw e;
+      }
     }
   }
 
@@ -61,10 +147,36 @@ public final class Observable {
    * @return this observable object.
    */
   public Observable onChange(Observer observer) {
-    synchronized (lock) {
-      observers.add(observer);
+    while (true) {
+      Observer[] current = observers;
+      Observer[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = observer;
+      if (OBSERVERS.compareAndSet(this, current, updated)) {
+        return this;
+      }
+    }
+  }
+
+  /**
+   * Unregisters an observer. This has no effect if the observer is not registered.
+   *
+   * @param observer an observer.
+   * @return this observable object.
+   */
+  public Observable removeObserver(Observer observer) {
+    while (true) {
+      Observer[] current = observers;
+      int index = Arrays.asList(current).indexOf(observer);
+      if (index < 0) {
+        return this;
+      }
+      Observer[] updated = new Observer[current.length - 1];
+      System.arraycopy(current, 0, updated, 0, index);
+      System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+      if (OBSERVERS.compareAndSet(this, current, updated)) {
+        return this;
+      }
     }
-    return this;
   }
 
   /**
@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Represents a persistent (immutable) hash map.
+ * <p>
+ * A persistent map is an immutable map whose "update" methods ({@code add} and {@code delete}) return a new map
+ * and leave the original one unchanged. The new map shares most of its structure with the original one, so that
+ * these operations take {@code O(log32(n))} time and space instead of copying the whole map.
+ * <p>
+ * The entries are stored in a hash array mapped trie: each node holds a 32-bit bitmap telling which of its 32
+ * slots are used, and a compact array with only the used slots. Keys whose hashes fully collide are stored in
+ * a dedicated node.
+ * <p>
+ * Persistent maps are {@code java.util.Map} instances, with all the mutating methods throwing an
+ * {@code UnsupportedOperationException}. The iteration order is unspecified. They can be created with the
+ * {@code pmap[...]} literal notation.
+ */
+public final class PersistentMap extends AbstractMap<Object, Object> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+
+  private static final Object NULL_KEY = new Object();
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentMap EMPTY = new PersistentMap(null, 0);
+
+  private final Node root;
+  private final int size;
+  private int hash;
+
+  private PersistentMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns the empty map.
+   */
+  public static PersistentMap empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a map from key / value pairs.
+   *
+   * @param entries 2-tuples containing the key and the value.
+   * @return a new map.
+   */
+  public static PersistentMap of(Tuple... entries) {
+    PersistentMap map = EMPTY;
+    for (Tuple t : entries) {
+      map = map.add(t.get(0), t.get(1));
+    }
+    return map;
+  }
+
+  /**
+   * Creates a map from the entries of another map.
+   *
+   * @param entries the entries.
+   * @return a new map, or the given one if it is already a persistent map.
+   */
+  public static PersistentMap fromMap(Map<?, ?> entries) {
+    if (entries instanceof PersistentMap) {
+      return (PersistentMap) entries;
+    }
+    PersistentMap map = EMPTY;
+    for (Map.Entry<?, ?> e : entries.entrySet()) {
+      map = map.add(e.getKey(), e.getValue());
+    }
+    return map;
+  }
+
+  private static Object mask(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static Object unmask(Object key) {
+    return key == NULL_KEY ? null : key;
+  }
+
+  private static int hashOf(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private Object find(Object key) {
+    if (root == null) {
+      return NOT_FOUND;
+    }
+    Object k = mask(key);
+    return root.find(0, hashOf(k), k);
+  }
+
+  @Override
+  public Object get(Object key) {
+    Object value = find(key);
+    return value == NOT_FOUND ? null : value;
+  }
+
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    Object value = find(key);
+    return value == NOT_FOUND ? defaultValue : value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != NOT_FOUND;
+  }
+
+  /**
+   * Returns a new map with the given entry added, or replaced if the key is already present.
+   *
+   * @param key the key.
+   * @param value the value.
+   * @return a new map, or this one if it already holds this exact entry.
+   */
+  public PersistentMap add(Object key, Object value) {
+    Object k = mask(key);
+    boolean[] added = new boolean[1];
+    Node newRoot = (root == null ? BitmapNode.EMPTY : root).add(0, hashOf(k), k, value, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Returns a new map without the entry for the given key.
+   *
+   * @param key the key.
+   * @return a new map, or this one if there is no entry for this key.
+   */
+  public PersistentMap delete(Object key) {
+    if (root == null) {
+      return this;
+    }
+    Object k = mask(key);
+    Node newRoot = root.delete(0, hashOf(k), k);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? EMPTY : new PersistentMap(newRoot, size - 1);
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<Object, Object>>() {
+      @Override
+      public Iterator<Map.Entry<Object, Object>> iterator() {
+        return new EntryIterator(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (other instanceof PersistentMap) {
+      PersistentMap that = (PersistentMap) other;
+      if (this.size != that.size || (this.hash != 0 && that.hash != 0 && this.hash != that.hash)) {
+        return false;
+      }
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = super.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "pmap" + super.toString();
+  }
+
+  /**
+   * A trie node.
+   * <p>
+   * The array contains key / value pairs. In bitmap nodes, a {@code null} key means that the value is a sub-node.
+   */
+  private abstract static class Node {
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node add(int shift, int hash, Object key, Object value, boolean[] added);
+
+    abstract Node delete(int shift, int hash, Object key);
+  }
+
+  private static final class BitmapNode extends Node {
+
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int idx = 2 * index(bit);
+      Object k = array[idx];
+      if (k == null) {
+        return ((Node) array[idx + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equals(k) ? array[idx + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node add(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bit(hash, shift);
+      int idx = 2 * index(bit);
+      if ((bitmap & bit) == 0) {
+        Object[] newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, idx);
+        newArray[idx] = key;
+        newArray[idx + 1] = value;
+        System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+      Object k = array[idx];
+      Object v = array[idx + 1];
+      if (k == null) {
+        Node child = (Node) v;
+        Node newChild = child.add(shift + BITS, hash, key, value, added);
+        return newChild == child ? this : with(idx + 1, newChild);
+      }
+      if (key.equals(k)) {
+        return v == value ? this : with(idx + 1, value);
+      }
+      added[0] = true;
+      Node child = createNode(shift + BITS, k, v, hash, key, value);
+      Object[] newArray = array.clone();
+      newArray[idx] = null;
+      newArray[idx + 1] = child;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    private BitmapNode with(int idx, Object value) {
+      Object[] newArray = array.clone();
+      newArray[idx] = value;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    private static Node createNode(int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+      int h1 = hashOf(k1);
+      if (h1 == h2) {
+        return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+      }
+      boolean[] added = new boolean[1];
+      return EMPTY
+        .add(shift, h1, k1, v1, added)
+        .add(shift, h2, k2, v2, added);
+    }
+
+    @Override
+    Node delete(int shift, int hash, Object key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int idx = 2 * index(bit);
+      Object k = array[idx];
+      if (k == null) {
+        Node child = (Node) array[idx + 1];
+        Node newChild = child.delete(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild != null) {
+          return with(idx + 1, newChild);
+        }
+      } else if (!key.equals(k)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, idx);
+      System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+      return new BitmapNode(bitmap ^ bit, newArray);
+    }
+  }
+
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int idx = indexOf(key);
+      return idx < 0 ? NOT_FOUND : array[idx + 1];
+    }
+
+    @Override
+    Node add(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        return new BitmapNode(BitmapNode.bit(this.hash, shift), new Object[]{null, this})
+          .add(shift, hash, key, value, added);
+      }
+      int idx = indexOf(key);
+      if (idx >= 0) {
+        if (array[idx + 1] == value) {
+          return this;
+        }
+        Object[] newArray = array.clone();
+        newArray[idx + 1] = value;
+        return new CollisionNode(hash, newArray);
+      }
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node delete(int shift, int hash, Object key) {
+      int idx = indexOf(key);
+      if (idx < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, idx);
+      System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+      return new CollisionNode(hash, newArray);
+    }
+  }
+
+  /**
+   * Depth-first iterator over the trie entries.
+   */
+  private static final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Map.Entry<Object, Object> next;
+
+    EntryIterator(Node root) {
+      if (root != null) {
+        push(root);
+        advance();
+      }
+    }
+
+    private void push(Node node) {
+      depth++;
+      arrays[depth] = node.array;
+      positions[depth] = 0;
+    }
+
+    private void advance() {
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int pos = positions[depth];
+        if (pos >= array.length) {
+          arrays[depth] = null;
+          depth--;
+          continue;
+        }
+        positions[depth] = pos + 2;
+        if (array[pos] == null) {
+          push((Node) array[pos + 1]);
+        } else {
+          next = new AbstractMap.SimpleImmutableEntry<>(unmask(array[pos]), array[pos + 1]);
+          return;
+        }
+      }
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<Object, Object> result = next;
+      advance();
+      return result;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+import org.eclipse.golo.runtime.ArrayHelper;
+
+/**
+ * Represents a persistent (immutable) hash set.
+ * <p>
+ * A persistent set is an immutable set whose "update" methods ({@code include} and {@code exclude}) return a new
+ * set and leave the original one unchanged. It is backed by a {@link PersistentMap}, and thus shares most of its
+ * structure with the sets it is derived from.
+ * <p>
+ * Persistent sets are {@code java.util.Set} instances, with all the mutating methods throwing an
+ * {@code UnsupportedOperationException}. The iteration order is unspecified. They can be created with the
+ * {@code pset[...]} literal notation.
+ */
+public final class PersistentSet extends AbstractSet<Object> {
+
+  private static final PersistentSet EMPTY = new PersistentSet(PersistentMap.empty());
+
+  private final PersistentMap map;
+  private int hash;
+
+  private PersistentSet(PersistentMap map) {
+    this.map = map;
+  }
+
+  /**
+   * Returns the empty set.
+   */
+  public static PersistentSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a set from the given values.
+   *
+   * @param values the values.
+   * @return a new set.
+   */
+  public static PersistentSet of(Object... values) {
+    PersistentSet set = EMPTY;
+    for (Object value : values) {
+      set = set.include(value);
+    }
+    return set;
+  }
+
+  /**
+   * Creates a set from the values of an iterable.
+   *
+   * @param values the values.
+   * @return a new set, or the given one if it is already a persistent set.
+   */
+  public static PersistentSet fromIterable(Iterable<?> values) {
+    if (values instanceof PersistentSet) {
+      return (PersistentSet) values;
+    }
+    PersistentSet set = EMPTY;
+    for (Object value : values) {
+      set = set.include(value);
+    }
+    return set;
+  }
+
+  private PersistentSet derive(PersistentMap newMap) {
+    if (newMap == map) {
+      return this;
+    }
+    return newMap.isEmpty() ? EMPTY : new PersistentSet(newMap);
+  }
+
+  /**
+   * Returns a new set including the given element.
+   *
+   * @param element the element to include.
+   * @return a new set, or this one if the element is already included.
+   */
+  public PersistentSet include(Object element) {
+    return derive(map.add(element, Boolean.TRUE));
+  }
+
+  /**
+   * Returns a new set without the given element.
+   *
+   * @param element the element to exclude.
+   * @return a new set, or this one if the element is not included.
+   */
+  public PersistentSet exclude(Object element) {
+    return derive(map.delete(element));
+  }
+
+  @Override
+  public boolean contains(Object element) {
+    return map.containsKey(element);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return map.keySet().iterator();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof PersistentSet) {
+      return map.equals(((PersistentSet) other).map);
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = super.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "pset" + super.toString();
+  }
+
+  /**
+   * New style destructuring helper.
+   * <p>
+   * If a remainder is included, it will be a new persistent set.
+   *
+   * @param number number of variable that will be affected.
+   * @param substruct whether the destructuring is complete or should contains a sub structure.
+   * @param toSkip a boolean array indicating the elements to skip.
+   * @return an array containing the values to assign.
+   */
+  public Object[] __$$_destruct(int number, boolean substruct, Object[] toSkip) {
+    Object[] destruct = ArrayHelper.newStyleDestruct(toArray(), number, substruct, toSkip);
+    if (number <= size() + 1 && substruct && destruct[number - 1] != null) {
+      destruct[number - 1] = of((Object[]) destruct[number - 1]);
+    }
+    return destruct;
+  }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import org.eclipse.golo.runtime.ArrayHelper;
+
+/**
+ * Represents a persistent (immutable) vector.
+ * <p>
+ * A persistent vector is an immutable list whose "update" methods ({@code append}, {@code update},
+ * {@code pop}, ...) return a new vector and leave the original one unchanged. The new vector shares most of
+ * its structure with the original one, so that these operations take {@code O(log32(n))} time and space
+ * instead of copying the whole collection.
+ * <p>
+ * The values are stored in a 32-way trie whose leaves hold the values, plus a tail array holding the last (up
+ * to 32) values, so that appending is amortized constant time.
+ * <p>
+ * Persistent vectors are {@code java.util.List} instances, with all the mutating methods throwing an
+ * {@code UnsupportedOperationException}. They can be created with the {@code pvector[...]} literal notation.
+ */
+public final class PersistentVector extends AbstractList<Object> implements RandomAccess {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+  private static final Object[] EMPTY_ROOT = new Object[WIDTH];
+
+  private static final PersistentVector EMPTY = new PersistentVector(0, BITS, EMPTY_ROOT, new Object[0]);
+
+  private final int size;
+  private final int shift;
+  private final Object[] root;
+  private final Object[] tail;
+  private int hash;
+
+  private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * Returns the empty vector.
+   */
+  public static PersistentVector empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a vector from the given values.
+   *
+   * @param values the values.
+   * @return a new vector.
+   */
+  public static PersistentVector of(Object... values) {
+    PersistentVector vector = EMPTY;
+    for (int start = 0; start < values.length; start += WIDTH) {
+      vector = vector.appendBlock(Arrays.copyOfRange(values, start, Math.min(values.length, start + WIDTH)));
+    }
+    return vector;
+  }
+
+  /**
+   * Creates a vector from the values of an iterable.
+   *
+   * @param values the values.
+   * @return a new vector, or the given one if it is already a persistent vector.
+   */
+  public static PersistentVector fromIterable(Iterable<?> values) {
+    if (values instanceof PersistentVector) {
+      return (PersistentVector) values;
+    }
+    return EMPTY.concat(values);
+  }
+
+  private int tailOffset() {
+    return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+  }
+
+  private Object[] leafFor(int index) {
+    if (index >= tailOffset()) {
+      return tail;
+    }
+    Object[] node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return node;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(String.format("%d is out of bounds (size=%d)", index, size));
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Object get(int index) {
+    checkIndex(index);
+    return leafFor(index)[index & MASK];
+  }
+
+  /**
+   * Returns a new vector with a value appended.
+   *
+   * @param value the value to append.
+   * @return a new vector.
+   */
+  public PersistentVector append(Object value) {
+    if (size - tailOffset() < WIDTH) {
+      Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+      newTail[tail.length] = value;
+      return new PersistentVector(size + 1, shift, root, newTail);
+    }
+    return appendBlock(new Object[]{value});
+  }
+
+  /**
+   * Returns a new vector with the values of an iterable appended.
+   *
+   * @param values the values to append.
+   * @return a new vector.
+   */
+  public PersistentVector concat(Iterable<?> values) {
+    PersistentVector vector = this;
+    Iterator<?> iterator = values.iterator();
+    while (iterator.hasNext() && vector.size > 0 && vector.size - vector.tailOffset() < WIDTH) {
+      vector = vector.append(iterator.next());
+    }
+    Object[] block = new Object[WIDTH];
+    int count = 0;
+    while (iterator.hasNext()) {
+      block[count++] = iterator.next();
+      if (count == WIDTH) {
+        vector = vector.appendBlock(block);
+        block = new Object[WIDTH];
+        count = 0;
+      }
+    }
+    if (count > 0) {
+      vector = vector.appendBlock(Arrays.copyOf(block, count));
+    }
+    return vector;
+  }
+
+  /**
+   * Pushes the (full) tail into the trie, and uses the given block as the new tail.
+   */
+  private PersistentVector appendBlock(Object[] block) {
+    if (size == 0) {
+      return new PersistentVector(block.length, BITS, EMPTY_ROOT, block);
+    }
+    Object[] newRoot;
+    int newShift = shift;
+    if ((size >>> BITS) > (1 << shift)) {
+      newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      newRoot[1] = newPath(shift, tail);
+      newShift += BITS;
+    } else {
+      newRoot = pushTail(shift, root, tail);
+    }
+    return new PersistentVector(size + block.length, newShift, newRoot, block);
+  }
+
+  private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+    int index = ((size - 1) >>> level) & MASK;
+    Object[] node = parent.clone();
+    if (level == BITS) {
+      node[index] = leaf;
+    } else {
+      Object[] child = (Object[]) parent[index];
+      node[index] = child != null ? pushTail(level - BITS, child, leaf) : newPath(level - BITS, leaf);
+    }
+    return node;
+  }
+
+  private static Object[] newPath(int level, Object[] leaf) {
+    if (level == 0) {
+      return leaf;
+    }
+    Object[] node = new Object[WIDTH];
+    node[0] = newPath(level - BITS, leaf);
+    return node;
+  }
+
+  /**
+   * Returns a new vector where the value at the given index is replaced.
+   *
+   * @param index the index of the value to replace.
+   * @param value the new value.
+   * @return a new vector.
+   * @throws IndexOutOfBoundsException if the index is out of bounds.
+   */
+  public PersistentVector update(int index, Object value) {
+    checkIndex(index);
+    if (index >= tailOffset()) {
+      Object[] newTail = tail.clone();
+      newTail[index & MASK] = value;
+      return new PersistentVector(size, shift, root, newTail);
+    }
+    return new PersistentVector(size, shift, updatePath(shift, root, index, value), tail);
+  }
+
+  private static Object[] updatePath(int level, Object[] node, int index, Object value) {
+    Object[] copy = node.clone();
+    if (level == 0) {
+      copy[index & MASK] = value;
+    } else {
+      int sub = (index >>> level) & MASK;
+      copy[sub] = updatePath(level - BITS, (Object[]) node[sub], index, value);
+    }
+    return copy;
+  }
+
+  /**
+   * Returns a new vector without the last value.
+   *
+   * @return a new vector.
+   * @throws NoSuchElementException if the vector is empty.
+   */
+  public PersistentVector pop() {
+    if (size == 0) {
+      throw new NoSuchElementException("Can't pop an empty vector");
+    }
+    if (size == 1) {
+      return EMPTY;
+    }
+    if (size - tailOffset() > 1) {
+      return new PersistentVector(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+    }
+    Object[] newTail = leafFor(size - 2);
+    Object[] newRoot = popTail(shift, root);
+    int newShift = shift;
+    if (newRoot == null) {
+      newRoot = EMPTY_ROOT;
+    }
+    if (shift > BITS && newRoot[1] == null) {
+      newRoot = (Object[]) newRoot[0];
+      newShift -= BITS;
+    }
+    return new PersistentVector(size - 1, newShift, newRoot, newTail);
+  }
+
+  private Object[] popTail(int level, Object[] node) {
+    int index = ((size - 2) >>> level) & MASK;
+    if (level > BITS) {
+      Object[] child = popTail(level - BITS, (Object[]) node[index]);
+      if (child == null && index == 0) {
+        return null;
+      }
+      Object[] copy = node.clone();
+      copy[index] = child;
+      return copy;
+    }
+    if (index == 0) {
+      return null;
+    }
+    Object[] copy = node.clone();
+    copy[index] = null;
+    return copy;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return new Iterator<Object>() {
+      private int index = 0;
+      private Object[] leaf = size > 0 ? leafFor(0) : tail;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public Object next() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+        if (index > 0 && (index & MASK) == 0) {
+          leaf = leafFor(index);
+        }
+        return leaf[index++ & MASK];
+      }
+    };
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] values = new Object[size];
+    for (int base = 0; base < size; base += WIDTH) {
+      Object[] leaf = leafFor(base);
+      System.arraycopy(leaf, 0, values, base, Math.min(WIDTH, size - base));
+    }
+    return values;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (other instanceof PersistentVector) {
+      PersistentVector that = (PersistentVector) other;
+      if (this.size != that.size || (this.hash != 0 && that.hash != 0 && this.hash != that.hash)) {
+        return false;
+      }
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = super.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "pvector" + super.toString();
+  }
+
+  /**
+   * New style destructuring helper.
+   * <p>
+   * If a remainder is included, it will be a new persistent vector.
+   *
+   * @param number number of variable that will be affected.
+   * @param substruct whether the destructuring is complete or should contains a sub structure.
+   * @param toSkip a boolean array indicating the elements to skip.
+   * @return an array containing the values to assign.
+   */
+  public Object[] __$$_destruct(int number, boolean substruct, Object[] toSkip) {
+    Object[] destruct = ArrayHelper.newStyleDestruct(toArray(), number, substruct, toSkip);
+    if (number <= size + 1 && substruct && destruct[number - 1] != null) {
+      destruct[number - 1] = of((Object[]) destruct[number - 1]);
+    }
+    return destruct;
+  }
+}
@@ -971,7 +971,7 @@ public final class Predefined {
    * @return a tuple of the given values.
    */
   public static Tuple tuple(Object... values) {
-    return new Tuple(values);
+    return Tuple.fromArray(values);
   }
 
   /**
@@ -988,6 +988,93 @@ public final class Predefined {
     return m;
   }
 
+  /**
+   * Varargs version of a persistent vector constructor.
+   *
+   * @return a persistent vector of the given values.
+   * @see PersistentVector
+   */
+  public static PersistentVector pvector(Object... values) {
+    return PersistentVector.of(values);
+  }
+
+  /**
+   * Varargs version of a persistent set constructor.
+   *
+   * @return a persistent set of the given values.
+   * @see PersistentSet
+   */
+  public static PersistentSet pset(Object... values) {
+    return PersistentSet.of(values);
+  }
+
+  /**
+   * Varargs version of a persistent map constructor.
+   *
+   * @param items tuples containing the key and the value.
+   * @return a persistent map corresponding to the given key/value pairs.
+   * @see PersistentMap
+   */
+  public static PersistentMap pmap(Tuple... items) {
+    return PersistentMap.of(items);
+  }
+
+  /**
+   * Varargs version of a primitive {@code int} list constructor.
+   *
+   * @param values numbers, converted to {@code int}.
+   * @return a list of the given values.
+   * @see IntVector
+   */
+  public static IntVector ivector(Object... values) {
+    IntVector list = new IntVector(values.length);
+    for (Object v : values) {
+      list.addInt(((Number) v).intValue());
+    }
+    return list;
+  }
+
+  /**
+   * Varargs version of a primitive {@code long} list constructor.
+   *
+   * @param values numbers, converted to {@code long}.
+   * @return a list of the given values.
+   * @see LongVector
+   */
+  public static LongVector lvector(Object... values) {
+    LongVector list = new LongVector(values.length);
+    for (Object v : values) {
+      list.addLong(((Number) v).longValue());
+    }
+    return list;
+  }
+
+  /**
+   * Varargs version of a primitive {@code double} list constructor.
+   *
+   * @param values numbers, converted to {@code double}.
+   * @return a list of the given values.
+   * @see DoubleVector
+   */
+  public static DoubleVector dvector(Object... values) {
+    DoubleVector list = new DoubleVector(values.length);
+    for (Object v : values) {
+      list.addDouble(((Number) v).doubleValue());
+    }
+    return list;
+  }
+
+  /**
+   * Varargs version of a {@code int}-keyed map constructor.
+   *
+   * @param items tuples containing the key and the value.
+   * @return a map corresponding to the given key/value pairs.
+   * @see IntMap
+   */
+  public static IntMap intMap(Tuple... items) {
+    return IntMap.of(items);
+  }
+
   /**
    * Macro to define a special macro.
    * <p>
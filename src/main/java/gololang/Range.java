@@ -10,17 +10,26 @@
 
 package gololang;
 
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.golo.runtime.InvalidDestructuringException;
 
+import static java.lang.invoke.MethodType.genericMethodType;
+
 /**
  * Represents a generic value range.
  * <p>
  * A range represent a set of values between to bounds, optionally with a step (or increment) from
  * one value to the next.
+ * <p>
+ * The {@code each}, {@code reduce}, {@code count} and {@code map} methods are specialised versions of the
+ * corresponding augmentations on iterables and collections. Ranges of primitive values implement them without creating
+ * an iterator, and also provide primitive iterators, streams and splittable spliterators.
  */
 public interface Range<T> extends Collection<T>, HeadTail<T> {
 
@@ -136,4 +145,67 @@ public interface Range<T> extends Collection<T>, HeadTail<T> {
    * therefore possible that the new range yields different values than the original.
    */
   public Range<T> newStartingFrom(T newStart);
+
+  /**
+   * Applies a function over each element of the range.
+   *
+   * @param func the function to apply, taking the current element as a parameter.
+   * @return the range itself.
+   */
+  default Range<T> each(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(1));
+    for (T value : this) {
+      Object unused = handle.invokeExact((Object) value);
+    }
+    return this;
+  }
+
+  /**
+   * General purpose reducing operation.
+   *
+   * @param initialValue the initial accumulator value for the reducing operation.
+   * @param func the function to apply over an accumulator and the next value.
+   * @return the accumulated value.
+   */
+  default Object reduce(Object initialValue, FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(2));
+    Object acc = initialValue;
+    for (T value : this) {
+      acc = handle.invokeExact(acc, (Object) value);
+    }
+    return acc;
+  }
+
+  /**
+   * Counts the number of elements that satisfy a predicate.
+   *
+   * @param pred a predicate function, taking an element and returning a boolean.
+   * @return the number of matching elements.
+   */
+  default int count(FunctionReference pred) throws Throwable {
+    MethodHandle handle = pred.handle().asType(genericMethodType(1));
+    int result = 0;
+    for (T value : this) {
+      Object matches = handle.invokeExact((Object) value);
+      if ((Boolean) matches) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Maps the elements of the range.
+   *
+   * @param func the transformation function.
+   * @return a list of the transformed values.
+   */
+  default List<Object> map(FunctionReference func) throws Throwable {
+    MethodHandle handle = func.handle().asType(genericMethodType(1));
+    List<Object> result = new ArrayList<>(size());
+    for (T value : this) {
+      result.add(handle.invokeExact((Object) value));
+    }
+    return result;
+  }
 }
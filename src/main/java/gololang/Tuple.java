@@ -13,6 +13,7 @@ package gololang;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import org.eclipse.golo.runtime.InvalidDestructuringException;
 import org.eclipse.golo.runtime.ArrayHelper;
 
@@ -27,13 +28,22 @@ import org.eclipse.golo.runtime.ArrayHelper;
  * # Complete collection literal syntax
  * let t2 = tuple[1, 2, 3]
  * </code></pre>
+ * <p>
+ * Tuples of up to 4 elements created by {@link #fromArray(Object[])} (and thus by tuple literals) use specialised
+ * field-based representations instead of wrapping an array. All representations are equal to each other when they
+ * contain equal values.
+ * <p>
+ * The hash code of a tuple is computed lazily and cached, since tuples are immutable. Mutating an element after the
+ * tuple has been hashed is therefore not reflected by {@link #hashCode()}.
  */
-public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
+public class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
-  private static final Tuple EMPTY = new Tuple();
+  private static final Tuple EMPTY = new Tuple(new Object[0]);
 
   private final Object[] data;
 
+  private int hash;
+
   /**
    * Creates a new tuple from values.
    *
@@ -43,15 +53,43 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
     data = Arrays.copyOf(values, values.length);
   }
 
+  /**
+   * Constructor for the specialised representations, that don't use the backing array.
+   */
+  private Tuple() {
+    data = null;
+  }
+
   /**
    * Helper factory method.
+   * <p>
+   * Small tuples use a specialised representation.
    *
    * @param values the values as an array.
    * @return a tuple from the array values.
    */
   public static Tuple fromArray(Object[] values) {
-    if (values.length == 0) { return EMPTY; }
-    return new Tuple(values);
+    switch (values.length) {
+      case 0:
+        return EMPTY;
+      case 1:
+        return new Tuple1(values[0]);
+      case 2:
+        return new Tuple2(values[0], values[1]);
+      case 3:
+        return new Tuple3(values[0], values[1], values[2]);
+      case 4:
+        return new Tuple4(values[0], values[1], values[2], values[3]);
+      default:
+        return new Tuple(values);
+    }
+  }
+
+  /**
+   * Creates a 2-tuple without an intermediate array.
+   */
+  static Tuple pair(Object first, Object second) {
+    return new Tuple2(first, second);
   }
 
   /**
@@ -70,7 +108,7 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    */
   @Override
   public boolean isEmpty() {
-    return data.length == 0;
+    return size() == 0;
   }
 
   /**
@@ -82,11 +120,24 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    */
   public Object get(int index) {
     if (index < 0 || index >= data.length) {
-      throw new IndexOutOfBoundsException(index + " is outside the bounds of a " + data.length + "-tuple");
+      throw outOfBounds(index);
     }
     return data[index];
   }
 
+  IndexOutOfBoundsException outOfBounds(int index) {
+    return new IndexOutOfBoundsException(index + " is outside the bounds of a " + size() + "-tuple");
+  }
+
+  /**
+   * Returns the values of this tuple, without copying the backing array if any.
+   * <p>
+   * The returned array must not be modified.
+   */
+  Object[] values() {
+    return data;
+  }
+
   /**
    * Creates an iterator over the tuple.
    * <p>The iterator does not support removal.
@@ -101,15 +152,15 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
       @Override
       public boolean hasNext() {
-        return i < data.length;
+        return i < size();
       }
 
       @Override
       public Object next() {
-        if (i >= data.length) {
+        if (i >= size()) {
           throw new NoSuchElementException();
         }
-        Object result = data[i];
+        Object result = get(i);
         i++;
         return result;
       }
@@ -124,10 +175,17 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
   @Override
   public boolean equals(Object o) {
     if (this == o) { return true; }
-    if (o == null || getClass() != o.getClass()) { return false; }
+    if (!(o instanceof Tuple)) { return false; }
 
     Tuple tuple = (Tuple) o;
-    return Arrays.equals(data, tuple.data);
+    int size = size();
+    if (size != tuple.size()) { return false; }
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(get(i), tuple.get(i))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -164,12 +222,24 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
   @Override
   public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = computeHash();
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * Computes the hash code, consistently with {@link Arrays#hashCode(Object[])} on the tuple values.
+   */
+  int computeHash() {
     return Arrays.hashCode(data);
   }
 
   @Override
   public String toString() {
-    return "tuple" + Arrays.toString(data);
+    return "tuple" + Arrays.toString(values());
   }
 
   /**
@@ -215,8 +285,8 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return an array containing the values to assign.
    */
   public Object[] __$$_destruct(int number, boolean substruct, Object[] toSkip) {
-    Object[] destruct = ArrayHelper.newStyleDestruct(this.data, number, substruct, toSkip);
-    if (number <= this.data.length + 1 && substruct && destruct[number - 1] != null) {
+    Object[] destruct = ArrayHelper.newStyleDestruct(values(), number, substruct, toSkip);
+    if (number <= size() + 1 && substruct && destruct[number - 1] != null) {
       destruct[number - 1] = fromArray((Object[]) destruct[number - 1]);
     }
     return destruct;
@@ -229,7 +299,7 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return a new tuple containing the elements from {@code start} to the end.
    */
   public Tuple subTuple(int start) {
-    return this.subTuple(start, data.length);
+    return this.subTuple(start, size());
   }
 
   /**
@@ -244,7 +314,7 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
     if (this.isEmpty()) {
       return this;
     }
-    return fromArray(Arrays.copyOfRange(data, start, end));
+    return fromArray(Arrays.copyOfRange(values(), start, end));
   }
 
   /**
@@ -253,7 +323,8 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return an array of values
    */
   public Object[] toArray() {
-    return Arrays.copyOf(data, data.length);
+    Object[] values = values();
+    return Arrays.copyOf(values, values.length);
   }
 
   /**
@@ -265,11 +336,10 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
     if (values.length == 0) {
       return this;
     }
-    Object[] newdata = Arrays.copyOf(data, data.length + values.length);
-    for (int i = 0; i < values.length; i++) {
-      newdata[data.length + i] = values[i];
-    }
-    return new Tuple(newdata);
+    int size = size();
+    Object[] newdata = Arrays.copyOf(values(), size + values.length);
+    System.arraycopy(values, 0, newdata, size, values.length);
+    return fromArray(newdata);
   }
 
   /**
@@ -278,6 +348,277 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return an extended Tuple, or this one if the given tuple is empty.
    */
   public Tuple extend(Tuple tuple) {
-    return this.extend(tuple.data);
+    return this.extend(tuple.values());
+  }
+
+
+  private static int hash(Object value) {
+    return value == null ? 0 : value.hashCode();
+  }
+
+  /**
+   * Specialised representation of 1-tuples.
+   */
+  private static final class Tuple1 extends Tuple {
+    private final Object first;
+
+    Tuple1(Object first) {
+      this.first = first;
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public Object get(int index) {
+      if (index == 0) {
+        return first;
+      }
+      throw outOfBounds(index);
+    }
+
+    @Override
+    Object[] values() {
+      return new Object[]{first};
+    }
+
+    @Override
+    public Object[] toArray() {
+      return values();
+    }
+
+    @Override
+    public Object head() {
+      return first;
+    }
+
+    @Override
+    int computeHash() {
+      return 31 + hash(first);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o instanceof Tuple1) {
+        return Objects.equals(first, ((Tuple1) o).first);
+      }
+      return super.equals(o);
+    }
+  }
+
+  /**
+   * Specialised representation of 2-tuples.
+   */
+  private static final class Tuple2 extends Tuple {
+    private final Object first;
+    private final Object second;
+
+    Tuple2(Object first, Object second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public int size() {
+      return 2;
+    }
+
+    @Override
+    public Object get(int index) {
+      switch (index) {
+        case 0:
+          return first;
+        case 1:
+          return second;
+        default:
+          throw outOfBounds(index);
+      }
+    }
+
+    @Override
+    Object[] values() {
+      return new Object[]{first, second};
+    }
+
+    @Override
+    public Object[] toArray() {
+      return values();
+    }
+
+    @Override
+    public Object head() {
+      return first;
+    }
+
+    @Override
+    public Tuple tail() {
+      return new Tuple1(second);
+    }
+
+    @Override
+    int computeHash() {
+      return 31 * (31 + hash(first)) + hash(second);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o instanceof Tuple2) {
+        Tuple2 other = (Tuple2) o;
+        return Objects.equals(first, other.first)
+          && Objects.equals(second, other.second);
+      }
+      return super.equals(o);
+    }
+  }
+
+  /**
+   * Specialised representation of 3-tuples.
+   */
+  private static final class Tuple3 extends Tuple {
+    private final Object first;
+    private final Object second;
+    private final Object third;
+
+    Tuple3(Object first, Object second, Object third) {
+      this.first = first;
+      this.second = second;
+      this.third = third;
+    }
+
+    @Override
+    public int size() {
+      return 3;
+    }
+
+    @Override
+    public Object get(int index) {
+      switch (index) {
+        case 0:
+          return first;
+        case 1:
+          return second;
+        case 2:
+          return third;
+        default:
+          throw outOfBounds(index);
+      }
+    }
+
+    @Override
+    Object[] values() {
+      return new Object[]{first, second, third};
+    }
+
+    @Override
+    public Object[] toArray() {
+      return values();
+    }
+
+    @Override
+    public Object head() {
+      return first;
+    }
+
+    @Override
+    public Tuple tail() {
+      return new Tuple2(second, third);
+    }
+
+    @Override
+    int computeHash() {
+      return 31 * (31 * (31 + hash(first)) + hash(second)) + hash(third);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o instanceof Tuple3) {
+        Tuple3 other = (Tuple3) o;
+        return Objects.equals(first, other.first)
+          && Objects.equals(second, other.second)
+          && Objects.equals(third, other.third);
+      }
+      return super.equals(o);
+    }
+  }
+
+  /**
+   * Specialised representation of 4-tuples.
+   */
+  private static final class Tuple4 extends Tuple {
+    private final Object first;
+    private final Object second;
+    private final Object third;
+    private final Object fourth;
+
+    Tuple4(Object first, Object second, Object third, Object fourth) {
+      this.first = first;
+      this.second = second;
+      this.third = third;
+      this.fourth = fourth;
+    }
+
+    @Override
+    public int size() {
+      return 4;
+    }
+
+    @Override
+    public Object get(int index) {
+      switch (index) {
+        case 0:
+          return first;
+        case 1:
+          return second;
+        case 2:
+          return third;
+        case 3:
+          return fourth;
+        default:
+          throw outOfBounds(index);
+      }
+    }
+
+    @Override
+    Object[] values() {
+      return new Object[]{first, second, third, fourth};
+    }
+
+    @Override
+    public Object[] toArray() {
+      return values();
+    }
+
+    @Override
+    public Object head() {
+      return first;
+    }
+
+    @Override
+    public Tuple tail() {
+      return new Tuple3(second, third, fourth);
+    }
+
+    @Override
+    int computeHash() {
+      return 31 * (31 * (31 * (31 + hash(first)) + hash(second)) + hash(third)) + hash(fourth);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o instanceof Tuple4) {
+        Tuple4 other = (Tuple4) o;
+        return Objects.equals(first, other.first)
+          && Objects.equals(second, other.second)
+          && Objects.equals(third, other.third)
+          && Objects.equals(fourth, other.fourth);
+      }
+      return super.equals(o);
+    }
   }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+import gololang.FunctionReference;
+
+/**
+ * A function marked as a benchmark.
+ * <p>
+ * A benchmark function behaves as the original function when called, and carries the options used to measure it. It
+ * is the result of the {@code benchmark} and {@code benchmarkWith} decorators of the {@code gololang.Benchmark}
+ * module, which is how {@link BenchmarkRunner#discover(Class)} finds the benchmarks of a module.
+ */
+public final class BenchmarkFunction extends FunctionReference {
+
+  private final FunctionReference target;
+  private final BenchmarkOptions options;
+
+  BenchmarkFunction(FunctionReference target, BenchmarkOptions options) {
+    super(target.handle());
+    this.target = target;
+    this.options = options;
+  }
+
+  /**
+   * The benchmarked function.
+   */
+  public FunctionReference target() {
+    return target;
+  }
+
+  public BenchmarkOptions options() {
+    return options;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+import gololang.FunctionReference;
+
+/**
+ * The settings of a benchmark.
+ * <p>
+ * Options are immutable: each setter returns new options, so that they can be shared by several benchmarks. They are
+ * typically created by the {@code benchmarkOptions} function of the {@code gololang.Benchmark} module:
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let quick = benchmarkOptions(): warmup(2): iterations(3): time(200)
+ *
+ * &#64;benchmarkWith(quick)
+ * function concat = -> "a" + "b"
+ * </code></pre>
+ */
+public final class BenchmarkOptions {
+
+  /**
+   * The default options: 5 warmup iterations and 5 measured iterations of 1 second, in 1 fork.
+   */
+  public static final BenchmarkOptions DEFAULT = new BenchmarkOptions(5, 5, 1000L, 1, null);
+
+  private final int warmup;
+  private final int iterations;
+  private final long time;
+  private final int forks;
+  private final FunctionReference setup;
+
+  private BenchmarkOptions(int warmup, int iterations, long time, int forks, FunctionReference setup) {
+    if (warmup < 0 || iterations <= 0 || time <= 0 || forks < 0) {
+      throw new IllegalArgumentException(String.format(
+            "Invalid benchmark options: %d warmup iterations, %d iterations of %d ms, %d forks",
+            warmup, iterations, time, forks));
+    }
+    this.warmup = warmup;
+    this.iterations = iterations;
+    this.time = time;
+    this.forks = forks;
+    this.setup = setup;
+  }
+
+  /**
+   * The number of warmup iterations, whose results are discarded.
+   */
+  public int warmup() {
+    return warmup;
+  }
+
+  public BenchmarkOptions warmup(int count) {
+    return new BenchmarkOptions(count, iterations, time, forks, setup);
+  }
+
+  /**
+   * The number of measured iterations.
+   */
+  public int iterations() {
+    return iterations;
+  }
+
+  public BenchmarkOptions iterations(int count) {
+    return new BenchmarkOptions(warmup, count, time, forks, setup);
+  }
+
+  /**
+   * The duration of an iteration, in milliseconds.
+   */
+  public long time() {
+    return time;
+  }
+
+  public BenchmarkOptions time(long millis) {
+    return new BenchmarkOptions(warmup, iterations, millis, forks, setup);
+  }
+
+  /**
+   * The number of fresh JVMs to run the benchmark in, or 0 to run it in the current one.
+   */
+  public int forks() {
+    return forks;
+  }
+
+  public BenchmarkOptions forks(int count) {
+    return new BenchmarkOptions(warmup, iterations, time, count, setup);
+  }
+
+  /**
+   * The function creating the state given to the benchmarked function, if any.
+   */
+  public FunctionReference setup() {
+    return setup;
+  }
+
+  /**
+   * Defines a function without parameters, called once before the iterations, whose result is given to the
+   * benchmarked function.
+   */
+  public BenchmarkOptions setup(FunctionReference function) {
+    if (function != null && !function.acceptArity(0)) {
+      throw new IllegalArgumentException("The setup function of a benchmark can't have parameters");
+    }
+    return new BenchmarkOptions(warmup, iterations, time, forks, function);
+  }
+
+  /**
+   * Marks a function as a benchmark with these options.
+   *
+   * @param function the function to benchmark.
+   * @return the benchmark, that can be called as the original function.
+   */
+  public BenchmarkFunction decorate(FunctionReference function) {
+    return new BenchmarkFunction(function, this);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BenchmarkOptions{warmup=%d, iterations=%d, time=%d, forks=%d, setup=%s}",
+        warmup, iterations, time, forks, setup != null);
+  }
+}
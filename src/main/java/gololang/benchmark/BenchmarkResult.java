@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The measures of a benchmark.
+ * <p>
+ * The benchmarked function is called in batches, and each batch gives a sample of the time per call. The percentiles
+ * are computed on these samples. To bound the memory used and the size of the results exchanged with forked JVMs, at
+ * most {@value #MAX_SAMPLES} samples are kept: a run keeps a uniform random sample of its batches, and a merge keeps
+ * evenly spaced samples of the merged ones. The percentiles are thus approximated.
+ */
+public final class BenchmarkResult {
+
+  /**
+   * The maximum number of samples kept.
+   */
+  public static final int MAX_SAMPLES = 10_000;
+
+  private final String name;
+  private final double[] samples;
+  private final long operations;
+  private final long nanos;
+  private final long allocatedBytes;
+  private final int forks;
+
+  /**
+   * Creates a result.
+   *
+   * @param name the benchmark name.
+   * @param samples the time per call of each batch, in nanoseconds.
+   * @param count the number of samples in the array.
+   * @param operations the number of measured calls.
+   * @param nanos the total time of the measured calls.
+   * @param allocatedBytes the bytes allocated by the measured calls, or a negative value if unknown.
+   * @param forks the number of JVMs the benchmark was run in.
+   */
+  BenchmarkResult(String name, double[] samples, int count, long operations, long nanos, long allocatedBytes, int forks) {
+    this.name = name;
+    this.samples = reduce(samples, count);
+    this.operations = operations;
+    this.nanos = nanos;
+    this.allocatedBytes = allocatedBytes;
+    this.forks = forks;
+  }
+
+  private static double[] reduce(double[] samples, int count) {
+    double[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    if (count <= MAX_SAMPLES) {
+      return sorted;
+    }
+    double[] kept = new double[MAX_SAMPLES];
+    for (int i = 0; i < MAX_SAMPLES; i++) {
+      kept[i] = sorted[(int) ((long) i * (count - 1) / (MAX_SAMPLES - 1))];
+    }
+    return kept;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * The number of measured calls.
+   */
+  public long operations() {
+    return operations;
+  }
+
+  /**
+   * The number of JVMs the benchmark was run in, {@code 0} meaning the current one.
+   */
+  public int forks() {
+    return forks;
+  }
+
+  /**
+   * The number of kept samples.
+   */
+  public int sampleCount() {
+    return samples.length;
+  }
+
+  /**
+   * The average time per call, in nanoseconds.
+   */
+  public double mean() {
+    return operations == 0 ? Double.NaN : (double) nanos / operations;
+  }
+
+  /**
+   * The number of calls per second.
+   */
+  public double opsPerSecond() {
+    return nanos == 0 ? Double.NaN : operations * 1e9 / nanos;
+  }
+
+  /**
+   * The time per call below which the given percentage of the samples are, in nanoseconds.
+   *
+   * @param percent the percentile, between 0 and 100.
+   */
+  public double percentile(double percent) {
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("A percentile must be between 0 and 100");
+    }
+    if (samples.length == 0) {
+      return Double.NaN;
+    }
+    int rank = (int) Math.ceil(percent / 100 * samples.length);
+    return samples[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * The bytes allocated per call, or {@code NaN} if the JVM can't measure the allocations.
+   */
+  public double bytesPerOperation() {
+    return allocatedBytes < 0 || operations == 0 ? Double.NaN : (double) allocatedBytes / operations;
+  }
+
+  /**
+   * Combines the measures of the same benchmark run in several JVMs.
+   */
+  public BenchmarkResult merge(BenchmarkResult other) {
+    double[] all = Arrays.copyOf(samples, samples.length + other.samples.length);
+    System.arraycopy(other.samples, 0, all, samples.length, other.samples.length);
+    long bytes = allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes;
+    return new BenchmarkResult(name, all, all.length,
+        operations + other.operations, nanos + other.nanos, bytes, forks + other.forks);
+  }
+
+  /**
+   * Returns the same measures, taken in a forked JVM.
+   */
+  public BenchmarkResult forked() {
+    return new BenchmarkResult(name, samples, samples.length, operations, nanos, allocatedBytes, 1);
+  }
+
+  /**
+   * Converts the result to a map, e.g. to format it as JSON.
+   */
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("name", name);
+    map.put("forks", forks);
+    map.put("operations", operations);
+    map.put("nanos", nanos);
+    map.put("allocatedBytes", allocatedBytes);
+    map.put("opsPerSecond", opsPerSecond());
+    map.put("mean", mean());
+    map.put("p50", percentile(50));
+    map.put("p90", percentile(90));
+    map.put("p99", percentile(99));
+    List<Object> values = new ArrayList<>(samples.length);
+    for (double sample : samples) {
+      values.add(sample);
+    }
+    map.put("samples", values);
+    return map;
+  }
+
+  /**
+   * Reads a result converted by {@link #toMap()}.
+   */
+  public static BenchmarkResult fromMap(Map<?, ?> map) {
+    List<?> values = (List<?>) map.get("samples");
+    double[] samples = new double[values.size()];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = ((Number) values.get(i)).doubleValue();
+    }
+    return new BenchmarkResult(
+        (String) map.get("name"),
+        samples, samples.length,
+        ((Number) map.get("operations")).longValue(),
+        ((Number) map.get("nanos")).longValue(),
+        ((Number) map.get("allocatedBytes")).longValue(),
+        ((Number) map.get("forks")).intValue());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %.3f ns/op (p50 %.3f, p90 %.3f, p99 %.3f), %.1f B/op",
+        name, mean(), percentile(50), percentile(90), percentile(99), bytesPerOperation());
+  }
+}
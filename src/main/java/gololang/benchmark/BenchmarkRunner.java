@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+import gololang.FunctionReference;
+import org.eclipse.golo.runtime.DecoratorsHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+
+/**
+ * Runs benchmarks in the current JVM.
+ * <p>
+ * A benchmark is run in iterations of a fixed duration. The first ones warm the JIT compiler up and are discarded. In
+ * each iteration, the function is called in batches whose size is calibrated so that a batch lasts about
+ * {@value #BATCH_NANOS} ns, which makes the cost of reading the clock negligible. The results of the calls are given
+ * to a {@link Blackhole}, so that the compiler can't eliminate them. The memory allocated by the calls is measured
+ * with the thread allocation counters of the JVM, when available.
+ */
+public final class BenchmarkRunner {
+
+  /**
+   * The target duration of a batch of calls, in nanoseconds.
+   */
+  public static final long BATCH_NANOS = 10_000L;
+
+  private static final int MAX_BATCH = 1 << 24;
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  private BenchmarkRunner() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Finds the benchmarks of a module.
+   * <p>
+   * The benchmarks are the functions decorated by a decorator that returns a {@link BenchmarkFunction}, such as the
+   * {@code benchmark} decorator of {@code gololang.Benchmark}.
+   *
+   * @param module the module class.
+   * @return the benchmarks by name, as {@code module.function}, sorted by name.
+   */
+  public static Map<String, BenchmarkFunction> discover(Class<?> module) {
+    Map<String, BenchmarkFunction> benchmarks = new TreeMap<>();
+    for (Method method : module.getDeclaredMethods()) {
+      if (!Modifier.isStatic(method.getModifiers()) || !DecoratorsHelper.isMethodDecorated(method)) {
+        continue;
+      }
+      try {
+        Method decorator = DecoratorsHelper.getDecoratorMethod(method);
+        decorator.setAccessible(true);
+        method.setAccessible(true);
+        Object decorated = decorator.invoke(null, new FunctionReference(MethodHandles.lookup().unreflect(method)));
+        if (decorated instanceof BenchmarkFunction) {
+          benchmarks.put(module.getName() + "." + method.getName(), (BenchmarkFunction) decorated);
+        }
+      } catch (ReflectiveOperationException | IllegalStateException e) {
+        // not a benchmark
+      }
+    }
+    return benchmarks;
+  }
+
+  /**
+   * Runs a benchmark with its options, in the current JVM.
+   */
+  public static BenchmarkResult run(String name, BenchmarkFunction benchmark) throws Throwable {
+    return run(name, benchmark.target(), benchmark.options());
+  }
+
+  /**
+   * Runs a function as a benchmark, in the current JVM.
+   * <p>
+   * The number of forks of the options is ignored.
+   *
+   * @param name the name of the benchmark.
+   * @param function the function to measure. It takes the result of the setup function if the options define one,
+   * and no argument otherwise.
+   * @param options the benchmark options.
+   * @return the measures.
+   */
+  public static BenchmarkResult run(String name, FunctionReference function, BenchmarkOptions options) throws Throwable {
+    MethodHandle handle = function.handle();
+    if (options.setup() != null) {
+      if (!function.acceptArity(1)) {
+        throw new IllegalArgumentException(name + " must take the result of its setup function as parameter");
+      }
+      handle = function.bindTo(options.setup().invoke()).handle();
+    } else if (!function.acceptArity(0)) {
+      throw new IllegalArgumentException(name + " can't have parameters without a setup function");
+    }
+    handle = handle.asType(genericMethodType(0));
+    Blackhole blackhole = new Blackhole();
+    int batch = calibrate(handle, blackhole);
+    long duration = options.time() * 1_000_000L;
+    for (int i = 0; i < options.warmup(); i++) {
+      new Iteration(0).run(handle, blackhole, batch, duration);
+    }
+    Iteration measures = new Iteration(BenchmarkResult.MAX_SAMPLES);
+    for (int i = 0; i < options.iterations(); i++) {
+      measures.run(handle, blackhole, batch, duration);
+    }
+    return new BenchmarkResult(name, measures.samples, measures.count,
+        measures.operations, measures.nanos, measures.allocatedBytes, 0);
+  }
+
+  private static int calibrate(MethodHandle handle, Blackhole blackhole) throws Throwable {
+    int batch = 1;
+    while (batch < MAX_BATCH) {
+      long start = System.nanoTime();
+      call(handle, blackhole, batch);
+      if (System.nanoTime() - start >= BATCH_NANOS) {
+        break;
+      }
+      batch *= 2;
+    }
+    return batch;
+  }
+
+  private static void call(MethodHandle handle, Blackhole blackhole, int times) throws Throwable {
+    for (int i = 0; i < times; i++) {
+      blackhole.consume((Object) handle.invokeExact());
+    }
+  }
+
+  private static long allocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+      if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The accumulated measures of iterations.
+   * <p>
+   * The samples are a reservoir: each batch of all the iterations has the same probability to be kept. The array is
+   * allocated beforehand, so that the measured allocations are only the benchmark ones.
+   */
+  private static final class Iteration {
+    final double[] samples;
+    int count;
+    long batches;
+    long operations;
+    long nanos;
+    long allocatedBytes;
+
+    Iteration(int capacity) {
+      this.samples = new double[capacity];
+    }
+
+    void run(MethodHandle handle, Blackhole blackhole, int batch, long duration) throws Throwable {
+      long allocationStart = allocatedBytes();
+      long start = System.nanoTime();
+      long deadline = start + duration;
+      long now = start;
+      do {
+        long batchStart = now;
+        call(handle, blackhole, batch);
+        now = System.nanoTime();
+        sample((double) (now - batchStart) / batch);
+        operations += batch;
+      } while (now < deadline);
+      nanos += now - start;
+      long allocationEnd = allocatedBytes();
+      if (allocationStart < 0 || allocatedBytes < 0) {
+        allocatedBytes = -1;
+      } else {
+        allocatedBytes += allocationEnd - allocationStart;
+      }
+    }
+
+    private void sample(double value) {
+      batches++;
+      if (count < samples.length) {
+        samples[count++] = value;
+      } else if (samples.length > 0) {
+        long index = ThreadLocalRandom.current().nextLong(batches);
+        if (index < samples.length) {
+          samples[(int) index] = value;
+        }
+      }
+    }
+  }
+}
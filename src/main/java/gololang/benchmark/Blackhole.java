@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+/**
+ * Consumes values so that the JIT compiler can't eliminate the code computing them.
+ * <p>
+ * A value given to {@link #consume(Object)} is stored in a field from time to time, according to a pseudo-random
+ * sequence the compiler can't predict, so the value must always be computed. The cost of a consumption is a few
+ * arithmetic operations.
+ * <p>
+ * A blackhole is meant to be used by a single thread.
+ */
+public final class Blackhole {
+
+  private int seed = (int) System.nanoTime();
+  private int mask = 1;
+  private Object sink;
+
+  /**
+   * Consumes a value.
+   *
+   * @param value the value to consume.
+   */
+  public void consume(Object value) {
+    int next = seed * 1664525 + 1013904223;
+    seed = next;
+    if ((next & mask) == 0) {
+      sink = value;
+      mask = (mask << 1) + 1;
+    }
+  }
+}
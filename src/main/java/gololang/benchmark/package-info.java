@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+/**
+ * Micro-benchmarks of Golo functions.
+ * <p>
+ * These classes are the core of the {@code gololang.Benchmark} module and of the {@code golo bench} command.
+ */
+package gololang.benchmark;
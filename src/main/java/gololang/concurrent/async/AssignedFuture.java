@@ -10,6 +10,8 @@
 
 package gololang.concurrent.async;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Convenience implementation for pre-set futures.
  */
@@ -51,6 +53,11 @@ public final class AssignedFuture implements Future {
     return value;
   }
 
+  @Override
+  public Object blockingGet(long timeout, TimeUnit unit) {
+    return value;
+  }
+
   @Override
   public boolean isResolved() {
     return true;
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Factories and helpers for executor services suited to asynchronous tasks.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.Async} module.
+ */
+public final class ExecutorServices {
+
+  private ExecutorServices() {
+    // utility class
+  }
+
+  private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup().findStatic(
+          java.util.concurrent.Executors.class,
+          "newVirtualThreadPerTaskExecutor",
+          methodType(ExecutorService.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      handle = null;
+    }
+    NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = handle;
+  }
+
+  /**
+   * Checks whether the running JVM supports virtual threads.
+   *
+   * @return {@code true} if {@link #virtualThreadPerTask()} can be used.
+   */
+  public static boolean hasVirtualThreads() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task.
+   * <p>
+   * Virtual threads are cheap to create and to block, which makes this executor suited to a large number of
+   * mostly-blocked tasks.
+   *
+   * @return a new executor.
+   * @throws UnsupportedOperationException if the running JVM doesn't support virtual threads.
+   * @see #hasVirtualThreads()
+   */
+  public static ExecutorService virtualThreadPerTask() {
+    if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Creates a work-stealing executor.
+   * <p>
+   * This is a fork/join pool in asynchronous mode, where each thread processes the tasks it submits in FIFO order.
+   * A task submitted from one of the pool threads goes to the local queue of that thread, so that a task rescheduling
+   * itself tends to stay on the same thread, while idle threads steal the pending tasks of busy ones.
+   *
+   * @param parallelism the number of threads.
+   * @return a new executor.
+   */
+  public static ExecutorService workStealing(int parallelism) {
+    return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+  }
+
+  /**
+   * Creates a work-stealing executor with as many threads as available processors.
+   *
+   * @return a new executor.
+   * @see #workStealing(int)
+   */
+  public static ExecutorService workStealing() {
+    return workStealing(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Submits a task to an executor, and resolves a promise with its outcome.
+   * <p>
+   * The promise is resolved by the task itself when it completes, so that no thread is blocked waiting for it. It is
+   * failed with the exception thrown by {@link java.util.concurrent.Future#get()}, including when the task is
+   * cancelled.
+   *
+   * @param executor the executor to run the task.
+   * @param task the task.
+   * @param promise the promise to resolve.
+   * @return the Java future of the task, which can be used to cancel it.
+   */
+  public static java.util.concurrent.Future<Object> submit(ExecutorService executor, Callable<Object> task,
+      Promise promise) {
+    FutureTask<Object> future = new FutureTask<Object>(task) {
+      @Override
+      protected void done() {
+        try {
+          promise.set(get());
+        } catch (InterruptedException e) {
+          promise.fail(e);
+          Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+          promise.fail(t);
+        }
+      }
+    };
+    executor.execute(future);
+    return future;
+  }
+}
@@ -10,6 +10,11 @@
 
 package gololang.concurrent.async;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * A future is an abstraction over the eventual result of a possibly asynchronous computation.
  *
@@ -36,6 +41,28 @@ public interface Future {
    */
   Object blockingGet() throws InterruptedException;
 
+  /**
+   * Blocking get, waiting at most the given time for the future to be resolved.
+   *
+   * @param timeout the maximum time to wait.
+   * @param unit the time unit of the {@code timeout} argument.
+   * @return the future value.
+   * @throws InterruptedException when the current thread is being interrupted.
+   * @throws TimeoutException when the future has not been resolved in time.
+   */
+  default Object blockingGet(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+    if (isResolved()) {
+      return get();
+    }
+    CountDownLatch latch = new CountDownLatch(1);
+    onSet(value -> latch.countDown());
+    onFail(error -> latch.countDown());
+    if (!latch.await(timeout, unit)) {
+      throw new TimeoutException();
+    }
+    return get();
+  }
+
   /**
    * Test whether the future has been resolved, that is, the future is either set or failed.
    *
@@ -68,6 +95,20 @@ public interface Future {
    */
   Future onFail(Observer observer);
 
+  /**
+   * Returns a {@code CompletableFuture} completed with the outcome of this future.
+   * <p>
+   * Completing the returned object doesn't affect this future.
+   *
+   * @return a new completable future.
+   */
+  default CompletableFuture<Object> toCompletableFuture() {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    onSet(result::complete);
+    onFail(error -> result.completeExceptionally((Throwable) error));
+    return result;
+  }
+
   /**
    * Simple interface for a future observer / callback.
    */
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import gololang.FunctionReference;
+import gololang.error.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Combinators over collections of futures.
+ * <p>
+ * The results are collected in a pre-allocated array as the futures get resolved, and a single counter tracks the
+ * remaining ones, so that the bookkeeping of each completion is constant-time and thread-safe. The futures that are
+ * already resolved are read directly, without registering observers.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.Async} module.
+ */
+public final class Futures {
+
+  private Futures() {
+    // utility class
+  }
+
+  private static final class Timer {
+    static final ScheduledExecutorService SCHEDULER;
+
+    static {
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+        Thread thread = new Thread(task, "golo-futures-timer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+      SCHEDULER = scheduler;
+    }
+  }
+
+  private static List<Future> toList(Object futures) {
+    Iterable<?> iterable;
+    if (futures instanceof Object[]) {
+      iterable = Arrays.asList((Object[]) futures);
+    } else if (futures instanceof Iterable) {
+      iterable = (Iterable<?>) futures;
+    } else {
+      throw new IllegalArgumentException("Expected a collection or an array of futures, got " + futures);
+    }
+    List<Future> list = new ArrayList<>();
+    for (Object future : iterable) {
+      list.add((Future) future);
+    }
+    return list;
+  }
+
+  /**
+   * Observes a future, calling {@code observer} with its value whether it is set or failed.
+   */
+  private static void whenResolved(Future future, Future.Observer observer) {
+    if (future.isResolved()) {
+      observer.apply(future.get());
+    } else {
+      future.onSet(observer).onFail(observer);
+    }
+  }
+
+  /**
+   * Collects the values of futures, as they get resolved.
+   */
+  private abstract static class Collector implements Future.Observer {
+    final AtomicReferenceArray<Object> results;
+    final AtomicInteger remaining;
+    final Promise promise;
+    final int index;
+
+    Collector(AtomicReferenceArray<Object> results, AtomicInteger remaining, Promise promise, int index) {
+      this.results = results;
+      this.remaining = remaining;
+      this.promise = promise;
+      this.index = index;
+    }
+
+    @Override
+    public void apply(Object value) {
+      results.set(index, convert(value));
+      if (remaining.decrementAndGet() == 0) {
+        ArrayList<Object> list = new ArrayList<>(results.length());
+        for (int i = 0; i < results.length(); i++) {
+          list.add(results.get(i));
+        }
+        promise.set(list);
+      }
+    }
+
+    abstract Object convert(Object value);
+  }
+
+  private static final class ValueCollector extends Collector {
+    ValueCollector(AtomicReferenceArray<Object> results, AtomicInteger remaining, Promise promise, int index) {
+      super(results, remaining, promise, index);
+    }
+
+    @Override
+    Object convert(Object value) {
+      return value;
+    }
+  }
+
+  private static final class ResultCollector extends Collector {
+    ResultCollector(AtomicReferenceArray<Object> results, AtomicInteger remaining, Promise promise, int index) {
+      super(results, remaining, promise, index);
+    }
+
+    @Override
+    Object convert(Object value) {
+      return Result.of(value);
+    }
+  }
+
+  /**
+   * Returns a future whose value is eventually a list of the values of some futures, in the same order.
+   * <p>
+   * The list contains the exception of the futures that failed.
+   *
+   * @param futures the futures, as a collection or an array.
+   * @return a future of the list of values.
+   */
+  public static Future all(Object futures) {
+    List<Future> list = toList(futures);
+    Promise promise = new Promise();
+    if (list.isEmpty()) {
+      return promise.set(new ArrayList<>()).future();
+    }
+    AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(list.size());
+    AtomicInteger remaining = new AtomicInteger(list.size());
+    for (int i = 0; i < list.size(); i++) {
+      whenResolved(list.get(i), new ValueCollector(results, remaining, promise, i));
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns a future whose value is eventually a list of the outcomes of some futures, in the same order.
+   * <p>
+   * Each outcome is a {@link Result}: an error for the futures that failed, and a value (or an empty result for a
+   * {@code null} value) for the futures that have been set.
+   *
+   * @param futures the futures, as a collection or an array.
+   * @return a future of the list of results.
+   */
+  public static Future allSettled(Object futures) {
+    List<Future> list = toList(futures);
+    Promise promise = new Promise();
+    if (list.isEmpty()) {
+      return promise.set(new ArrayList<>()).future();
+    }
+    AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(list.size());
+    AtomicInteger remaining = new AtomicInteger(list.size());
+    for (int i = 0; i < list.size(); i++) {
+      whenResolved(list.get(i), new ResultCollector(results, remaining, promise, i));
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns a future set to the value of the first future to be set.
+   * <p>
+   * If all the futures fail, then the returned future fails with a {@link NoSuchElementException}.
+   *
+   * @param futures the futures, as a collection or an array.
+   * @return a future of the first value.
+   */
+  public static Future any(Object futures) {
+    List<Future> list = toList(futures);
+    Promise promise = new Promise();
+    if (list.isEmpty()) {
+      return promise.fail(new NoSuchElementException()).future();
+    }
+    AtomicInteger remaining = new AtomicInteger(list.size());
+    Future.Observer onSet = promise::set;
+    Future.Observer onFail = error -> {
+      if (remaining.decrementAndGet() == 0) {
+        promise.fail(new NoSuchElementException());
+      }
+    };
+    for (Future future : list) {
+      if (promise.isResolved()) {
+        break;
+      }
+      future.onSet(onSet).onFail(onFail);
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns a future resolved like the first of some futures to be resolved, whether it is set or failed.
+   * <p>
+   * If there are no futures, the returned future is never resolved.
+   *
+   * @param futures the futures, as a collection or an array.
+   * @return a future of the first outcome.
+   */
+  public static Future race(Object futures) {
+    Promise promise = new Promise();
+    Future.Observer observer = promise::set;
+    for (Future future : toList(futures)) {
+      if (promise.isResolved()) {
+        break;
+      }
+      future.onSet(observer).onFail(observer);
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns a future set to the reduction of the values of some futures, in their order.
+   * <p>
+   * If any future fails, the returned future fails as soon as it does, with the same exception.
+   *
+   * @param futures the futures, as a collection or an array.
+   * @param init the initial value.
+   * @param reducer the reducing function, of the form {@code |acc, next| -> ...}.
+   * @return a future of the reduction.
+   */
+  public static Future reduce(Object futures, Object init, FunctionReference reducer) {
+    List<Future> list = toList(futures);
+    Promise promise = new Promise();
+    AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(list.size());
+    AtomicInteger remaining = new AtomicInteger(list.size() + 1);
+    Runnable complete = () -> {
+      try {
+        Object acc = init;
+        for (int i = 0; i < results.length(); i++) {
+          acc = reducer.invoke(acc, results.get(i));
+        }
+        promise.set(acc);
+      } catch (Throwable t) {
+        promise.fail(t);
+      }
+    };
+    for (int i = 0; i < list.size() && !promise.isResolved(); i++) {
+      final int index = i;
+      list.get(i).onSet(value -> {
+        results.set(index, value);
+        if (remaining.decrementAndGet() == 0) {
+          complete.run();
+        }
+      }).onFail(error -> promise.fail((Throwable) error));
+    }
+    if (remaining.decrementAndGet() == 0) {
+      complete.run();
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns a future resolved like another one, or failed with a {@link TimeoutException} if it is not resolved in
+   * time.
+   *
+   * @param future the future.
+   * @param timeout the maximum time to wait.
+   * @param unit the time unit of the {@code timeout} argument.
+   * @return a future with a timeout.
+   */
+  public static Future timeout(Future future, long timeout, TimeUnit unit) {
+    if (future.isResolved()) {
+      return future;
+    }
+    Promise promise = new Promise();
+    ScheduledFuture<?> timer = Timer.SCHEDULER.schedule(
+        () -> { promise.fail(new TimeoutException()); },
+        timeout, unit);
+    Future.Observer observer = value -> {
+      timer.cancel(false);
+      promise.set(value);
+    };
+    future.onSet(observer).onFail(observer);
+    return promise.future();
+  }
+}
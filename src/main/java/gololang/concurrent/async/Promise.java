@@ -10,24 +10,68 @@
 
 package gololang.concurrent.async;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A promise object is used to abstract over possibly asynchronous computations.
  *
  * You should consult the "golodoc" of the {@code gololang.Async} module.
+ * <p>
+ * Promises are lock-free: until the promise is resolved, its state is a stack of the registered observers and
+ * waiting threads, which is atomically swapped with the value upon resolution. Observing a promise that has already
+ * been resolved doesn't allocate.
  *
  * @see gololang.concurrent.async.Future
  * @see gololang.concurrent.async.AssignedFuture
  */
 public final class Promise {
 
-  private volatile boolean resolved = false;
-  private volatile Object value;
+  private static final int ON_SET = 0;
+  private static final int ON_FAIL = 1;
+  private static final int WAITER = 2;
 
-  private final Object lock = new Object();
-  private final HashSet<Future.Observer> setObservers = new HashSet<>();
-  private final HashSet<Future.Observer> failObservers = new HashSet<>();
+  /**
+   * Pending state: a stack of observers and waiting threads.
+   */
+  private static final class Node {
+    final int kind;
+    final Object target;
+    final Node next;
+
+    Node(int kind, Object target, Node next) {
+      this.kind = kind;
+      this.target = target;
+      this.next = next;
+    }
+  }
+
+  /**
+   * A thread blocked until the resolution, shared by the copies of its node when the stack is pruned.
+   */
+  private static final class Waiter {
+    final Thread thread = Thread.currentThread();
+    volatile boolean cancelled;
+  }
+
+  private static final Node PENDING = new Node(-1, null, null);
+  private static final Object NULL = new Object();
+
+  private static final AtomicReferenceFieldUpdater<Promise, Object> STATE =
+    AtomicReferenceFieldUpdater.newUpdater(Promise.class, Object.class, "state");
+
+  private volatile Object state = PENDING;
+  private Future view;
+
+  private static Object decode(Object state) {
+    return state == NULL ? null : state;
+  }
 
   /**
    * Checks whether the promise has been resolved.
@@ -35,7 +79,7 @@ public final class Promise {
    * @return {@code true} if it has been resolved, {@code false} otherwise.
    */
   public boolean isResolved() {
-    return resolved;
+    return !(state instanceof Node);
   }
 
   /**
@@ -44,7 +88,7 @@ public final class Promise {
    * @return {@code true} if it has been resolved and failed, {@code false} otherwise.
    */
   public boolean isFailed() {
-    return value instanceof Throwable;
+    return state instanceof Throwable;
   }
 
   /**
@@ -53,7 +97,8 @@ public final class Promise {
    * @return the promise value, which may be {@code null} if it has not been resolved yet.
    */
   public Object get() {
-    return value;
+    Object current = state;
+    return current instanceof Node ? null : decode(current);
   }
 
   /**
@@ -63,11 +108,117 @@ public final class Promise {
    * @throws InterruptedException if the current thread gets interrupted.
    */
   public Object blockingGet() throws InterruptedException {
-    synchronized (lock) {
-      while (!resolved) {
-        lock.wait();
+    try {
+      return await(false, 0L);
+    } catch (TimeoutException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Blocking get, waiting at most the given time for the promise to be resolved.
+   *
+   * @param timeout the maximum time to wait.
+   * @param unit the time unit of the {@code timeout} argument.
+   * @return the promise value.
+   * @throws InterruptedException if the current thread gets interrupted.
+   * @throws TimeoutException if the promise has not been resolved in time.
+   */
+  public Object blockingGet(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+    return await(true, unit.toNanos(timeout));
+  }
+
+  private Object await(boolean timed, long nanos) throws InterruptedException, TimeoutException {
+    Object current = state;
+    if (!(current instanceof Node)) {
+      return decode(current);
+    }
+    Waiter waiter = new Waiter();
+    if (!push(WAITER, waiter)) {
+      return decode(state);
+    }
+    final long deadline = timed ? System.nanoTime() + nanos : 0L;
+    while (true) {
+      current = state;
+      if (!(current instanceof Node)) {
+        return decode(current);
+      }
+      if (Thread.interrupted()) {
+        cancel(waiter);
+        throw new InterruptedException();
+      }
+      if (timed) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0L) {
+          cancel(waiter);
+          throw new TimeoutException();
+        }
+        LockSupport.parkNanos(this, remaining);
+      } else {
+        LockSupport.park(this);
+      }
+    }
+  }
+
+  /**
+   * Removes a waiter that gave up, so that timed out waits on a pending promise do not accumulate.
+   * <p>
+   * The nodes being immutable, the stack is replaced by a copy without the cancelled waiters.
+   */
+  private void cancel(Waiter waiter) {
+    waiter.cancelled = true;
+    while (true) {
+      Object current = state;
+      if (!(current instanceof Node)) {
+        return;
+      }
+      List<Node> live = new ArrayList<>();
+      boolean pruned = false;
+      for (Node node = (Node) current; node != PENDING; node = node.next) {
+        if (node.kind == WAITER && ((Waiter) node.target).cancelled) {
+          pruned = true;
+        } else {
+          live.add(node);
+        }
+      }
+      if (!pruned) {
+        return;
+      }
+      Node stack = PENDING;
+      for (int i = live.size() - 1; i >= 0; i--) {
+        Node node = live.get(i);
+        stack = new Node(node.kind, node.target, stack);
+      }
+      if (STATE.compareAndSet(this, current, stack)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of observers and waiting threads of a pending promise.
+   */
+  int pendingCount() {
+    int count = 0;
+    Object current = state;
+    if (current instanceof Node) {
+      for (Node node = (Node) current; node != PENDING; node = node.next) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private boolean push(int kind, Object target) {
+    while (true) {
+      Object current = state;
+      if (!(current instanceof Node)) {
+        return false;
+      }
+      Node node = new Node(kind, target, (Node) current);
+      if (STATE.compareAndSet(this, current, node)) {
+        return true;
       }
-      return value;
     }
   }
 
@@ -78,21 +229,37 @@ public final class Promise {
    * @return this promise.
    */
   public Promise set(Object value) {
-    if (resolved) {
-      return this;
+    Object resolved = value == null ? NULL : value;
+    while (true) {
+      Object current = state;
+      if (!(current instanceof Node)) {
+        return this;
+      }
+      if (STATE.compareAndSet(this, current, resolved)) {
+        fire((Node) current, value);
+        return this;
+      }
     }
-    synchronized (lock) {
-      if (!resolved) {
-        this.value = value;
-        this.resolved = true;
-        lock.notifyAll();
+  }
+
+  private static void fire(Node stack, Object value) {
+    Node reversed = null;
+    for (Node node = stack; node != PENDING; node = node.next) {
+      if (node.kind == WAITER) {
+        Waiter waiter = (Waiter) node.target;
+        if (!waiter.cancelled) {
+          LockSupport.unpark(waiter.thread);
+        }
+      } else {
+        reversed = new Node(node.kind, node.target, reversed);
       }
     }
-    HashSet<Future.Observer> observers = isFailed() ? failObservers : setObservers;
-    for (Future.Observer observer : observers) {
-      observer.apply(value);
+    int expected = value instanceof Throwable ? ON_FAIL : ON_SET;
+    for (Node node = reversed; node != null; node = node.next) {
+      if (node.kind == expected) {
+        ((Future.Observer) node.target).apply(value);
+      }
     }
-    return this;
   }
 
   /**
@@ -105,61 +272,95 @@ public final class Promise {
     return set(throwable);
   }
 
+  private void observe(int kind, Future.Observer observer) {
+    if (!push(kind, observer)) {
+      Object value = decode(state);
+      if ((value instanceof Throwable) == (kind == ON_FAIL)) {
+        observer.apply(value);
+      }
+    }
+  }
+
   /**
-   * Creates a new future to observe the eventual resolution of this promise.
+   * Resolves this promise with the outcome of a completion stage.
+   * <p>
+   * The promise fails with the cause of the exceptional completion of the stage.
    *
-   * @return a new future object.
+   * @param stage the completion stage.
+   * @return this promise.
    */
-  public Future future() {
-    return new Future() {
-      @Override
-      public Object get() {
-        return Promise.this.get();
+  public Promise completeWith(CompletionStage<?> stage) {
+    stage.whenComplete((value, error) -> {
+      if (error != null) {
+        fail(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+      } else {
+        set(value);
       }
+    });
+    return this;
+  }
 
-      @Override
-      public Object blockingGet() throws InterruptedException {
-        return Promise.this.blockingGet();
-      }
+  /**
+   * Returns the future to observe the eventual resolution of this promise.
+   *
+   * @return a future object.
+   */
+  public Future future() {
+    Future result = view;
+    if (result == null) {
+      result = new View();
+      view = result;
+    }
+    return result;
+  }
 
-      @Override
-      public boolean isResolved() {
-        return Promise.this.isResolved();
-      }
+  private final class View implements Future {
 
-      @Override
-      public boolean isFailed() {
-        return Promise.this.isFailed();
-      }
+    @Override
+    public Object get() {
+      return Promise.this.get();
+    }
 
-      @Override
-      public Future onSet(Observer observer) {
-        synchronized (lock) {
-          if (resolved && !Promise.this.isFailed()) {
-            observer.apply(value);
-          } else {
-            setObservers.add(observer);
-          }
-        }
-        return this;
-      }
+    @Override
+    public Object blockingGet() throws InterruptedException {
+      return Promise.this.blockingGet();
+    }
 
-      @Override
-      public Future onFail(Observer observer) {
-        synchronized (lock) {
-          if (resolved && Promise.this.isFailed()) {
-            observer.apply(value);
-          } else {
-            failObservers.add(observer);
-          }
-        }
-        return this;
-      }
-    };
+    @Override
+    public Object blockingGet(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+      return Promise.this.blockingGet(timeout, unit);
+    }
+
+    @Override
+    public boolean isResolved() {
+      return Promise.this.isResolved();
+    }
+
+    @Override
+    public boolean isFailed() {
+      return Promise.this.isFailed();
+    }
+
+    @Override
+    public Future onSet(Observer observer) {
+      observe(ON_SET, observer);
+      return this;
+    }
+
+    @Override
+    public Future onFail(Observer observer) {
+      observe(ON_FAIL, observer);
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return "Future{" + Promise.this + "}";
+    }
   }
 
   @Override
   public String toString() {
-    return String.format("Promise{resolved=%s, value=%s}", resolved, value);
+    return String.format("Promise{resolved=%s, value=%s}", isResolved(), get());
   }
 }
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import gololang.FunctionReference;
+import gololang.error.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scope for subtasks running in parallel with a joined lifetime.
+ * <p>
+ * Closures are forked onto an executor with {@link #fork(FunctionReference)}. The first subtask to fail cancels all
+ * its siblings, and {@link #join()} waits for every subtask to terminate before reporting the outcome as a
+ * {@link Result}: either the list of the subtask values, in fork order, or the first failure, the other ones being
+ * added to it as suppressed exceptions.
+ * <p>
+ * When a scope is created without an executor, it owns a fixed pool of daemon threads that is shut down by
+ * {@link #close()}, so that no thread outlives the scope.
+ * <p>
+ * This class is thread-safe: subtasks can fork new subtasks in the same scope.
+ * You should consult the "golodoc" of the {@code gololang.Control} module.
+ */
+public final class TaskScope {
+
+  private static final AtomicInteger SCOPE_IDS = new AtomicInteger();
+
+  private final Executor executor;
+  private final ExecutorService owned;
+  private final List<Subtask> subtasks = new ArrayList<>();
+  private int pending;
+  private boolean cancelled;
+  private boolean closed;
+  private boolean observed;
+  private Throwable failure;
+
+  private final class Subtask extends FutureTask<Object> {
+
+    private final Promise promise = new Promise();
+
+    Subtask(Callable<Object> task) {
+      super(task);
+    }
+
+    @Override
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        terminated();
+      }
+    }
+
+    void rejected(RejectedExecutionException e) {
+      setException(e);
+      terminated();
+    }
+
+    @Override
+    protected void done() {
+      if (isCancelled()) {
+        promise.fail(new CancellationException("Subtask cancelled"));
+        return;
+      }
+      try {
+        promise.set(get());
+      } catch (ExecutionException e) {
+        promise.fail(e.getCause());
+        failed(e.getCause());
+      } catch (InterruptedException e) {
+        promise.fail(e);
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Creates a scope running its subtasks on the given executor.
+   * <p>
+   * The executor is not shut down when the scope is closed.
+   *
+   * @param executor the executor to run the subtasks.
+   */
+  public TaskScope(Executor executor) {
+    this(executor, null);
+  }
+
+  private TaskScope(Executor executor, ExecutorService owned) {
+    this.executor = executor;
+    this.owned = owned;
+  }
+
+  /**
+   * Creates a scope owning a fixed pool of daemon threads.
+   *
+   * @param parallelism the maximum number of subtasks running at the same time.
+   * @return a new scope.
+   */
+  public static TaskScope withParallelism(int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+    }
+    String prefix = "golo-task-scope-" + SCOPE_IDS.incrementAndGet() + "-";
+    AtomicInteger threadIds = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, prefix + threadIds.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    return new TaskScope(pool, pool);
+  }
+
+  /**
+   * Creates a scope owning a fixed pool with as many threads as available processors.
+   *
+   * @return a new scope.
+   * @see #withParallelism(int)
+   */
+  public static TaskScope create() {
+    return withParallelism(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Forks a closure in this scope.
+   *
+   * @param task a closure without parameters.
+   * @return a future resolved with the closure result, or failed if it raises an exception or is cancelled.
+   * @throws IllegalStateException if the scope is closed.
+   */
+  public Future fork(FunctionReference task) {
+    return fork(() -> {
+      try {
+        return task.invoke();
+      } catch (Exception e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new RuntimeException(t);
+      }
+    });
+  }
+
+  /**
+   * Forks a task in this scope.
+   *
+   * @param task the task to run.
+   * @return a future resolved with the task result, or failed if it raises an exception or is cancelled.
+   * @throws IllegalStateException if the scope is closed.
+   */
+  public Future fork(Callable<Object> task) {
+    Subtask subtask = new Subtask(task);
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The task scope is closed");
+      }
+      subtasks.add(subtask);
+      pending++;
+      if (cancelled) {
+        subtask.cancel(false);
+      }
+    }
+    try {
+      executor.execute(subtask);
+    } catch (RejectedExecutionException e) {
+      subtask.rejected(e);
+    }
+    return subtask.promise.future();
+  }
+
+  private void failed(Throwable cause) {
+    synchronized (this) {
+      if (failure != null) {
+        if (failure != cause) {
+          failure.addSuppressed(cause);
+        }
+        return;
+      }
+      failure = cause;
+    }
+    cancel();
+  }
+
+  private synchronized void terminated() {
+    pending--;
+    if (pending == 0) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Cancels all the subtasks that are not completed yet.
+   * <p>
+   * Running subtasks are interrupted, and subtasks forked afterward are cancelled right away.
+   */
+  public void cancel() {
+    List<Subtask> toCancel;
+    synchronized (this) {
+      cancelled = true;
+      toCancel = new ArrayList<>(subtasks);
+    }
+    for (Subtask subtask : toCancel) {
+      subtask.cancel(true);
+    }
+  }
+
+  /**
+   * Checks whether this scope was cancelled, either explicitly or by a failing subtask.
+   */
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Returns the number of subtasks forked in this scope.
+   */
+  public synchronized int size() {
+    return subtasks.size();
+  }
+
+  /**
+   * Waits for all the subtasks to terminate, and reports their outcome.
+   * <p>
+   * If the waiting thread is interrupted, the scope is cancelled and the interruption is propagated.
+   *
+   * @return a result containing the list of the subtask values in fork order, the first failure with the other ones
+   * suppressed, or a {@code CancellationException} if the scope was cancelled without any failure.
+   */
+  public Result<List<Object>, Throwable> join() throws InterruptedException {
+    try {
+      awaitTermination();
+    } catch (InterruptedException e) {
+      cancel();
+      throw e;
+    }
+    synchronized (this) {
+      observed = true;
+      return outcome();
+    }
+  }
+
+  private synchronized void awaitTermination() throws InterruptedException {
+    while (pending > 0) {
+      wait();
+    }
+  }
+
+  private Result<List<Object>, Throwable> outcome() {
+    if (failure != null) {
+      return Result.error(failure);
+    }
+    if (cancelled) {
+      return Result.error(new CancellationException("The task scope was cancelled"));
+    }
+    List<Object> values = new ArrayList<>(subtasks.size());
+    for (Subtask subtask : subtasks) {
+      values.add(subtask.promise.get());
+    }
+    return Result.ok(values);
+  }
+
+  /**
+   * Closes this scope.
+   * <p>
+   * Waits for all the subtasks to terminate, and shuts down the executor if it is owned by the scope. No subtask can
+   * be forked afterward. If a subtask failed and the outcome was not observed by a call to {@link #join()}, the
+   * failure is thrown, so that it can't be silently lost.
+   *
+   * @throws Throwable the first subtask failure, if not already observed.
+   */
+  public void close() throws Throwable {
+    boolean interrupted = false;
+    synchronized (this) {
+      closed = true;
+    }
+    while (true) {
+      try {
+        awaitTermination();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+        cancel();
+      }
+    }
+    if (owned != null) {
+      owned.shutdown();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      if (failure != null && !observed) {
+        observed = true;
+        throw failure;
+      }
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("TaskScope{subtasks=%d, pending=%d, cancelled=%s, closed=%s}",
+        subtasks.size(), pending, cancelled, closed);
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.workers;
+
+import java.util.List;
+
+/**
+ * A worker function for asynchronously processing messages by batches.
+ * <p>
+ * Each call receives the messages that were waiting in the port queue, in order, up to the batch size of the
+ * worker environment.
+ *
+ * @see WorkerEnvironment#spawnBatchWorker(BatchWorkerFunction)
+ */
+@FunctionalInterface
+public interface BatchWorkerFunction {
+
+  /**
+   * Called by a worker executor to process a batch of messages.
+   *
+   * @param messages the non-empty list of messages to process, that the function may keep.
+   */
+  void apply(List<Object> messages);
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.workers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue backed by a pre-allocated array.
+ * <p>
+ * This is Dmitry Vyukov's bounded queue: each slot carries a sequence number telling whether it is ready to be
+ * written or read for the current lap, so that producers and consumers only contend on their own counter and
+ * enqueuing a message doesn't allocate. Although a port has a single consumer, the queue supports several of them so
+ * that a sender can evict the oldest message.
+ */
+final class BoundedArrayQueue {
+
+  private final Object[] buffer;
+  private final AtomicLongArray sequences;
+  private final int capacity;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  BoundedArrayQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+    }
+    this.capacity = capacity;
+    this.buffer = new Object[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  boolean offer(Object element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position % capacity);
+      long delta = sequences.get(index) - position;
+      if (delta == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          buffer[index] = element;
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (delta < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  Object poll() {
+    long position = head.get();
+    while (true) {
+      int index = (int) (position % capacity);
+      long delta = sequences.get(index) - (position + 1);
+      if (delta == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          Object element = buffer[index];
+          buffer[index] = null;
+          sequences.set(index, position + capacity);
+          return element;
+        }
+        position = head.get();
+      } else if (delta < 0) {
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+}
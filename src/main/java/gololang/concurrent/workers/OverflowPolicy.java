@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.workers;
+
+/**
+ * What a port does with a message sent while its bounded mailbox is full.
+ *
+ * @see WorkerEnvironment.Builder#withCapacity(int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+
+  /**
+   * The sender blocks until the worker makes room in the mailbox.
+   * <p>
+   * Beware that a worker sending to a full port whose worker needs the same executor thread to make progress may
+   * deadlock, for instance with a single-thread executor.
+   */
+  BLOCK,
+
+  /**
+   * The oldest message of the mailbox is discarded to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * The new message is discarded.
+   */
+  DROP_NEWEST,
+
+  /**
+   * The message is put aside until the worker makes room in the mailbox, without blocking the sender. The future
+   * returned by {@link Port#offer(Object)} is resolved when the message is eventually accepted.
+   */
+  DEFER
+}
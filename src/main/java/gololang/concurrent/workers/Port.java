@@ -10,24 +10,73 @@
 
 package gololang.concurrent.workers;
 
+import gololang.concurrent.async.Future;
+import gololang.concurrent.async.Promise;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A port is the communication endpoint to a worker function.
  * <p>
  * A port is obtained from a worker environment when spawning a function. It can then be used to send messages that
  * will be eventually processed by the target function. Messages are being put in a first-in, first-out queue.
+ * <p>
+ * Each time the port is scheduled on the executor, it processes up to a batch size of messages, and stops earlier
+ * if its time slice is elapsed, before giving the thread back to the executor. Larger batches reduce the scheduling
+ * overhead when the message rate is high, at the expense of fairness between ports sharing the same executor.
+ * The messages are always processed in order, and never concurrently.
+ * <p>
+ * The mailbox of a port is unbounded by default. A port can also be given a capacity, in which case its messages are
+ * stored in a pre-allocated array, and an {@link OverflowPolicy} tells what happens to the messages sent while the
+ * mailbox is full.
  */
 public final class Port {
 
+  /**
+   * The default number of messages processed per scheduling.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1;
+
+  /**
+   * The capacity of unbounded mailboxes.
+   */
+  public static final int UNBOUNDED = 0;
+
   private final ExecutorService executor;
   private final WorkerFunction function;
+  private final BatchWorkerFunction batchFunction;
+  private final int batchSize;
+  private final long timeSlice;
+  private final OverflowPolicy policy;
 
-  private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Object> queue;
+  private final BoundedArrayQueue boundedQueue;
   private final AtomicBoolean running = new AtomicBoolean(false);
 
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicInteger blockedSenders = new AtomicInteger();
+  private final Object notFull = new Object();
+  private final ArrayDeque<Deferred> deferred = new ArrayDeque<>();
+  private volatile boolean hasDeferred = false;
+
+  private static final class Deferred {
+    final Object message;
+    final Promise promise;
+
+    Deferred(Object message, Promise promise) {
+      this.message = message;
+      this.promise = promise;
+    }
+  }
+
   /**
    * Port constructor.
    *
@@ -35,8 +84,80 @@ public final class Port {
    * @param function the target worker function.
    */
   public Port(ExecutorService executor, WorkerFunction function) {
+    this(executor, function, DEFAULT_BATCH_SIZE, 0L);
+  }
+
+  /**
+   * Port constructor.
+   *
+   * @param executor the executor to dispatch the asynchronous message handling jobs to.
+   * @param function the target worker function.
+   * @param batchSize the maximum number of messages to process per scheduling.
+   * @param timeSlice the maximum duration in nanoseconds of a scheduling, or {@code 0} for no limit.
+   */
+  public Port(ExecutorService executor, WorkerFunction function, int batchSize, long timeSlice) {
+    this(executor, function, batchSize, timeSlice, UNBOUNDED, OverflowPolicy.BLOCK);
+  }
+
+  /**
+   * Port constructor.
+   *
+   * @param executor the executor to dispatch the asynchronous message handling jobs to.
+   * @param function the target worker function.
+   * @param batchSize the maximum number of messages to process per scheduling.
+   * @param timeSlice the maximum duration in nanoseconds of a scheduling, or {@code 0} for no limit.
+   * @param capacity the maximum number of pending messages, or {@link #UNBOUNDED}.
+   * @param policy what to do with the messages sent while the mailbox is full.
+   */
+  public Port(ExecutorService executor, WorkerFunction function, int batchSize, long timeSlice,
+      int capacity, OverflowPolicy policy) {
+    this(executor, function, null, batchSize, timeSlice, capacity, policy);
+  }
+
+  /**
+   * Port constructor for a batch worker function.
+   *
+   * @param executor the executor to dispatch the asynchronous message handling jobs to.
+   * @param function the target batch worker function.
+   * @param batchSize the maximum number of messages given to each call of {@code function}.
+   */
+  public Port(ExecutorService executor, BatchWorkerFunction function, int batchSize) {
+    this(executor, function, batchSize, UNBOUNDED, OverflowPolicy.BLOCK);
+  }
+
+  /**
+   * Port constructor for a batch worker function.
+   *
+   * @param executor the executor to dispatch the asynchronous message handling jobs to.
+   * @param function the target batch worker function.
+   * @param batchSize the maximum number of messages given to each call of {@code function}.
+   * @param capacity the maximum number of pending messages, or {@link #UNBOUNDED}.
+   * @param policy what to do with the messages sent while the mailbox is full.
+   */
+  public Port(ExecutorService executor, BatchWorkerFunction function, int batchSize,
+      int capacity, OverflowPolicy policy) {
+    this(executor, null, function, batchSize, 0L, capacity, policy);
+  }
+
+  private Port(ExecutorService executor, WorkerFunction function, BatchWorkerFunction batchFunction,
+      int batchSize, long timeSlice, int capacity, OverflowPolicy policy) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive, got " + batchSize);
+    }
+    if (timeSlice < 0) {
+      throw new IllegalArgumentException("The time slice can't be negative, got " + timeSlice);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("The capacity can't be negative, got " + capacity);
+    }
     this.executor = executor;
     this.function = function;
+    this.batchFunction = batchFunction;
+    this.batchSize = batchSize;
+    this.timeSlice = timeSlice;
+    this.policy = Objects.requireNonNull(policy);
+    this.queue = capacity == UNBOUNDED ? new ConcurrentLinkedQueue<>() : null;
+    this.boundedQueue = capacity == UNBOUNDED ? null : new BoundedArrayQueue(capacity);
   }
 
   private final Runnable runner = new Runnable() {
@@ -44,8 +165,15 @@ public final class Port {
     public void run() {
       if (running.get()) {
         try {
-          function.apply(queue.poll());
+          if (batchFunction != null) {
+            drainBatch();
+          } else {
+            drain();
+          }
         } finally {
+          if (hasDeferred) {
+            acceptDeferred();
+          }
           running.set(false);
           scheduleNext();
         }
@@ -53,8 +181,53 @@ public final class Port {
     }
   };
 
+  private void drain() {
+    final long start = timeSlice > 0 ? System.nanoTime() : 0L;
+    for (int i = 0; i < batchSize; i++) {
+      Object message = take();
+      if (message == null) {
+        return;
+      }
+      function.apply(message);
+      if (timeSlice > 0 && System.nanoTime() - start >= timeSlice) {
+        return;
+      }
+    }
+  }
+
+  private void drainBatch() {
+    List<Object> batch = new ArrayList<>(Math.min(batchSize, 64));
+    while (batch.size() < batchSize) {
+      Object message = take();
+      if (message == null) {
+        break;
+      }
+      batch.add(message);
+    }
+    if (!batch.isEmpty()) {
+      batchFunction.apply(batch);
+    }
+  }
+
+  private Object take() {
+    if (boundedQueue == null) {
+      return queue.poll();
+    }
+    Object message = boundedQueue.poll();
+    if (message != null && blockedSenders.get() > 0) {
+      synchronized (notFull) {
+        notFull.notifyAll();
+      }
+    }
+    return message;
+  }
+
+  private boolean isEmpty() {
+    return boundedQueue == null ? queue.isEmpty() : boundedQueue.isEmpty();
+  }
+
   private void scheduleNext() {
-    if (!queue.isEmpty() && running.compareAndSet(false, true)) {
+    if (!isEmpty() && running.compareAndSet(false, true)) {
       try {
         executor.execute(runner);
       } catch (Throwable t) {
@@ -64,16 +237,111 @@ public final class Port {
     }
   }
 
+  private boolean enqueue(Object message, Promise promise) {
+    Objects.requireNonNull(message, "Messages can't be null");
+    if (boundedQueue == null) {
+      return queue.offer(message);
+    }
+    if (!hasDeferred && boundedQueue.offer(message)) {
+      return true;
+    }
+    switch (policy) {
+      case DROP_NEWEST:
+        dropped.incrementAndGet();
+        return false;
+      case DROP_OLDEST:
+        while (!boundedQueue.offer(message)) {
+          if (boundedQueue.poll() != null) {
+            dropped.incrementAndGet();
+          }
+        }
+        return true;
+      case DEFER:
+        synchronized (deferred) {
+          deferred.addLast(new Deferred(message, promise));
+          hasDeferred = true;
+        }
+        acceptDeferred();
+        return false;
+      default:
+        return waitForRoom(message);
+    }
+  }
+
+  private boolean waitForRoom(Object message) {
+    blockedSenders.incrementAndGet();
+    try {
+      synchronized (notFull) {
+        while (!boundedQueue.offer(message)) {
+          notFull.wait();
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      blockedSenders.decrementAndGet();
+    }
+  }
+
+  private void acceptDeferred() {
+    synchronized (deferred) {
+      while (!deferred.isEmpty() && boundedQueue.offer(deferred.peekFirst().message)) {
+        Promise promise = deferred.pollFirst().promise;
+        if (promise != null) {
+          promise.set(Boolean.TRUE);
+        }
+      }
+      hasDeferred = !deferred.isEmpty();
+    }
+  }
+
   /**
    * Sends a message to the target worker function. This method returns immediately as message processing is
-   * asynchronous.
+   * asynchronous, unless the mailbox is bounded, full, and uses the {@link OverflowPolicy#BLOCK} policy.
    *
    * @param message the message of any type.
    * @return the same port object.
    */
   public Port send(Object message) {
-    queue.offer(message);
+    enqueue(message, null);
     scheduleNext();
     return this;
   }
+
+  /**
+   * Sends a message to the target worker function, and tells whether it has been accepted in the mailbox.
+   * <p>
+   * The returned future is resolved to {@code true} once the message is in the mailbox, or to {@code false} if it has
+   * been discarded because the mailbox was full. With the {@link OverflowPolicy#DEFER} policy, the future is
+   * resolved when the worker eventually makes room for the message.
+   *
+   * @param message the message of any type.
+   * @return a future of whether the message has been accepted.
+   */
+  public Future offer(Object message) {
+    Promise promise = new Promise();
+    if (enqueue(message, promise)) {
+      promise.set(Boolean.TRUE);
+    } else if (policy != OverflowPolicy.DEFER) {
+      promise.set(Boolean.FALSE);
+    }
+    scheduleNext();
+    return promise.future();
+  }
+
+  /**
+   * @return the maximum number of pending messages, or {@link #UNBOUNDED}.
+   */
+  public int capacity() {
+    return boundedQueue == null ? UNBOUNDED : boundedQueue.capacity();
+  }
+
+  /**
+   * @return the number of messages discarded so far because the mailbox was full.
+   */
+  public long droppedMessages() {
+    return dropped.get();
+  }
 }
@@ -12,7 +12,9 @@ package gololang.concurrent.workers;
 
 import gololang.FunctionReference;
 import gololang.Predefined;
+import gololang.concurrent.async.ExecutorServices;
 
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -27,6 +29,10 @@ import java.util.concurrent.TimeUnit;
 public final class WorkerEnvironment {
 
   private final ExecutorService executor;
+  private final int batchSize;
+  private final long timeSlice;
+  private final int capacity;
+  private final OverflowPolicy policy;
 
   /**
    * Creates a new worker environment using an executor.
@@ -34,7 +40,48 @@ public final class WorkerEnvironment {
    * @param executor the executor.
    */
   public WorkerEnvironment(ExecutorService executor) {
+    this(executor, Port.DEFAULT_BATCH_SIZE, 0L);
+  }
+
+  /**
+   * Creates a new worker environment using an executor, and processing messages by batches.
+   *
+   * @param executor the executor.
+   * @param batchSize the maximum number of messages a port processes per scheduling.
+   * @param timeSlice the maximum duration in nanoseconds of a port scheduling, or {@code 0} for no limit.
+   * @see Port
+   */
+  public WorkerEnvironment(ExecutorService executor, int batchSize, long timeSlice) {
+    this(executor, batchSize, timeSlice, Port.UNBOUNDED, OverflowPolicy.BLOCK);
+  }
+
+  /**
+   * Creates a new worker environment using an executor, processing messages by batches, and whose ports have bounded
+   * mailboxes.
+   *
+   * @param executor the executor.
+   * @param batchSize the maximum number of messages a port processes per scheduling.
+   * @param timeSlice the maximum duration in nanoseconds of a port scheduling, or {@code 0} for no limit.
+   * @param capacity the maximum number of pending messages of each port, or {@link Port#UNBOUNDED}.
+   * @param policy what ports do with the messages sent while their mailbox is full.
+   * @see Port
+   */
+  public WorkerEnvironment(ExecutorService executor, int batchSize, long timeSlice,
+      int capacity, OverflowPolicy policy) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive, got " + batchSize);
+    }
+    if (timeSlice < 0) {
+      throw new IllegalArgumentException("The time slice can't be negative, got " + timeSlice);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("The capacity can't be negative, got " + capacity);
+    }
     this.executor = executor;
+    this.batchSize = batchSize;
+    this.timeSlice = timeSlice;
+    this.capacity = capacity;
+    this.policy = Objects.requireNonNull(policy);
   }
 
   /**
@@ -54,15 +101,104 @@ public final class WorkerEnvironment {
 
   /**
    * Worker environment builder objects exist mostly to provide a good-looking API in Golo.
+   * <p>
+   * The batching options must be set before calling one of the {@code with...} methods creating the environment,
+   * as in:
+   * <pre class="listing"><code class="lang-golo" data-lang="golo">
+   * let env = WorkerEnvironment.builder(): withBatchSize(64): withFixedThreadPool()
+   * </code></pre>
    */
   public static class Builder {
 
+    private int batchSize = Port.DEFAULT_BATCH_SIZE;
+    private long timeSlice = 0L;
+    private int capacity = Port.UNBOUNDED;
+    private OverflowPolicy policy = OverflowPolicy.BLOCK;
+
+    /**
+     * Sets the maximum number of messages that a port processes each time it is scheduled.
+     * <p>
+     * This is also the maximum size of the batches given to batch worker functions.
+     *
+     * @param size the batch size.
+     * @return the same builder object.
+     */
+    public Builder withBatchSize(int size) {
+      if (size < 1) {
+        throw new IllegalArgumentException("The batch size must be positive, got " + size);
+      }
+      this.batchSize = size;
+      return this;
+    }
+
+    /**
+     * Sets the maximum duration of a port scheduling: a port stops processing its messages once the time slice is
+     * elapsed, even if the batch size is not reached.
+     *
+     * @param duration the time slice duration, or {@code 0} for no limit.
+     * @param unit the duration unit.
+     * @return the same builder object.
+     */
+    public Builder withTimeSlice(long duration, TimeUnit unit) {
+      if (duration < 0) {
+        throw new IllegalArgumentException("The time slice can't be negative, got " + duration);
+      }
+      this.timeSlice = unit.toNanos(duration);
+      return this;
+    }
+
+    /**
+     * Sets the maximum duration of a port scheduling in milliseconds.
+     *
+     * @param millis the time slice duration, or {@code 0} for no limit.
+     * @return the same builder object.
+     * @see #withTimeSlice(long, TimeUnit)
+     */
+    public Builder withTimeSlice(long millis) {
+      return withTimeSlice(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Bounds the mailbox of each port.
+     *
+     * @param capacity the maximum number of pending messages of each port.
+     * @param policy what ports do with the messages sent while their mailbox is full.
+     * @return the same builder object.
+     */
+    public Builder withCapacity(int capacity, OverflowPolicy policy) {
+      if (capacity < 1) {
+        throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+      }
+      this.capacity = capacity;
+      this.policy = Objects.requireNonNull(policy);
+      return this;
+    }
+
+    /**
+     * Bounds the mailbox of each port, blocking the senders while it is full.
+     *
+     * @param capacity the maximum number of pending messages of each port.
+     * @return the same builder object.
+     * @see #withCapacity(int, OverflowPolicy)
+     */
+    public Builder withCapacity(int capacity) {
+      return withCapacity(capacity, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param executor the executor to use.
+     * @return a worker environment with the given executor.
+     */
+    public WorkerEnvironment withExecutor(ExecutorService executor) {
+      return new WorkerEnvironment(executor, batchSize, timeSlice, capacity, policy);
+    }
+
     /**
      * @return a worker environment with a cached thread pool.
      * @see java.util.concurrent.Executors#newCachedThreadPool()
      */
     public WorkerEnvironment withCachedThreadPool() {
-      return newWorkerEnvironment();
+      return withExecutor(Executors.newCachedThreadPool());
     }
 
     /**
@@ -71,7 +207,7 @@ public final class WorkerEnvironment {
      * @see Executors#newFixedThreadPool(int)
      */
     public WorkerEnvironment withFixedThreadPool(int size) {
-      return new WorkerEnvironment(Executors.newFixedThreadPool(size));
+      return withExecutor(Executors.newFixedThreadPool(size));
     }
 
     /**
@@ -87,7 +223,44 @@ public final class WorkerEnvironment {
      * @return a worker environment with a single executor thread.
      */
     public WorkerEnvironment withSingleThreadExecutor() {
-      return new WorkerEnvironment(Executors.newSingleThreadExecutor());
+      return withExecutor(Executors.newSingleThreadExecutor());
+    }
+
+    /**
+     * Creates a worker environment with a work-stealing pool.
+     * <p>
+     * When a port reschedules itself from a pool thread, it is queued on that same thread, which keeps its messages
+     * close to the thread that processed the previous ones. Each port is still processed by at most one thread at a
+     * time, so that its messages are processed in order.
+     *
+     * @param parallelism the number of threads.
+     * @return a worker environment with a work-stealing pool.
+     * @see ExecutorServices#workStealing(int)
+     */
+    public WorkerEnvironment withWorkStealingPool(int parallelism) {
+      return withExecutor(ExecutorServices.workStealing(parallelism));
+    }
+
+    /**
+     * @return a worker environment with a work-stealing pool in the number of available processors.
+     * @see #withWorkStealingPool(int)
+     */
+    public WorkerEnvironment withWorkStealingPool() {
+      return withExecutor(ExecutorServices.workStealing());
+    }
+
+    /**
+     * Creates a worker environment starting a virtual thread each time a port is scheduled.
+     * <p>
+     * This allows a large number of workers to block, for instance on IO, without as many platform threads. Each port
+     * is still processed by at most one thread at a time, so that its messages are processed in order.
+     *
+     * @return a worker environment with a virtual thread per task executor.
+     * @throws UnsupportedOperationException if the running JVM doesn't support virtual threads.
+     * @see ExecutorServices#hasVirtualThreads()
+     */
+    public WorkerEnvironment withVirtualThreads() {
+      return withExecutor(ExecutorServices.virtualThreadPerTask());
     }
   }
 
@@ -108,7 +281,29 @@ public final class WorkerEnvironment {
    * @return a port to send messages to <code>function</code>.
    */
   public Port spawnWorker(WorkerFunction function) {
-    return new Port(executor, function);
+    return new Port(executor, function, batchSize, timeSlice, capacity, policy);
+  }
+
+  /**
+   * Spawns a batch worker function.
+   * <p>
+   * The function receives a list of the pending messages, up to the batch size of this environment.
+   *
+   * @param func the worker target.
+   * @return a port to send messages to <code>handle</code>.
+   */
+  public Port spawnBatch(FunctionReference func) {
+    return spawnBatchWorker((BatchWorkerFunction) Predefined.asInterfaceInstance(BatchWorkerFunction.class, func));
+  }
+
+  /**
+   * Spawns a batch worker function.
+   *
+   * @param function the worker target.
+   * @return a port to send messages to <code>function</code>.
+   */
+  public Port spawnBatchWorker(BatchWorkerFunction function) {
+    return new Port(executor, function, batchSize, capacity, policy);
   }
 
   /**
@@ -99,10 +99,21 @@ public final class CollectionComprehension extends ExpressionStatement<Collectio
   }
 
   public CollectionLiteral.Type getMutableType() {
-    return (CollectionLiteral.Type.tuple.equals(type)
-       || CollectionLiteral.Type.array.equals(type))
-      ? CollectionLiteral.Type.list
-      : type;
+    switch (type) {
+      case tuple:
+      case array:
+      case pvector:
+      case ivector:
+      case lvector:
+      case dvector:
+        return CollectionLiteral.Type.list;
+      case pset:
+        return CollectionLiteral.Type.set;
+      case pmap:
+        return CollectionLiteral.Type.map;
+      default:
+        return type;
+    }
   }
 
   /**
@@ -28,7 +28,7 @@ import gololang.ir.CollectionLiteral.Type;
 public final class CollectionLiteral extends ExpressionStatement<CollectionLiteral> {
 
   public enum Type {
-    array, list, set, map, tuple, vector, range
+    array, list, set, map, tuple, vector, range, pvector, pset, pmap, ivector, lvector, dvector
   }
 
   private final Type type;
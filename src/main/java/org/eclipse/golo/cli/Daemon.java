@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli;
+
+import org.eclipse.golo.cli.command.ClasspathOption;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+
+import static gololang.Messages.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A server running the compilation commands in a warm JVM.
+ * <p>
+ * The daemon serves the {@code compile} and {@code check} commands run from its working directory, so that the
+ * relative paths of the arguments are the same as with a direct run. The {@code golo} command is not served, since a
+ * program calling {@code System.exit} would stop the daemon. The daemon listens on a loopback port, written with a
+ * random authentication token in a file of the {@code ~/.golo/daemon} directory, readable only by its owner.
+ * <p>
+ * The commands are run one at a time, with the default classpath of the client (see
+ * {@link ClasspathOption#defaultClassPath()}). Their standard and error outputs are sent back to the client, and their
+ * exit status is returned instead of stopping the JVM (see {@link Main#exit(int)}).
+ * <p>
+ * The protocol is the following. The client sends the token, a request kind and, to run a command, its default
+ * classpath, the number of arguments and the arguments, all with {@link DataOutput#writeUTF(String)} except the number
+ * of arguments, written with {@link DataOutput#writeInt(int)}. The daemon answers with frames made of a kind byte
+ * followed by an {@code int}: the length of the following bytes for the outputs, or the exit status for the last frame.
+ */
+public final class Daemon {
+
+  /**
+   * The commands that can be run by the daemon.
+   */
+  public static final Set<String> COMMANDS = Collections.unmodifiableSet(
+      new HashSet<>(Arrays.asList("compile", "check")));
+
+  private static final String RUN = "run";
+  private static final String STATUS = "status";
+  private static final String STOP = "stop";
+
+  private static final int REQUEST_TIMEOUT = 10_000;
+
+  private static final byte EXIT = 0;
+  private static final byte OUT = 1;
+  private static final byte ERR = 2;
+
+  private static volatile boolean serving = false;
+
+  /**
+   * Thrown by {@link Main#exit(int)} to end a command run by the daemon.
+   */
+  static final class Exit extends Error {
+    private static final long serialVersionUID = 1L;
+
+    final int status;
+
+    Exit(int status) {
+      super(null, null, false, false);
+      this.status = status;
+    }
+  }
+
+  private final Path directory;
+  private final Path infoFile;
+  private final ServerSocket server;
+  private final String token;
+  private final boolean verbose;
+  private final long started = System.currentTimeMillis();
+  private int served = 0;
+
+  private Daemon(Path directory, Path infoFile, ServerSocket server, String token, boolean verbose) {
+    this.directory = directory;
+    this.infoFile = infoFile;
+    this.server = server;
+    this.token = token;
+    this.verbose = verbose;
+  }
+
+  /**
+   * Checks if a command is currently run by a daemon.
+   */
+  static boolean serving() {
+    return serving;
+  }
+
+  /**
+   * Checks if the client should forward the commands to a daemon.
+   * <p>
+   * The forwarding is enabled with the {@code golo.daemon} property or the {@code GOLO_DAEMON} environment variable.
+   */
+  public static boolean enabled() {
+    return gololang.Runtime.loadBoolean("golo.daemon", "GOLO_DAEMON", false);
+  }
+
+  /**
+   * The file describing the daemon serving a directory.
+   */
+  public static Path infoFile(Path directory) {
+    return Paths.get(System.getProperty("user.home"), ".golo", "daemon",
+        Integer.toHexString(directory.toString().hashCode()) + ".properties");
+  }
+
+  /**
+   * Creates a daemon serving the given directory.
+   *
+   * @param directory the working directory of the served commands.
+   * @param idleMinutes the daemon stops after this number of minutes without requests, or never if {@code 0}.
+   * @param verbose log the requests on the error output.
+   */
+  public static Daemon start(Path directory, int idleMinutes, boolean verbose) throws IOException {
+    return start(directory, infoFile(directory), idleMinutes, verbose);
+  }
+
+  static Daemon start(Path directory, Path infoFile, int idleMinutes, boolean verbose) throws IOException {
+    ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    server.setSoTimeout(idleMinutes * 60_000);
+    byte[] random = new byte[32];
+    new SecureRandom().nextBytes(random);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    Properties info = new Properties();
+    info.setProperty("directory", directory.toString());
+    info.setProperty("port", String.valueOf(server.getLocalPort()));
+    info.setProperty("token", token);
+    Files.createDirectories(infoFile.getParent());
+    Path temp = Files.createTempFile(infoFile.getParent(), "daemon", ".tmp");
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+    }
+    try (Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+      info.store(writer, "Golo daemon");
+    }
+    Files.move(temp, infoFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    return new Daemon(directory, infoFile, server, token, verbose);
+  }
+
+  public int port() {
+    return server.getLocalPort();
+  }
+
+  /**
+   * Serves the requests until the daemon is stopped or idle.
+   */
+  public void serve() throws IOException {
+    try {
+      while (true) {
+        Socket socket;
+        try {
+          socket = server.accept();
+        } catch (SocketTimeoutException e) {
+          info(message("daemon_idle"));
+          return;
+        }
+        try (Socket client = socket) {
+          if (!handle(client)) {
+            return;
+          }
+        } catch (IOException e) {
+          warning(message("daemon_request_error", e.getMessage()));
+        }
+      }
+    } finally {
+      server.close();
+      Files.deleteIfExists(infoFile);
+    }
+  }
+
+  private boolean handle(Socket socket) throws IOException {
+    socket.setSoTimeout(REQUEST_TIMEOUT);
+    DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    if (!MessageDigest.isEqual(token.getBytes(UTF_8), input.readUTF().getBytes(UTF_8))) {
+      return true;
+    }
+    String request = input.readUTF();
+    if (STOP.equals(request)) {
+      send(output, EXIT, 0);
+      output.flush();
+      return false;
+    }
+    if (STATUS.equals(request)) {
+      write(output, OUT, (message("daemon_status", directory, port(), served,
+              (System.currentTimeMillis() - started) / 60_000) + System.lineSeparator()).getBytes());
+      send(output, EXIT, 0);
+      output.flush();
+      return true;
+    }
+    String classpath = input.readUTF();
+    String[] args = new String[input.readInt()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = input.readUTF();
+    }
+    int status;
+    if (args.length == 0 || !COMMANDS.contains(args[0])) {
+      write(output, ERR, (message("daemon_unsupported", COMMANDS) + System.lineSeparator()).getBytes());
+      status = 1;
+    } else {
+      long start = System.currentTimeMillis();
+      status = run(args, classpath, output);
+      served++;
+      if (verbose) {
+        info(message("daemon_request", String.join(" ", args), status, System.currentTimeMillis() - start));
+      }
+    }
+    send(output, EXIT, status);
+    output.flush();
+    return true;
+  }
+
+  private static int run(String[] args, String classpath, DataOutputStream output) {
+    PrintStream out = System.out;
+    PrintStream err = System.err;
+    // the command writes its classpath in the property, which must not leak to the next ones
+    String property = System.getProperty(ClasspathOption.PROPERTY);
+    System.setProperty(ClasspathOption.PROPERTY, classpath);
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    PrintStream clientOut = new PrintStream(new FrameOutputStream(output, OUT), true);
+    PrintStream clientErr = new PrintStream(new FrameOutputStream(output, ERR), true);
+    System.setOut(clientOut);
+    System.setErr(clientErr);
+    serving = true;
+    try {
+      Main.run(args);
+      return 0;
+    } catch (Exit e) {
+      return e.status;
+    } catch (Throwable e) {
+      e.printStackTrace();
+      return 1;
+    } finally {
+      serving = false;
+      clientOut.flush();
+      clientErr.flush();
+      System.setOut(out);
+      System.setErr(err);
+      Thread.currentThread().setContextClassLoader(loader);
+      if (property == null) {
+        System.clearProperty(ClasspathOption.PROPERTY);
+      } else {
+        System.setProperty(ClasspathOption.PROPERTY, property);
+      }
+    }
+  }
+
+  private static void send(DataOutputStream output, byte kind, int value) throws IOException {
+    synchronized (output) {
+      output.writeByte(kind);
+      output.writeInt(value);
+    }
+  }
+
+  private static void write(DataOutputStream output, byte kind, byte[] bytes) throws IOException {
+    write(output, kind, bytes, 0, bytes.length);
+  }
+
+  private static void write(DataOutputStream output, byte kind, byte[] bytes, int offset, int length) throws IOException {
+    synchronized (output) {
+      send(output, kind, length);
+      output.write(bytes, offset, length);
+    }
+  }
+
+  /**
+   * Sends an output of the command to the client.
+   */
+  private static final class FrameOutputStream extends OutputStream {
+    private final DataOutputStream output;
+    private final byte kind;
+
+    FrameOutputStream(DataOutputStream output, byte kind) {
+      this.output = output;
+      this.kind = kind;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      Daemon.write(output, kind, bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output.flush();
+    }
+  }
+
+  /**
+   * Runs a command in the daemon serving the given directory, if any.
+   *
+   * @return the exit status of the command, or nothing if no daemon serves the directory.
+   */
+  public static OptionalInt forward(Path directory, String... args) {
+    return forward(infoFile(directory), directory, args);
+  }
+
+  static OptionalInt forward(Path infoFile, Path directory, String... args) {
+    try (Socket socket = connect(infoFile, directory)) {
+      if (socket == null) {
+        return OptionalInt.empty();
+      }
+      DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      output.writeUTF(RUN);
+      output.writeUTF(ClasspathOption.defaultClassPath());
+      output.writeInt(args.length);
+      for (String arg : args) {
+        output.writeUTF(arg);
+      }
+      output.flush();
+      return OptionalInt.of(receive(socket));
+    } catch (IOException e) {
+      error(message("daemon_lost"));
+      error(e.getMessage(), "  ");
+      return OptionalInt.of(1);
+    }
+  }
+
+  /**
+   * Prints the status of the daemon serving the given directory.
+   *
+   * @return {@code false} if no daemon serves the directory.
+   */
+  public static boolean status(Path directory) throws IOException {
+    return status(infoFile(directory), directory);
+  }
+
+  static boolean status(Path infoFile, Path directory) throws IOException {
+    return control(infoFile, directory, STATUS);
+  }
+
+  /**
+   * Stops the daemon serving the given directory.
+   *
+   * @return {@code false} if no daemon serves the directory.
+   */
+  public static boolean stop(Path directory) throws IOException {
+    return stop(infoFile(directory), directory);
+  }
+
+  static boolean stop(Path infoFile, Path directory) throws IOException {
+    return control(infoFile, directory, STOP);
+  }
+
+  private static boolean control(Path infoFile, Path directory, String request) throws IOException {
+    try (Socket socket = connect(infoFile, directory)) {
+      if (socket == null) {
+        return false;
+      }
+      DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      output.writeUTF(request);
+      output.flush();
+      receive(socket);
+      return true;
+    }
+  }
+
+  /**
+   * Connects to the daemon and authenticates.
+   *
+   * @return the connected socket, or {@code null} if the daemon is not running.
+   */
+  private static Socket connect(Path infoFile, Path directory) throws IOException {
+    if (!Files.exists(infoFile)) {
+      return null;
+    }
+    Properties info = new Properties();
+    try (Reader reader = Files.newBufferedReader(infoFile, UTF_8)) {
+      info.load(reader);
+    }
+    if (!directory.toString().equals(info.getProperty("directory"))) {
+      return null;
+    }
+    Socket socket;
+    try {
+      socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(info.getProperty("port")));
+    } catch (IOException | NumberFormatException e) {
+      // the daemon died without removing its file
+      Files.deleteIfExists(infoFile);
+      return null;
+    }
+    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+    output.writeUTF(info.getProperty("token"));
+    return socket;
+  }
+
+  private static int receive(Socket socket) throws IOException {
+    DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    byte[] buffer = new byte[8192];
+    while (true) {
+      byte kind;
+      try {
+        kind = input.readByte();
+      } catch (EOFException e) {
+        // the daemon JVM exited while running the command
+        error(message("daemon_lost"));
+        return 1;
+      }
+      int value = input.readInt();
+      if (kind == EXIT) {
+        System.out.flush();
+        System.err.flush();
+        return value;
+      }
+      PrintStream stream = kind == OUT ? System.out : System.err;
+      while (value > 0) {
+        int read = input.read(buffer, 0, Math.min(value, buffer.length));
+        if (read < 0) {
+          throw new EOFException();
+        }
+        stream.write(buffer, 0, read);
+        value -= read;
+      }
+    }
+  }
+}
@@ -46,6 +46,19 @@ public final class Main {
   }
 
   public static void main(String... args) throws Throwable {
+    if (args.length > 0 && Daemon.COMMANDS.contains(args[0]) && Daemon.enabled()) {
+      OptionalInt status = Daemon.forward(new File("").getAbsoluteFile().toPath(), args);
+      if (status.isPresent()) {
+        System.exit(status.getAsInt());
+      }
+    }
+    run(args);
+  }
+
+  /**
+   * Parses and executes a command in the current JVM.
+   */
+  public static void run(String... args) throws Throwable {
     GlobalArguments global = new GlobalArguments();
     JCommander cmd = new JCommander(global);
     cmd.setProgramName("golo");
@@ -81,4 +94,17 @@ public final class Main {
       }
     }
   }
+
+  /**
+   * Ends the current command with the given status.
+   * <p>
+   * The JVM exits, unless the command is run by a {@link Daemon}, which sends the status to its client and keeps
+   * running.
+   */
+  public static void exit(int status) {
+    if (Daemon.serving()) {
+      throw new Daemon.Exit(status);
+    }
+    System.exit(status);
+  }
 }
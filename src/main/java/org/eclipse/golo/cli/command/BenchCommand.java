@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+import com.beust.jcommander.converters.FileConverter;
+
+import gololang.benchmark.BenchmarkFunction;
+import gololang.benchmark.BenchmarkOptions;
+import gololang.benchmark.BenchmarkResult;
+import gololang.benchmark.BenchmarkRunner;
+import org.eclipse.golo.cli.GoloFilesManager;
+import org.eclipse.golo.cli.Main;
+import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.compiler.GoloClassLoader;
+import org.eclipse.golo.compiler.GoloCompiler;
+import org.json.simple.JSONValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static gololang.Messages.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Parameters(commandNames = "bench", resourceBundle = "commands", commandDescriptionKey = "bench")
+public final class BenchCommand implements CliCommand {
+
+  @Parameter(names = "--files", variableArity = true, descriptionKey = "bench.files", converter = FileConverter.class)
+  List<File> files = new LinkedList<>();
+
+  @Parameter(names = "--module", variableArity = true, descriptionKey = "bench.module")
+  List<String> modules = new LinkedList<>();
+
+  @Parameter(names = "--include", descriptionKey = "bench.include")
+  String include;
+
+  @Parameter(names = "--list", descriptionKey = "bench.list")
+  boolean list = false;
+
+  @Parameter(names = "--warmup", descriptionKey = "bench.warmup")
+  Integer warmup;
+
+  @Parameter(names = "--iterations", descriptionKey = "bench.iterations")
+  Integer iterations;
+
+  @Parameter(names = "--time", descriptionKey = "bench.time")
+  Long time;
+
+  @Parameter(names = "--forks", descriptionKey = "bench.forks")
+  Integer forks;
+
+  @Parameter(names = "--json", descriptionKey = "bench.json")
+  String json;
+
+  @Parameter(names = "--fork-output", hidden = true)
+  String forkOutput;
+
+  @ParametersDelegate
+  ClasspathOption classpath = new ClasspathOption();
+
+  @Parameter(names = "--verbose", descriptionKey = "verbose")
+  boolean verbose = false;
+
+  @Override
+  public boolean verbose() {
+    return this.verbose;
+  }
+
+  @Override
+  public void execute() throws Throwable {
+    if (this.files.isEmpty() && this.modules.isEmpty()) {
+      throw new ParameterException(message("bench_no_module"));
+    }
+    GoloClassLoader loader = classpath.initGoloClassLoader();
+    Map<String, BenchmarkFunction> benchmarks = new LinkedHashMap<>();
+    for (Class<?> module : load(loader)) {
+      benchmarks.putAll(BenchmarkRunner.discover(module));
+    }
+    if (this.include != null) {
+      Pattern pattern = Pattern.compile(this.include);
+      benchmarks.keySet().removeIf(name -> !pattern.matcher(name).find());
+    }
+    if (benchmarks.isEmpty()) {
+      warning(message("bench_none"));
+      return;
+    }
+    if (this.list) {
+      benchmarks.keySet().forEach(System.out::println);
+      return;
+    }
+    List<BenchmarkResult> results = new ArrayList<>();
+    boolean failed = false;
+    for (Map.Entry<String, BenchmarkFunction> benchmark : benchmarks.entrySet()) {
+      try {
+        results.add(run(benchmark.getKey(), benchmark.getValue()));
+      } catch (Throwable e) {
+        handleThrowable(e, false);
+        failed = true;
+      }
+    }
+    if (this.forkOutput != null) {
+      write(this.forkOutput, results);
+    } else {
+      System.out.print(table(results));
+      if (this.json != null) {
+        write(this.json, results);
+      }
+    }
+    if (failed) {
+      System.exit(1);
+    }
+  }
+
+  private List<Class<?>> load(GoloClassLoader loader) throws ClassNotFoundException {
+    List<Class<?>> classes = new ArrayList<>();
+    if (!this.files.isEmpty()) {
+      GoloCompiler compiler = loader.getCompiler();
+      GoloFilesManager.goloFiles(this.files)
+        .filter(this::canRead)
+        .map(wrappedTreatment(compiler::parse))
+        .map(wrappedTreatment(compiler::transform))
+        .sorted(CliCommand.MODULE_COMPARATOR)
+        .map(wrappedTreatment(compiler::expand))
+        .map(wrappedTreatment(compiler::refine))
+        .map(wrappedTreatment(compiler::generate))
+        .filter(Objects::nonNull)
+        .flatMap(Collection::stream)
+        .map(displayInfo("Loading %s"))
+        .map(loader::load)
+        .forEach(classes::add);
+    }
+    for (String module : this.modules) {
+      classes.add(Class.forName(module, true, loader));
+    }
+    return classes;
+  }
+
+  private BenchmarkOptions options(BenchmarkOptions defined) {
+    BenchmarkOptions options = defined;
+    if (this.warmup != null) {
+      options = options.warmup(this.warmup);
+    }
+    if (this.iterations != null) {
+      options = options.iterations(this.iterations);
+    }
+    if (this.time != null) {
+      options = options.time(this.time);
+    }
+    if (this.forks != null) {
+      options = options.forks(this.forks);
+    }
+    return options;
+  }
+
+  private BenchmarkResult run(String name, BenchmarkFunction benchmark) throws Throwable {
+    BenchmarkOptions options = options(benchmark.options());
+    if (options.forks() == 0 || this.forkOutput != null) {
+      if (this.forkOutput == null) {
+        info(message("bench_running", name));
+      }
+      return BenchmarkRunner.run(name, benchmark.target(), options);
+    }
+    BenchmarkResult result = null;
+    for (int fork = 1; fork <= options.forks(); fork++) {
+      info(message("bench_running_fork", name, fork, options.forks()));
+      BenchmarkResult forked = fork(name, options);
+      result = result == null ? forked : result.merge(forked);
+    }
+    return result;
+  }
+
+  /**
+   * Runs a benchmark in a new JVM, started as the current one.
+   */
+  private BenchmarkResult fork(String name, BenchmarkOptions options) throws IOException, InterruptedException {
+    Path output = Files.createTempFile("golo-bench", ".json");
+    try {
+      List<String> command = new ArrayList<>();
+      command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+      command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(Main.class.getName());
+      command.add("bench");
+      command.add("--classpath");
+      command.add(System.getProperty(ClasspathOption.PROPERTY));
+      if (!this.files.isEmpty()) {
+        command.add("--files");
+        for (File file : this.files) {
+          command.add(file.getAbsolutePath());
+        }
+      }
+      if (!this.modules.isEmpty()) {
+        command.add("--module");
+        command.addAll(this.modules);
+      }
+      command.addAll(Arrays.asList(
+            "--include", "^" + Pattern.quote(name) + "$",
+            "--warmup", String.valueOf(options.warmup()),
+            "--iterations", String.valueOf(options.iterations()),
+            "--time", String.valueOf(options.time()),
+            "--forks", "0",
+            "--fork-output", output.toString()));
+      int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+      if (status != 0) {
+        throw new IllegalStateException(message("bench_fork_failed", name, status));
+      }
+      try (Reader reader = Files.newBufferedReader(output, UTF_8)) {
+        List<?> results = (List<?>) JSONValue.parse(reader);
+        if (results == null || results.isEmpty()) {
+          throw new IllegalStateException(message("bench_fork_failed", name, status));
+        }
+        return BenchmarkResult.fromMap((Map<?, ?>) results.get(0)).forked();
+      }
+    } finally {
+      Files.deleteIfExists(output);
+    }
+  }
+
+  private static void write(String file, List<BenchmarkResult> results) throws IOException {
+    String content = JSONValue.toJSONString(results.stream().map(BenchmarkResult::toMap).collect(Collectors.toList()));
+    Path path = Paths.get(file);
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    Files.write(path, content.getBytes(UTF_8));
+  }
+
+  private static String table(List<BenchmarkResult> results) {
+    StringBuilder table = new StringBuilder();
+    String format = "%-48s %14s %12s %12s %12s %12s %10s%n";
+    table.append(String.format(format, "benchmark", "ops/s", "mean ns/op", "p50 ns", "p90 ns", "p99 ns", "B/op"));
+    for (BenchmarkResult result : results) {
+      table.append(String.format(format,
+            result.name(),
+            String.format("%.1f", result.opsPerSecond()),
+            String.format("%.2f", result.mean()),
+            String.format("%.2f", result.percentile(50)),
+            String.format("%.2f", result.percentile(90)),
+            String.format("%.2f", result.percentile(99)),
+            Double.isNaN(result.bytesPerOperation()) ? "-" : String.format("%.1f", result.bytesPerOperation())));
+    }
+    return table.toString();
+  }
+}
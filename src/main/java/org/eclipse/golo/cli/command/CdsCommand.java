@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+import com.beust.jcommander.converters.FileConverter;
+
+import org.eclipse.golo.cli.Main;
+import org.eclipse.golo.cli.command.spi.CliCommand;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static gololang.Messages.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Creates a class data sharing archive from a training run.
+ * <p>
+ * The archive contains the classes loaded by the application class loader during the run: the Golo compiler and
+ * runtime, the standard modules, and their dependencies. It is used by the launcher scripts when found in the
+ * {@code share} directory of the Golo installation, or in the {@code GOLO_CDS_ARCHIVE} file.
+ */
+@Parameters(commandNames = "cds", resourceBundle = "commands", commandDescriptionKey = "cds")
+public final class CdsCommand implements CliCommand {
+
+  /**
+   * The name of the archive in the {@code share} directory of the installation.
+   */
+  public static final String ARCHIVE_NAME = "golo.jsa";
+
+  /**
+   * The default training program, using the common runtime features.
+   * <p>
+   * The standard collection augmentations are avoided, since their iteration fails on recent JVMs.
+   */
+  private static final String TRAINING = String.join("\n",
+      "module golo.cds.Training",
+      "",
+      "struct Point = { x, y }",
+      "",
+      "augment golo.cds.Training.types.Point {",
+      "  function norm = |this| -> this: x() * this: x() + this: y() * this: y()",
+      "}",
+      "",
+      "function main = |args| {",
+      "  let points = vector[Point(1, 2), Point(3, 4)]",
+      "  let norm = |p| -> p: norm()",
+      "  let counts = map[[\"points\", points: size()], [\"norm\", norm(points: get(1))]]",
+      "  let text = java.lang.StringBuilder()",
+      "  for (var i = 0, i < points: size(), i = i + 1) {",
+      "    text: append(points: get(i): x()): append(\" \")",
+      "  }",
+      "  text: append(counts: get(\"norm\"))",
+      "  let total = range(1, 10): reduce(0, |acc, n| -> acc + n)",
+      "  case {",
+      "    when text: length() > 0 and total == 45 { require(true, \"training\") }",
+      "    otherwise { raise(\"unexpected\") }",
+      "  }",
+      "  try {",
+      "    raise(\"error\")",
+      "  } catch (e) {",
+      "    text: append(e: message())",
+      "  }",
+      "}",
+      "");
+
+  @Parameter(names = "--output", descriptionKey = "cds.output", converter = FileConverter.class)
+  File output;
+
+  @Parameter(names = "--mode", descriptionKey = "cds.mode")
+  String mode = "auto";
+
+  @Parameter(names = "--files", variableArity = true, descriptionKey = "cds.files", converter = FileConverter.class)
+  List<File> files = new LinkedList<>();
+
+  @Parameter(names = "--module", descriptionKey = "cds.module")
+  String module;
+
+  @Parameter(names = "--args", variableArity = true, descriptionKey = "arguments")
+  List<String> arguments = new LinkedList<>();
+
+  @ParametersDelegate
+  ClasspathOption classpath = new ClasspathOption();
+
+  @Parameter(names = "--verbose", descriptionKey = "verbose")
+  boolean verbose = false;
+
+  @Override
+  public boolean verbose() {
+    return this.verbose;
+  }
+
+  @Override
+  public void execute() throws Throwable {
+    int version = javaVersion();
+    String actualMode = "auto".equals(this.mode) ? (version >= 13 ? "dynamic" : "static") : this.mode;
+    if (!"dynamic".equals(actualMode) && !"static".equals(actualMode)) {
+      error(message("cds_mode_error", this.mode));
+      System.exit(1);
+    }
+    if (version < 10 || ("dynamic".equals(actualMode) && version < 13)) {
+      error(message("cds_unsupported", actualMode, System.getProperty("java.version")));
+      System.exit(1);
+    }
+    File archive = this.output != null ? this.output : defaultArchive();
+    if (archive == null) {
+      error(message("cds_no_output"));
+      System.exit(1);
+    }
+    Path archivePath = archive.toPath().toAbsolutePath();
+    if (archivePath.getParent() != null) {
+      Files.createDirectories(archivePath.getParent());
+    }
+    Path training = null;
+    try {
+      List<String> trainingArgs;
+      if (this.files.isEmpty() && this.module == null) {
+        training = Files.createTempFile("golo-cds", ".golo");
+        Files.write(training, TRAINING.getBytes(UTF_8));
+        trainingArgs = Arrays.asList("golo", "--files", training.toString());
+      } else {
+        trainingArgs = trainingArguments();
+      }
+      if ("dynamic".equals(actualMode)) {
+        run("training", trainingArgs, "-XX:ArchiveClassesAtExit=" + archivePath);
+      } else {
+        dumpStatic(archivePath, trainingArgs);
+      }
+    } finally {
+      if (training != null) {
+        Files.deleteIfExists(training);
+      }
+    }
+    if (!Files.exists(archivePath)) {
+      error(message("cds_failed", archivePath));
+      System.exit(1);
+    }
+    info(message("cds_created", archivePath, Files.size(archivePath) / 1024));
+  }
+
+  private List<String> trainingArguments() {
+    List<String> args = new ArrayList<>();
+    if (this.files.isEmpty()) {
+      args.add("run");
+      args.add("--module");
+      args.add(this.module);
+    } else {
+      args.add("golo");
+      args.add("--files");
+      for (File file : this.files) {
+        args.add(file.getAbsolutePath());
+      }
+      if (this.module != null) {
+        args.add("--module");
+        args.add(this.module);
+      }
+    }
+    if (!this.classpath.classpath.isEmpty()) {
+      args.add("--classpath");
+      args.addAll(this.classpath.classpath);
+    }
+    if (!this.arguments.isEmpty()) {
+      if (this.files.isEmpty()) {
+        args.addAll(this.arguments);
+      } else {
+        args.add("--args");
+        args.addAll(this.arguments);
+      }
+    }
+    return args;
+  }
+
+  private void dumpStatic(Path archive, List<String> trainingArgs) throws IOException, InterruptedException {
+    Path classList = Files.createTempFile("golo-cds", ".classlist");
+    try {
+      run("training", trainingArgs, "-Xshare:off", "-XX:DumpLoadedClassList=" + classList);
+      run("dump", null, "-Xshare:dump", "-XX:SharedClassListFile=" + classList, "-XX:SharedArchiveFile=" + archive);
+    } finally {
+      Files.deleteIfExists(classList);
+    }
+  }
+
+  /**
+   * Runs a JVM with the same options and class path as the current one.
+   */
+  private void run(String step, List<String> goloArgs, String... options) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      // the archive options of the current JVM would conflict with the ones of the dump
+      if (!option.startsWith("-Xshare") && !option.startsWith("-XX:SharedArchiveFile")) {
+        command.add(option);
+      }
+    }
+    command.addAll(Arrays.asList(options));
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    if (goloArgs != null) {
+      command.add(Main.class.getName());
+      command.addAll(goloArgs);
+    }
+    if (this.verbose) {
+      info(String.join(" ", command));
+    }
+    int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+    if (status != 0) {
+      error(message("cds_step_failed", step, status));
+      System.exit(1);
+    }
+  }
+
+  /**
+   * The archive in the {@code share} directory of the installation, when running from {@code lib/golo.jar}.
+   */
+  private static File defaultArchive() {
+    CodeSource source = Main.class.getProtectionDomain().getCodeSource();
+    if (source == null) {
+      return null;
+    }
+    try {
+      File jar = new File(source.getLocation().toURI());
+      File lib = jar.getParentFile();
+      if (!jar.isFile() || lib == null || !"lib".equals(lib.getName()) || lib.getParentFile() == null) {
+        return null;
+      }
+      return new File(new File(lib.getParentFile(), "share"), ARCHIVE_NAME);
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static int javaVersion() {
+    String version = System.getProperty("java.specification.version");
+    if (version.startsWith("1.")) {
+      version = version.substring(2);
+    }
+    return Integer.parseInt(version);
+  }
+}
@@ -19,6 +19,7 @@ import java.io.File;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.eclipse.golo.cli.Main;
 import org.eclipse.golo.cli.command.spi.CliCommand;
 import org.eclipse.golo.compiler.GoloCompiler;
 import org.eclipse.golo.cli.GoloFilesManager;
@@ -40,6 +41,9 @@ public final class CheckCommand implements CliCommand {
   @ParametersDelegate
   ClasspathOption classpath = new ClasspathOption();
 
+  @ParametersDelegate
+  CompilationProfileOption profile = new CompilationProfileOption();
+
   @Override
   public boolean verbose() {
     return this.verbose;
@@ -48,6 +52,7 @@ public final class CheckCommand implements CliCommand {
   @Override
   public void execute() throws Throwable {
     GoloCompiler compiler = classpath.initGoloClassLoader().getCompiler();
+    profile.install(compiler);
     GoloFilesManager.goloFiles(this.files)
       .forEach(wrappedAction(this.exit, file -> {
         if (this.verbose) {
@@ -56,6 +61,9 @@ public final class CheckCommand implements CliCommand {
         compiler.resetExceptionBuilder();
         compiler.check(compiler.parse(file));
       }));
+    if (!profile.report(compiler)) {
+      Main.exit(1);
+    }
   }
 }
 
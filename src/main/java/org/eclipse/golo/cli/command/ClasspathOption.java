@@ -18,10 +18,13 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Collections;
 import java.util.Arrays;
+import java.util.Map;
 
 import org.eclipse.golo.compiler.GoloClassLoader;
 
@@ -53,12 +56,46 @@ public class ClasspathOption {
   @Parameter(names = "--classpath", variableArity = true, descriptionKey = "classpath", splitter = ClasspathSplitter.class)
   List<String> classpath = new LinkedList<>();
 
+  private static final int CACHE_SIZE = 8;
+
+  /**
+   * The class loaders of the classpaths made of jar files, keyed by the files and their modification times.
+   * <p>
+   * A JVM running several commands, such as the daemon, thus reuses the classes loaded from the dependencies, e.g.
+   * the macros. Classpaths containing directories are not cached, since their content can change unnoticed.
+   */
+  private static final Map<List<String>, URLClassLoader> LOADERS = new LinkedHashMap<List<String>, URLClassLoader>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<String>, URLClassLoader> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
   private static URLClassLoader primaryClassLoader(List<String> classpath) throws MalformedURLException {
+    List<String> key = new ArrayList<>();
     URL[] urls = new URL[classpath.size()];
     for (int i = 0; i < classpath.size(); i++) {
-      urls[i] = new File(classpath.get(i)).toURI().toURL();
+      File file = new File(classpath.get(i)).getAbsoluteFile();
+      urls[i] = file.toURI().toURL();
+      if (key != null && file.isFile()) {
+        key.add(file.getPath() + "@" + file.lastModified());
+      } else {
+        key = null;
+      }
+    }
+    if (key == null) {
+      return new URLClassLoader(urls);
+    }
+    synchronized (LOADERS) {
+      URLClassLoader loader = LOADERS.get(key);
+      if (loader == null) {
+        loader = new URLClassLoader(urls);
+        LOADERS.put(key, loader);
+      }
+      return loader;
     }
-    return new URLClassLoader(urls);
   }
 
   /**
@@ -86,18 +123,33 @@ public class ClasspathOption {
     return initGoloClassLoader(this.classpath);
   }
 
-  private static List<String> initClassPath(List<String> init) {
-    // priority CLI > property > env > default
-    List<String> classpath = init;
-    if (classpath.isEmpty()) {
-      classpath = getFromEnv(System.getProperty(PROPERTY));
-    }
+  /**
+   * Returns the classpath used when none is given on the command line.
+   * <p>
+   * Packages from the {@code PROPERTY} system property are used, then from {@code ENV} environment variable if no
+   * property is defined. Finally, the current directory is used if no other path is defined.
+   *
+   * @return the classpath elements, joined with the path separator.
+   */
+  public static String defaultClassPath() {
+    return String.join(SEP, defaultClassPathElements());
+  }
+
+  private static List<String> defaultClassPathElements() {
+    // priority property > env > default
+    List<String> classpath = getFromEnv(System.getProperty(PROPERTY));
     if (classpath.isEmpty()) {
       classpath = getFromEnv(System.getenv(ENV));
     }
     if (classpath.isEmpty()) {
       classpath = DEFAULT;
     }
+    return classpath;
+  }
+
+  private static List<String> initClassPath(List<String> init) {
+    // priority CLI > default
+    List<String> classpath = init.isEmpty() ? defaultClassPathElements() : init;
     System.setProperty(PROPERTY, String.join(SEP, classpath));
     return classpath;
   }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.golo.compiler.CompilationProfile;
+import org.eclipse.golo.compiler.GoloCompiler;
+
+import static gololang.Messages.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Manage the compilation profiling options.
+ */
+@Parameters(resourceBundle = "commands")
+public class CompilationProfileOption {
+
+  private static final int MAX_MACROS = 5;
+
+  @Parameter(names = "--profile", descriptionKey = "profile")
+  boolean profile = false;
+
+  @Parameter(names = "--profile-json", descriptionKey = "profile.json")
+  String json;
+
+  @Parameter(names = "--profile-budget", descriptionKey = "profile.budget")
+  long budget = 0;
+
+  /**
+   * Checks whether compilation profiling is requested.
+   */
+  public boolean isEnabled() {
+    return profile || json != null || budget > 0;
+  }
+
+  /**
+   * Makes the compiler record a profile if profiling is requested.
+   */
+  public void install(GoloCompiler compiler) {
+    if (isEnabled()) {
+      compiler.setProfile(new CompilationProfile());
+    }
+  }
+
+  /**
+   * Reports the profile recorded by the compiler.
+   * <p>
+   * The table is printed on standard error with {@code --profile}, and the JSON document is written to the
+   * {@code --profile-json} file, or to standard output if it is {@code -}.
+   *
+   * @return {@code false} if the total compilation time exceeds the {@code --profile-budget}, if any.
+   */
+  public boolean report(GoloCompiler compiler) throws IOException {
+    CompilationProfile result = compiler.getProfile();
+    if (result == null) {
+      return true;
+    }
+    if (profile) {
+      System.err.print(result.toTable(MAX_MACROS));
+      System.err.flush();
+    }
+    if ("-".equals(json)) {
+      System.out.println(result.toJson());
+    } else if (json != null) {
+      Path path = Paths.get(json);
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      Files.write(path, result.toJson().getBytes(UTF_8));
+    }
+    long total = result.totalNanos() / 1_000_000;
+    if (budget > 0 && total > budget) {
+      error(message("profile_budget_exceeded", total, budget));
+      return false;
+    }
+    return true;
+  }
+}
@@ -11,18 +11,29 @@
 package org.eclipse.golo.cli.command;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 import com.beust.jcommander.ParametersDelegate;
 import com.beust.jcommander.converters.FileConverter;
+import org.eclipse.golo.cli.Main;
 import org.eclipse.golo.cli.command.spi.CliCommand;
 import org.eclipse.golo.compiler.GoloCompiler;
 import org.eclipse.golo.compiler.GoloClassLoader;
+import org.eclipse.golo.compiler.IncrementalCompilation;
+import org.eclipse.golo.compiler.CodeGenerationResult;
 import org.eclipse.golo.cli.GoloFilesManager;
+import gololang.ir.GoloModule;
 
 import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static gololang.Messages.*;
 
 
 @Parameters(commandNames = "compile", resourceBundle = "commands", commandDescriptionKey = "compile")
@@ -37,6 +48,12 @@ public final class CompilerCommand implements CliCommand {
   @ParametersDelegate
   ClasspathOption classpath = new ClasspathOption();
 
+  @Parameter(names = "--incremental", descriptionKey = "compile.incremental")
+  boolean incremental = false;
+
+  @ParametersDelegate
+  CompilationProfileOption profile = new CompilationProfileOption();
+
   @Parameter(names = "--verbose", descriptionKey = "verbose")
   boolean verbose = false;
 
@@ -47,8 +64,13 @@ public final class CompilerCommand implements CliCommand {
 
   @Override
   public void execute() throws Throwable {
+    if (this.incremental) {
+      executeIncremental();
+      return;
+    }
     GoloClassLoader loader = classpath.initGoloClassLoader();
     GoloCompiler compiler = loader.getCompiler();
+    profile.install(compiler);
     try (GoloFilesManager fm = GoloFilesManager.of(this.output)) {
       GoloFilesManager.goloFiles(this.sources)
         .filter(this::canRead)
@@ -66,5 +88,60 @@ public final class CompilerCommand implements CliCommand {
           fm.save(r);
         });
     }
+    if (!profile.report(compiler)) {
+      Main.exit(1);
+    }
+  }
+
+  private void executeIncremental() throws Throwable {
+    if (this.output.endsWith(".jar")) {
+      throw new ParameterException(message("incremental_jar"));
+    }
+    File outputDir = new File(this.output);
+    // the classes of the unchanged modules are loaded from the output directory to expand their macros
+    ClassLoader parent = classpath.initGoloClassLoader().getParent();
+    GoloClassLoader loader = new GoloClassLoader(
+        new URLClassLoader(new URL[]{outputDir.getAbsoluteFile().toURI().toURL()}, parent));
+    Thread.currentThread().setContextClassLoader(loader);
+    GoloCompiler compiler = loader.getCompiler();
+    profile.install(compiler);
+    IncrementalCompilation state = IncrementalCompilation.load(outputDir, classpath.classpath);
+    List<File> sources = GoloFilesManager.goloFiles(this.sources)
+        .filter(this::canRead)
+        .collect(Collectors.toList());
+    List<GoloModule> modules = parseAndTransform(compiler, state.changed(sources));
+    modules.addAll(parseAndTransform(compiler, state.dependents(modules)));
+    try (GoloFilesManager fm = GoloFilesManager.withOutputDir(outputDir)) {
+      modules.stream()
+        .sorted(CliCommand.MODULE_COMPARATOR)
+        .map(displayInfo("Compiling %s"))
+        .map(wrappedTreatment(compiler::expand))
+        .map(wrappedTreatment(compiler::refine))
+        .filter(Objects::nonNull)
+        .forEach(wrappedTreatment((GoloModule module) -> {
+          List<CodeGenerationResult> results = compiler.generate(module);
+          for (CodeGenerationResult result : results) {
+            loader.load(result);
+            fm.save(result);
+          }
+          state.record(module, results);
+          return module;
+        })::apply);
+    }
+    state.save();
+    if (this.verbose) {
+      info(message("incremental_summary", modules.size(), sources.size()));
+    }
+    if (!profile.report(compiler)) {
+      Main.exit(1);
+    }
+  }
+
+  private List<GoloModule> parseAndTransform(GoloCompiler compiler, List<File> files) {
+    return files.stream()
+        .map(wrappedTreatment(compiler::parse))
+        .map(wrappedTreatment(compiler::transform))
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import org.eclipse.golo.cli.Daemon;
+import org.eclipse.golo.cli.command.spi.CliCommand;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static gololang.Messages.*;
+
+@Parameters(commandNames = "daemon", resourceBundle = "commands", commandDescriptionKey = "daemon")
+public final class DaemonCommand implements CliCommand {
+
+  @Parameter(names = "--stop", descriptionKey = "daemon.stop")
+  boolean stop = false;
+
+  @Parameter(names = "--status", descriptionKey = "daemon.status")
+  boolean status = false;
+
+  @Parameter(names = "--idle-timeout", descriptionKey = "daemon.idle_timeout")
+  int idleTimeout = 180;
+
+  @Parameter(names = "--verbose", descriptionKey = "verbose")
+  boolean verbose = false;
+
+  @Override
+  public boolean verbose() {
+    return this.verbose;
+  }
+
+  @Override
+  public void execute() throws Throwable {
+    Path directory = new File("").getAbsoluteFile().toPath();
+    if (this.stop || this.status) {
+      boolean running = this.stop ? Daemon.stop(directory) : Daemon.status(directory);
+      if (!running) {
+        warning(message("daemon_not_running", directory));
+      }
+      return;
+    }
+    if (Daemon.status(directory)) {
+      error(message("daemon_already_running", directory));
+      System.exit(1);
+    }
+    Daemon daemon = Daemon.start(directory, this.idleTimeout, this.verbose);
+    info(message("daemon_started", directory, daemon.port()));
+    daemon.serve();
+  }
+}
@@ -21,16 +21,21 @@ import org.eclipse.golo.cli.GoloFilesManager;
 import org.eclipse.golo.compiler.GoloCompiler;
 import org.eclipse.golo.doc.AbstractProcessor;
 import org.eclipse.golo.doc.CtagsProcessor;
+import org.eclipse.golo.doc.DocumentationCache;
 import org.eclipse.golo.doc.HtmlProcessor;
 import org.eclipse.golo.doc.MarkdownProcessor;
 import org.eclipse.golo.doc.ModuleDocumentation;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.*;
 
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toList;
 import static gololang.Messages.*;
 
 @Parameters(commandNames = "doc", commandDescriptionKey = "doc", resourceBundle = "commands")
@@ -45,6 +50,9 @@ public final class DocCommand implements CliCommand {
   @Parameter(descriptionKey = "source_files", converter = FileConverter.class)
   List<File> sources = new LinkedList<>();
 
+  @Parameter(names = "--incremental", descriptionKey = "doc.incremental")
+  boolean incremental = false;
+
   @ParametersDelegate
   ClasspathOption classpath = new ClasspathOption();
 
@@ -57,19 +65,76 @@ public final class DocCommand implements CliCommand {
 
   @Override
   public void execute() throws Throwable {
-    GoloCompiler compiler = classpath.initGoloClassLoader().getCompiler();
+    ClassLoader loader = classpath.initGoloClassLoader();
     AbstractProcessor processor = FORMATS.get(this.format).get();
-    Set<ModuleDocumentation> modules = GoloFilesManager.goloFiles(this.sources)
-      .map(wrappedTreatment(file -> ModuleDocumentation.load(file, compiler)))
-      .collect(toSet());
-
+    Path target = Paths.get(this.output);
+    boolean cached = this.incremental && !"-".equals(this.output);
+    DocumentationCache cache = cached ? DocumentationCache.load(target, this.format) : null;
+    List<File> files = GoloFilesManager.goloFiles(this.sources).collect(toList());
+    Map<File, ModuleDocumentation> docs = new HashMap<>();
+    List<File> changed = new ArrayList<>();
+    for (File file : files) {
+      ModuleDocumentation doc = cache == null ? null : cache.get(file);
+      if (doc == null) {
+        changed.add(file);
+      } else {
+        docs.put(file, doc);
+      }
+    }
+    List<ModuleDocumentation> loaded = load(changed, loader);
+    for (int i = 0; i < changed.size(); i++) {
+      ModuleDocumentation doc = loaded.get(i);
+      if (doc != null) {
+        docs.put(changed.get(i), doc);
+        if (cache != null) {
+          cache.put(changed.get(i), doc);
+        }
+      }
+    }
+    // processed in the files order, whether cached or not
+    Set<ModuleDocumentation> modules = new LinkedHashSet<>();
+    for (File file : files) {
+      if (docs.containsKey(file)) {
+        modules.add(docs.get(file));
+      }
+    }
+    processor.setCache(cache);
     try {
-      processor.process(modules, Paths.get(this.output));
+      processor.process(modules, target);
+      if (cache != null) {
+        cache.save();
+      }
     } catch (Throwable throwable) {
       handleThrowable(throwable);
     }
   }
 
+  /**
+   * Compiles the documentation of the given files in parallel.
+   * <p>
+   * A compiler is not thread safe, so each thread uses its own.
+   */
+  private List<ModuleDocumentation> load(List<File> files, ClassLoader loader) throws Exception {
+    ThreadLocal<GoloCompiler> compilers = ThreadLocal.withInitial(() -> new GoloCompiler(loader));
+    int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<ModuleDocumentation>> futures = new ArrayList<>();
+      for (File file : files) {
+        futures.add(executor.submit(() ->
+              this.<File, ModuleDocumentation>wrappedTreatment(f -> ModuleDocumentation.load(f, compilers.get()))
+              .apply(file)));
+      }
+      List<ModuleDocumentation> docs = new ArrayList<>();
+      for (Future<ModuleDocumentation> future : futures) {
+        docs.add(future.get());
+      }
+      return docs;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   public static final class DocFormatValidator implements IParameterValidator {
 
     @Override
@@ -15,6 +15,7 @@ import com.beust.jcommander.Parameters;
 import com.beust.jcommander.ParametersDelegate;
 import com.beust.jcommander.converters.FileConverter;
 
+import org.eclipse.golo.cli.Main;
 import org.eclipse.golo.cli.GoloFilesManager;
 import org.eclipse.golo.cli.command.spi.CliCommand;
 import org.eclipse.golo.compiler.GoloClassLoader;
@@ -43,6 +44,9 @@ public final class GoloGoloCommand implements CliCommand {
   @ParametersDelegate
   ClasspathOption classpath = new ClasspathOption();
 
+  @ParametersDelegate
+  CompilationProfileOption profile = new CompilationProfileOption();
+
   @Parameter(names = "--verbose", descriptionKey = "verbose")
   boolean verbose = false;
 
@@ -55,6 +59,7 @@ public final class GoloGoloCommand implements CliCommand {
   public void execute() throws Throwable {
     GoloClassLoader loader = classpath.initGoloClassLoader();
     GoloCompiler compiler = loader.getCompiler();
+    profile.install(compiler);
     Class<?> lastClass = GoloFilesManager.goloFiles(this.files)
       .filter(this::canRead)
       .map(wrappedTreatment(compiler::parse))
@@ -68,6 +73,10 @@ public final class GoloGoloCommand implements CliCommand {
       .map(displayInfo("Loading %s"))
       .map(loader::load)
       .reduce(null, this::selectMainModule);
+    if (!profile.report(compiler)) {
+      Main.exit(1);
+    }
+    compiler.setProfile(null);
 
     if (lastClass == null && this.module != null) {
       error(message("module_not_found", this.module));
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+import com.beust.jcommander.converters.FileConverter;
+
+import org.eclipse.golo.cli.GoloFilesManager;
+import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.compiler.GoloClassLoader;
+import org.eclipse.golo.compiler.GoloCompiler;
+import org.eclipse.golo.runtime.StackSampler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+import static gololang.Messages.*;
+
+@Parameters(commandNames = "profile", resourceBundle = "commands", commandDescriptionKey = "profiler")
+public final class ProfileCommand implements CliCommand {
+
+  @Parameter(names = "--files", variableArity = true, descriptionKey = "profiler.files", converter = FileConverter.class)
+  List<File> files = new LinkedList<>();
+
+  @Parameter(names = "--module", descriptionKey = "main_module")
+  String module;
+
+  @Parameter(names = "--args", variableArity = true, descriptionKey = "arguments")
+  List<String> arguments = new LinkedList<>();
+
+  @Parameter(names = "--output", descriptionKey = "profiler.output")
+  String output = "golo-profile.collapsed";
+
+  @Parameter(names = "--interval", descriptionKey = "profiler.interval")
+  long interval = 10;
+
+  @Parameter(names = "--functions", descriptionKey = "profiler.functions")
+  boolean functions = false;
+
+  @Parameter(names = "--all-frames", descriptionKey = "profiler.all_frames")
+  boolean allFrames = false;
+
+  @Parameter(names = "--wall", descriptionKey = "profiler.wall")
+  boolean wall = false;
+
+  @Parameter(names = "--threads", descriptionKey = "profiler.threads")
+  boolean threads = false;
+
+  @ParametersDelegate
+  ClasspathOption classpath = new ClasspathOption();
+
+  @Parameter(names = "--verbose", descriptionKey = "verbose")
+  boolean verbose = false;
+
+  @Override
+  public boolean verbose() {
+    return this.verbose;
+  }
+
+  @Override
+  public void execute() throws Throwable {
+    if (this.files.isEmpty() && this.module == null) {
+      throw new ParameterException(message("profile_no_module"));
+    }
+    GoloClassLoader loader = classpath.initGoloClassLoader();
+    Class<?> mainClass = this.files.isEmpty() ? load(loader) : compile(loader);
+    if (mainClass == null) {
+      error(message("module_not_found", this.module));
+      return;
+    }
+    StackSampler sampler = new StackSampler(this.interval)
+      .lines(!this.functions)
+      .allFrames(this.allFrames)
+      .waiting(this.wall)
+      .threadNames(this.threads);
+    // the program may end by returning from main, by calling System.exit or by being interrupted
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> report(sampler), "golo-profile-report"));
+    sampler.start();
+    try {
+      callRun(mainClass, this.arguments.toArray(new String[this.arguments.size()]));
+    } catch (NoMainMethodException e) {
+      error(message("module_no_main", mainClass.getName()));
+    }
+  }
+
+  private Class<?> load(GoloClassLoader loader) {
+    try {
+      return Class.forName(this.module, true, loader);
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  private Class<?> compile(GoloClassLoader loader) {
+    GoloCompiler compiler = loader.getCompiler();
+    return GoloFilesManager.goloFiles(this.files)
+      .filter(this::canRead)
+      .map(wrappedTreatment(compiler::parse))
+      .map(wrappedTreatment(compiler::transform))
+      .sorted(CliCommand.MODULE_COMPARATOR)
+      .map(wrappedTreatment(compiler::expand))
+      .map(wrappedTreatment(compiler::refine))
+      .map(wrappedTreatment(compiler::generate))
+      .filter(Objects::nonNull)
+      .flatMap(Collection::stream)
+      .map(displayInfo("Loading %s"))
+      .map(loader::load)
+      .reduce(null, this::selectMainModule);
+  }
+
+  private Class<?> selectMainModule(Class<?> old, Class<?> loaded) {
+    if (this.module == null || this.module.equals(loaded.getCanonicalName())) {
+      return loaded;
+    }
+    return old;
+  }
+
+  private void report(StackSampler sampler) {
+    try {
+      sampler.stop();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if ("-".equals(this.output)) {
+      sampler.writeCollapsed(System.err);
+      return;
+    }
+    try (PrintStream out = new PrintStream(new FileOutputStream(this.output), false, "UTF-8")) {
+      sampler.writeCollapsed(out);
+    } catch (IOException e) {
+      error(message("profile_write_error", this.output, e.getLocalizedMessage()));
+      return;
+    }
+    info(message("profile_samples_written", sampler.samples(), this.output));
+  }
+}
@@ -10,6 +10,7 @@
 
 package org.eclipse.golo.cli.command.spi;
 
+import org.eclipse.golo.cli.Main;
 import org.eclipse.golo.compiler.GoloCompilationException;
 import gololang.Messages;
 import gololang.ir.GoloModule;
@@ -132,7 +133,7 @@ public interface CliCommand {
       }
     }
     if (exit) {
-      System.exit(1);
+      Main.exit(1);
     }
   }
 
@@ -159,7 +160,7 @@ public interface CliCommand {
       Messages.error(Messages.message("use_debug"));
     }
     if (exit) {
-      System.exit(1);
+      Main.exit(1);
     }
   }
 
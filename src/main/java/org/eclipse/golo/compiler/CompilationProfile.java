@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.json.simple.JSONValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compilation statistics of a set of modules.
+ * <p>
+ * A profile is filled by a {@link GoloCompiler} when given to {@link GoloCompiler#setProfile(CompilationProfile)}.
+ * For each source file, it records the time spent in each compilation phase, the number of nodes produced by the
+ * phase, the macro expansions, and the size of the generated bytecode.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class CompilationProfile {
+
+  /**
+   * The compilation phases, in order.
+   */
+  public static final List<String> PHASES = Collections.unmodifiableList(
+      Arrays.asList("parse", "transform", "expand", "refine", "generate"));
+
+  private final Map<String, ModuleProfile> modules = new LinkedHashMap<>();
+
+  /**
+   * The statistics of a macro in a module.
+   */
+  public static final class MacroProfile {
+    private int expansions;
+    private long nanos;
+
+    /**
+     * The number of expansions of the macro.
+     */
+    public int expansions() {
+      return expansions;
+    }
+
+    /**
+     * The time spent in the macro, in nanoseconds, including the expansion of the macros it expands itself.
+     */
+    public long nanos() {
+      return nanos;
+    }
+  }
+
+  /**
+   * The compilation statistics of a source file.
+   */
+  public static final class ModuleProfile {
+    private final String source;
+    private String module;
+    private final Map<String, Long> nanos = new LinkedHashMap<>();
+    private final Map<String, Integer> nodes = new LinkedHashMap<>();
+    private final Map<String, MacroProfile> macros = new TreeMap<>();
+    private int classes;
+    private long bytecodeSize;
+
+    ModuleProfile(String source) {
+      this.source = source;
+    }
+
+    /**
+     * Records the execution of a compilation phase.
+     * <p>
+     * The times of a phase run several times are accumulated.
+     *
+     * @param phase the name of the phase.
+     * @param moduleName the name of the module, if known.
+     * @param duration the phase duration in nanoseconds.
+     * @param nodeCount the number of nodes produced by the phase.
+     * @param classCount the number of generated classes.
+     * @param size the size of the generated bytecode.
+     */
+    public void phase(String phase, String moduleName, long duration, int nodeCount, int classCount, long size) {
+      if (moduleName != null) {
+        this.module = moduleName;
+      }
+      nanos.merge(phase, duration, Long::sum);
+      nodes.put(phase, nodeCount);
+      if ("generate".equals(phase)) {
+        this.classes = classCount;
+        this.bytecodeSize = size;
+      }
+    }
+
+    /**
+     * Records the expansion of a macro.
+     *
+     * @param macro the name of the macro.
+     * @param duration the expansion duration in nanoseconds.
+     */
+    public void macroExpanded(String macro, long duration) {
+      MacroProfile profile = macros.computeIfAbsent(macro, k -> new MacroProfile());
+      profile.expansions++;
+      profile.nanos += duration;
+    }
+
+    public String source() {
+      return source;
+    }
+
+    /**
+     * The name of the module, or the source file if it was not parsed successfully.
+     */
+    public String module() {
+      return module == null ? source : module;
+    }
+
+    /**
+     * The time spent in a phase, in nanoseconds.
+     */
+    public long nanos(String phase) {
+      return nanos.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * The total compilation time, in nanoseconds.
+     */
+    public long totalNanos() {
+      long total = 0;
+      for (long n : nanos.values()) {
+        total += n;
+      }
+      return total;
+    }
+
+    /**
+     * The number of nodes produced by a phase: syntax tree nodes for {@code parse}, IR nodes for {@code transform},
+     * {@code expand} and {@code refine}, and classes for {@code generate}.
+     */
+    public int nodes(String phase) {
+      return nodes.getOrDefault(phase, 0);
+    }
+
+    public int classes() {
+      return classes;
+    }
+
+    public long bytecodeSize() {
+      return bytecodeSize;
+    }
+
+    /**
+     * The statistics of the macros expanded in the module, by name.
+     */
+    public Map<String, MacroProfile> macros() {
+      return Collections.unmodifiableMap(macros);
+    }
+
+    /**
+     * The total number of macro expansions.
+     */
+    public int macroExpansions() {
+      int count = 0;
+      for (MacroProfile macro : macros.values()) {
+        count += macro.expansions;
+      }
+      return count;
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("source", source);
+      map.put("module", module());
+      Map<String, Object> phases = new LinkedHashMap<>();
+      for (String phase : nanos.keySet()) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("nanos", nanos(phase));
+        data.put("nodes", nodes(phase));
+        phases.put(phase, data);
+      }
+      map.put("phases", phases);
+      map.put("totalNanos", totalNanos());
+      List<Object> macroList = new ArrayList<>();
+      for (Map.Entry<String, MacroProfile> macro : macros.entrySet()) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", macro.getKey());
+        data.put("expansions", macro.getValue().expansions);
+        data.put("nanos", macro.getValue().nanos);
+        macroList.add(data);
+      }
+      map.put("macros", macroList);
+      map.put("classes", classes);
+      map.put("bytecodeSize", bytecodeSize);
+      return map;
+    }
+  }
+
+  /**
+   * Returns the statistics of a source file, creating them if needed.
+   *
+   * @param source the source file name.
+   */
+  public ModuleProfile module(String source) {
+    return modules.computeIfAbsent(source, ModuleProfile::new);
+  }
+
+  /**
+   * Returns the statistics of all the source files, in compilation order.
+   */
+  public Collection<ModuleProfile> modules() {
+    return Collections.unmodifiableCollection(modules.values());
+  }
+
+  /**
+   * The total compilation time of all the modules, in nanoseconds.
+   */
+  public long totalNanos() {
+    long total = 0;
+    for (ModuleProfile module : modules.values()) {
+      total += module.totalNanos();
+    }
+    return total;
+  }
+
+  /**
+   * Formats the profile as a JSON document.
+   */
+  public String toJson() {
+    Map<String, Object> json = new LinkedHashMap<>();
+    List<Object> list = new ArrayList<>();
+    for (ModuleProfile module : modules.values()) {
+      list.add(module.toMap());
+    }
+    json.put("modules", list);
+    json.put("totalNanos", totalNanos());
+    return JSONValue.toJSONString(json);
+  }
+
+  /**
+   * Formats the profile as a human readable table.
+   * <p>
+   * Times are in milliseconds, and the slowest macros of each module are listed below it.
+   *
+   * @param maxMacros the maximum number of macros to list per module.
+   */
+  public String toTable(int maxMacros) {
+    StringBuilder table = new StringBuilder();
+    String rowFormat = "%-40s %9s %9s %9s %9s %9s %9s %7s %7s %9s%n";
+    table.append(String.format(rowFormat,
+          "module", "parse", "transform", "expand", "refine", "generate", "total", "nodes", "macros", "bytecode"));
+    long[] totals = new long[PHASES.size()];
+    for (ModuleProfile module : modules.values()) {
+      Object[] row = new Object[10];
+      row[0] = module.module();
+      for (int i = 0; i < PHASES.size(); i++) {
+        totals[i] += module.nanos(PHASES.get(i));
+        row[i + 1] = millis(module.nanos(PHASES.get(i)));
+      }
+      row[6] = millis(module.totalNanos());
+      row[7] = module.nodes("refine");
+      row[8] = module.macroExpansions();
+      row[9] = module.bytecodeSize();
+      table.append(String.format(rowFormat, row));
+      List<Map.Entry<String, MacroProfile>> macros = new ArrayList<>(module.macros.entrySet());
+      macros.sort((a, b) -> Long.compare(b.getValue().nanos, a.getValue().nanos));
+      for (Map.Entry<String, MacroProfile> macro : macros.subList(0, Math.min(maxMacros, macros.size()))) {
+        table.append(String.format("    &%-34s %9s ms in %d expansions%n",
+              macro.getKey(), millis(macro.getValue().nanos), macro.getValue().expansions));
+      }
+    }
+    Object[] total = new Object[10];
+    total[0] = "TOTAL (" + modules.size() + " modules)";
+    for (int i = 0; i < totals.length; i++) {
+      total[i + 1] = millis(totals[i]);
+    }
+    total[6] = millis(totalNanos());
+    total[7] = "";
+    total[8] = "";
+    total[9] = "";
+    table.append(String.format(rowFormat, total));
+    return table.toString();
+  }
+
+  private static String millis(long nanos) {
+    return String.format("%.2f", nanos / 1_000_000.0);
+  }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.List;
 
 import gololang.ir.GoloModule;
+import org.eclipse.golo.runtime.events.GoloEvents;
 
 /**
  * Provides a facility to dynamically load Golo source code and access the generated code from a dedicated class loader.
@@ -61,11 +62,41 @@ public final class GoloClassLoader extends ClassLoader {
    * @throws GoloCompilationException if either of the compilation phase failed.
    */
   public synchronized Class<?> load(String goloSourceFilename, Reader sourceCode) throws GoloCompilationException {
-    return load(compiler.compile(goloSourceFilename, sourceCode));
+    Object event = GoloEvents.beginLoad(goloSourceFilename);
+    List<CodeGenerationResult> results = null;
+    Class<?> module = null;
+    try {
+      results = compiler.compile(goloSourceFilename, sourceCode);
+      module = load(results);
+      return module;
+    } finally {
+      endLoad(event, module, results);
+    }
   }
 
   public synchronized Class<?> load(File goloSourceFile) throws GoloCompilationException, IOException {
-    return load(compiler.compile(goloSourceFile));
+    Object event = GoloEvents.beginLoad(goloSourceFile.getPath());
+    List<CodeGenerationResult> results = null;
+    Class<?> module = null;
+    try {
+      results = compiler.compile(goloSourceFile);
+      module = load(results);
+      return module;
+    } finally {
+      endLoad(event, module, results);
+    }
+  }
+
+  private static void endLoad(Object event, Class<?> module, List<CodeGenerationResult> results) {
+    if (event != null) {
+      long size = 0;
+      if (results != null) {
+        for (CodeGenerationResult result : results) {
+          size += result.size();
+        }
+      }
+      GoloEvents.endLoad(event, module, results == null ? 0 : results.size(), size);
+    }
   }
 
   /**
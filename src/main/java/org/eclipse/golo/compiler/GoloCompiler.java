@@ -10,16 +10,23 @@
 
 package org.eclipse.golo.compiler;
 
+import gololang.ir.GoloElement;
 import gololang.ir.GoloModule;
 import org.eclipse.golo.compiler.macro.MacroExpansionIrVisitor;
 import org.eclipse.golo.compiler.parser.ASTCompilationUnit;
 import org.eclipse.golo.compiler.parser.GoloOffsetParser;
 import org.eclipse.golo.compiler.parser.GoloParser;
+import org.eclipse.golo.compiler.parser.Node;
 import org.eclipse.golo.compiler.parser.ParseException;
+import org.eclipse.golo.runtime.events.GoloEvents;
 
 import java.io.*;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -38,6 +45,7 @@ public final class GoloCompiler {
   private GoloParser parser;
   private GoloCompilationException.Builder exceptionBuilder = null;
   private final ClassLoader classloader;
+  private CompilationProfile profile;
 
   public GoloCompiler() {
     this(Thread.currentThread().getContextClassLoader());
@@ -57,6 +65,22 @@ public final class GoloCompiler {
     exceptionBuilder = builder;
   }
 
+  /**
+   * Profiles the compilation phases.
+   * <p>
+   * The time spent in each phase, the number of produced nodes, the macro expansions and the generated bytecode size
+   * of the modules compiled afterward are recorded in the given profile.
+   *
+   * @param profile the profile to record into, or {@code null} to stop profiling.
+   */
+  public void setProfile(CompilationProfile profile) {
+    this.profile = profile;
+  }
+
+  public CompilationProfile getProfile() {
+    return this.profile;
+  }
+
   private GoloCompilationException.Builder getOrCreateExceptionBuilder(String goloSourceFile) {
     if (exceptionBuilder == null) {
       exceptionBuilder = new GoloCompilationException.Builder(goloSourceFile);
@@ -129,12 +153,16 @@ public final class GoloCompiler {
     resetExceptionBuilder();
     ASTCompilationUnit compilationUnit = null;
     parser.exceptionBuilder = getOrCreateExceptionBuilder(goloSourceFilename);
+    Phase phase = beginPhase("parse", goloSourceFilename);
     try {
       compilationUnit = parser.CompilationUnit();
       compilationUnit.setFilename(goloSourceFilename);
     } catch (ParseException pe) {
       exceptionBuilder.report(pe, compilationUnit);
     }
+    if (phase != null) {
+      phase.end(null, countNodes(compilationUnit), 0, 0);
+    }
     throwIfErrorEncountered();
     return compilationUnit;
   }
@@ -160,19 +188,36 @@ public final class GoloCompiler {
     if (goloModule.isEmpty()) {
       return Collections.emptyList();
     }
+    Phase phase = beginPhase("generate", goloModule.sourceFile());
     JavaBytecodeGenerationGoloIrVisitor bytecodeGenerator = new JavaBytecodeGenerationGoloIrVisitor();
-    return bytecodeGenerator.generateBytecode(goloModule);
+    List<CodeGenerationResult> results = bytecodeGenerator.generateBytecode(goloModule);
+    if (phase != null) {
+      long size = 0;
+      for (CodeGenerationResult result : results) {
+        size += result.size();
+      }
+      phase.end(goloModule, results.size(), results.size(), size);
+    }
+    return results;
   }
 
   public GoloModule transform(ASTCompilationUnit compilationUnit) {
+    Phase phase = beginPhase("transform", compilationUnit.getFilename());
     GoloModule mod = new ParseTreeToGoloIrVisitor().transform(compilationUnit, exceptionBuilder);
+    endPhase(phase, mod);
     throwIfErrorEncountered();
     return mod;
   }
 
   public GoloModule expand(GoloModule goloModule, boolean recurse) {
     resetExceptionBuilder();
-    goloModule.accept(new MacroExpansionIrVisitor(classloader, recurse, getOrCreateExceptionBuilder(goloModule.sourceFile())));
+    Phase phase = beginPhase("expand", goloModule.sourceFile());
+    MacroExpansionIrVisitor expander = new MacroExpansionIrVisitor(classloader, recurse, getOrCreateExceptionBuilder(goloModule.sourceFile()));
+    if (profile != null) {
+      expander.profile(profile.module(goloModule.sourceFile()));
+    }
+    goloModule.accept(expander);
+    endPhase(phase, goloModule);
     throwIfErrorEncountered();
     return goloModule;
   }
@@ -187,14 +232,87 @@ public final class GoloCompiler {
 
   public GoloModule refine(GoloModule goloModule) {
     if (goloModule != null) {
+      Phase phase = beginPhase("refine", goloModule.sourceFile());
       goloModule.accept(new SugarExpansionVisitor());
       goloModule.accept(new ClosureCaptureGoloIrVisitor());
       goloModule.accept(new LocalReferenceAssignmentAndVerificationVisitor(getOrCreateExceptionBuilder(goloModule.sourceFile())));
+      endPhase(phase, goloModule);
     }
     throwIfErrorEncountered();
     return goloModule;
   }
 
+  /**
+   * A compilation phase being measured, for profiling or Flight Recorder events.
+   */
+  private final class Phase {
+    private final String name;
+    private final String source;
+    private final Object event;
+    private final long start = System.nanoTime();
+
+    Phase(String name, String source, Object event) {
+      this.name = name;
+      this.source = source;
+      this.event = event;
+    }
+
+    void end(GoloModule module, int nodes, int classes, long bytecodeSize) {
+      long duration = System.nanoTime() - start;
+      String moduleName = module == null ? null : module.getPackageAndClass().toString();
+      GoloEvents.endPhase(event, moduleName, nodes, bytecodeSize, getProblems().isEmpty());
+      if (profile != null) {
+        profile.module(source).phase(name, moduleName, duration, nodes, classes, bytecodeSize);
+      }
+    }
+  }
+
+  private Phase beginPhase(String name, String source) {
+    Object event = GoloEvents.beginPhase(name, source);
+    if (event == null && profile == null) {
+      return null;
+    }
+    return new Phase(name, source, event);
+  }
+
+  private void endPhase(Phase phase, GoloModule module) {
+    if (phase != null) {
+      phase.end(module, countElements(module), 0, 0);
+    }
+  }
+
+  private static int countElements(GoloElement<?> root) {
+    if (root == null) {
+      return 0;
+    }
+    // closures are children of both the module and their references, so nodes are counted once
+    Set<GoloElement<?>> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<GoloElement<?>> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      GoloElement<?> element = pending.pop();
+      if (seen.add(element)) {
+        for (GoloElement<?> child : element.children()) {
+          if (child != null) {
+            pending.push(child);
+          }
+        }
+      }
+    }
+    return seen.size();
+  }
+
+  private static int countNodes(Node node) {
+    if (node == null) {
+      return 0;
+    }
+    int count = 1;
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      count += countNodes(node.jjtGetChild(i));
+    }
+    return count;
+  }
+
   /**
    * Makes a Golo parser from a reader.
    *
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler;
+
+import gololang.ir.GoloModule;
+import gololang.ir.GoloType;
+import gololang.ir.ModuleImport;
+import gololang.ir.Augmentation;
+import org.eclipse.golo.cli.command.Metadata;
+import org.eclipse.golo.compiler.macro.MacroExpansionIrVisitor;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The state of an incremental compilation to a directory.
+ * <p>
+ * The compiled modules are recorded in the {@value #DEPENDENCIES_FILE} file of the output directory, with the hash of
+ * their source, their generated classes and their dependencies: the imported and used modules, the modules whose
+ * macros were expanded, the augmented types and the defined types. A compilation then only compiles the modules whose
+ * source changed, and the modules whose compilation depends on them.
+ * <p>
+ * Since the function calls, augmentations and types are linked at runtime, a module only depends at compile time on
+ * the macros it expands. These macros are looked up in the imported and used modules, so a changed module invalidates
+ * the modules that import, use or expanded it, when one of them defines macros. Indeed, a module defining macros can
+ * call the functions of its dependencies during the expansion. The invalidation is transitive.
+ * <p>
+ * Everything is compiled again if the file is missing, or was written by another Golo version or with another
+ * classpath. The changes in the classpath directories are not detected.
+ * <p>
+ * Typical use:
+ * <pre class="listing"><code class="lang-java" data-lang="java">
+ * IncrementalCompilation state = IncrementalCompilation.load(outputDir, classpath);
+ * List&lt;GoloModule&gt; modules = parse(state.changed(sources));
+ * modules.addAll(parse(state.dependents(modules)));
+ * for (GoloModule module : sortedWithMacrosFirst(modules)) {
+ *   state.record(module, compileAndSave(module));
+ * }
+ * state.save();
+ * </code></pre>
+ * The classes of the unchanged modules are not loaded by the compilation, so the output directory must be in the
+ * classpath of the compiler to expand their macros.
+ */
+public final class IncrementalCompilation {
+
+  /**
+   * The name of the file storing the compilation state in the output directory.
+   */
+  public static final String DEPENDENCIES_FILE = ".golo-dependencies";
+
+  private static final String HASH = "hash";
+  private static final String MODIFIED = "modified";
+  private static final String SIZE = "size";
+  private static final String MODULE = "module";
+  private static final String DEFINES_MACROS = "definesMacros";
+  private static final String IMPORTS = "imports";
+  private static final String USES = "uses";
+  private static final String MACROS = "macros";
+  private static final String AUGMENTATIONS = "augmentations";
+  private static final String TYPES = "types";
+  private static final String OUTPUTS = "outputs";
+
+  private final File outputDir;
+  private final String fingerprint;
+  private final Map<String, Map<String, Object>> entries;
+  private final Set<String> staleOutputs = new LinkedHashSet<>();
+  private final Set<String> dirtyModules = new HashSet<>();
+  private final Set<String> dirtyMacroModules = new HashSet<>();
+  private final Set<String> selected = new HashSet<>();
+  private final Set<String> recorded = new HashSet<>();
+
+  private IncrementalCompilation(File outputDir, String fingerprint, Map<String, Map<String, Object>> entries) {
+    this.outputDir = outputDir;
+    this.fingerprint = fingerprint;
+    this.entries = entries;
+  }
+
+  /**
+   * Loads the state of the compilation to the given directory.
+   *
+   * @param outputDir the directory of the compiled classes.
+   * @param classpath the classpath of the compiler.
+   */
+  public static IncrementalCompilation load(File outputDir, Collection<String> classpath) {
+    String fingerprint = fingerprint(classpath);
+    Map<String, Map<String, Object>> entries = new LinkedHashMap<>();
+    File file = new File(outputDir, DEPENDENCIES_FILE);
+    if (file.isFile()) {
+      try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+        Object content = JSONValue.parse(reader);
+        if (content instanceof Map) {
+          Map<?, ?> state = (Map<?, ?>) content;
+          boolean compatible = fingerprint.equals(state.get("fingerprint"));
+          Object sources = state.get("sources");
+          if (sources instanceof Map) {
+            for (Map.Entry<?, ?> source : ((Map<?, ?>) sources).entrySet()) {
+              @SuppressWarnings("unchecked")
+              Map<String, Object> entry = new LinkedHashMap<>((Map<String, Object>) source.getValue());
+              if (!compatible) {
+                // only keep the outputs, to remove them if the source is deleted
+                entry.remove(HASH);
+              }
+              entries.put((String) source.getKey(), entry);
+            }
+          }
+        }
+      } catch (IOException | ClassCastException e) {
+        entries.clear();
+      }
+    }
+    return new IncrementalCompilation(outputDir, fingerprint, entries);
+  }
+
+  private static String fingerprint(Collection<String> classpath) {
+    StringBuilder fingerprint = new StringBuilder(Metadata.VERSION).append(' ').append(Metadata.TIMESTAMP);
+    for (String element : classpath) {
+      File file = new File(element).getAbsoluteFile();
+      fingerprint.append(File.pathSeparatorChar).append(file.getPath());
+      if (file.isFile()) {
+        fingerprint.append('@').append(file.lastModified()).append('/').append(file.length());
+      }
+    }
+    return fingerprint.toString();
+  }
+
+  private static String key(File source) {
+    return source.getAbsoluteFile().toPath().normalize().toString();
+  }
+
+  /**
+   * Returns the hash of the content of a source file.
+   */
+  public static String hash(File source) throws IOException {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(Files.readAllBytes(source.toPath()));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : hash) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static boolean definesMacros(Map<String, Object> entry) {
+    return Boolean.TRUE.equals(entry.get(DEFINES_MACROS));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Collection<String> strings(Map<String, Object> entry, String name) {
+    Object value = entry.get(name);
+    return value instanceof Collection ? (Collection<String>) value : Collections.emptySet();
+  }
+
+  private void invalidate(Map<String, Object> entry) {
+    Object module = entry.get(MODULE);
+    if (module != null) {
+      dirtyModules.add((String) module);
+      if (definesMacros(entry)) {
+        dirtyMacroModules.add((String) module);
+      }
+    }
+  }
+
+  /**
+   * Returns the sources that changed since the last compilation.
+   * <p>
+   * The classes generated from the deleted sources are removed.
+   *
+   * @param sources all the sources of the compilation.
+   * @return the new sources, and the ones whose content changed or whose compilation failed.
+   */
+  public List<File> changed(Collection<File> sources) throws IOException {
+    List<File> changed = new ArrayList<>();
+    Set<String> keys = new HashSet<>();
+    for (File source : sources) {
+      String key = key(source);
+      keys.add(key);
+      Map<String, Object> entry = entries.get(key);
+      if (entry == null || entry.get(HASH) == null) {
+        if (entry != null) {
+          invalidate(entry);
+        }
+        changed.add(source);
+        continue;
+      }
+      if (source.lastModified() == ((Number) entry.get(MODIFIED)).longValue()
+          && source.length() == ((Number) entry.get(SIZE)).longValue()) {
+        continue;
+      }
+      if (hash(source).equals(entry.get(HASH))) {
+        entry.put(MODIFIED, source.lastModified());
+        continue;
+      }
+      invalidate(entry);
+      changed.add(source);
+    }
+    Iterator<Map.Entry<String, Map<String, Object>>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Map<String, Object>> entry = iterator.next();
+      if (!keys.contains(entry.getKey()) && !new File(entry.getKey()).exists()) {
+        invalidate(entry.getValue());
+        staleOutputs.addAll(strings(entry.getValue(), OUTPUTS));
+        iterator.remove();
+      }
+    }
+    deleteStaleOutputs();
+    for (File source : changed) {
+      selected.add(key(source));
+    }
+    return changed;
+  }
+
+  /**
+   * Returns the unchanged sources that must be compiled again because of the changed modules.
+   *
+   * @param changed the modules of the changed sources, before the macro expansion.
+   */
+  public List<File> dependents(Collection<GoloModule> changed) {
+    for (GoloModule module : changed) {
+      String name = module.getPackageAndClass().toString();
+      dirtyModules.add(name);
+      if (module.hasMacros()) {
+        dirtyMacroModules.add(name);
+      }
+    }
+    List<File> dependents = new ArrayList<>();
+    boolean found = true;
+    while (found) {
+      found = false;
+      for (Map.Entry<String, Map<String, Object>> source : entries.entrySet()) {
+        Map<String, Object> entry = source.getValue();
+        if (selected.contains(source.getKey()) || !dependsOnDirty(entry)) {
+          continue;
+        }
+        selected.add(source.getKey());
+        dependents.add(new File(source.getKey()));
+        invalidate(entry);
+        found = true;
+      }
+    }
+    return dependents;
+  }
+
+  private boolean dependsOnDirty(Map<String, Object> entry) {
+    Set<String> dirty = definesMacros(entry) ? dirtyModules : dirtyMacroModules;
+    for (String kind : Arrays.asList(IMPORTS, USES, MACROS)) {
+      for (String module : strings(entry, kind)) {
+        if (dirty.contains(module)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records the compilation of a module.
+   *
+   * @param module the compiled module, after the macro expansion.
+   * @param results the generated classes, saved in the output directory.
+   */
+  public void record(GoloModule module, List<CodeGenerationResult> results) throws IOException {
+    File source = new File(module.sourceFile());
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put(HASH, hash(source));
+    entry.put(MODIFIED, source.lastModified());
+    entry.put(SIZE, source.length());
+    entry.put(MODULE, module.getPackageAndClass().toString());
+    entry.put(DEFINES_MACROS, module.hasMacros());
+    List<String> imports = new ArrayList<>();
+    for (ModuleImport imported : module.getImports()) {
+      imports.add(imported.getPackageAndClass().toString());
+    }
+    entry.put(IMPORTS, imports);
+    entry.put(USES, new ArrayList<>(module.getUsedModules()));
+    Object macros = module.metadata(MacroExpansionIrVisitor.MACRO_MODULES);
+    entry.put(MACROS, macros instanceof Collection ? new ArrayList<>((Collection<?>) macros) : new ArrayList<>());
+    List<String> augmentations = new ArrayList<>();
+    for (Augmentation augmentation : module.getAugmentations()) {
+      augmentations.add(augmentation.getTarget().toString());
+    }
+    entry.put(AUGMENTATIONS, augmentations);
+    List<String> types = new ArrayList<>();
+    for (Object child : module.children()) {
+      if (child instanceof GoloType) {
+        types.add(((GoloType<?>) child).getPackageAndClass().toString());
+      }
+    }
+    entry.put(TYPES, types);
+    List<String> outputs = new ArrayList<>();
+    for (CodeGenerationResult result : results) {
+      outputs.add(result.getOutputFilename());
+    }
+    entry.put(OUTPUTS, outputs);
+    recorded.add(key(source));
+    Map<String, Object> previous = entries.put(key(source), entry);
+    if (previous != null) {
+      staleOutputs.addAll(strings(previous, OUTPUTS));
+    }
+  }
+
+  /**
+   * Writes the state of the compilation, and removes the classes no longer generated.
+   */
+  public void save() throws IOException {
+    deleteStaleOutputs();
+    Map<String, Object> state = new LinkedHashMap<>();
+    state.put("fingerprint", fingerprint);
+    Map<String, Object> sources = new TreeMap<>();
+    for (Map.Entry<String, Map<String, Object>> entry : entries.entrySet()) {
+      if (selected.contains(entry.getKey()) && !recorded.contains(entry.getKey())) {
+        // not compiled, e.g. because of an error: compiled again next time
+        entry.getValue().remove(HASH);
+      }
+      sources.put(entry.getKey(), entry.getValue());
+    }
+    state.put("sources", sources);
+    Files.createDirectories(outputDir.toPath());
+    Path file = new File(outputDir, DEPENDENCIES_FILE).toPath();
+    Files.write(file, JSONObject.toJSONString(state).getBytes(UTF_8));
+  }
+
+  private void deleteStaleOutputs() throws IOException {
+    Set<String> current = new HashSet<>();
+    for (Map<String, Object> entry : entries.values()) {
+      current.addAll(strings(entry, OUTPUTS));
+    }
+    for (String output : staleOutputs) {
+      if (!current.contains(output)) {
+        Files.deleteIfExists(new File(outputDir, output).toPath());
+      }
+    }
+    staleOutputs.clear();
+  }
+}
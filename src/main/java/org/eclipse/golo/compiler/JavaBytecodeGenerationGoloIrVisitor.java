@@ -12,6 +12,7 @@ package org.eclipse.golo.compiler;
 
 import gololang.FunctionReference;
 import gololang.ir.*;
+import org.eclipse.golo.runtime.TypeMatching;
 import org.objectweb.asm.*;
 
 import java.lang.invoke.MethodType;
@@ -33,6 +34,20 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   private static final String JOBJECT = "java/lang/Object";
   private static final String TOBJECT = "Ljava/lang/Object;";
+  private static final String JATOMIC = "java/util/concurrent/atomic/AtomicReference";
+  private static final String TATOMIC = "Ljava/util/concurrent/atomic/AtomicReference;";
+  private static final String MODULE_STATE_SUPPORT = "org/eclipse/golo/runtime/ModuleStateSupport";
+  private static final Map<String, Integer> ATOMIC_OPERATIONS = new HashMap<>();
+
+  static {
+    ATOMIC_OPERATIONS.put("compareAndSet", 3);
+    ATOMIC_OPERATIONS.put("getAndSet", 2);
+    ATOMIC_OPERATIONS.put("updateAndGet", 2);
+    ATOMIC_OPERATIONS.put("getAndUpdate", 2);
+    ATOMIC_OPERATIONS.put("accumulateAndGet", 3);
+    ATOMIC_OPERATIONS.put("getAndAccumulate", 3);
+  }
+
   private static final Handle FUNCTION_INVOCATION_HANDLE = makeHandle(
       "FunctionCallSupport", "[Ljava/lang/Object;");
   private static final Handle OPERATOR_HANDLE = makeHandle(
@@ -54,6 +69,9 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   private ClassWriter classWriter;
   private String klass;
   private String jvmKlass;
+  private String currentClass;
+  private final Set<String> atomicStates = new LinkedHashSet<>();
+  private final Map<String, Boolean> shadowedAtomicOperations = new HashMap<>();
   private List<CodeGenerationResult> generationResults;
   private String sourceFilename;
   private Context context;
@@ -255,6 +273,14 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     writeImportMetaData(module.getImports());
     klass = module.getPackageAndClass().toString();
     jvmKlass = module.getPackageAndClass().toJVMType();
+    currentClass = jvmKlass;
+    atomicStates.clear();
+    shadowedAtomicOperations.clear();
+    for (GoloElement<?> element : module.children()) {
+      if (element instanceof LocalReference && isAtomic((LocalReference) element)) {
+        atomicStates.add(((LocalReference) element).getName());
+      }
+    }
     writeAugmentsMetaData(module);
     writeAugmentationApplicationsMetaData(module);
     module.walk(this);
@@ -269,11 +295,14 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   public void visitLocalReference(LocalReference moduleState) {
     if (moduleState.isModuleState()) {
       String name = moduleState.getName();
-      classWriter.visitField(ACC_PRIVATE | ACC_STATIC | deprecatedFlag(moduleState), name, TOBJECT, null, null).visitEnd();
+      boolean atomic = atomicStates.contains(name);
+      classWriter.visitField(ACC_PRIVATE | ACC_STATIC | (atomic ? ACC_FINAL : 0) | deprecatedFlag(moduleState),
+          name, atomic ? TATOMIC : TOBJECT, null, null).visitEnd();
 
+      // Accessors used by the augmentation classes, that can't access the private field
       MethodVisitor mv = classWriter.visitMethod(ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC, name, "()Ljava/lang/Object;", null, null);
       mv.visitCode();
-      mv.visitFieldInsn(GETSTATIC, jvmKlass, name, TOBJECT);
+      getModuleState(mv, name);
       mv.visitInsn(ARETURN);
       mv.visitMaxs(0, 0);
       mv.visitEnd();
@@ -281,13 +310,58 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       mv = classWriter.visitMethod(ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC, name, "(Ljava/lang/Object;)V", null, null);
       mv.visitCode();
       mv.visitVarInsn(ALOAD, 0);
-      mv.visitFieldInsn(PUTSTATIC, jvmKlass, name, TOBJECT);
+      putModuleState(mv, name);
       mv.visitInsn(RETURN);
       mv.visitMaxs(0, 0);
       mv.visitEnd();
+
+      if (atomic) {
+        mv = classWriter.visitMethod(ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC, atomicAccessorName(name), "()Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(GETSTATIC, jvmKlass, name, TATOMIC);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+      }
+    }
+  }
+
+  private static String atomicAccessorName(String name) {
+    return "$atomic$" + name;
+  }
+
+  private void getModuleState(MethodVisitor mv, String name) {
+    if (atomicStates.contains(name)) {
+      mv.visitFieldInsn(GETSTATIC, jvmKlass, name, TATOMIC);
+      mv.visitMethodInsn(INVOKEVIRTUAL, JATOMIC, "get", "()Ljava/lang/Object;", false);
+    } else {
+      mv.visitFieldInsn(GETSTATIC, jvmKlass, name, TOBJECT);
+    }
+  }
+
+  private void putModuleState(MethodVisitor mv, String name) {
+    if (atomicStates.contains(name)) {
+      mv.visitFieldInsn(GETSTATIC, jvmKlass, name, TATOMIC);
+      mv.visitInsn(SWAP);
+      mv.visitMethodInsn(INVOKEVIRTUAL, JATOMIC, "set", "(Ljava/lang/Object;)V", false);
+    } else {
+      mv.visitFieldInsn(PUTSTATIC, jvmKlass, name, TOBJECT);
     }
   }
 
+  private void initializeAtomicStates(MethodVisitor mv) {
+    for (String name : atomicStates) {
+      mv.visitTypeInsn(NEW, JATOMIC);
+      mv.visitInsn(DUP);
+      mv.visitMethodInsn(INVOKESPECIAL, JATOMIC, "<init>", "()V", false);
+      mv.visitFieldInsn(PUTSTATIC, jvmKlass, name, TATOMIC);
+    }
+  }
+
+  private boolean isInModuleClass() {
+    return jvmKlass.equals(currentClass);
+  }
+
   private void writeMetaData(String name, String[] data) {
     MethodVisitor mv = classWriter.visitMethod(
         ACC_PUBLIC | ACC_STATIC | ACC_SYNTHETIC,
@@ -427,6 +501,7 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
         ACC_PUBLIC | ACC_STATIC);
 
     classWriter = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
+    currentClass = augmentationClassInternalName;
     classWriter.visit(V1_8, ACC_PUBLIC | ACC_SUPER, augmentationClassInternalName, null, JOBJECT, null);
     classWriter.visitSource(this.sourceFilename, null);
     classWriter.visitOuterClass(outerName, null, null);
@@ -442,6 +517,7 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     classWriter.visitEnd();
     generationResults.add(new CodeGenerationResult(classWriter.toByteArray(), packageAndClass, this.sourceFilename));
     classWriter = mainClassWriter;
+    currentClass = jvmKlass;
   }
 
   @Override
@@ -452,6 +528,9 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       context.currentMethodVisitor.visitParameter(parameter, ACC_FINAL);
     }
     context.currentMethodVisitor.visitCode();
+    if (function.isModuleInit()) {
+      initializeAtomicStates(context.currentMethodVisitor);
+    }
     function.walk(this);
     context.exitFunction();
   }
@@ -650,6 +729,9 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
+    if (visitAtomicOperation(functionInvocation)) {
+      return;
+    }
     String name = functionInvocation.getName().replaceAll("\\.", "#");
     String typeDef = goloFunctionSignature(functionInvocation.getArity());
     Handle handle = FUNCTION_INVOCATION_HANDLE;
@@ -673,6 +755,64 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     context.currentMethodVisitor.visitInvokeDynamicInsn(name, typeDef, handle, bootstrapArgs.toArray());
   }
 
+  /**
+   * Compiles the atomic operations whose first argument is an atomic module state reference.
+   * <p>
+   * A function of the same name defined in the module is called instead.
+   *
+   * @return {@code false} if the invocation is a regular function call.
+   */
+  private boolean visitAtomicOperation(FunctionInvocation functionInvocation) {
+    Integer arity = ATOMIC_OPERATIONS.get(functionInvocation.getName());
+    if (arity == null || arity != functionInvocation.getArity() || functionInvocation.usesNamedArguments()) {
+      return false;
+    }
+    if (shadowedAtomicOperations.computeIfAbsent(functionInvocation.getName(), name -> isFunctionInScope(name, arity))) {
+      return false;
+    }
+    GoloElement<?> target = functionInvocation.getArguments().get(0);
+    if (!(target instanceof ReferenceLookup)) {
+      return false;
+    }
+    LocalReference reference = ((ReferenceLookup) target).resolveIn(context.referenceTableStack.peek());
+    if (reference == null || !reference.isModuleState() || !atomicStates.contains(reference.getName())) {
+      return false;
+    }
+    if (isInModuleClass()) {
+      context.currentMethodVisitor.visitFieldInsn(GETSTATIC, jvmKlass, reference.getName(), TATOMIC);
+    } else {
+      context.currentMethodVisitor.visitInvokeDynamicInsn(
+          (klass + "." + atomicAccessorName(reference.getName())).replaceAll("\\.", "#"),
+          "()Ljava/lang/Object;",
+          FUNCTION_INVOCATION_HANDLE,
+          (Object) 0);
+      context.currentMethodVisitor.visitTypeInsn(CHECKCAST, JATOMIC);
+    }
+    for (GoloElement<?> argument : functionInvocation.getArguments().subList(1, arity)) {
+      argument.accept(this);
+    }
+    context.currentMethodVisitor.visitMethodInsn(INVOKESTATIC, MODULE_STATE_SUPPORT, functionInvocation.getName(),
+        methodType(Object.class, genericMethodType(arity).changeParameterType(0, java.util.concurrent.atomic.AtomicReference.class).parameterArray())
+        .toMethodDescriptorString(), false);
+    return true;
+  }
+
+  /**
+   * Checks if a call resolves to a function defined in the module.
+   * <p>
+   * The imported modules are not looked up, so that the generated code only depends on the module itself, and not on
+   * the classes available when it is compiled.
+   */
+  private boolean isFunctionInScope(String name, int arity) {
+    for (GoloFunction function : currentModule.getFunctions()) {
+      if (function.getName().equals(name)
+          && TypeMatching.argumentsNumberMatches(function.getArity(), arity, function.isVarargs())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void visitMethodInvocation(MethodInvocation methodInvocation) {
     List<Object> bootstrapArgs = new ArrayList<>();
@@ -695,7 +835,9 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   public void visitAssignmentStatement(AssignmentStatement assignmentStatement) {
     assignmentStatement.walk(this);
     LocalReference reference = assignmentStatement.getLocalReference();
-    if (reference.isModuleState()) {
+    if (reference.isModuleState() && isInModuleClass()) {
+      putModuleState(context.currentMethodVisitor, reference.getName());
+    } else if (reference.isModuleState()) {
       context.currentMethodVisitor.visitInvokeDynamicInsn(
           (klass + "." + reference.getName()).replaceAll("\\.", "#"),
           "(Ljava/lang/Object;)V",
@@ -709,7 +851,9 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   @Override
   public void visitReferenceLookup(ReferenceLookup referenceLookup) {
     LocalReference reference = referenceLookup.resolveIn(context.referenceTableStack.peek());
-    if (reference.isModuleState()) {
+    if (reference.isModuleState() && isInModuleClass()) {
+      getModuleState(context.currentMethodVisitor, referenceLookup.getName());
+    } else if (reference.isModuleState()) {
       context.currentMethodVisitor.visitInvokeDynamicInsn(
           (klass + "." + referenceLookup.getName()).replaceAll("\\.", "#"),
           "()Ljava/lang/Object;",
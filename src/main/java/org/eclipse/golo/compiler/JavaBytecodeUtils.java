@@ -85,6 +85,10 @@ final class JavaBytecodeUtils {
     return 0;
   }
 
+  static boolean isAtomic(GoloElement<?> element) {
+    return element.metadata("golo.atomic") != null && (boolean) element.metadata("golo.atomic");
+  }
+
   static void addAnnotations(GoloElement<?> element, BiFunction<String, Boolean, AnnotationVisitor> factory) {
     addAnnotations(element.metadata("annotations"), factory);
   }
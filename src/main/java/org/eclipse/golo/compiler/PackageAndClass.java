@@ -13,12 +13,14 @@ package org.eclipse.golo.compiler;
 import gololang.ir.GoloType;
 import gololang.ir.GoloModule;
 
+import java.io.Serializable;
+
 import static java.util.Objects.requireNonNull;
 
 /**
  * Represents a package and class.
  */
-public final class PackageAndClass {
+public final class PackageAndClass implements Serializable {
 
   private final String packageName;
   private final String className;
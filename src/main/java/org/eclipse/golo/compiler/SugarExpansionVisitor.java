@@ -320,11 +320,40 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
           AssignmentStatement.create(tempVar, FunctionInvocation.of("Tuple.fromArray").withArgs(tempVar.lookup()), false));
     }
 
+    String conversion = comprehensionConversion(collection.getType());
+    if (conversion != null) {
+      mainBlock.add(
+          AssignmentStatement.create(tempVar, FunctionInvocation.of(conversion).withArgs(tempVar.lookup()), false));
+    }
+
     mainBlock.add(tempVar.lookup());
     collection.replaceInParentBy(mainBlock);
     mainBlock.accept(this);
   }
 
+  /**
+   * Returns the function converting the mutable collection built by a comprehension into the final collection
+   * type, or {@code null} if no conversion is needed.
+   */
+  private static String comprehensionConversion(CollectionLiteral.Type type) {
+    switch (type) {
+      case pvector:
+        return "gololang.PersistentVector.fromIterable";
+      case pset:
+        return "gololang.PersistentSet.fromIterable";
+      case pmap:
+        return "gololang.PersistentMap.fromMap";
+      case ivector:
+        return "gololang.IntVector.fromIterable";
+      case lvector:
+        return "gololang.LongVector.fromIterable";
+      case dvector:
+        return "gololang.DoubleVector.fromIterable";
+      default:
+        return null;
+    }
+  }
+
   /**
    * ForEach expansion.
    * <p>
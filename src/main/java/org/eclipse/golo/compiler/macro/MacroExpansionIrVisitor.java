@@ -11,6 +11,7 @@
 package org.eclipse.golo.compiler.macro;
 
 import gololang.ir.*;
+import org.eclipse.golo.compiler.CompilationProfile;
 import org.eclipse.golo.compiler.GoloCompilationException;
 import org.eclipse.golo.compiler.PositionInSourceCode;
 import org.eclipse.golo.compiler.StopCompilationException;
@@ -44,6 +45,11 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
     }
   }
 
+  /**
+   * The metadata of the expanded modules giving the names of the modules defining the expanded macros.
+   */
+  public static final String MACRO_MODULES = "macroModules";
+
   private static final boolean DEBUG = Boolean.getBoolean("golo.debug.macros");
   private static final int RECURSION_LIMIT = Integer.getInteger("golo.macros.recursion-limit", 42);
 
@@ -55,6 +61,8 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
   private int recursionLimit = RECURSION_LIMIT;
   private int recursionLevel = 0;
   private boolean defaultRecurse = true;
+  private CompilationProfile.ModuleProfile profile;
+  private Set<String> macroModules = new LinkedHashSet<>();
 
   public MacroExpansionIrVisitor(ClassLoader loader, boolean defaultRecurse, GoloCompilationException.Builder exceptionBuilder) {
     this.finder = new MacroFinder(loader);
@@ -80,6 +88,10 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
     this.recurse = defaultRecurse;
     this.recursionLimit = RECURSION_LIMIT;
     this.recursionLevel = 0;
+    this.macroModules = new LinkedHashSet<>();
+    if (module != null) {
+      module.metadata(MACRO_MODULES, this.macroModules);
+    }
     if (this.exceptionBuilder == null) {
       this.exceptionBuilder = new GoloCompilationException.Builder(module == null ? "null" : module.sourceFile());
     }
@@ -133,6 +145,14 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
     return this;
   }
 
+  /**
+   * Defines the profile in which to record the macro expansions.
+   */
+  public MacroExpansionIrVisitor profile(CompilationProfile.ModuleProfile p) {
+    this.profile = p;
+    return this;
+  }
+
   public void setExceptionBuilder(GoloCompilationException.Builder builder) {
     exceptionBuilder = builder;
   }
@@ -297,9 +317,13 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
 
   private Function<MethodHandle, GoloElement<?>> invokeMacroWith(AbstractInvocation<?> invocation) {
     return (macro) -> {
+      long start = System.nanoTime();
       try {
         GoloElement<?> result = (GoloElement<?>) macro.invokeWithArguments(invocation.getArguments());
         debug("macro expanded to %s", result);
+        if (profile != null) {
+          profile.macroExpanded(invocation.getName(), System.nanoTime() - start);
+        }
         return result;
       } catch (StopCompilationException e) {
         throw e;
@@ -335,12 +359,18 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
     return message("source_position", position.getStartLine(), position.getStartColumn());
   }
 
+  private Optional<MacroFinderResult> find(AbstractInvocation<?> invocation) {
+    Optional<MacroFinderResult> result = finder.find(invocation);
+    result.ifPresent(m -> macroModules.add(m.module()));
+    return result;
+  }
+
   private Optional<MethodHandle> findMacro(FunctionInvocation invocation) {
-    return finder.find(invocation).map(m -> m.binded(this, invocation));
+    return find(invocation).map(m -> m.binded(this, invocation));
   }
 
   private Optional<MethodHandle> findMacro(MacroInvocation invocation) {
-    Optional<MethodHandle> macro = finder.find(invocation).map(m -> m.binded(this, invocation));
+    Optional<MethodHandle> macro = find(invocation).map(m -> m.binded(this, invocation));
     if (!macro.isPresent()) {
       loadingFailed(invocation);
     }
@@ -349,7 +379,7 @@ public final class MacroExpansionIrVisitor extends AbstractGoloIrVisitor {
 
   public boolean macroExists(MacroInvocation invocation) {
     requireNonNull(invocation);
-    boolean exists = finder.find(invocation).isPresent();
+    boolean exists = find(invocation).isPresent();
     debug("Check if %s exists: %s", invocation.getName(), exists);
     return exists;
   }
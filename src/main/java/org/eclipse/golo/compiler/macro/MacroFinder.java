@@ -124,7 +124,8 @@ class MacroFinder {
     }
     return new MacroFinderResult(target,
         method.isAnnotationPresent(SpecialMacro.class),
-        method.isAnnotationPresent(ContextualMacro.class));
+        method.isAnnotationPresent(ContextualMacro.class),
+        method.getDeclaringClass().getName());
   }
 
 }
@@ -18,11 +18,20 @@ final class MacroFinderResult {
   private final boolean special;
   private final boolean contextual;
   private final MethodHandle target;
+  private final String module;
 
-  MacroFinderResult(MethodHandle target, boolean special, boolean contextual) {
+  MacroFinderResult(MethodHandle target, boolean special, boolean contextual, String module) {
     this.special = special;
     this.contextual = contextual;
     this.target = target;
+    this.module = module;
+  }
+
+  /**
+   * The name of the class defining the macro.
+   */
+  String module() {
+    return this.module;
   }
 
   MethodHandle binded(MacroExpansionIrVisitor visitor, AbstractInvocation<?> invocation) {
@@ -41,7 +50,7 @@ final class MacroFinderResult {
 
   @Override
   public String toString() {
-    return String.format("MethodFinderResult{special=%s,contextual=%s,target=%s}", special, contextual, target);
+    return String.format("MethodFinderResult{special=%s,contextual=%s,target=%s,module=%s}", special, contextual, target, module);
   }
 }
 
@@ -20,7 +20,13 @@ import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.nio.file.FileSystems;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public abstract class AbstractProcessor {
 
@@ -28,10 +34,12 @@ public abstract class AbstractProcessor {
 
   public abstract void process(Collection<ModuleDocumentation> modules, Path targetFolder) throws Throwable;
 
-  private final TemplateEngine templateEngine = new TemplateEngine();
-  private final Map<String, FunctionReference> templateCache = new HashMap<>();
+  // templates are compiled once and shared by all the processors
+  private static final TemplateEngine TEMPLATE_ENGINE = new TemplateEngine();
+  private static final Map<String, FunctionReference> TEMPLATE_CACHE = new ConcurrentHashMap<>();
 
   private Path targetFolder;
+  private DocumentationCache cache;
   private final Set<ModuleDocumentation> modules = new TreeSet<>();
   private Map<String, Set<ModuleDocumentation>> packages = new TreeMap<>();
 
@@ -43,6 +51,88 @@ public abstract class AbstractProcessor {
     return this.targetFolder;
   }
 
+  /**
+   * Defines the documentation of the previous run, used to only render the pages of the changed modules.
+   *
+   * @param cache the cache of the previous run, or {@code null} to render every page.
+   */
+  public void setCache(DocumentationCache cache) {
+    this.cache = cache;
+  }
+
+  public DocumentationCache getCache() {
+    return this.cache;
+  }
+
+  /**
+   * Checks if the given page of the module must be rendered.
+   *
+   * @param doc the module documentation.
+   * @param page the rendered file.
+   * @param dependencies the values, other than the module documentation, used to render the page.
+   */
+  protected boolean mustRender(ModuleDocumentation doc, Path page, List<String> dependencies) {
+    return cache == null || !cache.isUpToDate(doc, page, dependencies);
+  }
+
+  /**
+   * Removes the pages of the modules whose source was removed since the previous run.
+   * <p>
+   * Only used by the formats generating a file per module.
+   */
+  protected void deleteRemovedPages() throws IOException {
+    if (cache != null && !fileExtension().isEmpty()) {
+      for (String module : cache.removedModules()) {
+        Files.deleteIfExists(outputFile(module));
+        Files.deleteIfExists(outputFile(module + "-src"));
+      }
+    }
+  }
+
+  @FunctionalInterface
+  protected interface ModuleRenderer {
+    void render(ModuleDocumentation doc) throws Throwable;
+  }
+
+  /**
+   * Renders the given modules in parallel.
+   * <p>
+   * The renderer must only read the processor state.
+   */
+  protected void renderAll(Collection<ModuleDocumentation> docs, ModuleRenderer renderer) throws Throwable {
+    int threads = Math.min(docs.size(), Runtime.getRuntime().availableProcessors());
+    if (threads <= 1) {
+      for (ModuleDocumentation doc : docs) {
+        renderer.render(doc);
+      }
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (ModuleDocumentation doc : docs) {
+        results.add(executor.submit(() -> {
+          try {
+            renderer.render(doc);
+            return null;
+          } catch (Throwable t) {
+            throw new ExecutionException(t);
+          }
+        }));
+      }
+      for (Future<Void> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          // the renderer error, wrapped by the task and by the executor
+          throw e.getCause().getCause();
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   public Set<ModuleDocumentation> modules() {
     return modules;
   }
@@ -72,9 +162,17 @@ public abstract class AbstractProcessor {
 
   protected FunctionReference template(String name, String format) throws IOException {
     String key = name + "-" + format;
-    if (templateCache.containsKey(key)) {
-      return templateCache.get(key);
+    FunctionReference cached = TEMPLATE_CACHE.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    synchronized (TEMPLATE_CACHE) {
+      cached = TEMPLATE_CACHE.get(key);
+      return cached != null ? cached : compileTemplate(key, name, format);
     }
+  }
+
+  private static FunctionReference compileTemplate(String key, String name, String format) throws IOException {
     InputStream in = AbstractProcessor.class.getResourceAsStream("/org/eclipse/golo/doc/" + key);
     if (in == null) {
       throw new IllegalArgumentException("There is no template " + name + " for format: " + format);
@@ -86,8 +184,8 @@ public abstract class AbstractProcessor {
       while ((nread = reader.read(buffer)) > 0) {
         builder.append(buffer, 0, nread);
       }
-      FunctionReference compiledTemplate = templateEngine.compile(builder.toString());
-      templateCache.put(key, compiledTemplate);
+      FunctionReference compiledTemplate = TEMPLATE_ENGINE.compile(builder.toString());
+      TEMPLATE_CACHE.put(key, compiledTemplate);
       return compiledTemplate;
     }
   }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.doc;
+
+import org.eclipse.golo.cli.command.Metadata;
+import org.eclipse.golo.compiler.IncrementalCompilation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * The documentation of the modules generated by a previous run.
+ * <p>
+ * The cache is stored in the target folder, one file per format. It contains the documentation of each source file,
+ * with the hash of its content, and the dependencies of each rendered page. The documentation of an unchanged source
+ * is reused instead of being compiled, and its pages are not rendered again unless their dependencies changed.
+ * <p>
+ * The cache is discarded when written by another Golo version.
+ */
+public final class DocumentationCache {
+
+  private static final String VERSION = Metadata.VERSION + " " + Metadata.TIMESTAMP;
+
+  private static final class Entry implements Serializable {
+    String hash;
+    long modified;
+    long size;
+    ModuleDocumentation documentation;
+  }
+
+  private final Path file;
+  private final Map<String, Entry> entries;
+  private final Map<String, List<String>> pages;
+  private final Set<String> seen = new HashSet<>();
+  private final Set<String> removed = new TreeSet<>();
+  private final Set<ModuleDocumentation> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private DocumentationCache(Path file, Map<String, Entry> entries, Map<String, List<String>> pages) {
+    this.file = file;
+    this.entries = entries;
+    this.pages = pages;
+  }
+
+  /**
+   * Loads the cache of the given format from the target folder.
+   *
+   * @param targetFolder the folder of the generated documentation.
+   * @param format the documentation format.
+   * @return the cache, empty if missing or invalid.
+   */
+  @SuppressWarnings("unchecked")
+  public static DocumentationCache load(Path targetFolder, String format) {
+    Path file = targetFolder.resolve(".golo-doc-" + format);
+    if (Files.isRegularFile(file)) {
+      try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (VERSION.equals(in.readObject())) {
+          Map<String, Entry> entries = (Map<String, Entry>) in.readObject();
+          Map<String, List<String>> pages = (Map<String, List<String>>) in.readObject();
+          return new DocumentationCache(file, entries, pages);
+        }
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+        // compiled again
+      }
+    }
+    return new DocumentationCache(file, new HashMap<>(), new HashMap<>());
+  }
+
+  private static String key(File source) {
+    return source.getAbsoluteFile().toPath().normalize().toString();
+  }
+
+  /**
+   * Returns the cached documentation of a source file.
+   *
+   * @param source the source file.
+   * @return the documentation of the previous run, or {@code null} if the source changed since.
+   */
+  public ModuleDocumentation get(File source) throws IOException {
+    String key = key(source);
+    seen.add(key);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (source.lastModified() != entry.modified || source.length() != entry.size) {
+      if (!IncrementalCompilation.hash(source).equals(entry.hash)) {
+        return null;
+      }
+      entry.modified = source.lastModified();
+      entry.size = source.length();
+    }
+    reused.add(entry.documentation);
+    return entry.documentation;
+  }
+
+  /**
+   * Stores the documentation of a source file.
+   */
+  public void put(File source, ModuleDocumentation documentation) throws IOException {
+    Entry entry = new Entry();
+    entry.hash = IncrementalCompilation.hash(source);
+    entry.modified = source.lastModified();
+    entry.size = source.length();
+    entry.documentation = documentation;
+    String key = key(source);
+    seen.add(key);
+    Entry previous = entries.put(key, entry);
+    if (previous != null && !previous.documentation.moduleName().equals(documentation.moduleName())) {
+      removed.add(previous.documentation.moduleName());
+    }
+  }
+
+  /**
+   * Checks if the page of a module can be kept as is.
+   * <p>
+   * The page is up to date if the module source did not change and the page was rendered with the same dependencies.
+   * The dependencies are recorded for the next run.
+   *
+   * @param documentation the documentation of the module.
+   * @param page the rendered file.
+   * @param dependencies the values, other than the module documentation, used to render the page.
+   */
+  public synchronized boolean isUpToDate(ModuleDocumentation documentation, Path page, List<String> dependencies) {
+    String key = page.toString();
+    List<String> previous = pages.put(key, dependencies);
+    return reused.contains(documentation) && dependencies.equals(previous) && Files.exists(page);
+  }
+
+  /**
+   * Returns the names of the modules whose source was removed or renamed since the previous run.
+   * <p>
+   * Must be called once all the sources have been looked up.
+   */
+  public Set<String> removedModules() {
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Entry> entry = iterator.next();
+      if (!seen.contains(entry.getKey())) {
+        removed.add(entry.getValue().documentation.moduleName());
+        iterator.remove();
+      }
+    }
+    for (Entry entry : entries.values()) {
+      removed.remove(entry.documentation.moduleName());
+    }
+    return removed;
+  }
+
+  /**
+   * Writes the cache in the target folder.
+   */
+  public void save() throws IOException {
+    removedModules();
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeObject(VERSION);
+      out.writeObject(entries);
+      out.writeObject(pages);
+    }
+  }
+}
@@ -10,7 +10,14 @@
 
 package org.eclipse.golo.doc;
 
-public interface DocumentationElement extends Comparable<DocumentationElement> {
+import java.io.Serializable;
+
+/**
+ * An element of the documentation of a module.
+ * <p>
+ * The elements are serializable, so that the documentation of unchanged modules can be cached between runs.
+ */
+public interface DocumentationElement extends Comparable<DocumentationElement>, Serializable {
 
   /**
    * The simple name of the element.
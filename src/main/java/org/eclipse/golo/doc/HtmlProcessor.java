@@ -26,7 +26,6 @@ import com.github.rjeschke.txtmark.Processor;
 
 public class HtmlProcessor extends AbstractProcessor {
 
-  private Path srcFile;
   private final DocIndex globalIndex = new DocIndex();
 
   public static final Configuration CONFIG = Configuration.builder()
@@ -72,30 +71,40 @@ public class HtmlProcessor extends AbstractProcessor {
 
   @Override
   public String render(ModuleDocumentation documentation) throws Throwable {
-    FunctionReference template = template("template", fileExtension());
     globalIndex.update(documentation);
+    return renderPage(documentation, getSubmodulesOf(documentation));
+  }
+
+  private String renderPage(ModuleDocumentation documentation, Set<ModuleDocumentation> submodules) throws Throwable {
+    FunctionReference template = template("template", fileExtension());
     Path doc = docFile(documentation);
     if (doc.getParent() != null) {
       doc = doc.getParent();
     }
-    return (String) template.invoke(this, documentation, doc.relativize(srcFile), getSubmodulesOf(documentation));
+    Path srcFile = outputFile(documentation.moduleName() + "-src");
+    return (String) template.invoke(this, documentation, doc.relativize(srcFile), submodules);
   }
 
   @Override
   public void process(Collection<ModuleDocumentation> docs, Path targetFolder) throws Throwable {
     setTargetFolder(targetFolder);
+    List<ModuleDocumentation> modules = new ArrayList<>();
     for (ModuleDocumentation doc : docs) {
       addModule(doc);
+      if (!doc.isEmpty()) {
+        globalIndex.update(doc);
+        modules.add(doc);
+      }
     }
+    deleteRemovedPages();
     Set<String> donePackages = new HashSet<>();
     for (ModuleDocumentation doc : docs) {
       if (doc.isEmpty()) {
         renderPackage(doc);
-      } else {
-        renderModule(doc);
       }
       donePackages.add(doc.moduleName());
     }
+    renderAll(modules, this::renderModule);
     renderRemainingPackages(donePackages);
     renderIndex("index");
     renderIndex("index-all");
@@ -163,9 +172,20 @@ public class HtmlProcessor extends AbstractProcessor {
 
   private void renderModule(ModuleDocumentation documentation) throws Throwable {
     String moduleName = documentation.moduleName();
-    this.srcFile = outputFile(moduleName + "-src");
-    IO.textToFile(renderSource(moduleName, documentation.sourceFile()), srcFile);
-    IO.textToFile(render(documentation), outputFile(moduleName));
+    Path srcFile = outputFile(moduleName + "-src");
+    if (mustRender(documentation, srcFile, Collections.emptyList())) {
+      IO.textToFile(renderSource(moduleName, documentation.sourceFile()), srcFile);
+    }
+    Set<ModuleDocumentation> submodules = getSubmodulesOf(documentation);
+    // the page lists the submodules with the summary of their documentation
+    List<String> summaries = new ArrayList<>();
+    for (ModuleDocumentation submodule : submodules) {
+      summaries.add(submodule.moduleName() + ":" + Objects.hashCode(submodule.documentation()));
+    }
+    Path page = outputFile(moduleName);
+    if (mustRender(documentation, page, summaries)) {
+      IO.textToFile(renderPage(documentation, submodules), page);
+    }
   }
 
   private String renderSource(String moduleName, String filename) throws Throwable {
@@ -15,6 +15,7 @@ import gololang.IO;
 
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 
 public class MarkdownProcessor extends AbstractProcessor {
 
@@ -25,8 +26,12 @@ public class MarkdownProcessor extends AbstractProcessor {
 
   @Override
   public String render(ModuleDocumentation documentation) throws Throwable {
-    FunctionReference template = template("template", fileExtension());
     addModule(documentation);
+    return renderPage(documentation);
+  }
+
+  private String renderPage(ModuleDocumentation documentation) throws Throwable {
+    FunctionReference template = template("template", fileExtension());
     return (String) template.invoke(documentation);
   }
 
@@ -34,8 +39,15 @@ public class MarkdownProcessor extends AbstractProcessor {
   public void process(Collection<ModuleDocumentation> modules, Path targetFolder) throws Throwable {
     setTargetFolder(targetFolder);
     for (ModuleDocumentation doc : modules) {
-      IO.textToFile(render(doc), outputFile(doc.moduleName()));
+      addModule(doc);
     }
+    deleteRemovedPages();
+    renderAll(modules, doc -> {
+      Path page = outputFile(doc.moduleName());
+      if (mustRender(doc, page, Collections.emptyList())) {
+        IO.textToFile(renderPage(doc), page);
+      }
+    });
     renderIndex("index");
   }
 }
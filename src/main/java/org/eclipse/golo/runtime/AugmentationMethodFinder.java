@@ -16,6 +16,7 @@ import java.util.stream.Stream;
 import java.util.Comparator;
 import java.util.Objects;
 import org.eclipse.golo.runtime.augmentation.DefiningModule;
+import org.eclipse.golo.runtime.events.GoloEvents;
 
 import static java.lang.invoke.MethodHandles.*;
 import static java.lang.reflect.Modifier.*;
@@ -83,11 +84,21 @@ class AugmentationMethodFinder extends MethodFinder {
 
   @Override
   public MethodHandle find() {
-    return getDefiningModules()
-        .flatMap(dm -> dm.augmentationsFor(loader, invocation.receiverClass()))
-        .flatMap(aug -> aug.methodsMaching(invocation))
-        .min(Comparator.naturalOrder())
-        .flatMap(am -> toMethodHandle(am.method()))
-        .orElse(null);
+    Object event = GoloEvents.beginLink("augmentation",
+        callerClass.getName(),
+        invocation.receiverClass().getName() + "::" + invocation.name());
+    try {
+      MethodHandle target = getDefiningModules()
+          .flatMap(dm -> dm.augmentationsFor(loader, invocation.receiverClass()))
+          .flatMap(aug -> aug.methodsMaching(invocation))
+          .min(Comparator.naturalOrder())
+          .flatMap(am -> toMethodHandle(am.method()))
+          .orElse(null);
+      GoloEvents.endLink(event, target == null ? "not found" : "linked");
+      return target;
+    } catch (RuntimeException | Error e) {
+      GoloEvents.endLink(event, "failed");
+      throw e;
+    }
   }
 }
@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+import static gololang.Messages.warning;
+
+/**
+ * Opt-in telemetry of the dynamic call sites.
+ * <p>
+ * When enabled with the {@code golo.telemetry} system property or the {@code GOLO_TELEMETRY} environment variable,
+ * every method, function, operator and closure call site bootstrapped afterward records how many times it was linked
+ * and reset, its inline cache depth, whether it became megamorphic, and the time spent resolving its targets. The
+ * call sites are identified by their kind, name, caller module and source position.
+ * <p>
+ * The statistics are exposed by a {@link CallSiteTelemetryMXBean} registered as {@value #OBJECT_NAME}, and are
+ * printed on the standard error when the JVM shuts down if the {@code golo.telemetry.dump} property (or the
+ * {@code GOLO_TELEMETRY_DUMP} variable) is {@code true}. They are also printed when the JVM receives a {@code QUIT}
+ * signal, provided the JVM does not use it itself (that is, when run with {@code -Xrs}).
+ * <p>
+ * When disabled, call sites don't record anything: the only cost is a {@code null} check on relinking.
+ */
+public final class CallSiteTelemetry {
+
+  /**
+   * The name of the telemetry management bean.
+   */
+  public static final String OBJECT_NAME = "org.eclipse.golo:type=CallSiteTelemetry";
+
+  private static volatile boolean enabled = gololang.Runtime.loadBoolean("golo.telemetry", "GOLO_TELEMETRY", false);
+  private static final boolean DUMP = gololang.Runtime.loadBoolean("golo.telemetry.dump", "GOLO_TELEMETRY_DUMP", false);
+  private static final Queue<Site> SITES = new ConcurrentLinkedQueue<>();
+  private static boolean installed;
+
+  private CallSiteTelemetry() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * The statistics of a call site.
+   * <p>
+   * Counters are updated by the call site fallbacks, that can run concurrently.
+   */
+  public static final class Site {
+    private final String kind;
+    private final String name;
+    private final String module;
+    private final String position;
+    private final LongAdder links = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder resolutionNanos = new LongAdder();
+    private volatile int depth;
+    private volatile boolean megamorphic;
+
+    Site(String kind, String name, String module, String position) {
+      this.kind = kind;
+      this.name = name;
+      this.module = module;
+      this.position = position;
+    }
+
+    /**
+     * The kind of call site: {@code method}, {@code function}, {@code operator} or {@code closure}.
+     */
+    public String kind() {
+      return kind;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    /**
+     * The name of the class containing the call site.
+     */
+    public String module() {
+      return module;
+    }
+
+    /**
+     * The source position of the call site, as {@code file:line}, or {@code "?"} if unknown.
+     */
+    public String position() {
+      return position;
+    }
+
+    /**
+     * The number of times a target was linked into the call site.
+     */
+    public long links() {
+      return links.sum();
+    }
+
+    /**
+     * The number of times the inline cache was discarded to be built again.
+     */
+    public long resets() {
+      return resets.sum();
+    }
+
+    /**
+     * The number of target resolutions that failed.
+     */
+    public long failures() {
+      return failures.sum();
+    }
+
+    /**
+     * The total time spent in target resolution, in nanoseconds.
+     */
+    public long resolutionNanos() {
+      return resolutionNanos.sum();
+    }
+
+    /**
+     * The current number of targets in the inline cache.
+     */
+    public int depth() {
+      return depth;
+    }
+
+    public boolean isMegamorphic() {
+      return megamorphic;
+    }
+
+    void reset() {
+      links.reset();
+      resets.reset();
+      failures.reset();
+      resolutionNanos.reset();
+    }
+
+    /**
+     * Returns the current values of the counters.
+     */
+    public Snapshot snapshot() {
+      return new Snapshot(this);
+    }
+
+    @Override
+    public String toString() {
+      return snapshot().toString();
+    }
+  }
+
+  /**
+   * The statistics of a call site at a given time.
+   * <p>
+   * Unlike the {@link Site} counters, the values don't change, so that snapshots can be sorted and summed
+   * consistently.
+   */
+  public static final class Snapshot {
+    private final String kind;
+    private final String name;
+    private final String module;
+    private final String position;
+    private final long links;
+    private final long resets;
+    private final long failures;
+    private final long resolutionNanos;
+    private final int depth;
+    private final boolean megamorphic;
+
+    private Snapshot(Site site) {
+      this.kind = site.kind;
+      this.name = site.name;
+      this.module = site.module;
+      this.position = site.position;
+      this.links = site.links();
+      this.resets = site.resets();
+      this.failures = site.failures();
+      this.resolutionNanos = site.resolutionNanos();
+      this.depth = site.depth;
+      this.megamorphic = site.megamorphic;
+    }
+
+    public String kind() {
+      return kind;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public String module() {
+      return module;
+    }
+
+    public String position() {
+      return position;
+    }
+
+    public long links() {
+      return links;
+    }
+
+    public long resets() {
+      return resets;
+    }
+
+    public long failures() {
+      return failures;
+    }
+
+    public long resolutionNanos() {
+      return resolutionNanos;
+    }
+
+    public int depth() {
+      return depth;
+    }
+
+    public boolean isMegamorphic() {
+      return megamorphic;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s %s at %s (%s): links=%d, resets=%d, failures=%d, depth=%d, megamorphic=%s, resolution=%.3fms",
+          kind, name, position, module, links, resets, failures, depth, megamorphic, resolutionNanos / 1_000_000.0);
+    }
+  }
+
+  /**
+   * Checks whether new call sites are instrumented.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the instrumentation of new call sites.
+   * <p>
+   * Call sites already bootstrapped are not affected.
+   */
+  public static void enable(boolean value) {
+    enabled = value;
+  }
+
+  /**
+   * Creates the statistics for a new call site, if telemetry is enabled.
+   *
+   * @param kind the kind of call site.
+   * @param caller the caller lookup.
+   * @param name the name of the called element.
+   * @return the call site statistics, or {@code null} if telemetry is disabled.
+   */
+  static Site register(String kind, Lookup caller, String name) {
+    if (!enabled) {
+      return null;
+    }
+    Class<?> callerClass = caller.lookupClass();
+    Site site = new Site(kind, name, callerClass.getName(), positionOf(callerClass));
+    SITES.add(site);
+    install();
+    return site;
+  }
+
+  private static String positionOf(Class<?> callerClass) {
+    // bootstraps are called from the call site being linked
+    for (StackTraceElement element : new Throwable().getStackTrace()) {
+      if (element.getClassName().equals(callerClass.getName())) {
+        return element.getFileName() + ":" + element.getLineNumber();
+      }
+    }
+    return "?";
+  }
+
+  /**
+   * Records the resolution of a target.
+   *
+   * @param site the call site statistics, may be {@code null}.
+   * @param start the resolution start time, from {@code System.nanoTime()}.
+   * @param depth the new inline cache depth.
+   */
+  static void linked(Site site, long start, int depth) {
+    if (site != null) {
+      site.resolutionNanos.add(System.nanoTime() - start);
+      site.links.increment();
+      site.depth = depth;
+    }
+  }
+
+  /**
+   * Records a failed resolution.
+   */
+  static void failed(Site site, long start) {
+    if (site != null) {
+      site.resolutionNanos.add(System.nanoTime() - start);
+      site.failures.increment();
+    }
+  }
+
+  /**
+   * Records the reset of an inline cache.
+   */
+  static void reset(Site site) {
+    if (site != null) {
+      site.resets.increment();
+      site.depth = 0;
+    }
+  }
+
+  /**
+   * Records the transition of a call site to megamorphic dispatch.
+   */
+  static void megamorphic(Site site) {
+    if (site != null) {
+      site.megamorphic = true;
+    }
+  }
+
+  static long start(Site site) {
+    return site == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Returns a snapshot of the statistics of the instrumented call sites, by decreasing resolution time.
+   */
+  public static List<Snapshot> sites() {
+    List<Snapshot> sites = new ArrayList<>(SITES.size());
+    for (Site site : SITES) {
+      sites.add(site.snapshot());
+    }
+    sites.sort(Comparator.comparingLong(Snapshot::resolutionNanos).reversed());
+    return sites;
+  }
+
+  /**
+   * Resets the counters of all the instrumented call sites.
+   */
+  public static void resetStatistics() {
+    for (Site site : SITES) {
+      site.reset();
+    }
+  }
+
+  /**
+   * Prints a report of the instrumented call sites.
+   *
+   * @param out the stream to print to.
+   */
+  public static void dump(PrintStream out) {
+    out.println(report(Integer.MAX_VALUE));
+    out.flush();
+  }
+
+  static String report(int limit) {
+    List<Snapshot> sites = sites();
+    long links = 0;
+    long nanos = 0;
+    int megamorphics = 0;
+    for (Snapshot site : sites) {
+      links += site.links();
+      nanos += site.resolutionNanos();
+      if (site.isMegamorphic()) {
+        megamorphics++;
+      }
+    }
+    StringBuilder report = new StringBuilder();
+    report.append(String.format("Golo call sites: %d, links: %d, megamorphic: %d, resolution: %.3fms%n",
+        sites.size(), links, megamorphics, nanos / 1_000_000.0));
+    for (Snapshot site : sites.subList(0, Math.min(limit, sites.size()))) {
+      report.append("  ").append(site).append(System.lineSeparator());
+    }
+    return report.toString();
+  }
+
+  private static synchronized void install() {
+    if (installed) {
+      return;
+    }
+    installed = true;
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+    } catch (Exception e) {
+      warning("Unable to register the call site telemetry bean: " + e);
+    }
+    if (DUMP) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.err), "golo-telemetry-dump"));
+    }
+    installSignalHandler();
+  }
+
+  private static void installSignalHandler() {
+    // sun.misc.Signal is not a supported API, and QUIT is usually taken by the JVM thread dump
+    try {
+      Class<?> signalClass = Class.forName("sun.misc.Signal");
+      Class<?> handlerClass = Class.forName("sun.misc.SignalHandler");
+      Object signal = signalClass.getConstructor(String.class).newInstance("QUIT");
+      InvocationHandler dumper = (Object proxy, Method method, Object[] args) -> {
+        switch (method.getName()) {
+          case "handle":
+            dump(System.err);
+            return null;
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          default:
+            return "golo-telemetry-dump";
+        }
+      };
+      Object handler = Proxy.newProxyInstance(handlerClass.getClassLoader(), new Class<?>[]{handlerClass}, dumper);
+      signalClass.getMethod("handle", signalClass, handlerClass).invoke(null, signal, handler);
+    } catch (Exception | LinkageError e) {
+      // the signal is not available
+    }
+  }
+
+  private static final class Bean implements CallSiteTelemetryMXBean {
+
+    @Override
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+      enable(value);
+    }
+
+    @Override
+    public int getCallSiteCount() {
+      return SITES.size();
+    }
+
+    @Override
+    public int getMegamorphicCallSiteCount() {
+      int count = 0;
+      for (Site site : SITES) {
+        if (site.isMegamorphic()) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public long getLinkCount() {
+      long count = 0;
+      for (Site site : SITES) {
+        count += site.links();
+      }
+      return count;
+    }
+
+    @Override
+    public long getResetCount() {
+      long count = 0;
+      for (Site site : SITES) {
+        count += site.resets();
+      }
+      return count;
+    }
+
+    @Override
+    public long getResolutionTimeNanos() {
+      long nanos = 0;
+      for (Site site : SITES) {
+        nanos += site.resolutionNanos();
+      }
+      return nanos;
+    }
+
+    @Override
+    public String[] topCallSites(int count) {
+      List<Snapshot> sites = sites();
+      String[] top = new String[Math.max(0, Math.min(count, sites.size()))];
+      for (int i = 0; i < top.length; i++) {
+        top[i] = sites.get(i).toString();
+      }
+      return top;
+    }
+
+    @Override
+    public String dump() {
+      return report(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void reset() {
+      resetStatistics();
+    }
+  }
+}
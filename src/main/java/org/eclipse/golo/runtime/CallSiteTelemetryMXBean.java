@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+/**
+ * Management interface of the call site telemetry.
+ *
+ * @see CallSiteTelemetry
+ */
+public interface CallSiteTelemetryMXBean {
+
+  /**
+   * Whether new call sites are instrumented.
+   */
+  boolean isEnabled();
+
+  void setEnabled(boolean value);
+
+  /**
+   * The number of instrumented call sites.
+   */
+  int getCallSiteCount();
+
+  /**
+   * The number of instrumented call sites using megamorphic dispatch.
+   */
+  int getMegamorphicCallSiteCount();
+
+  /**
+   * The total number of targets linked into the instrumented call sites.
+   */
+  long getLinkCount();
+
+  /**
+   * The total number of inline cache resets.
+   */
+  long getResetCount();
+
+  /**
+   * The total time spent in target resolution, in nanoseconds.
+   */
+  long getResolutionTimeNanos();
+
+  /**
+   * Describes the call sites that spent the most time in target resolution.
+   *
+   * @param count the maximum number of call sites to describe.
+   */
+  String[] topCallSites(int count);
+
+  /**
+   * Describes all the instrumented call sites.
+   */
+  String dump();
+
+  /**
+   * Resets the counters of all the instrumented call sites.
+   */
+  void reset();
+}
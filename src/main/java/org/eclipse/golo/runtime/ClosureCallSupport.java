@@ -30,6 +30,7 @@ public final class ClosureCallSupport {
     MethodHandle fallback;
     final boolean constant;
     final String[] argumentNames;
+    CallSiteTelemetry.Site telemetry;
 
     InlineCache(MethodType type, boolean constant, String[] argumentNames) {
       super(type);
@@ -66,6 +67,7 @@ public final class ClosureCallSupport {
       argumentNames[i] = (String) bsmArgs[i + 1];
     }
     InlineCache callSite = new InlineCache(type, constant, argumentNames);
+    callSite.telemetry = CallSiteTelemetry.register("closure", caller, name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -80,6 +82,7 @@ public final class ClosureCallSupport {
   }
 
   public static Object fallback(InlineCache callSite, Object[] args) throws Throwable {
+    long start = CallSiteTelemetry.start(callSite.telemetry);
     FunctionReference targetFunctionReference = (FunctionReference) args[0];
     MethodHandle target = targetFunctionReference.handle();
     MethodHandle invoker = MethodHandles.dropArguments(target, 0, FunctionReference.class);
@@ -112,11 +115,13 @@ public final class ClosureCallSupport {
       }
       constant = MethodHandles.dropArguments(constant, 0,  type.parameterArray());
       callSite.setTarget(constant.asType(type));
+      CallSiteTelemetry.linked(callSite.telemetry, start, 1);
       return constantValue;
     } else {
       MethodHandle guard = GUARD.bindTo(targetFunctionReference);
       MethodHandle root = guardWithTest(guard, invoker, callSite.fallback);
       callSite.setTarget(root);
+      CallSiteTelemetry.linked(callSite.telemetry, start, 1);
       return invoker.invokeWithArguments(args);
     }
   }
@@ -11,6 +11,7 @@
 package org.eclipse.golo.runtime;
 
 import gololang.FunctionReference;
+import org.eclipse.golo.runtime.events.GoloEvents;
 
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
@@ -47,6 +48,7 @@ public final class FunctionCallSupport {
     final String name;
     final boolean constant;
     final String[] argumentNames;
+    CallSiteTelemetry.Site telemetry;
 
     FunctionCallSite(Lookup callerLookup, String name, MethodType type, boolean constant, String... argumentNames) {
       super(type);
@@ -124,6 +126,7 @@ public final class FunctionCallSupport {
         type,
         constant,
         argumentNames);
+    callSite.telemetry = CallSiteTelemetry.register("function", caller, callSite.name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -133,11 +136,28 @@ public final class FunctionCallSupport {
   }
 
   public static Object fallback(FunctionCallSite callSite, Object[] args) throws Throwable {
+    Object event = GoloEvents.beginLink("function", callSite.callerLookup.lookupClass().getName(), callSite.name);
+    MethodHandle target;
+    try {
+      target = link(callSite, args);
+    } catch (NoSuchMethodError e) {
+      GoloEvents.endLink(event, "not found");
+      throw e;
+    } catch (Throwable t) {
+      GoloEvents.endLink(event, "failed");
+      throw t;
+    }
+    GoloEvents.endLink(event, "linked");
+    return target.invokeWithArguments(args);
+  }
+
+  private static MethodHandle link(FunctionCallSite callSite, Object[] args) throws Throwable {
     String functionName = callSite.name;
     MethodType type = callSite.type();
     Lookup caller = callSite.callerLookup;
     Class<?> callerClass = caller.lookupClass();
     String[] argumentNames = callSite.argumentNames;
+    long start = CallSiteTelemetry.start(callSite.telemetry);
 
     MethodHandle handle = null;
     AccessibleObject result = null;
@@ -157,6 +177,7 @@ public final class FunctionCallSupport {
       result = findClassWithConstructorFromImports(callerClass, functionName, args);
     }
     if (result == null) {
+      CallSiteTelemetry.failed(callSite.telemetry, start);
       throw new NoSuchMethodError(functionName + type.toMethodDescriptorString());
     }
 
@@ -202,12 +223,14 @@ public final class FunctionCallSupport {
       } else {
         constant = MethodHandles.constant(constantValue.getClass(), constantValue);
       }
-      constant = MethodHandles.dropArguments(constant, 0, type.parameterArray());
-      callSite.setTarget(constant.asType(type));
-      return constantValue;
+      constant = MethodHandles.dropArguments(constant, 0, type.parameterArray()).asType(type);
+      callSite.setTarget(constant);
+      CallSiteTelemetry.linked(callSite.telemetry, start, 1);
+      return constant;
     } else {
       callSite.setTarget(handle);
-      return handle.invokeWithArguments(args);
+      CallSiteTelemetry.linked(callSite.telemetry, start, 1);
+      return handle;
     }
   }
 
@@ -11,6 +11,7 @@
 package org.eclipse.golo.runtime;
 
 import gololang.DynamicObject;
+import org.eclipse.golo.runtime.events.GoloEvents;
 
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
@@ -45,6 +46,7 @@ public final class MethodInvocationSupport {
     int depth = 0;
     MethodHandle resetFallback;
     WeakHashMap<Class<?>, MethodHandle> vtable;
+    CallSiteTelemetry.Site telemetry;
 
     InlineCache(Lookup callerLookup, String name, MethodType type, boolean nullSafeGuarded, String... argumentNames) {
       super(type);
@@ -154,6 +156,7 @@ public final class MethodInvocationSupport {
       argumentNames[i] = (String) bsmArgs[i + 1];
     }
     InlineCache callSite = new InlineCache(caller, name, type, nullSafeGuarded, argumentNames);
+    callSite.telemetry = CallSiteTelemetry.register("method", caller, name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -210,7 +213,26 @@ public final class MethodInvocationSupport {
 
   public static MethodHandle vtableLookup(InlineCache inlineCache, Object[] args) {
     Class<?> receiverClass = args[0].getClass();
-    return inlineCache.vtable.computeIfAbsent(receiverClass, k -> lookupTarget(receiverClass, inlineCache, args));
+    return inlineCache.vtable.computeIfAbsent(receiverClass, k -> {
+      long start = CallSiteTelemetry.start(inlineCache.telemetry);
+      MethodHandle target = resolve(receiverClass, inlineCache, args);
+      CallSiteTelemetry.linked(inlineCache.telemetry, start, inlineCache.vtable.size() + 1);
+      return target;
+    });
+  }
+
+  private static MethodHandle resolve(Class<?> receiverClass, InlineCache inlineCache, Object[] args) {
+    Object event = GoloEvents.beginLink("method",
+        inlineCache.callerLookup.lookupClass().getName(),
+        receiverClass.getName() + "::" + inlineCache.name);
+    try {
+      MethodHandle target = lookupTarget(receiverClass, inlineCache, args);
+      GoloEvents.endLink(event, target == null ? "not found" : "linked");
+      return target;
+    } catch (RuntimeException | Error e) {
+      GoloEvents.endLink(event, "failed");
+      throw e;
+    }
   }
 
   private static MethodHandle lookupTarget(Class<?> receiverClass, InlineCache inlineCache, Object[] args) {
@@ -228,6 +250,7 @@ public final class MethodInvocationSupport {
 
   public static Object resetFallback(InlineCache inlineCache, Object[] args) throws Throwable {
     inlineCache.depth = 0;
+    CallSiteTelemetry.reset(inlineCache.telemetry);
     return fallback(inlineCache, args);
   }
 
@@ -246,8 +269,9 @@ public final class MethodInvocationSupport {
       }
     }
 
+    long start = CallSiteTelemetry.start(inlineCache.telemetry);
     Class<?> receiverClass = args[0].getClass();
-    MethodHandle target = lookupTarget(receiverClass, inlineCache, args);
+    MethodHandle target = resolve(receiverClass, inlineCache, args);
 
     if (target == null) {
       // TODO: extract method to look for a `fallback` method on the receiver
@@ -265,6 +289,7 @@ public final class MethodInvocationSupport {
       if (target != null) {
         return fallback(fallbackCallSite, fallbackArgs);
       } else {
+        CallSiteTelemetry.failed(inlineCache.telemetry, start);
         throw new NoSuchMethodError(receiverClass + "::" + inlineCache.name);
       }
     }
@@ -277,6 +302,7 @@ public final class MethodInvocationSupport {
     }
     inlineCache.setTarget(root);
     inlineCache.depth += 1;
+    CallSiteTelemetry.linked(inlineCache.telemetry, start, inlineCache.depth);
     return target.invokeWithArguments(args);
   }
 
@@ -294,6 +320,7 @@ public final class MethodInvocationSupport {
     if (inlineCache.vtable == null) {
       inlineCache.vtable = new WeakHashMap<>();
     }
+    CallSiteTelemetry.megamorphic(inlineCache.telemetry);
     MethodHandle lookup = VTABLE_LOOKUP
         .bindTo(inlineCache)
         .asCollector(Object[].class, args.length);
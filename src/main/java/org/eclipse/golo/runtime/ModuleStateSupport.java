@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Atomic operations on the module state declared with the {@code gololang.macros::atomic} macro.
+ * <p>
+ * The compiler stores such a state in an {@code AtomicReference}, and turns a call to one of these functions whose
+ * first argument is the state reference into a direct call to the corresponding method.
+ */
+public final class ModuleStateSupport {
+
+  private ModuleStateSupport() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Sets the state to a value if its current value is equal to an expected one.
+   * <p>
+   * Golo values are compared with {@code equals}, so that a boxed number can be used as the expected value.
+   *
+   * @return {@code true} if the state was updated.
+   */
+  public static Object compareAndSet(AtomicReference<Object> state, Object expected, Object value) {
+    while (true) {
+      Object current = state.get();
+      if (!Objects.equals(current, expected)) {
+        return false;
+      }
+      if (state.compareAndSet(current, value)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Sets the state to a value and returns its previous value.
+   */
+  public static Object getAndSet(AtomicReference<Object> state, Object value) {
+    return state.getAndSet(value);
+  }
+
+  /**
+   * Replaces the state by the result of a function applied to it, and returns the new value.
+   * <p>
+   * The function may be called several times under contention.
+   */
+  public static Object updateAndGet(AtomicReference<Object> state, Object function) throws Throwable {
+    FunctionReference update = (FunctionReference) function;
+    while (true) {
+      Object current = state.get();
+      Object next = update.invoke(current);
+      if (state.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Replaces the state by the result of a function applied to it, and returns the previous value.
+   * <p>
+   * The function may be called several times under contention.
+   */
+  public static Object getAndUpdate(AtomicReference<Object> state, Object function) throws Throwable {
+    FunctionReference update = (FunctionReference) function;
+    while (true) {
+      Object current = state.get();
+      if (state.compareAndSet(current, update.invoke(current))) {
+        return current;
+      }
+    }
+  }
+
+  /**
+   * Replaces the state by the result of a function applied to it and to a given value, and returns the new value.
+   * <p>
+   * The function may be called several times under contention.
+   */
+  public static Object accumulateAndGet(AtomicReference<Object> state, Object value, Object function) throws Throwable {
+    FunctionReference accumulator = (FunctionReference) function;
+    while (true) {
+      Object current = state.get();
+      Object next = accumulator.invoke(current, value);
+      if (state.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Replaces the state by the result of a function applied to it and to a given value, and returns the previous
+   * value.
+   * <p>
+   * The function may be called several times under contention.
+   */
+  public static Object getAndAccumulate(AtomicReference<Object> state, Object value, Object function) throws Throwable {
+    FunctionReference accumulator = (FunctionReference) function;
+    while (true) {
+      Object current = state.get();
+      if (state.compareAndSet(current, accumulator.invoke(current, value))) {
+        return current;
+      }
+    }
+  }
+}
@@ -33,6 +33,7 @@ public final class OperatorSupport {
     final Lookup callerLookup;
     final String name;
     MethodHandle fallback;
+    CallSiteTelemetry.Site telemetry;
 
     MonomorphicInlineCache(Lookup callerLookup, String name, MethodType type) {
       super(type);
@@ -84,6 +85,7 @@ public final class OperatorSupport {
   }
 
   public static Object fallback_1(MonomorphicInlineCache inlineCache, Object[] args) throws Throwable {
+    long start = CallSiteTelemetry.start(inlineCache.telemetry);
 
     Class<?> argClass = (args[0] == null) ? Object.class : args[0].getClass();
     MethodHandle target;
@@ -96,6 +98,7 @@ public final class OperatorSupport {
         target = inlineCache.callerLookup.findStatic(
             OperatorSupport.class, inlineCache.name + "_fallback", methodType(Object.class, Object.class));
       } catch (Throwable t2) {
+        CallSiteTelemetry.failed(inlineCache.telemetry, start);
         return reject(args[0], inlineCache.name);
       }
     }
@@ -103,11 +106,13 @@ public final class OperatorSupport {
     target = target.asType(methodType(Object.class, Object.class));
     target = catchException(target, ClassCastException.class, inlineCache.fallback);
     inlineCache.setTarget(target);
+    CallSiteTelemetry.linked(inlineCache.telemetry, start, 1);
 
     return target.invokeWithArguments(args);
   }
 
   public static Object fallback_2(MonomorphicInlineCache inlineCache, Object[] args) throws Throwable {
+    long start = CallSiteTelemetry.start(inlineCache.telemetry);
 
     Class<?> arg1Class = (args[0] == null) ? Object.class : args[0].getClass();
     Class<?> arg2Class = (args[1] == null) ? Object.class : args[1].getClass();
@@ -121,6 +126,7 @@ public final class OperatorSupport {
         target = inlineCache.callerLookup.findStatic(
             OperatorSupport.class, inlineCache.name + "_fallback", methodType(Object.class, Object.class, Object.class));
       } catch (Throwable t2) {
+        CallSiteTelemetry.failed(inlineCache.telemetry, start);
         return reject(args[0], args[1], inlineCache.name);
       }
     }
@@ -133,6 +139,7 @@ public final class OperatorSupport {
       target = catchException(target, ClassCastException.class, dropArguments(inlineCache.fallback, 0, ClassCastException.class));
     }
     inlineCache.setTarget(target);
+    CallSiteTelemetry.linked(inlineCache.telemetry, start, 1);
 
     return target.invokeWithArguments(args);
   }
@@ -146,6 +153,7 @@ public final class OperatorSupport {
     }
 
     MonomorphicInlineCache callSite = new MonomorphicInlineCache(caller, name, type);
+    callSite.telemetry = CallSiteTelemetry.register("operator", caller, name);
     MethodHandle fallback;
     if (arity == 2) {
       fallback = FALLBACK_2;
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.eclipse.golo.compiler.SymbolGenerator.PREFIX;
+
+/**
+ * A sampling profiler that reports Golo source level stacks.
+ * <p>
+ * A daemon thread periodically takes the stacks of the running threads. Each frame is mapped back to the Golo source
+ * using the source file and line tables emitted by the compiler: a frame of a Golo module is labeled as
+ * {@code module::function (file.golo:line)}, and closures as {@code module::<closure> (file.golo:line)}. The
+ * frames of the Golo runtime, of the reflection and of the {@code java.lang.invoke} machinery (method handles, lambda
+ * forms, call sites) are folded away, so that a Golo function calling another one appear next to each other.
+ * <p>
+ * The samples are aggregated in the collapsed stacks format, where each line is a semicolon-separated list of frames,
+ * from the root to the leaf, followed by the number of samples. This format is understood by most flame graph tools.
+ * <p>
+ * Since the stacks are taken at safepoints, the samples are biased toward them, as with other profilers based on the
+ * Java stack traces API. The overhead is proportional to the number of threads and the sampling frequency.
+ */
+public final class StackSampler {
+
+  private static final String[] FOLDED = {
+    "java.lang.invoke.",
+    "java.lang.reflect.",
+    "sun.invoke.",
+    "sun.reflect.",
+    "jdk.internal.",
+    "org.eclipse.golo.runtime.",
+    "org.eclipse.golo.cli.",
+    "gololang.FunctionReference"
+  };
+
+  private final long interval;
+  private boolean lines = true;
+  private boolean allFrames = false;
+  private boolean waiting = false;
+  private boolean threadNames = false;
+  private final Map<String, Long> stacks = new HashMap<>();
+  private long samples;
+  private volatile boolean running;
+  private Thread sampler;
+
+  /**
+   * Creates a sampler.
+   *
+   * @param intervalMillis the time between two samples, in milliseconds.
+   */
+  public StackSampler(long intervalMillis) {
+    if (intervalMillis <= 0) {
+      throw new IllegalArgumentException("The sampling interval must be positive");
+    }
+    this.interval = intervalMillis;
+  }
+
+  /**
+   * Defines if frames include the source line, or only the function.
+   */
+  public StackSampler lines(boolean withLines) {
+    this.lines = withLines;
+    return this;
+  }
+
+  /**
+   * Defines if the runtime and method handles frames are kept.
+   */
+  public StackSampler allFrames(boolean keepAll) {
+    this.allFrames = keepAll;
+    return this;
+  }
+
+  /**
+   * Defines if the blocked and waiting threads are sampled too, for a wall-clock profile.
+   */
+  public StackSampler waiting(boolean withWaiting) {
+    this.waiting = withWaiting;
+    return this;
+  }
+
+  /**
+   * Defines if the thread names are added as the root frame of the stacks.
+   */
+  public StackSampler threadNames(boolean withNames) {
+    this.threadNames = withNames;
+    return this;
+  }
+
+  /**
+   * Starts sampling in a daemon thread.
+   */
+  public synchronized void start() {
+    if (running) {
+      throw new IllegalStateException("The sampler is already running");
+    }
+    running = true;
+    sampler = new Thread(this::loop, "golo-stack-sampler");
+    sampler.setDaemon(true);
+    sampler.start();
+  }
+
+  /**
+   * Stops sampling, and waits for the sampling thread to terminate.
+   */
+  public void stop() throws InterruptedException {
+    Thread thread;
+    synchronized (this) {
+      running = false;
+      thread = sampler;
+      sampler = null;
+    }
+    if (thread != null) {
+      thread.interrupt();
+      thread.join();
+    }
+  }
+
+  private void loop() {
+    while (running) {
+      sample();
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Takes a sample of all the threads but the sampling one.
+   */
+  public void sample() {
+    Thread current = Thread.currentThread();
+    for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+      Thread thread = entry.getKey();
+      if (thread == current || !(waiting || thread.getState() == Thread.State.RUNNABLE)) {
+        continue;
+      }
+      String stack = collapse(thread.getName(), entry.getValue());
+      if (stack != null) {
+        synchronized (this) {
+          stacks.merge(stack, 1L, Long::sum);
+          samples++;
+        }
+      }
+    }
+  }
+
+  private String collapse(String threadName, StackTraceElement[] trace) {
+    List<String> frames = new ArrayList<>(trace.length + 1);
+    if (threadNames) {
+      frames.add(threadName.replace(';', ':'));
+    }
+    for (int i = trace.length - 1; i >= 0; i--) {
+      String frame = frame(trace[i], lines, !allFrames);
+      if (frame != null) {
+        frames.add(frame);
+      }
+    }
+    if (frames.size() == (threadNames ? 1 : 0)) {
+      return null;
+    }
+    return String.join(";", frames);
+  }
+
+  /**
+   * Labels a frame, or returns {@code null} if it must be folded.
+   *
+   * @param element the frame to label.
+   * @param withLine whether to include the source line of a Golo frame.
+   * @param fold whether to fold the runtime frames.
+   * @return the frame label, or {@code null} for a folded frame.
+   */
+  static String frame(StackTraceElement element, boolean withLine, boolean fold) {
+    String className = element.getClassName();
+    if (fold) {
+      for (String prefix : FOLDED) {
+        if (className.startsWith(prefix)) {
+          return null;
+        }
+      }
+    }
+    String file = element.getFileName();
+    if (file == null || !file.endsWith(".golo")) {
+      return className + "::" + element.getMethodName();
+    }
+    String method = element.getMethodName();
+    if (method.startsWith(PREFIX) && method.contains("closure")) {
+      method = "<closure>";
+    }
+    if (withLine && element.getLineNumber() > 0) {
+      return String.format("%s::%s (%s:%d)", className, method, file, element.getLineNumber());
+    }
+    return className + "::" + method;
+  }
+
+  /**
+   * Returns the number of samples taken so far.
+   */
+  public synchronized long samples() {
+    return samples;
+  }
+
+  /**
+   * Returns the collapsed stacks sampled so far, with their number of samples.
+   */
+  public synchronized Map<String, Long> collapsed() {
+    return new TreeMap<>(stacks);
+  }
+
+  /**
+   * Writes the collapsed stacks sampled so far, one per line.
+   */
+  public void writeCollapsed(PrintStream out) {
+    for (Map.Entry<String, Long> stack : collapsed().entrySet()) {
+      out.print(stack.getKey());
+      out.print(' ');
+      out.println(stack.getValue());
+    }
+    out.flush();
+  }
+
+  /**
+   * Clears the samples taken so far.
+   */
+  public synchronized void reset() {
+    stacks.clear();
+    samples = 0;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.eclipse.golo.CompilationPhase")
+@Label("Golo Compilation Phase")
+@Description("A phase of the compilation of a Golo module")
+@Category({"Golo", "Compiler"})
+@StackTrace(false)
+final class CompilationPhaseEvent extends Event {
+
+  @Label("Phase")
+  @Description("One of parse, transform, expand, refine or generate")
+  String phase;
+
+  @Label("Source File")
+  String source;
+
+  @Label("Module")
+  String module;
+
+  @Label("Elements")
+  @Description("Number of syntax tree or IR nodes produced by the phase")
+  int elements;
+
+  @Label("Bytecode Size")
+  @Description("Size of the generated classes")
+  @DataAmount
+  long bytecodeSize;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  static CompilationPhaseEvent begin(String phase, String source) {
+    CompilationPhaseEvent event = new CompilationPhaseEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.phase = phase;
+    event.source = source;
+    event.begin();
+    return event;
+  }
+}
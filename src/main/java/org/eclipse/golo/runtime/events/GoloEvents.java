@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime.events;
+
+/**
+ * Emits the Golo JDK Flight Recorder events.
+ * <p>
+ * Each {@code begin} method returns an opaque token to give to the matching {@code end} method, or {@code null} if
+ * the event is not recorded, either because no recording enables it or because the JVM does not support Flight
+ * Recorder. The {@code end} methods accept {@code null} tokens, so that callers don't have to check them, and callers
+ * should only compute costly event data when the token is not {@code null}.
+ * <p>
+ * The events are:
+ * <ul>
+ * <li>{@code org.eclipse.golo.CompilationPhase}, for each phase of the compilation of a module;
+ * <li>{@code org.eclipse.golo.Link}, for the resolution of function, method and augmentation calls;
+ * <li>{@code org.eclipse.golo.ModuleLoad}, for the modules loaded by a {@code GoloClassLoader}.
+ * </ul>
+ */
+public final class GoloEvents {
+
+  private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+  private GoloEvents() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  private static boolean isFlightRecorderAvailable() {
+    try {
+      Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+      return (Boolean) recorder.getMethod("isAvailable").invoke(null);
+    } catch (Exception | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks whether the JVM supports Flight Recorder events.
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Starts a compilation phase event.
+   *
+   * @param phase the name of the phase.
+   * @param source the source file of the module.
+   * @return the event token, or {@code null}.
+   */
+  public static Object beginPhase(String phase, String source) {
+    if (!AVAILABLE) {
+      return null;
+    }
+    return CompilationPhaseEvent.begin(phase, source);
+  }
+
+  /**
+   * Ends a compilation phase event.
+   *
+   * @param token the event token.
+   * @param module the name of the compiled module, if known.
+   * @param elements the number of nodes produced by the phase.
+   * @param bytecodeSize the size of the generated bytecode, if any.
+   * @param succeeded whether the phase completed without errors.
+   */
+  public static void endPhase(Object token, String module, int elements, long bytecodeSize, boolean succeeded) {
+    if (token != null) {
+      CompilationPhaseEvent event = (CompilationPhaseEvent) token;
+      event.module = module;
+      event.elements = elements;
+      event.bytecodeSize = bytecodeSize;
+      event.succeeded = succeeded;
+      event.commit();
+    }
+  }
+
+  /**
+   * Starts a linking event.
+   *
+   * @param kind the kind of resolution.
+   * @param caller the name of the calling class.
+   * @param target a description of the target to resolve.
+   * @return the event token, or {@code null}.
+   */
+  public static Object beginLink(String kind, String caller, String target) {
+    if (!AVAILABLE) {
+      return null;
+    }
+    return LinkEvent.begin(kind, caller, target);
+  }
+
+  /**
+   * Ends a linking event.
+   *
+   * @param token the event token.
+   * @param outcome the resolution outcome.
+   */
+  public static void endLink(Object token, String outcome) {
+    if (token != null) {
+      LinkEvent event = (LinkEvent) token;
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
+  /**
+   * Starts a module load event.
+   *
+   * @param source the source of the module.
+   * @return the event token, or {@code null}.
+   */
+  public static Object beginLoad(String source) {
+    if (!AVAILABLE) {
+      return null;
+    }
+    return ModuleLoadEvent.begin(source);
+  }
+
+  /**
+   * Ends a module load event.
+   *
+   * @param token the event token.
+   * @param module the loaded module class, or {@code null} if the load failed.
+   * @param classes the number of defined classes.
+   * @param bytecodeSize the total size of the defined classes.
+   */
+  public static void endLoad(Object token, Class<?> module, int classes, long bytecodeSize) {
+    if (token != null) {
+      ModuleLoadEvent event = (ModuleLoadEvent) token;
+      event.module = module == null ? null : module.getName();
+      event.classes = classes;
+      event.bytecodeSize = bytecodeSize;
+      event.succeeded = module != null;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.eclipse.golo.Link")
+@Label("Golo Call Site Linking")
+@Description("The resolution of the target of a Golo call site")
+@Category({"Golo", "Runtime"})
+final class LinkEvent extends Event {
+
+  @Label("Kind")
+  @Description("One of function, method or augmentation")
+  String kind;
+
+  @Label("Caller")
+  String caller;
+
+  @Label("Target")
+  String target;
+
+  @Label("Outcome")
+  @Description("One of linked, not found or failed")
+  String outcome;
+
+  static LinkEvent begin(String kind, String caller, String target) {
+    LinkEvent event = new LinkEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.kind = kind;
+    event.caller = caller;
+    event.target = target;
+    event.begin();
+    return event;
+  }
+}
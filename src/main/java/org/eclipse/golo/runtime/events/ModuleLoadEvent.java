@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.eclipse.golo.ModuleLoad")
+@Label("Golo Module Load")
+@Description("The compilation and definition of a Golo module by a GoloClassLoader")
+@Category({"Golo", "Runtime"})
+@StackTrace(false)
+final class ModuleLoadEvent extends Event {
+
+  @Label("Source")
+  String source;
+
+  @Label("Module")
+  String module;
+
+  @Label("Classes")
+  int classes;
+
+  @Label("Bytecode Size")
+  @DataAmount
+  long bytecodeSize;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  static ModuleLoadEvent begin(String source) {
+    ModuleLoadEvent event = new ModuleLoadEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.source = source;
+    event.begin();
+    return event;
+  }
+}
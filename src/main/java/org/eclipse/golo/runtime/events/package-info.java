@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+/**
+ * JDK Flight Recorder events emitted by the compiler and the runtime.
+ * <p>
+ * The events are only created through {@link org.eclipse.golo.runtime.events.GoloEvents}, so that the
+ * {@code jdk.jfr} classes are never loaded on JVMs without Flight Recorder support.
+ */
+package org.eclipse.golo.runtime.events;
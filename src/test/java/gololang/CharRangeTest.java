@@ -211,4 +211,13 @@ public class CharRangeTest {
   }
 
 
+
+  @Test
+  public void streams() {
+    CharRange range = new CharRange('a', 'f');
+    assertThat(range.size(), is(5));
+    assertThat(range.incrementBy(2).size(), is(3));
+    assertThat(new String(range.intStream().toArray(), 0, 3), is("ace"));
+    assertThat(range.stream().parallel().map(String::valueOf).collect(java.util.stream.Collectors.joining()), is("ace"));
+  }
 }
@@ -18,6 +18,7 @@ import java.lang.invoke.MethodHandles;
 import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.invoke.MethodType.methodType;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class DynamicVariableTest {
@@ -30,14 +31,20 @@ public class DynamicVariableTest {
     return var.value();
   }
 
+  public static Object failingThunk(DynamicVariable var) {
+    throw new IllegalStateException(String.valueOf(var.value()));
+  }
+
   private static final MethodHandle thunkHandle;
   private static final MethodHandle capturingThunkHandle;
+  private static final MethodHandle failingThunkHandle;
 
   static {
     try {
       MethodHandles.Lookup lookup = MethodHandles.lookup();
       thunkHandle = lookup.findStatic(DynamicVariableTest.class, "thunk", genericMethodType(0));
       capturingThunkHandle = lookup.findStatic(DynamicVariableTest.class, "capturingThunk", methodType(Object.class, DynamicVariable.class));
+      failingThunkHandle = lookup.findStatic(DynamicVariableTest.class, "failingThunk", methodType(Object.class, DynamicVariable.class));
     } catch (NoSuchMethodException | IllegalAccessException e) {
       throw new AssertionError(e);
     }
@@ -76,4 +83,114 @@ public class DynamicVariableTest {
     assertThat(result, is((Object) "Yeah!"));
     assertThat(var.value(), is((Object) "A"));
   }
+
+  private static Object valueInNewThread(DynamicVariable var) throws InterruptedException {
+    Object[] seen = new Object[1];
+    Thread thread = new Thread(() -> seen[0] = var.value());
+    thread.start();
+    thread.join();
+    return seen[0];
+  }
+
+  @Test
+  public void thread_local_strategy_does_not_inherit() throws Throwable {
+    DynamicVariable var = new DynamicVariable("A", DynamicVariable.Strategy.THREAD_LOCAL);
+    assertThat(var.strategy(), is(DynamicVariable.Strategy.THREAD_LOCAL));
+    var.value("B");
+    assertThat(var.value(), is((Object) "B"));
+    assertThat(valueInNewThread(var), is((Object) "A"));
+
+    Object result = var.withValue("C", new FunctionReference(capturingThunkHandle.bindTo(var)));
+    assertThat(result, is((Object) "C"));
+    assertThat(var.value(), is((Object) "B"));
+  }
+
+  @Test
+  public void inheritable_strategy_inherits() throws Throwable {
+    DynamicVariable var = new DynamicVariable("A", DynamicVariable.Strategy.INHERITABLE);
+    var.value("B");
+    assertThat(valueInNewThread(var), is((Object) "B"));
+  }
+
+  @Test
+  public void value_is_restored_on_failure() throws Throwable {
+    for (DynamicVariable.Strategy strategy : DynamicVariable.Strategy.values()) {
+      if (!strategy.isSupported()) {
+        continue;
+      }
+      DynamicVariable var = new DynamicVariable("A", strategy);
+      try {
+        var.withValue("B", new FunctionReference(failingThunkHandle.bindTo(var)));
+        throw new AssertionError("should have failed");
+      } catch (IllegalStateException e) {
+        assertThat(e.getMessage(), is("B"));
+      }
+      assertThat(var.value(), is((Object) "A"));
+    }
+  }
+
+  @Test
+  public void nested_scopes() throws Throwable {
+    for (DynamicVariable.Strategy strategy : DynamicVariable.Strategy.values()) {
+      if (!strategy.isSupported()) {
+        continue;
+      }
+      DynamicVariable var = new DynamicVariable("A", strategy);
+      FunctionReference inner = new FunctionReference(capturingThunkHandle.bindTo(var));
+      FunctionReference outer = new FunctionReference(
+          MethodHandles.lookup().findVirtual(DynamicVariable.class, "withValue",
+            methodType(Object.class, Object.class, FunctionReference.class)).bindTo(var).bindTo("C").bindTo(inner));
+      assertThat(var.withValue("B", outer), is((Object) "C"));
+      assertThat(var.value(), is((Object) "A"));
+    }
+  }
+
+  @Test
+  public void fast_strategy_is_resolved() {
+    DynamicVariable var = new DynamicVariable("A", DynamicVariable.Strategy.FAST);
+    assertThat(var.strategy(), not(DynamicVariable.Strategy.FAST));
+    assertThat(var.strategy(), is(DynamicVariable.Strategy.SCOPED.isSupported()
+          ? DynamicVariable.Strategy.SCOPED
+          : DynamicVariable.Strategy.THREAD_LOCAL));
+  }
+
+  @Test
+  public void scoped_strategy() throws Throwable {
+    if (!DynamicVariable.Strategy.SCOPED.isSupported()) {
+      try {
+        new DynamicVariable("A", DynamicVariable.Strategy.SCOPED);
+        throw new AssertionError("should have failed");
+      } catch (UnsupportedOperationException e) {
+        return;
+      }
+    }
+    DynamicVariable var = new DynamicVariable("A", DynamicVariable.Strategy.SCOPED);
+    assertThat(var.withValue("B", new FunctionReference(capturingThunkHandle.bindTo(var))), is((Object) "B"));
+    assertThat(var.value(), is((Object) "A"));
+    try {
+      var.value("C");
+      throw new AssertionError("should have failed");
+    } catch (UnsupportedOperationException e) {
+      assertThat(var.value(), is((Object) "A"));
+    }
+  }
+
+  @Test
+  public void default_strategy_can_be_changed() {
+    DynamicVariable.Strategy previous = DynamicVariable.defaultStrategy();
+    try {
+      DynamicVariable.defaultStrategy(DynamicVariable.Strategy.THREAD_LOCAL);
+      assertThat(new DynamicVariable(null).strategy(), is(DynamicVariable.Strategy.THREAD_LOCAL));
+      DynamicVariable.defaultStrategy(DynamicVariable.Strategy.INHERITABLE);
+      assertThat(new DynamicVariable(null).strategy(), is(DynamicVariable.Strategy.INHERITABLE));
+    } finally {
+      DynamicVariable.defaultStrategy(previous);
+    }
+  }
+
+  @Test
+  public void unknown_default_strategy_falls_back_to_inheritable() {
+    assertThat(DynamicVariable.parseStrategy(" Thread-Local "), is(DynamicVariable.Strategy.THREAD_LOCAL));
+    assertThat(DynamicVariable.parseStrategy("thread-lcoal"), is(DynamicVariable.Strategy.INHERITABLE));
+  }
 }
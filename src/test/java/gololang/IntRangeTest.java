@@ -15,7 +15,12 @@ import org.testng.annotations.Test;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -214,4 +219,84 @@ public class IntRangeTest {
     assertThat(r1, is(r2));
     assertThat(r1.incrementBy(2), is(r2.incrementBy(2)));
   }
+
+  @Test
+  public void sizeMatchesIteration() {
+    for (int inc : new int[]{1, 2, 3, 5, 7}) {
+      for (int to = 0; to < 12; to++) {
+        int count = 0;
+        for (Integer i : new IntRange(0, to).incrementBy(inc)) {
+          count++;
+        }
+        assertThat(new IntRange(0, to).incrementBy(inc).size(), is(count));
+        assertThat(new IntRange(to, 0).incrementBy(-inc).size(), is(count));
+      }
+    }
+    assertThat(new IntRange(0, 5).incrementBy(2).size(), is(3));
+  }
+
+  @Test
+  public void primitiveIterator() {
+    IntRange range = new IntRange(5, 0);
+    range.incrementBy(-2);
+    PrimitiveIterator.OfInt iterator = range.iterator();
+    assertThat(iterator.nextInt(), is(5));
+    assertThat(iterator.nextInt(), is(3));
+    assertThat(iterator.nextInt(), is(1));
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test(expectedExceptions = NoSuchElementException.class)
+  public void primitiveIteratorOverflow() {
+    new IntRange(0, 0).iterator().nextInt();
+  }
+
+  @Test
+  public void streams() {
+    IntRange range = new IntRange(0, 10_000);
+    assertThat(range.intStream().sum(), is(49_995_000));
+    assertThat(range.intStream().parallel().sum(), is(49_995_000));
+    assertThat(range.stream().parallel().collect(Collectors.toList()), is(new java.util.ArrayList<>(range)));
+    range = new IntRange(1, 10);
+    range.incrementBy(3);
+    assertThat(range.intStream().toArray(), is(new int[]{1, 4, 7}));
+  }
+
+  @Test
+  public void spliterator() {
+    IntRange range = new IntRange(0, 11);
+    range.incrementBy(2);
+    Spliterator.OfInt split = range.spliterator();
+    assertThat(split.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+    assertThat(split.getExactSizeIfKnown(), is(6L));
+    Spliterator.OfInt prefix = split.trySplit();
+    assertThat(prefix.getExactSizeIfKnown(), is(3L));
+    assertThat(split.getExactSizeIfKnown(), is(3L));
+    prefix.tryAdvance((int v) -> assertThat(v, is(0)));
+    split.tryAdvance((int v) -> assertThat(v, is(6)));
+  }
+
+  public static Object add(Object a, Object b) {
+    return (Integer) a + (Integer) b;
+  }
+
+  public static Object isEven(Object a) {
+    return (Integer) a % 2 == 0;
+  }
+
+  public static Object twice(Object a) {
+    return (Integer) a * 2;
+  }
+
+  @Test
+  public void specialisedOperations() throws Throwable {
+    IntRange range = new IntRange(0, 10);
+    FunctionReference add = new FunctionReference(lookup().findStatic(IntRangeTest.class, "add", genericMethodType(2)));
+    FunctionReference isEven = new FunctionReference(lookup().findStatic(IntRangeTest.class, "isEven", genericMethodType(1)));
+    FunctionReference twice = new FunctionReference(lookup().findStatic(IntRangeTest.class, "twice", genericMethodType(1)));
+    assertThat(range.reduce(0, add), is(45));
+    assertThat(range.count(isEven), is(5));
+    assertThat(range.incrementBy(3).map(twice), is(asList(0, 6, 12, 18)));
+    assertThat(range.each(twice), is(sameInstance(range)));
+  }
 }
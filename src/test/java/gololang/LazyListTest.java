@@ -15,6 +15,15 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.eclipse.golo.internal.testing.TestUtils.compileAndLoadGoloModule;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -209,4 +218,64 @@ public class LazyListTest {
     resultFor("test_destruct");
     resultFor("test_destruct_skip");
   }
+
+  @Test
+  public void chunked() throws Throwable {
+    evalTest("test_chunked");
+  }
+
+  @Test
+  public void longTraversal() throws Throwable {
+    evalTest("test_long_traversal");
+  }
+
+  @Test
+  public void spliterator() {
+    List<Integer> values = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    LazyList ll = LazyList.fromIterator(values.iterator(), 16);
+    assertThat(ll.stream().collect(Collectors.toList()), is((Object) values));
+    assertThat(ll.parallelStream().mapToInt(v -> (Integer) v).sum(), is(499500));
+  }
+
+  private static final AtomicInteger EVALUATIONS = new AtomicInteger();
+
+  public static Object countedTail() throws InterruptedException {
+    EVALUATIONS.incrementAndGet();
+    Thread.sleep(10);
+    return LazyList.EMPTY;
+  }
+
+  @Test
+  public void tail_evaluated_once() throws Throwable {
+    EVALUATIONS.set(0);
+    LazyList ll = LazyList.cons(1, new FunctionReference(
+          java.lang.invoke.MethodHandles.lookup().findStatic(LazyListTest.class, "countedTail",
+            java.lang.invoke.MethodType.methodType(Object.class))));
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<LazyList>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        return ll.tail();
+      }));
+    }
+    start.countDown();
+    for (Future<LazyList> result : results) {
+      assertThat(result.get(), is(sameInstance(LazyList.EMPTY)));
+    }
+    executor.shutdown();
+    assertThat(EVALUATIONS.get(), is(1));
+  }
+
+  public static Object failingTail() {
+    throw new IllegalStateException("failing tail");
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void failing_tail_is_propagated() throws Throwable {
+    LazyList.cons(1, new FunctionReference(
+          java.lang.invoke.MethodHandles.lookup().findStatic(LazyListTest.class, "failingTail",
+            java.lang.invoke.MethodType.methodType(Object.class)))).tail();
+  }
 }
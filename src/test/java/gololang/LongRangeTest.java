@@ -214,4 +214,14 @@ public class LongRangeTest {
     assertThat(r1, is(r2));
     assertThat(r1.incrementBy(2), is(r2.incrementBy(2)));
   }
+
+  @Test
+  public void primitiveViews() {
+    LongRange range = new LongRange(1L, 10L);
+    range.incrementBy(4);
+    assertThat(range.size(), is(3));
+    assertThat(range.iterator().nextLong(), is(1L));
+    assertThat(range.longStream().toArray(), is(new long[]{1L, 5L, 9L}));
+    assertThat(new LongRange(0L, 10_000L).longStream().parallel().sum(), is(49_995_000L));
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+import org.eclipse.golo.internal.testing.GoloTest;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MemoizerTest extends GoloTest {
+
+  @Override
+  public String srcDir() {
+    return "for-test/";
+  }
+
+  private static final AtomicInteger CALLS = new AtomicInteger();
+
+  public static Object slowIdentity(Object x) throws InterruptedException {
+    CALLS.incrementAndGet();
+    Thread.sleep(50);
+    return x;
+  }
+
+  public static Object failing(Object x) {
+    CALLS.incrementAndGet();
+    throw new IllegalStateException(String.valueOf(x));
+  }
+
+  public static Object identity(Object x) {
+    CALLS.incrementAndGet();
+    return x;
+  }
+
+  private static FunctionReference memoized(Memoizer memoizer, String name) throws Throwable {
+    return memoizer.decorate(new FunctionReference(
+          MethodHandles.lookup().findStatic(MemoizerTest.class, name, genericMethodType(1))));
+  }
+
+  @Test(timeOut = 10000)
+  public void single_flight() throws Throwable {
+    CALLS.set(0);
+    final Memoizer memoizer = Memoizer.unbounded();
+    final FunctionReference fun = memoized(memoizer, "slowIdentity");
+    final int THREADS = 16;
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(THREADS);
+    final AtomicInteger errors = new AtomicInteger();
+    for (int i = 0; i < THREADS; i++) {
+      new Thread(() -> {
+        try {
+          start.await();
+          if (!"key".equals(fun.invoke("key"))) {
+            errors.incrementAndGet();
+          }
+        } catch (Throwable t) {
+          errors.incrementAndGet();
+        }
+        done.countDown();
+      }).start();
+    }
+    start.countDown();
+    done.await();
+    assertThat(errors.get(), is(0));
+    assertThat(CALLS.get(), is(1));
+    assertThat(memoizer.misses(), is(1L));
+    assertThat(memoizer.hits(), is((long) THREADS - 1));
+  }
+
+  @Test
+  public void failures_are_not_cached() throws Throwable {
+    CALLS.set(0);
+    Memoizer memoizer = Memoizer.unbounded();
+    FunctionReference fun = memoized(memoizer, "failing");
+    for (int i = 0; i < 2; i++) {
+      try {
+        fun.invoke(1);
+        throw new AssertionError("An IllegalStateException was expected");
+      } catch (IllegalStateException expected) {
+        assertThat(expected.getMessage(), is("1"));
+      }
+    }
+    assertThat(CALLS.get(), is(2));
+    assertThat(memoizer.size(), is(0));
+  }
+
+  @Test
+  public void decorations_are_shared() throws Throwable {
+    CALLS.set(0);
+    Memoizer memoizer = Memoizer.unbounded();
+    FunctionReference first = memoized(memoizer, "identity");
+    FunctionReference second = memoized(memoizer, "identity");
+    first.invoke("a");
+    second.invoke("a");
+    second.invoke((Object) null);
+    first.invoke((Object) null);
+    assertThat(CALLS.get(), is(2));
+    assertThat(memoizer.size(), is(2));
+    memoizer.clear();
+    first.invoke("a");
+    assertThat(CALLS.get(), is(3));
+  }
+
+  @Test
+  public void bounded_and_expiring() throws Throwable {
+    CALLS.set(0);
+    Memoizer memoizer = Memoizer.bounded(100, 50, TimeUnit.MILLISECONDS);
+    FunctionReference fun = memoized(memoizer, "identity");
+    for (int i = 0; i < 1000; i++) {
+      fun.invoke(i);
+    }
+    assertThat(memoizer.size(), lessThanOrEqualTo(100 + 15));
+    assertThat(memoizer.evictions(), greaterThanOrEqualTo(1000L - 100 - 15));
+    fun.invoke(999);
+    assertThat(CALLS.get(), is(1000));
+    Thread.sleep(100);
+    fun.invoke(999);
+    assertThat(CALLS.get(), is(1001));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void negative_size() {
+    Memoizer.bounded(-1);
+  }
+
+  @Test
+  public void golo_tests() throws Throwable {
+    run("memoizer");
+  }
+}
@@ -12,8 +12,16 @@ package gololang;
 
 import org.testng.annotations.Test;
 
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.nullValue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class ObservableTest {
@@ -71,4 +79,99 @@ public class ObservableTest {
     assertThat(filtering.get(), is((Object) 4));
     assertThat(mapping.get(), is((Object) 40));
   }
+
+  @Test
+  public void remove_observer() {
+    Observable observable = new Observable(0);
+    AtomicInteger calls = new AtomicInteger();
+    Observable.Observer first = value -> calls.incrementAndGet();
+    Observable.Observer second = value -> calls.addAndGet(10);
+    observable.onChange(first).onChange(second);
+    observable.set(1);
+    assertThat(calls.get(), is(11));
+    observable.removeObserver(first).removeObserver(first);
+    observable.set(2);
+    assertThat(calls.get(), is(21));
+  }
+
+  @Test(timeOut = 10000)
+  public void concurrent_registrations() throws InterruptedException {
+    final Observable observable = new Observable(0);
+    final AtomicInteger calls = new AtomicInteger();
+    final int THREADS = 8;
+    final int PER_THREAD = 500;
+    final CountDownLatch done = new CountDownLatch(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      new Thread(() -> {
+        for (int i = 0; i < PER_THREAD; i++) {
+          observable.onChange(value -> calls.incrementAndGet());
+          observable.set(i);
+        }
+        done.countDown();
+      }).start();
+    }
+    done.await();
+    calls.set(0);
+    observable.set(42);
+    assertThat(calls.get(), is(THREADS * PER_THREAD));
+  }
+
+  @Test(timeOut = 10000)
+  public void asynchronous_notifications_are_coalesced() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Observable observable = new Observable(0, executor);
+    assertThat(observable.isAsynchronous(), is(true));
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Object> received = Collections.synchronizedList(new ArrayList<>());
+    observable.onChange(value -> {
+      blocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(value);
+    });
+    observable.set(1);
+    blocked.await();
+    for (int i = 2; i <= 1000; i++) {
+      observable.set(i);
+    }
+    assertThat(observable.get(), is((Object) 1000));
+    release.countDown();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!received.contains(1000) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+    assertThat(received, contains((Object) 1, 1000));
+  }
+
+  @Test(timeOut = 10000)
+  public void slow_asynchronous_observer_does_not_block_writers() throws InterruptedException {
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Observable observable = new Observable(0, executor);
+    final CountDownLatch release = new CountDownLatch(1);
+    observable.onChange(value -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Observable mapped = observable.map(value -> ((Integer) value) * 2);
+    for (int i = 0; i < 100; i++) {
+      observable.set(i);
+    }
+    assertThat(observable.get(), is((Object) 99));
+    release.countDown();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!Integer.valueOf(198).equals(mapped.get()) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(mapped.get(), is((Object) 198));
+    executor.shutdown();
+  }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+import org.eclipse.golo.internal.testing.GoloTest;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PersistentCollectionsTest extends GoloTest {
+
+  @Override
+  public String srcDir() {
+    return "for-test/";
+  }
+
+  @Test
+  public void vector_append_and_get() {
+    PersistentVector v = PersistentVector.empty();
+    List<Object> reference = new ArrayList<>();
+    for (int i = 0; i < 40_000; i++) {
+      v = v.append(i);
+      reference.add(i);
+    }
+    assertThat(v.size(), is(40_000));
+    for (int i = 0; i < 40_000; i++) {
+      assertThat(v.get(i), is(i));
+    }
+    assertThat(v, is(reference));
+    assertThat(reference, is((List<Object>) v));
+    assertThat(v.hashCode(), is(reference.hashCode()));
+    assertThat(Arrays.asList(v.toArray()), is(reference));
+    assertThat(PersistentVector.fromIterable(reference), is(v));
+    assertThat(PersistentVector.of(reference.toArray()), is(v));
+  }
+
+  @Test
+  public void vector_structural_sharing() {
+    PersistentVector v1 = PersistentVector.of(1, 2, 3);
+    PersistentVector v2 = v1.append(4).update(0, 0);
+    assertThat(v1, contains(1, 2, 3));
+    assertThat(v2, contains(0, 2, 3, 4));
+
+    PersistentVector big = PersistentVector.fromIterable(new IntRange(0, 5000));
+    PersistentVector updated = big.update(42, "a").update(4999, "b");
+    assertThat(big.get(42), is(42));
+    assertThat(big.get(4999), is(4999));
+    assertThat(updated.get(42), is("a"));
+    assertThat(updated.get(4999), is("b"));
+    assertThat(updated.get(43), is(43));
+  }
+
+  @Test
+  public void vector_pop() {
+    int size = 33 * 32 + 5;
+    PersistentVector v = PersistentVector.fromIterable(new IntRange(0, size));
+    for (int i = size; i > 0; i--) {
+      assertThat(v.size(), is(i));
+      assertThat(v.get(i - 1), is(i - 1));
+      v = v.pop();
+    }
+    assertThat(v.isEmpty(), is(true));
+    assertThat(v, is(PersistentVector.empty()));
+  }
+
+  @Test(expectedExceptions = NoSuchElementException.class)
+  public void vector_pop_empty() {
+    PersistentVector.empty().pop();
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void vector_out_of_bounds() {
+    PersistentVector.of(1, 2).get(2);
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void vector_is_immutable() {
+    PersistentVector.of(1, 2).add(3);
+  }
+
+  @Test
+  public void vector_concat_and_iterator() {
+    PersistentVector v = PersistentVector.of(1, 2, 3).concat(new IntRange(4, 100));
+    int expected = 1;
+    for (Object o : v) {
+      assertThat(o, is(expected++));
+    }
+    assertThat(expected, is(100));
+    assertThat(v.toString(), startsWith("pvector[1, 2, 3, 4"));
+  }
+
+  @Test
+  public void map_add_get_delete() {
+    PersistentMap m = PersistentMap.empty();
+    Map<Object, Object> reference = new HashMap<>();
+    for (int i = 0; i < 20_000; i++) {
+      m = m.add("k" + i, i);
+      reference.put("k" + i, i);
+    }
+    assertThat(m.size(), is(20_000));
+    assertThat(m, is(reference));
+    assertThat(reference, is((Map<Object, Object>) m));
+    assertThat(m.hashCode(), is(reference.hashCode()));
+    assertThat(m.get("k1234"), is(1234));
+    assertThat(m.get("nope"), nullValue());
+    assertThat(m.containsKey("k19999"), is(true));
+
+    PersistentMap smaller = m;
+    for (int i = 0; i < 20_000; i += 2) {
+      smaller = smaller.delete("k" + i);
+    }
+    assertThat(smaller.size(), is(10_000));
+    assertThat(smaller.containsKey("k2"), is(false));
+    assertThat(smaller.get("k3"), is(3));
+    assertThat(m.get("k2"), is(2));
+    assertThat(smaller.delete("nope"), sameInstance(smaller));
+  }
+
+  @Test
+  public void map_persistence() {
+    PersistentMap m1 = PersistentMap.of(new Tuple("a", 1));
+    PersistentMap m2 = m1.add("b", 2).add("a", 10);
+    assertThat(m1.size(), is(1));
+    assertThat(m1.get("a"), is(1));
+    assertThat(m2.size(), is(2));
+    assertThat(m2.get("a"), is(10));
+    assertThat(m2.add("b", 2), sameInstance(m2));
+    assertThat(m1.delete("a"), is(PersistentMap.empty()));
+  }
+
+  @Test
+  public void map_null_key_and_value() {
+    PersistentMap m = PersistentMap.empty().add(null, "n").add("x", null);
+    assertThat(m.get(null), is("n"));
+    assertThat(m.containsKey("x"), is(true));
+    assertThat(m.get("x"), nullValue());
+    assertThat(m.getOrDefault("y", 42), is(42));
+    assertThat(m.delete(null).containsKey(null), is(false));
+  }
+
+  private static final class Colliding {
+    private final int id;
+
+    Colliding(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Colliding && ((Colliding) other).id == id;
+    }
+  }
+
+  @Test
+  public void map_hash_collisions() {
+    PersistentMap m = PersistentMap.empty().add("other", 0);
+    for (int i = 0; i < 10; i++) {
+      m = m.add(new Colliding(i), i);
+    }
+    assertThat(m.size(), is(11));
+    for (int i = 0; i < 10; i++) {
+      assertThat(m.get(new Colliding(i)), is(i));
+    }
+    for (int i = 0; i < 10; i++) {
+      m = m.delete(new Colliding(i));
+    }
+    assertThat(m.size(), is(1));
+    assertThat(m.get("other"), is(0));
+  }
+
+  @Test
+  public void set_include_exclude() {
+    PersistentSet s1 = PersistentSet.of(1, 2, 3);
+    PersistentSet s2 = s1.include(4).exclude(1);
+    assertThat(s1, containsInAnyOrder(1, 2, 3));
+    assertThat(s2, containsInAnyOrder(2, 3, 4));
+    assertThat(s1.include(2), sameInstance(s1));
+    assertThat(s1.contains(4), is(false));
+    assertThat(s2, is((Set<Object>) new HashSet<Object>(Arrays.asList(2, 3, 4))));
+    assertThat(s2.hashCode(), is(new HashSet<Object>(Arrays.asList(2, 3, 4)).hashCode()));
+    assertThat(PersistentSet.fromIterable(Arrays.asList(2, 4, 3, 2)), is(s2));
+  }
+
+  @Test
+  public void golo_tests() throws Throwable {
+    run("persistent-collections");
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+import org.eclipse.golo.internal.testing.GoloTest;
+
+import java.lang.invoke.MethodHandles;
+import java.util.*;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PrimitiveCollectionsTest extends GoloTest {
+
+  @Override
+  public String srcDir() {
+    return "for-test/";
+  }
+
+  public static int twice(int x) {
+    return 2 * x;
+  }
+
+  public static boolean isEven(int x) {
+    return x % 2 == 0;
+  }
+
+  public static long square(int x) {
+    return (long) x * x;
+  }
+
+  public static double half(long x) {
+    return x / 2.0;
+  }
+
+  public static long floor(double x) {
+    return (long) Math.floor(x);
+  }
+
+  private static FunctionReference function(String name, Class<?> returnType, Class<?> argumentType) throws Throwable {
+    return new FunctionReference(MethodHandles.lookup().findStatic(
+          PrimitiveCollectionsTest.class, name, methodType(returnType, argumentType)));
+  }
+
+  @Test
+  public void int_list() throws Throwable {
+    IntVector list = new IntVector();
+    for (int i = 0; i < 1000; i++) {
+      list.addInt(i);
+    }
+    assertThat(list.size(), is(1000));
+    assertThat(list.getInt(999), is(999));
+    assertThat(list.get(10), is(10));
+    assertThat(list.sum(), is(499_500L));
+    assertThat(list.min(), is(0));
+    assertThat(list.max(), is(999));
+    assertThat(list.average(), is(499.5));
+    assertThat(list.contains(42), is(true));
+    assertThat(list.contains(42L), is(false));
+    assertThat(list.removeIntAt(0), is(0));
+    assertThat(list.getInt(0), is(1));
+    list.add(0, 0);
+    assertThat(list.indexOf(0), is(0));
+    assertThat(list.intStream().sum(), is(499_500));
+
+    FunctionReference twice = new FunctionReference(
+        MethodHandles.lookup().findStatic(PrimitiveCollectionsTest.class, "twice", methodType(int.class, int.class)));
+    FunctionReference even = new FunctionReference(
+        MethodHandles.lookup().findStatic(PrimitiveCollectionsTest.class, "isEven", methodType(boolean.class, int.class)));
+    IntVector small = IntVector.of(1, 2, 3, 4);
+    assertThat(small.map(twice), is(IntVector.of(2, 4, 6, 8)));
+    assertThat(small.filter(even), is(IntVector.of(2, 4)));
+  }
+
+  @Test
+  public void map_with_another_primitive_return_type() throws Throwable {
+    assertThat(IntVector.of(1, 2, 3).mapInt(function("square", long.class, int.class)), is(IntVector.of(1, 4, 9)));
+    assertThat(DoubleVector.of(1.5, 2.5).mapDouble(function("floor", long.class, double.class)), is(DoubleVector.of(1.0, 2.0)));
+
+    List<?> squares = IntVector.of(1, 2, 3).map(function("square", long.class, int.class));
+    assertThat(squares, instanceOf(ArrayList.class));
+    assertThat(squares, contains(1L, 4L, 9L));
+    List<?> halves = LongVector.of(2L, 5L).map(function("half", double.class, long.class));
+    assertThat(halves, instanceOf(ArrayList.class));
+    assertThat(halves, contains(1.0, 2.5));
+    assertThat(IntVector.of(1, 2, 3).map(function("twice", int.class, int.class)), is(IntVector.of(2, 4, 6)));
+  }
+
+  @Test
+  public void int_list_is_a_list() {
+    IntVector list = IntVector.of(3, 1, 2);
+    List<Integer> reference = Arrays.asList(3, 1, 2);
+    assertThat(list, is((List<Integer>) reference));
+    assertThat(reference, is((List<Integer>) list));
+    assertThat(list.hashCode(), is(reference.hashCode()));
+    Collections.sort(list);
+    assertThat(list, contains(1, 2, 3));
+    assertThat(list.toString(), is("ivector[1, 2, 3]"));
+    list.clear();
+    assertThat(list.isEmpty(), is(true));
+  }
+
+  @Test(expectedExceptions = NoSuchElementException.class)
+  public void empty_min() {
+    new IntVector().min();
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void out_of_bounds() {
+    IntVector list = new IntVector(10);
+    list.addInt(1);
+    list.getInt(1);
+  }
+
+  @Test
+  public void long_and_double_lists() {
+    LongVector longs = LongVector.of(1L << 40, 1L);
+    assertThat(longs.sum(), is((1L << 40) + 1));
+    assertThat(longs, contains(1L << 40, 1L));
+    assertThat(longs.longStream().max().getAsLong(), is(1L << 40));
+
+    DoubleVector doubles = DoubleVector.of(1.0, 2.5, Double.NaN);
+    assertThat(doubles.indexOfDouble(Double.NaN), is(2));
+    assertThat(doubles, is((List<Double>) Arrays.asList(1.0, 2.5, Double.NaN)));
+    assertThat(doubles.removeDoubleAt(2), is(Double.NaN));
+    assertThat(doubles.sum(), is(3.5));
+    assertThat(doubles.average(), is(1.75));
+    assertThat(DoubleVector.fromIterable(Arrays.asList(1, 2L, 3.5f)), contains(1.0, 2.0, 3.5));
+  }
+
+  @Test
+  public void int_map() {
+    IntMap map = new IntMap();
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(map.put(i * 7, "v" + i), nullValue());
+    }
+    assertThat(map.size(), is(10_000));
+    assertThat(map.get(7 * 1234), is("v1234"));
+    assertThat(map.get(3), nullValue());
+    assertThat(map.getOrElse(3, "none"), is("none"));
+    assertThat(map.put(0, "zero"), is("v0"));
+    for (int i = 0; i < 10_000; i += 2) {
+      assertThat(map.remove(i * 7), notNullValue());
+    }
+    assertThat(map.size(), is(5_000));
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(map.containsKey(i * 7), is(i % 2 == 1));
+    }
+    assertThat(map.keys().length, is(5_000));
+    assertThat(map.values().size(), is(5_000));
+    int count = 0;
+    for (Tuple entry : map) {
+      assertThat(entry.get(1), is("v" + ((Integer) entry.get(0) / 7)));
+      count++;
+    }
+    assertThat(count, is(5_000));
+  }
+
+  @Test
+  public void int_map_equality() {
+    IntMap a = IntMap.of(new Tuple(1, "a"), new Tuple(2, null));
+    IntMap b = new IntMap().add(2, null).add(1, "a");
+    assertThat(a, is(b));
+    assertThat(a.hashCode(), is(b.hashCode()));
+    assertThat(a.add(3, "c"), not(is(b)));
+    assertThat(b.delete(1).delete(2).isEmpty(), is(true));
+  }
+
+  @Test
+  public void golo_tests() throws Throwable {
+    run("primitive-collections");
+  }
+}
@@ -153,5 +153,42 @@ public class TupleTest {
     assertThat(n, is(new Tuple(3, 4)));
     assertThat(e, is(new Tuple(1, 2, 3, 4)));
   }
-}
 
+  @Test
+  public void specialised_tuples() {
+    for (int size = 0; size < 7; size++) {
+      Object[] values = new Object[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = i % 2 == 0 ? Integer.valueOf(i) : null;
+      }
+      Tuple specialised = Tuple.fromArray(values);
+      Tuple generic = new Tuple(values);
+      assertThat(specialised.size(), is(size));
+      assertThat(specialised, is(generic));
+      assertThat(generic, is(specialised));
+      assertThat(specialised.hashCode(), is(generic.hashCode()));
+      assertThat(specialised.hashCode(), is(java.util.Arrays.hashCode(values)));
+      assertThat(specialised.toString(), is(generic.toString()));
+      assertThat(specialised.toArray(), is(values));
+      assertThat(specialised.tail(), is(generic.tail()));
+      assertThat(specialised.extend(1, 2), is(generic.extend(1, 2)));
+      for (int i = 0; i < size; i++) {
+        assertThat(specialised.get(i), is(values[i]));
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void specialised_above_size_index() {
+    Tuple.fromArray(new Object[]{1, 2}).get(2);
+  }
+
+  @Test
+  public void specialised_tuples_comparison() {
+    Tuple base = Tuple.fromArray(new Object[]{1, 2});
+    assertThat(base, comparesEqualTo(new Tuple(1, 2)));
+    assertThat(base, is(lessThan(Tuple.fromArray(new Object[]{1, 3}))));
+    assertThat(base, is(greaterThan(new Tuple(0, 5))));
+    assertThat(base, not(Tuple.fromArray(new Object[]{1, 2, 3})));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.benchmark;
+
+import org.eclipse.golo.internal.testing.GoloTest;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BenchmarkTest extends GoloTest {
+
+  @Override
+  public String srcDir() {
+    return "for-test/";
+  }
+
+  @Test
+  public void golo_tests() throws Throwable {
+    run("benchmark");
+  }
+
+  @Test
+  public void run_discovered_benchmarks() throws Throwable {
+    Map<String, BenchmarkFunction> benchmarks = BenchmarkRunner.discover(load("benchmark"));
+    BenchmarkResult result = BenchmarkRunner.run("sum", benchmarks.get("golotest.Benchmark.sum"));
+    assertThat(result.name(), is("sum"));
+    assertThat(result.forks(), is(0));
+    assertThat(result.operations(), greaterThan(0L));
+    assertThat(result.sampleCount(), greaterThan(0));
+    assertThat(result.sampleCount(), lessThanOrEqualTo(BenchmarkResult.MAX_SAMPLES));
+    assertThat(result.mean(), greaterThan(0.0));
+    assertThat(result.opsPerSecond(), greaterThan(0.0));
+    assertThat(result.percentile(0), lessThanOrEqualTo(result.percentile(50)));
+    assertThat(result.percentile(50), lessThanOrEqualTo(result.percentile(100)));
+  }
+
+  @Test
+  public void percentiles_and_merge() {
+    double[] samples = new double[100];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = 100 - i;
+    }
+    BenchmarkResult result = new BenchmarkResult("b", samples, samples.length, 1000, 50_000, 8000, 0);
+    assertThat(result.percentile(50), is(50.0));
+    assertThat(result.percentile(99), is(99.0));
+    assertThat(result.percentile(100), is(100.0));
+    assertThat(result.mean(), is(50.0));
+    assertThat(result.bytesPerOperation(), is(8.0));
+
+    BenchmarkResult merged = result.forked().merge(BenchmarkResult.fromMap(result.forked().toMap()));
+    assertThat(merged.forks(), is(2));
+    assertThat(merged.operations(), is(2000L));
+    assertThat(merged.sampleCount(), is(200));
+    assertThat(merged.percentile(50), is(50.0));
+    assertThat(merged.mean(), is(50.0));
+
+    BenchmarkResult unknown = new BenchmarkResult("b", samples, samples.length, 1000, 50_000, -1, 0);
+    assertThat(Double.isNaN(unknown.merge(result).bytesPerOperation()), is(true));
+  }
+
+  @Test
+  public void samples_are_bounded() {
+    double[] samples = new double[BenchmarkResult.MAX_SAMPLES * 3];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = i;
+    }
+    BenchmarkResult result = new BenchmarkResult("b", samples, samples.length, 1, 1, 0, 0);
+    assertThat(result.sampleCount(), is(BenchmarkResult.MAX_SAMPLES));
+    assertThat(result.percentile(0), is(0.0));
+    assertThat(result.percentile(100), is((double) samples.length - 1));
+    assertThat(result.percentile(50), closeTo(samples.length / 2.0, samples.length / 100.0));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void invalid_options() {
+    BenchmarkOptions.DEFAULT.iterations(0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void missing_setup() throws Throwable {
+    BenchmarkRunner.run("sum", BenchmarkRunner.discover(load("benchmark")).get("golotest.Benchmark.sum").target(),
+        BenchmarkOptions.DEFAULT.forks(0));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ExecutorServicesTest {
+
+  @Test
+  public void work_stealing() throws Throwable {
+    ExecutorService executor = ExecutorServices.workStealing(2);
+    assertThat(executor, instanceOf(ForkJoinPool.class));
+    assertThat(((ForkJoinPool) executor).getAsyncMode(), is(true));
+    assertThat(((ForkJoinPool) executor).getParallelism(), is(2));
+    Promise p = new Promise();
+    ExecutorServices.submit(executor, () -> "Plop", p);
+    assertThat(p.blockingGet(), is((Object) "Plop"));
+    executor.shutdown();
+  }
+
+  @Test
+  public void virtual_threads() {
+    if (ExecutorServices.hasVirtualThreads()) {
+      ExecutorService executor = ExecutorServices.virtualThreadPerTask();
+      assertThat(executor.isShutdown(), is(false));
+      executor.shutdown();
+    } else {
+      try {
+        ExecutorServices.virtualThreadPerTask();
+        throw new AssertionError("An UnsupportedOperationException was expected");
+      } catch (UnsupportedOperationException expected) {
+        assertThat(expected.getMessage(), containsString("Virtual threads"));
+      }
+    }
+  }
+
+  @Test
+  public void submit_failure() throws Throwable {
+    ExecutorService executor = ExecutorServices.workStealing(1);
+    Promise p = new Promise();
+    ExecutorServices.submit(executor, () -> {
+      throw new IllegalStateException("w00t");
+    }, p);
+    Object result = p.blockingGet();
+    assertThat(p.isFailed(), is(true));
+    assertThat(result, instanceOf(ExecutionException.class));
+    assertThat(((Throwable) result).getCause(), instanceOf(IllegalStateException.class));
+    executor.shutdown();
+  }
+
+  @Test
+  public void submit_cancellation() throws Throwable {
+    ExecutorService executor = ExecutorServices.workStealing(1);
+    CountDownLatch latch = new CountDownLatch(1);
+    executor.execute(() -> {
+      try {
+        latch.await();
+      } catch (InterruptedException ignored) {
+      }
+    });
+    Promise p = new Promise();
+    java.util.concurrent.Future<Object> future = ExecutorServices.submit(executor, () -> "Plop", p);
+    assertThat(future.cancel(false), is(true));
+    assertThat(p.isResolved(), is(true));
+    assertThat(p.get(), instanceOf(CancellationException.class));
+    latch.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import gololang.FunctionReference;
+import gololang.error.Result;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FuturesTest {
+
+  public static Object concat(Object acc, Object next) {
+    return acc.toString() + next;
+  }
+
+  public static Object sum(Object acc, Object next) {
+    return (Long) acc + (Integer) next;
+  }
+
+  private static FunctionReference reducer(String name) throws Throwable {
+    return new FunctionReference(MethodHandles.lookup().findStatic(
+          FuturesTest.class, name, methodType(Object.class, Object.class, Object.class)));
+  }
+
+  private static List<Promise> promises(int count) {
+    List<Promise> promises = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      promises.add(new Promise());
+    }
+    return promises;
+  }
+
+  private static List<Future> futures(List<Promise> promises) {
+    List<Future> futures = new ArrayList<>(promises.size());
+    for (Promise promise : promises) {
+      futures.add(promise.future());
+    }
+    return futures;
+  }
+
+  /**
+   * Resolves the promises in a shuffled order from several threads, and waits for it to be done.
+   */
+  private static void resolveConcurrently(List<Promise> promises, int threads, boolean failOdds)
+      throws InterruptedException {
+    List<Integer> order = new ArrayList<>(promises.size());
+    for (int i = 0; i < promises.size(); i++) {
+      order.add(i);
+    }
+    Collections.shuffle(order);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      final int offset = t;
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (int i = offset; i < order.size(); i += threads) {
+          int index = order.get(i);
+          if (failOdds && index % 2 == 1) {
+            promises.get(index).fail(new IllegalStateException(String.valueOf(index)));
+          } else {
+            promises.get(index).set(index);
+          }
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  public void all_in_order() {
+    Future f = Futures.all(Arrays.asList(
+          AssignedFuture.setFuture("foo"),
+          AssignedFuture.failedFuture(new RuntimeException("w00t")),
+          AssignedFuture.setFuture(null)));
+    assertThat(f.isResolved(), is(true));
+    List<?> results = (List<?>) f.get();
+    assertThat(results.size(), is(3));
+    assertThat(results.get(0), is((Object) "foo"));
+    assertThat(results.get(1), instanceOf(RuntimeException.class));
+    assertThat(results.get(2), nullValue());
+    assertThat(Futures.all(Collections.emptyList()).get(), is((Object) Collections.emptyList()));
+  }
+
+  @Test(timeOut = 30000)
+  public void all_stress() throws Throwable {
+    for (int round = 0; round < 20; round++) {
+      List<Promise> promises = promises(10_000);
+      Future f = Futures.all(futures(promises));
+      resolveConcurrently(promises, 8, true);
+      List<?> results = (List<?>) f.blockingGet(10, TimeUnit.SECONDS);
+      assertThat(results.size(), is(10_000));
+      for (int i = 0; i < results.size(); i++) {
+        if (i % 2 == 1) {
+          assertThat(((Throwable) results.get(i)).getMessage(), is(String.valueOf(i)));
+        } else {
+          assertThat(results.get(i), is((Object) i));
+        }
+      }
+    }
+  }
+
+  @Test(timeOut = 30000)
+  public void all_settled_stress() throws Throwable {
+    List<Promise> promises = promises(10_000);
+    Future f = Futures.allSettled(futures(promises));
+    resolveConcurrently(promises, 8, true);
+    List<?> results = (List<?>) f.blockingGet(10, TimeUnit.SECONDS);
+    for (int i = 0; i < results.size(); i++) {
+      Result<?, ?> result = (Result<?, ?>) results.get(i);
+      assertThat(result.isError(), is(i % 2 == 1));
+      if (i % 2 == 0) {
+        assertThat(result.get(), is((Object) i));
+      }
+    }
+  }
+
+  @Test
+  public void any() throws Throwable {
+    List<Promise> promises = promises(3);
+    Future f = Futures.any(futures(promises));
+    promises.get(0).fail(new RuntimeException());
+    assertThat(f.isResolved(), is(false));
+    promises.get(2).set("ok");
+    promises.get(1).set("late");
+    assertThat(f.get(), is((Object) "ok"));
+
+    promises = promises(3);
+    f = Futures.any(futures(promises));
+    for (Promise p : promises) {
+      p.fail(new RuntimeException());
+    }
+    assertThat(f.get(), instanceOf(NoSuchElementException.class));
+    assertThat(Futures.any(Collections.emptyList()).get(), instanceOf(NoSuchElementException.class));
+  }
+
+  @Test
+  public void arrays_of_futures() throws Throwable {
+    Object[] futures = {AssignedFuture.setFuture(1), AssignedFuture.setFuture(2)};
+    assertThat(Futures.all(futures).get(), is((Object) Arrays.asList(1, 2)));
+    assertThat(((List<?>) Futures.allSettled(futures).get()).size(), is(2));
+    assertThat(Futures.any(futures).get(), is((Object) 1));
+    assertThat(Futures.race(futures).get(), is((Object) 1));
+    assertThat(Futures.reduce(futures, "", reducer("concat")).get(), is((Object) "12"));
+    assertThat(Futures.all(new Future[0]).get(), is((Object) Collections.emptyList()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void not_a_collection_of_futures() {
+    Futures.all(AssignedFuture.setFuture(1));
+  }
+
+  @Test(timeOut = 30000)
+  public void any_stress() throws Throwable {
+    for (int round = 0; round < 50; round++) {
+      List<Promise> promises = promises(1_000);
+      Future f = Futures.any(futures(promises));
+      resolveConcurrently(promises, 4, true);
+      Object value = f.blockingGet(10, TimeUnit.SECONDS);
+      assertThat((Integer) value % 2, is(0));
+    }
+  }
+
+  @Test
+  public void race() {
+    List<Promise> promises = promises(3);
+    Future f = Futures.race(futures(promises));
+    assertThat(f.isResolved(), is(false));
+    promises.get(1).fail(new IllegalStateException());
+    promises.get(0).set("late");
+    assertThat(f.get(), instanceOf(IllegalStateException.class));
+    assertThat(Futures.race(Arrays.asList(AssignedFuture.setFuture(1), new Promise().future())).get(), is((Object) 1));
+  }
+
+  @Test
+  public void reduce() throws Throwable {
+    List<Promise> promises = promises(3);
+    Future f = Futures.reduce(futures(promises), "", reducer("concat"));
+    promises.get(2).set("c");
+    promises.get(0).set("a");
+    assertThat(f.isResolved(), is(false));
+    promises.get(1).set("b");
+    assertThat(f.get(), is((Object) "abc"));
+
+    promises = promises(3);
+    f = Futures.reduce(futures(promises), "", reducer("concat"));
+    promises.get(1).fail(new IllegalStateException("fast"));
+    assertThat(f.isFailed(), is(true));
+    assertThat(((Throwable) f.get()).getMessage(), is("fast"));
+
+    assertThat(Futures.reduce(Collections.emptyList(), "init", reducer("concat")).get(), is((Object) "init"));
+  }
+
+  @Test(timeOut = 30000)
+  public void reduce_stress() throws Throwable {
+    List<Promise> promises = promises(10_000);
+    Future f = Futures.reduce(futures(promises), 0L, reducer("sum"));
+    resolveConcurrently(promises, 8, false);
+    assertThat(f.blockingGet(10, TimeUnit.SECONDS), is((Object) (10_000L * 9_999L / 2)));
+  }
+
+  @Test(timeOut = 5000)
+  public void timeout() throws Throwable {
+    Future expired = Futures.timeout(new Promise().future(), 10, TimeUnit.MILLISECONDS);
+    assertThat(expired.blockingGet(), instanceOf(TimeoutException.class));
+
+    Promise p = new Promise();
+    Future inTime = Futures.timeout(p.future(), 10, TimeUnit.SECONDS);
+    p.set("ok");
+    assertThat(inTime.get(), is((Object) "ok"));
+
+    Future resolved = AssignedFuture.setFuture(1);
+    assertThat(Futures.timeout(resolved, 0, TimeUnit.SECONDS), sameInstance(resolved));
+  }
+
+  @Test(timeOut = 60000)
+  public void throughput_over_100k_futures() throws Throwable {
+    final int COUNT = 100_000;
+    for (int round = 0; round < 5; round++) {
+      List<Promise> promises = promises(COUNT);
+      Future all = Futures.all(futures(promises));
+      Future reduced = Futures.reduce(futures(promises), 0L, reducer("sum"));
+      resolveConcurrently(promises, 4, false);
+      assertThat(((List<?>) all.blockingGet(10, TimeUnit.SECONDS)).size(), is(COUNT));
+      assertThat(reduced.blockingGet(10, TimeUnit.SECONDS), is((Object) ((long) COUNT * (COUNT - 1) / 2)));
+    }
+  }
+}
@@ -12,7 +12,13 @@ package gololang.concurrent.async;
 
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -150,4 +156,123 @@ public class PromiseTest {
     assertThat(i.get(), is(100));
     assertThat(future.get(), instanceOf(RuntimeException.class));
   }
+
+  @Test
+  public void observers_are_called_in_order() {
+    final Promise p = new Promise();
+    final List<Object> calls = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final int id = i;
+      p.future().onSet(value -> calls.add(id));
+    }
+    p.set(null);
+    assertThat(calls, contains((Object) 0, 1, 2, 3, 4));
+    assertThat(p.isResolved(), is(true));
+    assertThat(p.get(), nullValue());
+    p.future().onSet(value -> calls.add(value));
+    assertThat(calls.get(5), nullValue());
+  }
+
+  @Test(expectedExceptions = TimeoutException.class, timeOut = 5000)
+  public void timed_blocking_get() throws Exception {
+    new Promise().blockingGet(10, TimeUnit.MILLISECONDS);
+  }
+
+  @Test(timeOut = 5000)
+  public void timed_blocking_get_resolved() throws Exception {
+    final Promise p = new Promise();
+    new Thread(() -> p.set("Yes!")).start();
+    assertThat(p.future().blockingGet(5, TimeUnit.SECONDS), is((Object) "Yes!"));
+    assertThat(AssignedFuture.setFuture(1).blockingGet(0, TimeUnit.SECONDS), is((Object) 1));
+  }
+
+  @Test(expectedExceptions = InterruptedException.class, timeOut = 5000)
+  public void interrupted_blocking_get() throws Exception {
+    Thread.currentThread().interrupt();
+    new Promise().blockingGet();
+  }
+
+  @Test(timeOut = 10000)
+  public void cancelled_waiters_are_removed() throws Exception {
+    Promise p = new Promise();
+    p.future().onSet(v -> { });
+    for (int i = 0; i < 1000; i++) {
+      try {
+        p.blockingGet(1, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException expected) {
+        // the waiter gave up
+      }
+    }
+    Thread.currentThread().interrupt();
+    try {
+      p.blockingGet();
+    } catch (InterruptedException expected) {
+      // the waiter gave up
+    }
+    assertThat(p.pendingCount(), is(1));
+    p.set("Ok");
+    assertThat(p.blockingGet(1, TimeUnit.SECONDS), is((Object) "Ok"));
+    assertThat(p.pendingCount(), is(0));
+  }
+
+  @Test(timeOut = 10000)
+  public void concurrent_resolution_and_observation() throws InterruptedException {
+    final int THREADS = 8;
+    final int ROUNDS = 2_000;
+    for (int round = 0; round < ROUNDS; round++) {
+      final Promise p = new Promise();
+      final AtomicInteger calls = new AtomicInteger();
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(THREADS);
+      for (int t = 0; t < THREADS; t++) {
+        final int id = t;
+        new Thread(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          if (id % 2 == 0) {
+            p.set(id);
+          } else {
+            p.future().onSet(value -> calls.incrementAndGet());
+          }
+          done.countDown();
+        }).start();
+      }
+      start.countDown();
+      done.await();
+      assertThat(calls.get(), is(THREADS / 2));
+      assertThat((Integer) p.get() % 2, is(0));
+    }
+  }
+
+  @Test
+  public void completable_future_interop() throws Exception {
+    CompletableFuture<Object> source = new CompletableFuture<>();
+    Future future = new Promise().completeWith(source).future();
+    assertThat(future.isResolved(), is(false));
+    source.complete("Ok");
+    assertThat(future.get(), is((Object) "Ok"));
+
+    CompletableFuture<Object> failing = CompletableFuture.supplyAsync(() -> {
+      throw new IllegalStateException("Plop");
+    });
+    Future failed = new Promise().completeWith(failing.thenApply(x -> x)).future();
+    assertThat(failed.blockingGet(5, TimeUnit.SECONDS), instanceOf(IllegalStateException.class));
+
+    Promise p = new Promise();
+    CompletableFuture<Object> target = p.future().toCompletableFuture();
+    assertThat(target.isDone(), is(false));
+    p.set(42);
+    assertThat(target.get(), is((Object) 42));
+
+    CompletableFuture<Object> failedTarget = AssignedFuture.failedFuture(new RuntimeException("w00t")).toCompletableFuture();
+    try {
+      failedTarget.get();
+      throw new AssertionError("An ExecutionException was expected");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause().getMessage(), is("w00t"));
+    }
+  }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package gololang.concurrent.async;
+
+import gololang.error.Result;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TaskScopeTest {
+
+  @Test
+  public void join_in_fork_order() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(4);
+    for (int i = 0; i < 100; i++) {
+      int n = i;
+      scope.fork(() -> {
+        Thread.sleep(n % 3);
+        return n * n;
+      });
+    }
+    Result<List<Object>, Throwable> result = scope.join();
+    scope.close();
+    assertThat(result.isValue(), is(true));
+    List<Object> values = result.get();
+    assertThat(values.size(), is(100));
+    for (int i = 0; i < 100; i++) {
+      assertThat(values.get(i), is((Object) (i * i)));
+    }
+  }
+
+  @Test
+  public void first_failure_cancels_siblings() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(3);
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    AtomicInteger finished = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      scope.fork(() -> {
+        started.countDown();
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+        }
+        finished.incrementAndGet();
+        return null;
+      });
+    }
+    Future sibling = scope.fork(() -> "unused");
+    started.await();
+    scope.fork(() -> {
+      throw new IllegalStateException("boom");
+    });
+    Result<List<Object>, Throwable> result = scope.join();
+    assertThat(result.isError(IllegalStateException.class), is(true));
+    assertThat(scope.isCancelled(), is(true));
+    assertThat(interrupted.get(), is(true));
+    assertThat(finished.get(), is(2));
+    assertThat(sibling.isResolved(), is(true));
+    scope.close();
+  }
+
+  @Test
+  public void other_failures_are_suppressed() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(2);
+    CountDownLatch both = new CountDownLatch(2);
+    for (int i = 0; i < 2; i++) {
+      String message = "failure " + i;
+      scope.fork(() -> {
+        both.countDown();
+        both.await();
+        throw new RuntimeException(message);
+      });
+    }
+    Throwable failure = scope.join().toOptionalError().get();
+    scope.close();
+    assertThat(failure.getMessage(), startsWith("failure "));
+    assertThat(failure.getSuppressed().length, lessThanOrEqualTo(1));
+  }
+
+  @Test
+  public void cancelled_scope() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(1);
+    scope.cancel();
+    Future future = scope.fork(() -> "never");
+    Result<List<Object>, Throwable> result = scope.join();
+    scope.close();
+    assertThat(future.isFailed(), is(true));
+    assertThat(future.get(), instanceOf(CancellationException.class));
+    assertThat(result.isError(CancellationException.class), is(true));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "unobserved")
+  public void close_raises_unobserved_failure() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(1);
+    scope.fork(() -> {
+      throw new IllegalArgumentException("unobserved");
+    });
+    scope.close();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void no_fork_after_close() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(1);
+    scope.close();
+    scope.fork(() -> null);
+  }
+
+  @Test
+  public void shared_executor_is_not_shut_down() throws Throwable {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      TaskScope scope = new TaskScope(executor);
+      scope.fork(() -> 1);
+      scope.fork(() -> 2);
+      scope.close();
+      assertThat(executor.isShutdown(), is(false));
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void nested_forks_are_joined() throws Throwable {
+    TaskScope scope = TaskScope.withParallelism(2);
+    AtomicInteger count = new AtomicInteger();
+    scope.fork(() -> {
+      for (int i = 0; i < 10; i++) {
+        scope.fork(count::incrementAndGet);
+      }
+      return null;
+    });
+    Result<List<Object>, Throwable> result = scope.join();
+    scope.close();
+    assertThat(count.get(), is(10));
+    assertThat(result.get().size(), is(11));
+  }
+}
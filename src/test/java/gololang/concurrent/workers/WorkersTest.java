@@ -10,13 +10,23 @@
 
 package gololang.concurrent.workers;
 
+import gololang.concurrent.async.Future;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 
 public class WorkersTest {
 
@@ -53,4 +63,251 @@ public class WorkersTest {
     assertThat(counter.get() >= MAX, is(true));
     environment.shutdown();
   }
+
+  @Test
+  public void batch_size_keeps_the_order() throws InterruptedException {
+    final int MAX = 10_000;
+    final List<Object> received = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch done = new CountDownLatch(MAX);
+    WorkerEnvironment environment = WorkerEnvironment.builder().withBatchSize(32).withFixedThreadPool(4);
+    Port port = environment.spawnWorker(message -> {
+      received.add(message);
+      done.countDown();
+    });
+    for (int i = 0; i < MAX; i++) {
+      port.send(i);
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+    for (int i = 0; i < MAX; i++) {
+      assertThat(received.get(i), is((Object) i));
+    }
+    environment.shutdown();
+  }
+
+  @Test
+  public void batch_function() throws InterruptedException {
+    final int MAX = 1000;
+    final List<Object> received = Collections.synchronizedList(new ArrayList<>());
+    final AtomicInteger largest = new AtomicInteger(0);
+    final CountDownLatch done = new CountDownLatch(MAX);
+    WorkerEnvironment environment = WorkerEnvironment.builder().withBatchSize(16).withSingleThreadExecutor();
+    Port port = environment.spawnBatchWorker(messages -> {
+      assertThat(messages.isEmpty(), is(false));
+      largest.accumulateAndGet(messages.size(), Math::max);
+      received.addAll(messages);
+      for (int i = 0; i < messages.size(); i++) {
+        done.countDown();
+      }
+    });
+    for (int i = 0; i < MAX; i++) {
+      port.send(i);
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(largest.get(), lessThanOrEqualTo(16));
+    for (int i = 0; i < MAX; i++) {
+      assertThat(received.get(i), is((Object) i));
+    }
+    environment.shutdown();
+  }
+
+  @Test
+  public void time_slice() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(100);
+    WorkerEnvironment environment = WorkerEnvironment.builder()
+      .withBatchSize(1000)
+      .withTimeSlice(1)
+      .withSingleThreadExecutor();
+    Port port = environment.spawnWorker(message -> {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      done.countDown();
+    });
+    for (int i = 0; i < 100; i++) {
+      port.send(i);
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+    environment.shutdown();
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void invalid_batch_size() {
+    WorkerEnvironment.builder().withBatchSize(0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void invalid_time_slice() {
+    new Port(Executors.newSingleThreadExecutor(), message -> { }, 1, -1L);
+  }
+
+  @Test
+  public void bounded_array_queue() throws InterruptedException {
+    final BoundedArrayQueue queue = new BoundedArrayQueue(3);
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.poll(), nullValue());
+    for (int lap = 0; lap < 5; lap++) {
+      assertThat(queue.offer(1), is(true));
+      assertThat(queue.offer(2), is(true));
+      assertThat(queue.offer(3), is(true));
+      assertThat(queue.offer(4), is(false));
+      assertThat(queue.size(), is(3));
+      assertThat(queue.poll(), is((Object) 1));
+      assertThat(queue.poll(), is((Object) 2));
+      assertThat(queue.poll(), is((Object) 3));
+      assertThat(queue.poll(), nullValue());
+    }
+  }
+
+  @Test
+  public void bounded_array_queue_with_concurrent_producers() throws InterruptedException {
+    final int PRODUCERS = 4;
+    final int MAX = 50_000;
+    final BoundedArrayQueue queue = new BoundedArrayQueue(64);
+    Thread[] producers = new Thread[PRODUCERS];
+    for (int p = 0; p < PRODUCERS; p++) {
+      final int id = p;
+      producers[p] = new Thread(() -> {
+        for (int i = 0; i < MAX; i++) {
+          while (!queue.offer(new int[]{id, i})) {
+            Thread.yield();
+          }
+        }
+      });
+      producers[p].start();
+    }
+    int[] last = new int[PRODUCERS];
+    Arrays.fill(last, -1);
+    int received = 0;
+    while (received < PRODUCERS * MAX) {
+      int[] message = (int[]) queue.poll();
+      if (message != null) {
+        assertThat(message[1], is(last[message[0]] + 1));
+        last[message[0]] = message[1];
+        received++;
+      }
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void blocking_mailbox() throws InterruptedException {
+    final int MAX = 5_000;
+    final AtomicLong sum = new AtomicLong();
+    final CountDownLatch done = new CountDownLatch(MAX);
+    WorkerEnvironment environment = WorkerEnvironment.builder().withCapacity(8).withFixedThreadPool(2);
+    Port port = environment.spawnWorker(message -> {
+      sum.addAndGet((Integer) message);
+      done.countDown();
+    });
+    assertThat(port.capacity(), is(8));
+    for (int i = 0; i < MAX; i++) {
+      port.send(i);
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(sum.get(), is((long) MAX * (MAX - 1) / 2));
+    assertThat(port.droppedMessages(), is(0L));
+    environment.shutdown();
+  }
+
+  private static Port pausedPort(ExecutorService executor, CountDownLatch started, CountDownLatch gate,
+      List<Object> received, OverflowPolicy policy) {
+    return new Port(executor, message -> {
+      started.countDown();
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      received.add(message);
+    }, 1, 0L, 2, policy);
+  }
+
+  private static void awaitSize(List<Object> list, int size) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (list.size() < size && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static List<Object> overflow(OverflowPolicy policy, Object expectedAcceptance) throws Throwable {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch gate = new CountDownLatch(1);
+    List<Object> received = Collections.synchronizedList(new ArrayList<>());
+    Port port = pausedPort(executor, started, gate, received, policy);
+    port.send(0);
+    assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+    port.send(1).send(2);
+    Future accepted = port.offer(3);
+    assertThat(accepted.get(), is(expectedAcceptance));
+    assertThat(port.droppedMessages(), is(1L));
+    gate.countDown();
+    awaitSize(received, 3);
+    executor.shutdown();
+    return received;
+  }
+
+  @Test
+  public void drop_newest_mailbox() throws Throwable {
+    assertThat(overflow(OverflowPolicy.DROP_NEWEST, false), contains((Object) 0, 1, 2));
+  }
+
+  @Test
+  public void drop_oldest_mailbox() throws Throwable {
+    assertThat(overflow(OverflowPolicy.DROP_OLDEST, true), contains((Object) 0, 2, 3));
+  }
+
+  @Test
+  public void deferred_mailbox() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch gate = new CountDownLatch(1);
+    List<Object> received = Collections.synchronizedList(new ArrayList<>());
+    Port port = pausedPort(executor, started, gate, received, OverflowPolicy.DEFER);
+    List<Future> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(port.offer(i));
+    }
+    assertThat(futures.get(9).isResolved(), is(false));
+    gate.countDown();
+    for (Future future : futures) {
+      assertThat(future.blockingGet(), is((Object) Boolean.TRUE));
+    }
+    awaitSize(received, 10);
+    executor.shutdown();
+    assertThat(received, contains((Object) 0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    assertThat(port.droppedMessages(), is(0L));
+  }
+
+  @Test
+  public void work_stealing_keeps_the_order() throws InterruptedException {
+    final int PORTS = 16;
+    final int MAX = 2_000;
+    final CountDownLatch done = new CountDownLatch(PORTS * MAX);
+    final AtomicBoolean ordered = new AtomicBoolean(true);
+    WorkerEnvironment environment = WorkerEnvironment.builder().withBatchSize(8).withWorkStealingPool(4);
+    Port[] ports = new Port[PORTS];
+    for (int p = 0; p < PORTS; p++) {
+      final AtomicInteger expected = new AtomicInteger(0);
+      ports[p] = environment.spawnWorker(message -> {
+        if ((Integer) message != expected.getAndIncrement()) {
+          ordered.set(false);
+        }
+        done.countDown();
+      });
+    }
+    for (int i = 0; i < MAX; i++) {
+      for (Port port : ports) {
+        port.send(i);
+      }
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(ordered.get(), is(true));
+    environment.shutdown();
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.cli;
+
+import org.eclipse.golo.cli.command.ClasspathOption;
+import org.eclipse.golo.compiler.GoloCompiler;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class DaemonTest {
+
+  @Test
+  public void commands_status() throws Throwable {
+    Path temp = Files.createTempDirectory("golo-daemon");
+    Path info = temp.resolve("daemon.properties");
+    Path directory = new File("").getAbsoluteFile().toPath();
+    Path valid = temp.resolve("valid.golo");
+    Path invalid = temp.resolve("invalid.golo");
+    Files.write(valid, "module Valid\n\nfunction main = |args| -> null\n".getBytes(UTF_8));
+    Files.write(invalid, "module Invalid\n\nfunction main = |args| {\n".getBytes(UTF_8));
+    Path macros = temp.resolve("macros.golo");
+    Path user = temp.resolve("user.golo");
+    Path lib = temp.resolve("lib");
+    Files.write(macros, "module DaemonMacros\n\nmacro answer = -> gololang.ir.DSL.constant(42)\n".getBytes(UTF_8));
+    Files.write(user, "module DaemonUser\n\nimport DaemonMacros\n\nfunction get = -> &answer()\n".getBytes(UTF_8));
+    GoloFilesManager.withOutputDir(lib.toFile()).saveAll(new GoloCompiler().compile(macros.toFile()));
+
+    assertThat(Daemon.forward(info, directory, "check", valid.toString()), is(OptionalInt.empty()));
+
+    Daemon daemon = Daemon.start(directory, info, 1, false);
+    String classpath = System.getProperty(ClasspathOption.PROPERTY);
+    Thread server = new Thread(() -> {
+      try {
+        daemon.serve();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    server.start();
+    try {
+      assertThat(Files.exists(info), is(true));
+      assertThat(Daemon.forward(info, directory, "check", "--exit", valid.toString()), is(OptionalInt.of(0)));
+      assertThat(Daemon.forward(info, directory, "check", "--exit", invalid.toString()), is(OptionalInt.of(1)));
+      assertThat(Daemon.forward(info, directory, "compile", "--output", temp.toString(), valid.toString()), is(OptionalInt.of(0)));
+      assertThat(Files.exists(temp.resolve("Valid.class")), is(true));
+      assertThat(Daemon.forward(info, directory, "version"), is(OptionalInt.of(1)));
+      assertThat(Daemon.forward(info, directory, "golo", "--files", valid.toString()), is(OptionalInt.of(1)));
+
+      System.clearProperty(ClasspathOption.PROPERTY);
+      assertThat(Daemon.forward(info, directory, "check", "--exit", "--classpath", lib.toString(), user.toString()),
+          is(OptionalInt.of(0)));
+      assertThat(System.getProperty(ClasspathOption.PROPERTY), is(nullValue()));
+      assertThat(Daemon.forward(info, directory, "check", "--exit", user.toString()), is(OptionalInt.of(1)));
+      System.setProperty(ClasspathOption.PROPERTY, lib.toString());
+      assertThat(Daemon.forward(info, directory, "check", "--exit", user.toString()), is(OptionalInt.of(0)));
+      assertThat(System.getProperty(ClasspathOption.PROPERTY), is(lib.toString()));
+
+      assertThat(Daemon.status(info, directory), is(true));
+      assertThat(Daemon.status(info, temp), is(false));
+    } finally {
+      if (classpath == null) {
+        System.clearProperty(ClasspathOption.PROPERTY);
+      } else {
+        System.setProperty(ClasspathOption.PROPERTY, classpath);
+      }
+      Daemon.stop(info, directory);
+      server.join(10_000);
+    }
+    assertThat(server.isAlive(), is(false));
+    assertThat(System.getProperty(ClasspathOption.PROPERTY), is(classpath));
+    assertThat(Files.exists(info), is(false));
+    assertThat(Daemon.stop(info, directory), is(false));
+  }
+}
@@ -16,9 +16,17 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.eclipse.golo.compiler.IncrementalCompilation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
@@ -337,6 +345,48 @@ public class MainTest {
     }
   }
 
+  @Test
+  public void golo_compile_incremental() throws Throwable {
+    File src = Files.createTempDirectory("golo-src").toFile();
+    File output = Files.createTempDirectory("golo-out").toFile();
+    File macros = new File(src, "macros.golo");
+    File other = new File(src, "other.golo");
+    File user = new File(src, "user.golo");
+    File plain = new File(src, "plain.golo");
+    write(macros, "module inc.Macros\n\nmacro answer = -> gololang.ir.DSL.constant(42)\n");
+    write(other, "module inc.Other\n\nmacro answer = -> gololang.ir.DSL.constant(1)\n");
+    write(user, "module inc.User\n\nimport inc.Other\nimport inc.Macros\n\nfunction get = -> &answer()\n");
+    write(plain, "module inc.Plain\n\nfunction hello = -> \"hello\"\n");
+
+    assertThat(compileIncrementally(output, macros, other, user, plain),
+        is(new TreeSet<>(asList("inc.Macros", "inc.Other", "inc.Plain", "inc.User"))));
+    assertThat(new File(output, IncrementalCompilation.DEPENDENCIES_FILE).exists(), is(true));
+    assertThat(callGet(output), is((Object) 42));
+    assertThat(compileIncrementally(output, macros, other, user, plain).isEmpty(), is(true));
+
+    write(plain, "module inc.Plain\n\nfunction hello = -> \"hi\"\n");
+    assertThat(compileIncrementally(output, macros, other, user, plain), is(new TreeSet<>(asList("inc.Plain"))));
+
+    write(macros, "module inc.Macros\n\nmacro answer = -> gololang.ir.DSL.constant(4243)\n");
+    assertThat(compileIncrementally(output, macros, other, user, plain),
+        is(new TreeSet<>(asList("inc.Macros", "inc.User"))));
+    assertThat(callGet(output), is((Object) 4243));
+
+    write(user, "module inc.User\n\nimport inc.Other\nimport inc.Macros\n\nfunction get = -> &answer() + 1\n");
+    assertThat(compileIncrementally(output, macros, other, user, plain), is(new TreeSet<>(asList("inc.User"))));
+
+    plain.delete();
+    assertThat(compileIncrementally(output, macros, other, user).isEmpty(), is(true));
+    assertThat(new File(output, "inc/Plain.class").exists(), is(false));
+
+    // no changed source, but the module expanding the macros of the deleted one must be compiled again
+    macros.delete();
+    assertThat(compileIncrementally(output, other, user), is(new TreeSet<>(asList("inc.User"))));
+    assertThat(new File(output, "inc/Macros.class").exists(), is(false));
+    assertThat(callGet(output), is((Object) 2));
+    assertThat(compileIncrementally(output, other, user).isEmpty(), is(true));
+  }
+
   private void assertFreeFormProjectStructure(String projectRoot) {
     assertThat(new File(projectRoot + "/imports").exists(), is(true));
     assertThat(new File(projectRoot + "/jars").exists(), is(true));
@@ -383,6 +433,48 @@ public class MainTest {
     }
   }
 
+  private static void write(File file, String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(UTF_8));
+  }
+
+  private static Set<String> compileIncrementally(File output, File... sources) throws Throwable {
+    classFiles(output, new TreeSet<>(), true);
+    String[] args = new String[sources.length + 4];
+    args[0] = "compile";
+    args[1] = "--incremental";
+    args[2] = "--output";
+    args[3] = output.getPath();
+    for (int i = 0; i < sources.length; i++) {
+      args[i + 4] = sources[i].getPath();
+    }
+    Main.main(args);
+    return classFiles(output, new TreeSet<>(), false);
+  }
+
+  /**
+   * Returns the modules whose classes were written since the previous call with {@code reset}.
+   */
+  private static Set<String> classFiles(File dir, Set<String> modules, boolean reset) {
+    for (File file : dir.listFiles()) {
+      if (file.isDirectory()) {
+        classFiles(file, modules, reset);
+      } else if (file.getName().endsWith(".class")) {
+        if (reset) {
+          file.setLastModified(0L);
+        } else if (file.lastModified() != 0L) {
+          modules.add(file.getParentFile().getName() + "." + file.getName().replace(".class", ""));
+        }
+      }
+    }
+    return modules;
+  }
+
+  private static Object callGet(File output) throws Exception {
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, MainTest.class.getClassLoader())) {
+      return Class.forName("inc.User", true, loader).getMethod("get").invoke(null);
+    }
+  }
+
   private void delete(File f) {
     if (f.isDirectory()) {
       for (File c : f.listFiles()) {
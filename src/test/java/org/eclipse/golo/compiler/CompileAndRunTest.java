@@ -23,6 +23,7 @@ import org.eclipse.golo.internal.testing.GoloTest;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
@@ -1523,6 +1524,11 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat(results.get(0), is((Object) "foo"));
     assertThat(results.get(1), is((Object) "bar"));
     assertThat(results.get(2), instanceOf(RuntimeException.class));
+
+    results = (ArrayList<Object>) moduleClass.getMethod("check_all_array").invoke(null);
+    assertThat(results.size(), is(2));
+    assertThat(results.get(0), is((Object) "foo"));
+    assertThat(results.get(1), instanceOf(RuntimeException.class));
   }
 
   @Test
@@ -1558,6 +1564,60 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat(tuple.get(1), instanceOf(RuntimeException.class));
   }
 
+  @Test
+  public void async_features_enqueue() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "async-features.golo");
+
+    Method check_enqueue = moduleClass.getMethod("check_enqueue");
+    Object result = check_enqueue.invoke(null);
+    assertThat(result, instanceOf(Tuple.class));
+    Tuple tuple = (Tuple) result;
+    assertThat(tuple.size(), is(3));
+    assertThat(tuple.get(0), is((Object) "Ok!"));
+    assertThat(tuple.get(1), instanceOf(java.util.concurrent.CancellationException.class));
+    assertThat(tuple.get(2), instanceOf(Boolean.class));
+  }
+
+  @Test
+  public void async_features_executor_combinators() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "async-features.golo");
+
+    Method check_executor_combinators = moduleClass.getMethod("check_executor_combinators");
+    Object result = check_executor_combinators.invoke(null);
+    assertThat(result, instanceOf(Tuple.class));
+    Tuple tuple = (Tuple) result;
+    assertThat(tuple.size(), is(5));
+    assertThat(tuple.get(0), is((Object) "Ok!"));
+    assertThat(tuple.get(1), is((Object) "Ok?"));
+    assertThat(tuple.get(2), instanceOf(java.util.NoSuchElementException.class));
+    assertThat(tuple.get(3), is((Object) "Stage"));
+    assertThat(tuple.get(4), is((Object) "Back"));
+  }
+
+  @Test
+  public void async_features_settled_race_timeout() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "async-features.golo");
+
+    Method check = moduleClass.getMethod("check_settled_race_timeout");
+    Object result = check.invoke(null);
+    assertThat(result, instanceOf(Tuple.class));
+    Tuple tuple = (Tuple) result;
+    assertThat(tuple.size(), is(4));
+    assertThat(tuple.get(0), is((Object) "a"));
+    assertThat(tuple.get(1), is((Object) true));
+    assertThat(tuple.get(2), instanceOf(RuntimeException.class));
+    assertThat(tuple.get(3), instanceOf(java.util.concurrent.TimeoutException.class));
+  }
+
   @Test
   public void module_state() throws Throwable {
     Class<?> moduleClass = compileAndLoadGoloModule(SRC, "module-state.golo");
@@ -1590,6 +1650,55 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat(result, is(nullValue()));
   }
 
+  @Test
+  public void module_state_atomic() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "module-state-atomic.golo");
+    Field counter = moduleClass.getDeclaredField("counter");
+    assertThat(counter.getType(), is((Object) java.util.concurrent.atomic.AtomicReference.class));
+    assertThat(moduleClass.getDeclaredField("notAtomic").getType(), is((Object) Object.class));
+
+    Method reset = moduleClass.getMethod("reset");
+    reset.invoke(null);
+    assertThat(moduleClass.getMethod("concurrent_updates").invoke(null), is((Object) new Tuple(40_000, 80_000)));
+
+    reset.invoke(null);
+    assertThat(moduleClass.getMethod("compare_and_set").invoke(null), is((Object) new Tuple(true, false, 10, 10, 5, 15)));
+    assertThat(moduleClass.getMethod("from_augmentation").invoke(null), is((Object) 5));
+    assertThat(moduleClass.getMethod("cache_lookup", Object.class).invoke(null, 21), is((Object) 42));
+  }
+
+  @Test
+  public void module_state_atomic_shadowed() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "module-state-atomic-shadowed.golo");
+    assertThat(moduleClass.getMethod("defined").invoke(null), is((Object) new Tuple("defined", 0)));
+    assertThat(moduleClass.getMethod("intrinsic").invoke(null), is((Object) new Tuple(true, 3)));
+  }
+
+  @Test
+  public void module_state_atomic_imported_functions_do_not_shadow() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    for (boolean importedFirst : new boolean[]{true, false}) {
+      GoloClassLoader goloClassLoader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+      if (importedFirst) {
+        compileAndLoadGoloModule(SRC, "module-state-atomic-imported.golo", goloClassLoader);
+      }
+      Class<?> moduleClass = compileAndLoadGoloModule(SRC, "module-state-atomic-importer.golo", goloClassLoader);
+      if (!importedFirst) {
+        compileAndLoadGoloModule(SRC, "module-state-atomic-imported.golo", goloClassLoader);
+      }
+      assertThat(moduleClass.getMethod("unqualified").invoke(null), is((Object) new Tuple(0, 2)));
+      assertThat(moduleClass.getMethod("qualified").invoke(null), is((Object) new Tuple("imported", 2)));
+    }
+  }
+
   @Test
   public void decorators() throws Throwable {
 
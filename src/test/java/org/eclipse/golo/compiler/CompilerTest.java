@@ -44,6 +44,38 @@ public class CompilerTest {
     assertThat(expectedOutputFile.length() > 0, is(true));
   }
 
+  @Test
+  public void verify_compilation_profile() throws IOException, ParseException {
+    File sourceFile = new File("src/test/resources/for-parsing-and-compilation/simple-returns.golo");
+    GoloCompiler compiler = new GoloCompiler();
+    CompilationProfile profile = new CompilationProfile();
+    compiler.setProfile(profile);
+    int classes = compiler.compile(sourceFile).size();
+
+    assertThat(profile.modules().size(), is(1));
+    CompilationProfile.ModuleProfile module = profile.modules().iterator().next();
+    assertThat(module.module(), is("golotest.SimpleReturns"));
+    for (String phase : CompilationProfile.PHASES) {
+      assertThat(phase, module.nanos(phase) > 0, is(true));
+      assertThat(phase, module.nodes(phase) > 0, is(true));
+    }
+    assertThat(module.classes(), is(classes));
+    assertThat(module.bytecodeSize() > 0, is(true));
+    assertThat(profile.totalNanos(), is(module.totalNanos()));
+
+    module.macroExpanded("foo", 10);
+    module.macroExpanded("foo", 20);
+    assertThat(module.macroExpansions(), is(2));
+    assertThat(module.macros().get("foo").nanos(), is(30L));
+    assertThat(profile.toTable(5).contains("golotest.SimpleReturns"), is(true));
+    assertThat(profile.toTable(5).contains("&foo"), is(true));
+    assertThat(profile.toJson().startsWith("{\"modules\":[{\"source\":"), is(true));
+
+    compiler.setProfile(null);
+    compiler.compile(sourceFile);
+    assertThat(profile.modules().size(), is(1));
+  }
+
   @Test
   public void verify_compile_no_errors() throws IOException, ParseException {
     File okSourceFile = new File("src/test/resources/for-parsing-and-compilation/simple-returns.golo");
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
 import java.util.HashSet;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -206,6 +208,38 @@ public class DocumentationRenderingTest {
     check_html_macros(tempDir.resolve("docpackage/MyMacros.html"));
   }
 
+  @Test
+  public void html_processor_with_cache() throws Throwable {
+    Path tempDir = Files.createTempDirectory("foo");
+    File source = new File(SRC, "doc.golo");
+    DocumentationCache cache = DocumentationCache.load(tempDir, "html");
+    assertThat(cache.get(source) == null, is(true));
+    ModuleDocumentation doc = loadDoc(source);
+    cache.put(source, doc);
+    HtmlProcessor processor = new HtmlProcessor();
+    processor.setCache(cache);
+    processor.process(Collections.singleton(doc), tempDir);
+    cache.save();
+
+    Path page = tempDir.resolve("my/package/Documented.html");
+    String contents = IO.fileToText(page, "UTF-8");
+    FileTime old = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(page, old);
+
+    cache = DocumentationCache.load(tempDir, "html");
+    ModuleDocumentation cached = cache.get(source);
+    assertThat(cached.moduleName(), is("my.package.Documented"));
+    assertThat(cached.functions().size(), is(doc.functions().size()));
+    processor = new HtmlProcessor();
+    processor.setCache(cache);
+    processor.process(Collections.singleton(cached), tempDir);
+    assertThat(Files.getLastModifiedTime(page), is(old));
+    assertThat(IO.fileToText(page, "UTF-8"), is(contents));
+    assertThat(IO.fileToText(tempDir.resolve("index-all.html"), "UTF-8"),
+        containsString("<a href=\"my/package/Documented.html#with_doc_2\">with_doc(a, b)</a>"));
+    assertThat(cache.removedModules().isEmpty(), is(true));
+  }
+
   @Test
   public void ctags_processor() throws Throwable {
     CtagsProcessor processor = new CtagsProcessor();
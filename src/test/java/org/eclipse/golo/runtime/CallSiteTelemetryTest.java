@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CallSiteTelemetryTest {
+
+  @BeforeMethod
+  public void enable() {
+    CallSiteTelemetry.enable(true);
+  }
+
+  @AfterMethod
+  public void disable() {
+    CallSiteTelemetry.enable(false);
+  }
+
+  @Test
+  public void disabled_call_sites_are_not_instrumented() {
+    CallSiteTelemetry.enable(false);
+    MethodInvocationSupport.InlineCache callSite = (MethodInvocationSupport.InlineCache) MethodInvocationSupport.bootstrap(
+        lookup(), "toString", methodType(Object.class, Object.class), 0);
+    assertThat(callSite.telemetry, nullValue());
+  }
+
+  @Test
+  public void method_links_and_megamorphic_transition() throws Throwable {
+    CallSite callSite = MethodInvocationSupport.bootstrap(lookup(), "size", methodType(Object.class, Object.class), 0);
+    CallSiteTelemetry.Site site = ((MethodInvocationSupport.InlineCache) callSite).telemetry;
+    assertThat(site, notNullValue());
+    assertThat(site.kind(), is("method"));
+    assertThat(site.name(), is("size"));
+    assertThat(site.module(), is(CallSiteTelemetryTest.class.getName()));
+    assertThat(site.position(), startsWith("CallSiteTelemetryTest.java:"));
+
+    MethodHandle invoker = callSite.dynamicInvoker();
+    invoker.invoke(new ArrayList<>());
+    invoker.invoke(new ArrayList<>());
+    assertThat(site.links(), is(1L));
+    assertThat(site.depth(), is(1));
+    assertThat(site.isMegamorphic(), is(false));
+
+    List<Object> receivers = Arrays.asList(
+        new LinkedList<>(), new HashSet<>(), new TreeSet<>(), new HashMap<>(), new TreeMap<>(), new ArrayDeque<>(),
+        new Vector<>(), new LinkedHashMap<>());
+    for (Object receiver : receivers) {
+      invoker.invoke(receiver);
+    }
+    assertThat(site.isMegamorphic(), is(true));
+    assertThat(site.links(), is((long) receivers.size() + 1));
+    assertThat(site.resolutionNanos(), greaterThan(0L));
+    CallSiteTelemetry.Snapshot snapshot = CallSiteTelemetry.sites().stream()
+        .filter(s -> s.name().equals("size") && s.position().equals(site.position()))
+        .findFirst().get();
+    assertThat(snapshot.links(), is(site.links()));
+    assertThat(snapshot.isMegamorphic(), is(true));
+    assertThat(snapshot.toString(), is(site.toString()));
+  }
+
+  @Test
+  public void operator_relinks_and_failures() throws Throwable {
+    CallSite callSite = OperatorSupport.bootstrap(lookup(), "plus", methodType(Object.class, Object.class, Object.class), 2);
+    CallSiteTelemetry.Site site = ((OperatorSupport.MonomorphicInlineCache) callSite).telemetry;
+    MethodHandle invoker = callSite.dynamicInvoker();
+    invoker.invoke(1, 2);
+    invoker.invoke(1, 2);
+    invoker.invoke(1.0, 2.0);
+    assertThat(site.kind(), is("operator"));
+    assertThat(site.links(), is(2L));
+    assertThat(site.failures(), is(0L));
+
+    CallSiteTelemetry.resetStatistics();
+    assertThat(site.links(), is(0L));
+  }
+
+  @Test
+  public void function_and_closure_links() throws Throwable {
+    CallSite function = FunctionCallSupport.bootstrap(lookup(), "java#lang#Math#abs", methodType(Object.class, Object.class), 0);
+    function.dynamicInvoker().invoke(-1);
+    CallSiteTelemetry.Site functionSite = ((FunctionCallSupport.FunctionCallSite) function).telemetry;
+    assertThat(functionSite.kind(), is("function"));
+    assertThat(functionSite.name(), is("java.lang.Math.abs"));
+    assertThat(functionSite.links(), is(1L));
+
+    CallSite missing = FunctionCallSupport.bootstrap(lookup(), "missing", methodType(Object.class), 0);
+    try {
+      missing.dynamicInvoker().invoke();
+    } catch (NoSuchMethodError expected) {
+      assertThat(((FunctionCallSupport.FunctionCallSite) missing).telemetry.failures(), is(1L));
+    }
+
+    CallSite closure = ClosureCallSupport.bootstrap(lookup(), "closure", methodType(Object.class, FunctionReference.class, Object.class), 0);
+    FunctionReference abs = new FunctionReference(
+        lookup().findStatic(Math.class, "abs", methodType(int.class, int.class)));
+    closure.dynamicInvoker().invoke(abs, -1);
+    CallSiteTelemetry.Site closureSite = ((ClosureCallSupport.InlineCache) closure).telemetry;
+    assertThat(closureSite.kind(), is("closure"));
+    assertThat(closureSite.links(), is(1L));
+  }
+
+  @Test
+  public void management_bean() throws Throwable {
+    CallSite callSite = MethodInvocationSupport.bootstrap(lookup(), "toString", methodType(Object.class, Object.class), 0);
+    callSite.dynamicInvoker().invoke("golo");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(CallSiteTelemetry.OBJECT_NAME);
+    assertThat(server.isRegistered(name), is(true));
+    assertThat((Integer) server.getAttribute(name, "CallSiteCount"), greaterThan(0));
+    assertThat((Long) server.getAttribute(name, "LinkCount"), greaterThan(0L));
+    String[] top = (String[]) server.invoke(name, "topCallSites", new Object[]{100}, new String[]{"int"});
+    assertThat(top.length, greaterThan(0));
+    assertThat(CallSiteTelemetry.report(10), startsWith("Golo call sites: "));
+  }
+}
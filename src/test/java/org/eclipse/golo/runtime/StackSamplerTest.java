@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.eclipse.golo.compiler.GoloClassLoader;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StackSamplerTest {
+
+  private static final String SOURCE = String.join("\n",
+      "module golotest.Sampled",
+      "function spin = |deadline| {",
+      "  var n = 0",
+      "  while java.lang.System.currentTimeMillis() < deadline {",
+      "    n = n + 1",
+      "  }",
+      "  return n",
+      "}",
+      "function run = |millis| {",
+      "  let f = |d| -> spin(d)",
+      "  return f(java.lang.System.currentTimeMillis() + millis)",
+      "}",
+      "");
+
+  @Test
+  public void frame_labels() {
+    assertThat(StackSampler.frame(new StackTraceElement("foo.Bar", "baz", "bar.golo", 12), true, true),
+        is("foo.Bar::baz (bar.golo:12)"));
+    assertThat(StackSampler.frame(new StackTraceElement("foo.Bar", "baz", "bar.golo", 12), false, true),
+        is("foo.Bar::baz"));
+    assertThat(StackSampler.frame(new StackTraceElement("foo.Bar", "__$$_foo_closure_3", "bar.golo", 4), true, true),
+        is("foo.Bar::<closure> (bar.golo:4)"));
+    assertThat(StackSampler.frame(new StackTraceElement("java.util.ArrayList", "add", "ArrayList.java", 4), true, true),
+        is("java.util.ArrayList::add"));
+    assertThat(StackSampler.frame(new StackTraceElement("java.lang.invoke.LambdaForm$MH/1234", "invokeExact_MT", null, -1), true, true),
+        nullValue());
+    assertThat(StackSampler.frame(new StackTraceElement("org.eclipse.golo.runtime.OperatorSupport", "plus", "OperatorSupport.java", 4), true, true),
+        nullValue());
+    assertThat(StackSampler.frame(new StackTraceElement("org.eclipse.golo.runtime.OperatorSupport", "plus", "OperatorSupport.java", 4), true, false),
+        is("org.eclipse.golo.runtime.OperatorSupport::plus"));
+  }
+
+  @Test
+  public void sample_golo_code() throws Throwable {
+    Class<?> module = new GoloClassLoader().load("sampled.golo", new StringReader(SOURCE));
+    Thread worker = new Thread(() -> {
+      try {
+        module.getMethod("run", Object.class).invoke(null, 500L);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }, "golo-worker");
+    StackSampler sampler = new StackSampler(2).threadNames(true);
+    sampler.start();
+    worker.start();
+    worker.join();
+    sampler.stop();
+
+    assertThat(sampler.samples(), greaterThan(0L));
+    Map<String, Long> stacks = sampler.collapsed();
+    String workerStack = stacks.keySet().stream()
+      .filter(s -> s.startsWith("golo-worker;") && s.contains("golotest.Sampled::spin"))
+      .findFirst().orElseThrow(AssertionError::new);
+    assertThat(workerStack, containsString("golotest.Sampled::run (sampled.golo:11);golotest.Sampled::<closure> (sampled.golo:10);golotest.Sampled::spin (sampled.golo:"));
+    assertThat(workerStack, not(containsString("java.lang.invoke")));
+    assertThat(stacks.keySet(), everyItem(not(startsWith("golo-stack-sampler"))));
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    sampler.writeCollapsed(new PrintStream(buffer, true, "UTF-8"));
+    assertThat(buffer.toString("UTF-8"), containsString(workerStack + " " + stacks.get(workerStack) + "\n"));
+
+    sampler.reset();
+    assertThat(sampler.collapsed().isEmpty(), is(true));
+  }
+}
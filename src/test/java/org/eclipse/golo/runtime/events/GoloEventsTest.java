@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2020 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime.events;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.eclipse.golo.compiler.GoloClassLoader;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class GoloEventsTest {
+
+  private static final String SOURCE = String.join("\n",
+      "module golotest.Events",
+      "augment java.lang.String {",
+      "  function shout = |this| -> this: toUpperCase()",
+      "}",
+      "function run = -> java.lang.Math.abs(-1) + \"golo\": shout(): length()",
+      "");
+
+  @Test
+  public void disabled_events_are_not_created() {
+    assertThat(GoloEvents.beginPhase("parse", "foo.golo"), nullValue());
+    assertThat(GoloEvents.beginLink("function", "Foo", "bar"), nullValue());
+    assertThat(GoloEvents.beginLoad("foo.golo"), nullValue());
+    GoloEvents.endPhase(null, null, 0, 0, true);
+    GoloEvents.endLink(null, "linked");
+    GoloEvents.endLoad(null, null, 0, 0);
+  }
+
+  @Test
+  public void compilation_and_linking_events() throws Throwable {
+    if (!GoloEvents.isAvailable()) {
+      throw new SkipException("Flight Recorder is not available");
+    }
+    Path dump = Files.createTempFile("golo-events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("org.eclipse.golo.CompilationPhase");
+      recording.enable("org.eclipse.golo.Link");
+      recording.enable("org.eclipse.golo.ModuleLoad");
+      recording.start();
+      Class<?> module = new GoloClassLoader().load("events.golo", new StringReader(SOURCE));
+      assertThat(module.getMethod("run").invoke(null), is((Object) 5));
+      recording.stop();
+      recording.dump(dump);
+    }
+    List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+    Files.delete(dump);
+
+    List<String> phases = events.stream()
+      .filter(e -> e.getEventType().getName().equals("org.eclipse.golo.CompilationPhase"))
+      .map(e -> e.getString("phase"))
+      .collect(Collectors.toList());
+    assertThat(phases, hasItems("parse", "transform", "expand", "refine", "generate"));
+
+    RecordedEvent generate = events.stream()
+      .filter(e -> "generate".equals(e.getValue("phase")))
+      .findFirst().get();
+    assertThat(generate.getString("module"), is("golotest.Events"));
+    assertThat(generate.getLong("bytecodeSize"), greaterThan(0L));
+
+    List<String> links = events.stream()
+      .filter(e -> e.getEventType().getName().equals("org.eclipse.golo.Link"))
+      .map(e -> e.getString("kind") + " " + e.getString("target") + " " + e.getString("outcome"))
+      .collect(Collectors.toList());
+    assertThat(links, hasItems(
+          "function java.lang.Math.abs linked",
+          "method java.lang.String::shout linked",
+          "augmentation java.lang.String::shout linked"));
+
+    RecordedEvent load = events.stream()
+      .filter(e -> e.getEventType().getName().equals("org.eclipse.golo.ModuleLoad"))
+      .findFirst().get();
+    assertThat(load.getString("module"), is("golotest.Events"));
+    assertThat(load.getBoolean("succeeded"), is(true));
+  }
+}